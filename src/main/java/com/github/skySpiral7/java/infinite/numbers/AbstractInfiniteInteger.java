@@ -43,6 +43,8 @@ public abstract class AbstractInfiniteInteger<T extends AbstractInfiniteInteger<
 
    public abstract T multiply(T value);
 
+   public abstract T square();
+
    public abstract T multiplyByPowerOf2(long exponent);
 
    public abstract T multiplyByPowerOf2(BigInteger exponent);
@@ -61,6 +63,12 @@ public abstract class AbstractInfiniteInteger<T extends AbstractInfiniteInteger<
 
    public abstract T divideDropRemainder(T value);
 
+   public abstract T divideExact(long value);
+
+   public abstract T divideExact(BigInteger value);
+
+   public abstract T divideExact(T value);
+
    public abstract T divideByPowerOf2DropRemainder(long exponent);
 
    public abstract T divideByPowerOf2DropRemainder(BigInteger exponent);
@@ -89,6 +97,8 @@ public abstract class AbstractInfiniteInteger<T extends AbstractInfiniteInteger<
 
    public abstract byte signum();
 
+   public abstract long bitLength();
+
    public abstract boolean isNaN();
 
    public abstract boolean isInfinite();
@@ -2,7 +2,6 @@ package com.github.skySpiral7.java.infinite.numbers;
 
 import com.github.skySpiral7.java.infinite.util.BitWiseUtil;
 import com.github.skySpiral7.java.infinite.util.RadixUtil;
-import com.github.skySpiral7.java.iterators.DequeNodeIterator;
 import com.github.skySpiral7.java.iterators.ReadOnlyListIterator;
 import com.github.skySpiral7.java.numbers.NumberFormatException;
 import com.github.skySpiral7.java.staticSerialization.ObjectStreamReader;
@@ -17,6 +16,7 @@ import java.io.ObjectStreamException;
 import java.math.BigInteger;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.Random;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Stream;
@@ -26,14 +26,15 @@ import java.util.stream.StreamSupport;
  * <p>I don't have anything against BigInteger, it's fast and big, but it bugs me that there isn't another class that has no max size.
  * After searching the internet I found a few arbitrary-precision integers but all had a max size.
  * More recently I found <a href="http://mrob.com/pub/perl/hypercalc.html">HyperCalc</a> but that's still not infinite.
- * I understand that an array is faster than a linked list and that generating a security key is the only practical
- * way for a primitive long to max out but I wanted the option for infinite precision. And I had fun making it.</p>
+ * I understand that generating a security key is the only practical way for a primitive long to max out but I wanted
+ * the option for (nearly) infinite precision. And I had fun making it.</p>
  *
- * <p>BigInteger's maximum value (in JRE 1.8) is 2^(2^31-1) which is about 10^(10^8). Using long[] with each element being unsigned
- * would max out at 2^(64 * (2^31-1))-1 which is about 10^(10^10). The largest base 10 number a string can hold is
+ * <p>BigInteger's maximum value (in JRE 1.8) is 2^(2^31-1) which is about 10^(10^8). The largest base 10 number a string can hold is
  * 10^(2^31-1) which is about 10^(10^9) (base 255 has the same estimate). InfiniteInteger on the other hand
- * uses {@code DequeNode<Integer>} internally (which has no limit) each node is unsigned and
- * the nodes are in little endian order. Only integers are supported however there are also ±∞ and NaN defined.</p>
+ * uses {@code int[]} internally (originally a linked list but an array is much faster) each element is unsigned and
+ * the elements are in little endian order. Therefore it maxes out at about 2^(32 * (2^31-1)) which is about 10^(10^10)
+ * (which would take 8 GB of memory). Any operation that would go beyond that throws WillNotFitException.
+ * Only integers are supported however there are also ±∞ and NaN defined.</p>
  *
  * <p>Someone suggested I should name the class InfinInt but as much as I love puns I would like this class to be
  * taken seriously. There is very little effort put to being efficient therefore expect it to be slow.
@@ -106,7 +107,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
     */
    public static InfiniteInteger valueOf(final long value)
    {
-      return InfiniteInteger.valueOf(MutableInfiniteInteger.valueOf(value));
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.valueOf(value));
    }
 
    /**
@@ -118,7 +119,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
     */
    public static InfiniteInteger valueOf(final BigInteger value)
    {
-      return InfiniteInteger.valueOf(MutableInfiniteInteger.valueOf(value));
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.valueOf(value));
    }
 
    //There is no valueOf(InfiniteInteger) because that would be a no-op (no reason to make a copy)
@@ -133,15 +134,32 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
     */
    public static InfiniteInteger valueOf(final MutableInfiniteInteger value)
    {
-      if (value.isNaN()) return InfiniteInteger.NaN;
-      if (value.equals(MutableInfiniteInteger.POSITIVE_INFINITY)) return InfiniteInteger.POSITIVE_INFINITY;
-      if (value.equals(MutableInfiniteInteger.NEGATIVE_INFINITY)) return InfiniteInteger.NEGATIVE_INFINITY;
-
       if (value.equalValue(0)) return InfiniteInteger.ZERO;
       if (value.equalValue(1)) return InfiniteInteger.ONE;
       if (value.equalValue(2)) return InfiniteInteger.TWO;
 
-      return new InfiniteInteger(value.copy());
+      //copy doesn't copy the singletons
+      return InfiniteInteger.valueOfTemporary(value.copy());
+   }
+
+   /**
+    * Used internally instead of valueOf when the value is a temporary that nothing else references
+    * (such as the copy that an operation was performed on). Unlike valueOf, the value is wrapped without copying it.
+    *
+    * @param temporary the desired numeric value which must not be used afterwards
+    * @return a new InfiniteInteger or a defined singleton
+    */
+   private static InfiniteInteger valueOfTemporary(final MutableInfiniteInteger temporary)
+   {
+      if (temporary.isNaN()) return InfiniteInteger.NaN;
+      if (temporary.equals(MutableInfiniteInteger.POSITIVE_INFINITY)) return InfiniteInteger.POSITIVE_INFINITY;
+      if (temporary.equals(MutableInfiniteInteger.NEGATIVE_INFINITY)) return InfiniteInteger.NEGATIVE_INFINITY;
+
+      if (temporary.equalValue(0)) return InfiniteInteger.ZERO;
+      if (temporary.equalValue(1)) return InfiniteInteger.ONE;
+      if (temporary.equalValue(2)) return InfiniteInteger.TWO;
+
+      return new InfiniteInteger(temporary);
    }
 
    /**
@@ -196,7 +214,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    public static InfiniteInteger parseString(final String inputString, final int radix)
    {
       final MutableInfiniteInteger mutableInfiniteInteger = MutableInfiniteInteger.parseString(inputString, radix);
-      return InfiniteInteger.valueOf(mutableInfiniteInteger);
+      return InfiniteInteger.valueOfTemporary(mutableInfiniteInteger);
    }
 
    /**
@@ -224,7 +242,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
     */
    public static InfiniteInteger littleEndian(final long[] valueArray, final boolean isNegative)
    {
-      return InfiniteInteger.valueOf(MutableInfiniteInteger.littleEndian(valueArray, isNegative));
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.littleEndian(valueArray, isNegative));
    }
 
    /**
@@ -241,7 +259,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
     */
    public static InfiniteInteger bigEndian(final long[] valueArray, final boolean isNegative)
    {
-      return InfiniteInteger.valueOf(MutableInfiniteInteger.bigEndian(valueArray, isNegative));
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.bigEndian(valueArray, isNegative));
    }
 
    /**
@@ -260,7 +278,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
     */
    public static InfiniteInteger littleEndian(final Iterator<Long> valueIterator, final boolean isNegative)
    {
-      return InfiniteInteger.valueOf(MutableInfiniteInteger.littleEndian(valueIterator, isNegative));
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.littleEndian(valueIterator, isNegative));
    }
 
    /**
@@ -281,7 +299,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
     */
    public static InfiniteInteger bigEndian(final ListIterator<Long> valueIterator, final boolean isNegative)
    {
-      return InfiniteInteger.valueOf(MutableInfiniteInteger.bigEndian(valueIterator, isNegative));
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.bigEndian(valueIterator, isNegative));
    }
 
    /**
@@ -486,15 +504,13 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    }
 
    /**
-    * This method returns a read only list iterator of unknown size that iterates over the data of each of the nodes
-    * of this InfiniteInteger. Each node is unsigned and they are in little endian order.
-    * Calling nextIndex or previousIndex will return -1 and calling add, set, or remove will throw.
-    * Note that there might be more than Long.Max elements (or even max BigInteger!).
+    * This method returns a read only list iterator that iterates over each of the elements
+    * of this InfiniteInteger. Each element is unsigned and they are in little endian order.
+    * Calling add, set, or remove will throw.
     *
     * @throws UnsupportedOperationException if this is ±∞ or NaN
     * @see #magnitudeStream()
     * @see ReadOnlyListIterator
-    * @see DequeNodeIterator.IndexAgnosticValueIterator
     */
    @Override
    public ReadOnlyListIterator<Integer> magnitudeIterator()
@@ -503,11 +519,9 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    }
 
    /**
-    * This method returns a stream for the data of each of the nodes of this InfiniteInteger.
-    * Each node is unsigned and they are in little endian order.
-    * Note that there might be more than Long.Max elements (or even max BigInteger!).
-    * This method represents that there can be any number of elements better than magnitudeIterator.
-    * Streams are also naturally read only with unknown size.
+    * This method returns a stream for each of the elements of this InfiniteInteger.
+    * Each element is unsigned and they are in little endian order.
+    * Streams are naturally read only.
     *
     * @throws UnsupportedOperationException if this is ±∞ or NaN
     * @see #magnitudeIterator()
@@ -530,7 +544,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger add(final long value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().add(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().add(value));
    }
 
    /**
@@ -542,7 +556,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger add(final BigInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().add(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().add(value));
    }
 
    /**
@@ -555,7 +569,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger add(final InfiniteInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().add(value.baseNumber));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().add(value.baseNumber));
    }
 
    /**
@@ -570,7 +584,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger subtract(final long value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().subtract(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().subtract(value));
    }
 
    /**
@@ -582,7 +596,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger subtract(final BigInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().subtract(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().subtract(value));
    }
 
    /**
@@ -596,7 +610,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger subtract(final InfiniteInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().subtract(value.baseNumber));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().subtract(value.baseNumber));
    }
 
    /**
@@ -612,7 +626,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger multiply(final long value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().multiply(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().multiply(value));
    }
 
    /**
@@ -624,7 +638,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger multiply(final BigInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().multiply(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().multiply(value));
    }
 
    /**
@@ -638,7 +652,21 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger multiply(final InfiniteInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().multiply(value.baseNumber));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().multiply(value.baseNumber));
+   }
+
+   /**
+    * Returns an InfiniteInteger whose value is {@code (this * this)}. This is faster than
+    * {@code this.multiply(this)} since the square of a number needs about half as many partial products.
+    * Note that ±∞ squared is +∞.
+    *
+    * @return the result including +∞ and NaN
+    * @see #multiply(InfiniteInteger)
+    */
+   @Override
+   public InfiniteInteger square()
+   {
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().square());
    }
 
    /**
@@ -651,7 +679,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger multiplyByPowerOf2(final long exponent)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().multiplyByPowerOf2(exponent));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().multiplyByPowerOf2(exponent));
    }
 
    /**
@@ -663,7 +691,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger multiplyByPowerOf2(final BigInteger exponent)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().multiplyByPowerOf2(exponent));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().multiplyByPowerOf2(exponent));
    }
 
    /**
@@ -686,7 +714,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger multiplyByPowerOf2(final InfiniteInteger exponent)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().multiplyByPowerOf2(exponent.baseNumber));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().multiplyByPowerOf2(exponent.baseNumber));
    }
 
    @Override
@@ -708,15 +736,15 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    public IntegerQuotient<InfiniteInteger> divide(final InfiniteInteger value)
    {
       final IntegerQuotient<MutableInfiniteInteger> mutableAnswer = baseNumber.copy().divide(value.baseNumber);
-      return new IntegerQuotient<>(InfiniteInteger.valueOf(mutableAnswer.getWholeResult()),
-         InfiniteInteger.valueOf(mutableAnswer.getRemainder()));
+      return new IntegerQuotient<>(InfiniteInteger.valueOfTemporary(mutableAnswer.getWholeResult()),
+         InfiniteInteger.valueOfTemporary(mutableAnswer.getRemainder()));
    }
 
    //aka divideReturnWhole
    @Override
    public InfiniteInteger divideDropRemainder(final long value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().divideDropRemainder(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideDropRemainder(value));
    }
 
    /**
@@ -728,13 +756,43 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger divideDropRemainder(final BigInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().divideDropRemainder(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideDropRemainder(value));
    }
 
    @Override
    public InfiniteInteger divideDropRemainder(final InfiniteInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().divideDropRemainder(value.baseNumber));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideDropRemainder(value.baseNumber));
+   }
+
+   /**
+    * @see MutableInfiniteInteger#divideExact(MutableInfiniteInteger)
+    */
+   @Override
+   public InfiniteInteger divideExact(final long value)
+   {
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideExact(value));
+   }
+
+   /**
+    * @see MutableInfiniteInteger#divideExact(MutableInfiniteInteger)
+    */
+   @Override
+   public InfiniteInteger divideExact(final BigInteger value)
+   {
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideExact(value));
+   }
+
+   /**
+    * Divides when value is known to be a factor of this which is faster than {@link #divideDropRemainder(InfiniteInteger)}.
+    *
+    * @throws ArithmeticException if this is finite and value isn't a factor of this
+    * @see MutableInfiniteInteger#divideExact(MutableInfiniteInteger)
+    */
+   @Override
+   public InfiniteInteger divideExact(final InfiniteInteger value)
+   {
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideExact(value.baseNumber));
    }
 
    /**
@@ -747,7 +805,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger divideByPowerOf2DropRemainder(final long exponent)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().divideByPowerOf2DropRemainder(exponent));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideByPowerOf2DropRemainder(exponent));
    }
 
    /**
@@ -759,7 +817,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger divideByPowerOf2DropRemainder(final BigInteger exponent)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().divideByPowerOf2DropRemainder(exponent));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideByPowerOf2DropRemainder(exponent));
    }
 
    /**
@@ -783,14 +841,14 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger divideByPowerOf2DropRemainder(final InfiniteInteger exponent)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().divideByPowerOf2DropRemainder(exponent.baseNumber));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideByPowerOf2DropRemainder(exponent.baseNumber));
    }
 
    //aka remainder, divideDropWhole, divideReturnRemainder
    @Override
    public InfiniteInteger divideReturnRemainder(final long value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().divideReturnRemainder(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideReturnRemainder(value));
    }
 
    /**
@@ -802,19 +860,19 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger divideReturnRemainder(final BigInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().divideReturnRemainder(value));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideReturnRemainder(value));
    }
 
    @Override
    public InfiniteInteger divideReturnRemainder(final InfiniteInteger value)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().divideReturnRemainder(value.baseNumber));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().divideReturnRemainder(value.baseNumber));
    }
 
    @Override
    public InfiniteInteger power(final long exponent)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().power(exponent));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().power(exponent));
    }
 
    /**
@@ -826,7 +884,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger power(final BigInteger exponent)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().power(exponent));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().power(exponent));
    }
 
    //BigInt is wrong: 0^0 is NaN but it returns 1. And 1^(-2) is 1 but it throws
@@ -926,7 +984,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger power(final InfiniteInteger exponent)
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().power(exponent.baseNumber));
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().power(exponent.baseNumber));
    }
 
    /**
@@ -941,7 +999,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger selfPower()
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().selfPower());
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().selfPower());
    }
 
    /**
@@ -957,7 +1015,116 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger factorial()
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().factorial());
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().factorial());
+   }
+
+   /**
+    * Returns true if this InfiniteInteger is probably prime and false if it is certainly composite.
+    * Entire code: <blockquote>{@code return baseNumber.isProbablePrime(certainty);}</blockquote>
+    *
+    * @see MutableInfiniteInteger#isProbablePrime(int)
+    */
+   public boolean isProbablePrime(final int certainty)
+   {
+      return baseNumber.isProbablePrime(certainty);
+   }
+
+   /**
+    * Returns the smallest probable prime greater than this InfiniteInteger.
+    * Entire code: <blockquote>{@code return InfiniteInteger.valueOfTemporary(baseNumber.copy().nextProbablePrime());}
+    * </blockquote>
+    *
+    * @see MutableInfiniteInteger#nextProbablePrime()
+    */
+   public InfiniteInteger nextProbablePrime()
+   {
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().nextProbablePrime());
+   }
+
+   /**
+    * Returns the largest probable prime less than this InfiniteInteger or NaN if there isn't one.
+    * Entire code: <blockquote>{@code return InfiniteInteger.valueOfTemporary(baseNumber.copy().previousProbablePrime());}
+    * </blockquote>
+    *
+    * @see MutableInfiniteInteger#previousProbablePrime()
+    */
+   public InfiniteInteger previousProbablePrime()
+   {
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().previousProbablePrime());
+   }
+
+   /**
+    * Returns a probable prime with exactly bitLength bits.
+    * Entire code: <blockquote>{@code
+    * return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.randomProbablePrime(bitLength, random));}
+    * </blockquote>
+    *
+    * @see MutableInfiniteInteger#randomProbablePrime(int, Random)
+    */
+   public static InfiniteInteger randomProbablePrime(final int bitLength, final Random random)
+   {
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.randomProbablePrime(bitLength, random));
+   }
+
+   /**
+    * Returns the binomial coefficient "n choose k": n! / (k! * (n-k)!) without calculating any factorial.
+    * Entire code: <blockquote>{@code return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.binomial(n, k));}
+    * </blockquote>
+    *
+    * @see MutableInfiniteInteger#binomial(long, long)
+    */
+   public static InfiniteInteger binomial(final long n, final long k)
+   {
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.binomial(n, k));
+   }
+
+   /**
+    * Returns the multinomial coefficient: (sum of counts)! / (the product of each count!) without calculating any
+    * factorial.
+    * Entire code: <blockquote>{@code return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.multinomial(counts));}
+    * </blockquote>
+    *
+    * @see MutableInfiniteInteger#multinomial(long...)
+    */
+   public static InfiniteInteger multinomial(final long... counts)
+   {
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.multinomial(counts));
+   }
+
+   /**
+    * Returns the falling factorial n(n-1)(n-2)...(n-k+1).
+    * Entire code: <blockquote>{@code return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.fallingFactorial(n, k));}
+    * </blockquote>
+    *
+    * @see MutableInfiniteInteger#fallingFactorial(long, long)
+    */
+   public static InfiniteInteger fallingFactorial(final long n, final long k)
+   {
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.fallingFactorial(n, k));
+   }
+
+   /**
+    * Returns the rising factorial n(n+1)(n+2)...(n+k-1).
+    * Entire code: <blockquote>{@code return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.risingFactorial(n, k));}
+    * </blockquote>
+    *
+    * @see MutableInfiniteInteger#risingFactorial(long, long)
+    */
+   public static InfiniteInteger risingFactorial(final long n, final long k)
+   {
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.risingFactorial(n, k));
+   }
+
+   /**
+    * Returns the primorial n# which is the product of every prime up to n.
+    * Entire code: <blockquote>{@code return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.primorial(n));}
+    * </blockquote>
+    *
+    * @see MutableInfiniteInteger#primorial(long)
+    */
+   public static InfiniteInteger primorial(final long n)
+   {
+      return InfiniteInteger.valueOfTemporary(MutableInfiniteInteger.primorial(n));
    }
 
    /**
@@ -969,7 +1136,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger abs()
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().abs());
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().abs());
    }
 
    /**
@@ -980,7 +1147,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    @Override
    public InfiniteInteger negate()
    {
-      return InfiniteInteger.valueOf(baseNumber.copy().negate());
+      return InfiniteInteger.valueOfTemporary(baseNumber.copy().negate());
    }
 
    /**
@@ -993,6 +1160,20 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
       return baseNumber.signum();
    }
 
+   /**
+    * Returns the number of bits in the minimal representation of the magnitude of this InfiniteInteger.
+    * Unlike BigInteger this ignores the sign (since the elements are unsigned) so -8 and 8 both return 4.
+    * 0 returns 0. This is calculated in constant time.
+    *
+    * @return the number of bits needed to store the absolute value
+    * @throws ArithmeticException if this is ±∞ or NaN
+    */
+   @Override
+   public long bitLength()
+   {
+      return baseNumber.bitLength();
+   }
+
    /**
     * Compares this == NaN.
     *
@@ -1096,14 +1277,14 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    /**
     * Compares this InfiniteInteger with the specified other for numeric equality.
     * Even though sorting is not possible this method returns as expected.
-    * Entire code: <blockquote>{@code return this.compareTo(InfiniteInteger.valueOf(other));}</blockquote>
+    * Entire code: <blockquote>{@code return baseNumber.compareTo(other);}</blockquote>
     *
     * @param other the value to be compared to this
     * @see #compareTo(InfiniteInteger)
     * @see Comparable#compareTo(Object)
     */
    @Override
-   public int compareTo(final long other){return this.compareTo(InfiniteInteger.valueOf(other));}
+   public int compareTo(final long other){return baseNumber.compareTo(other);}
 
    /**
     * Returns the hash code for this InfiniteInteger.
@@ -1138,7 +1319,7 @@ public final class InfiniteInteger extends AbstractInfiniteInteger<InfiniteInteg
    public static InfiniteInteger readFromStream(final ObjectStreamReader reader)
    {
       //valueOf will handle constant conversions
-      return InfiniteInteger.valueOf(reader.readObject(MutableInfiniteInteger.class));
+      return InfiniteInteger.valueOfTemporary(reader.readObject(MutableInfiniteInteger.class));
    }
 
    @Override
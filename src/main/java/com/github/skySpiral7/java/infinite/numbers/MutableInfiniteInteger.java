@@ -1,19 +1,20 @@
 package com.github.skySpiral7.java.infinite.numbers;
 
 import com.github.skySpiral7.java.Copyable;
-import com.github.skySpiral7.java.infinite.dataStructures.InfinitelyLinkedList;
 import com.github.skySpiral7.java.infinite.exceptions.WillNotFitException;
 import com.github.skySpiral7.java.infinite.util.BitWiseUtil;
+import com.github.skySpiral7.java.infinite.util.DivideUtil;
+import com.github.skySpiral7.java.infinite.util.FactorialUtil;
+import com.github.skySpiral7.java.infinite.util.LimbStorage;
+import com.github.skySpiral7.java.infinite.util.MultiplyUtil;
+import com.github.skySpiral7.java.infinite.util.PrimeUtil;
 import com.github.skySpiral7.java.infinite.util.RadixUtil;
-import com.github.skySpiral7.java.iterators.DequeNodeIterator;
 import com.github.skySpiral7.java.iterators.DescendingListIterator;
 import com.github.skySpiral7.java.iterators.ReadOnlyListIterator;
 import com.github.skySpiral7.java.numbers.NumberFormatException;
-import com.github.skySpiral7.java.pojo.DequeNode;
 import com.github.skySpiral7.java.staticSerialization.ObjectStreamReader;
 import com.github.skySpiral7.java.staticSerialization.ObjectStreamWriter;
 import com.github.skySpiral7.java.staticSerialization.StaticSerializable;
-import com.github.skySpiral7.java.util.ComparableSugar;
 
 import java.io.IOException;
 import java.io.NotSerializableException;
@@ -21,14 +22,16 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamException;
 import java.math.BigInteger;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
 import java.util.ListIterator;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -50,7 +53,7 @@ import static com.github.skySpiral7.java.util.ComparableSugar.isComparisonResult
  */
 //TODO: move all this class doc to the Abstract
 public final class MutableInfiniteInteger extends AbstractInfiniteInteger<MutableInfiniteInteger>
-   implements Copyable<MutableInfiniteInteger>, StaticSerializable
+   implements Copyable<MutableInfiniteInteger>, StaticSerializable, AutoCloseable
 {
    private static final long serialVersionUID = 1L;
 
@@ -78,20 +81,98 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    public static final MutableInfiniteInteger NEGATIVE_INFINITY = new MutableInfiniteInteger(true);
 
    /**
-    * Little endian: the first node is the least significant.
+    * Little endian: the first element is the least significant. Each element is unsigned.
+    * Only the first magnitudeLength elements are used, any after that are spare capacity (which may contain garbage).
     */
-   private transient DequeNode<Integer> magnitudeHead;
+   private transient int[] magnitude;
+   /**
+    * The number of elements in use. Always at least 1 for finite numbers and the most significant element
+    * is never 0 unless this is 0 (ie there are no leading 0s).
+    */
+   private transient int magnitudeLength;
    private transient boolean isNegative;
+   /**
+    * Holds the elements instead of magnitude (which is then null) once this has at least offHeapThreshold elements.
+    * The elements are in the same order as magnitude. Null for numbers on the heap.
+    */
+   private transient LimbStorage storage;
+   /**
+    * The number of elements in use when the elements are in storage (magnitudeLength is then 0).
+    * The same invariants as magnitudeLength.
+    */
+   private transient long storageLength;
+   /**
+    * The number of elements a number needs to be moved off of the heap. See {@link #setOffHeapThreshold(long)}.
+    */
+   private static volatile long offHeapThreshold = Long.MAX_VALUE;
+   /**
+    * The max number of elements in each segment of a LimbStorage (1 GiB). This isn't final so that tests can lower it.
+    */
+   static int storageSegmentLength = 1 << 28;
+   /**
+    * Where the temp files of mapped storage go. Null means storage uses direct memory. See
+    * {@link #setMappedStorageDirectory(Path)}.
+    */
+   private static volatile Path mappedStorageDirectory = null;
+   /**
+    * The max number of elements in the magnitude. This is the largest array that every JVM can allocate
+    * (some reserve a few header words). Therefore the largest finite value is about 2<sup>(32 * (2<sup>31</sup>-9))</sup>
+    * and anything larger throws WillNotFitException (unless mapped storage is used).
+    * This isn't final so that tests can lower it instead of needing 8 GB numbers.
+    */
+   static int maxMagnitudeLength = Integer.MAX_VALUE - 8;
+   /**
+    * The max number of elements when using mapped storage. This keeps the bit length within a long.
+    */
+   private static final long MAX_MAPPED_LENGTH = Long.MAX_VALUE / 32;
+   /**
+    * If the divisor has at least this many elements (and the quotient is long enough, see
+    * NEWTON_DIVISION_MIN_BLOCKS) then division multiplies by the reciprocal of the divisor (found with Newton's method)
+    * instead of using DivideUtil.
+    * <p>
+    * This is a test-only hook: it isn't final (or private) only so that MutableInfiniteInteger_UT can lower it to run
+    * divide through the Newton branch with small numbers. Nothing else may change it.
+    */
+   static int newtonDivisionThreshold = 1 << 14;
+   /**
+    * Newton division is only used if the quotient has at least this many times as many elements as the divisor.
+    * The reciprocal costs a few multiplications up front and is then reused for each block of the quotient so a short
+    * quotient is faster with Burnikel–Ziegler.
+    */
+   private static final int NEWTON_DIVISION_MIN_BLOCKS = 4;
+   /**
+    * {@link #reciprocal(long)} finds reciprocals with at most this many bits by division. Larger ones use Newton's
+    * method on a half precision reciprocal.
+    */
+   private static final long NEWTON_RECIPROCAL_BASE_BITS = 32L * 512;
+   /**
+    * The max number of elements that the storage kernels copy into an array at a time. Reading and writing storage in
+    * blocks copies each segment in bulk instead of calling the buffer once for each element.
+    */
+   private static final int STORAGE_BLOCK_LENGTH = 1 << 12;
+   /**
+    * Used by {@link #power(MutableInfiniteInteger)} to pick the window size: if the exponent has more bits than
+    * SLIDING_WINDOW_THRESHOLDS[i] then the window is at least i + 2 bits. Larger windows need more odd powers to be
+    * found up front but fewer multiplications.
+    */
+   private static final int[] SLIDING_WINDOW_THRESHOLDS = {7, 25, 81, 241, 673, 1793};
+   /**
+    * {@link #binomial(long, long)} multiplies the prime powers of C(n, k) if k is at least n / BINOMIAL_PRIME_RATIO.
+    * Smaller values of k divide n(n-1)...(n-k+1) by k! instead since sieving up to n would cost more than the
+    * k numbers.
+    */
+   private static final int BINOMIAL_PRIME_RATIO = 256;
 
    /**
     * This constructor is used to make special constants.
-    * This makes the head null which is something that is otherwise not possible.
+    * This makes the magnitude null which is something that is otherwise not possible.
     *
     * @param isNegative used for positive and negative infinity. Meaningless to NaN.
     */
    private MutableInfiniteInteger(final boolean isNegative)
    {
-      magnitudeHead = null;
+      magnitude = null;
+      magnitudeLength = 0;
       this.isNegative = isNegative;
    }
 
@@ -103,22 +184,167 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
     * @param baseValue the desired numeric value
     * @see #valueOf(long)
     */
-   public MutableInfiniteInteger(long baseValue)
+   public MutableInfiniteInteger(final long baseValue)
+   {
+      isNegative = (baseValue < 0);
+      //Math.abs(Long.MIN_VALUE) is still Long.MIN_VALUE which is correct when treated as unsigned
+      final long absValue = Math.abs(baseValue);
+      magnitude = new int[]{(int) absValue, (int) (absValue >>> 32)};
+      magnitudeLength = (magnitude[1] == 0) ? 1 : 2;
+   }
+
+   /**
+    * Used internally to wrap an array that was already calculated. The array is not copied.
+    *
+    * @param isNegative      the sign of the result. Ignored if the magnitude is 0
+    * @param magnitude       little endian unsigned elements which may have leading 0s
+    * @param magnitudeLength the number of elements of magnitude that are in use
+    */
+   private MutableInfiniteInteger(final boolean isNegative, final int[] magnitude, final int magnitudeLength)
    {
-      if (baseValue == Long.MIN_VALUE)  //Math.abs isn't possible for this
+      if (magnitudeLength == 0)
       {
-         isNegative = true;
-         magnitudeHead = DequeNode.Factory.createStandAloneNode(0);
-         DequeNode.Factory.createNodeAfter(magnitudeHead, Integer.MIN_VALUE);
+         this.magnitude = new int[1];
+         this.magnitudeLength = 1;
       }
       else
       {
-         isNegative = (baseValue < 0);
-         baseValue = Math.abs(baseValue);
-         magnitudeHead = DequeNode.Factory.createStandAloneNode((int) baseValue);
-         baseValue >>>= 32;
-         if (baseValue > 0) DequeNode.Factory.createNodeAfter(magnitudeHead, ((int) baseValue));
+         this.magnitude = magnitude;
+         this.magnitudeLength = magnitudeLength;
       }
+      removeLeadingZeros();
+      this.isNegative = (isNegative && !this.equalValue(0));
+   }
+
+   /**
+    * Sets how many elements a number needs before its elements are moved off of the Java heap (into direct memory)
+    * so that the garbage collector doesn't need to copy or scan them. A number is moved when an operation that
+    * mutates it leaves it with at least this many elements and is moved back onto the heap if it shrinks below.
+    * New numbers (such as from valueOf or divide) start on the heap.
+    * <p>
+    * add, subtract, multiplyByPowerOf2, divideByPowerOf2DropRemainder and comparisons work directly on the elements
+    * that are off of the heap. The other operations copy the elements into an array first. The memory can be freed
+    * right away with {@link #close()}. The default is Long.MAX_VALUE which means that every number stays on the heap.
+    *
+    * <p>
+    * Freeing the memory right away needs sun.misc.Unsafe (the jdk.unsupported module). If it isn't available this
+    * throws rather than letting close() silently wait for the garbage collector.
+    *
+    * @param elementCount the number of int elements
+    * @throws IllegalArgumentException      if elementCount is less than 1
+    * @throws UnsupportedOperationException if elementCount isn't Long.MAX_VALUE and the memory can't be freed by close
+    */
+   public static void setOffHeapThreshold(final long elementCount)
+   {
+      if (elementCount < 1) throw new IllegalArgumentException("elementCount must be at least 1. It was " + elementCount);
+      if (elementCount != Long.MAX_VALUE) MutableInfiniteInteger.requireFreeableStorage();
+      MutableInfiniteInteger.offHeapThreshold = elementCount;
+   }
+
+   /**
+    * @return the number of elements needed for a number to be moved off of the heap
+    * @see #setOffHeapThreshold(long)
+    */
+   public static long getOffHeapThreshold()
+   {
+      return MutableInfiniteInteger.offHeapThreshold;
+   }
+
+   /**
+    * @throws UnsupportedOperationException if LimbStorage can't free its memory when closed
+    */
+   private static void requireFreeableStorage()
+   {
+      if (!LimbStorage.canFreeImmediately())
+         throw new UnsupportedOperationException("Storage off of the heap needs sun.misc.Unsafe (module jdk.unsupported) "
+                                                 + "so that close() can free the memory");
+   }
+
+   /**
+    * Turns on mapped storage: numbers that are off of the heap (see {@link #setOffHeapThreshold(long)}) keep their
+    * elements in memory-mapped temp files (one file for each 1 GiB segment) instead of direct memory. The OS pages the
+    * files in and out so numbers can be larger than RAM.
+    * <p>
+    * This also raises the max size of a number: add, subtract, multiplyByPowerOf2, divideByPowerOf2DropRemainder and
+    * comparisons stream over the segments in order so they can make numbers with more elements than an array can
+    * hold (such as calculateMaxBigIntegerAsInfiniteInteger() times 2<sup>32 * 2<sup>31</sup></sup>). A number that
+    * grows past the max array size is moved into storage regardless of the threshold. The other operations need an
+    * array so they throw WillNotFitException for such numbers.
+    * <p>
+    * A number in mapped storage holds an open file and a mapping for each segment until {@link #close()} is called.
+    * If it is never closed they are only released when the garbage collector gets to it so huge numbers must be closed,
+    * ideally with try-with-resources:
+    * <pre>{@code
+    * try (MutableInfiniteInteger huge = MutableInfiniteInteger.calculateMaxBigIntegerAsInfiniteInteger())
+    * {
+    *    huge.multiplyByPowerOf2(32L * Integer.MAX_VALUE);
+    *    ...
+    * }
+    * }</pre>
+    *
+    * @param directory where to create the temp files or null to use direct memory (the default)
+    * @throws UnsupportedOperationException if the files can't be freed by close (see {@link #setOffHeapThreshold(long)})
+    */
+   public static void setMappedStorageDirectory(final Path directory)
+   {
+      if (directory != null) MutableInfiniteInteger.requireFreeableStorage();
+      MutableInfiniteInteger.mappedStorageDirectory = directory;
+   }
+
+   /**
+    * @return where mapped storage puts its temp files or null if direct memory is used
+    * @see #setMappedStorageDirectory(Path)
+    */
+   public static Path getMappedStorageDirectory()
+   {
+      return MutableInfiniteInteger.mappedStorageDirectory;
+   }
+
+   /**
+    * Sets the pool used to split large multiplications (including square and factorial) into tasks that run at the
+    * same time. The parallelism level is the pool's: for example {@code new ForkJoinPool(8)} uses at most 8 threads.
+    * <p>
+    * By default {@link ForkJoinPool#commonPool()} is used so a multiplication where the smaller number has at least
+    * {@link #getParallelThreshold()} elements (4096 by default) runs on the common pool's threads as well as the calling
+    * thread. Pass null to keep every multiplication on the calling thread.
+    *
+    * @param pool the pool to use or null to always multiply on the calling thread
+    * @see #setParallelThreshold(int)
+    */
+   public static void setParallelPool(final ForkJoinPool pool)
+   {
+      MultiplyUtil.setParallelPool(pool);
+   }
+
+   /**
+    * @return the pool used for large multiplications or null if everything is done on the calling thread
+    * @see #setParallelPool(ForkJoinPool)
+    */
+   public static ForkJoinPool getParallelPool()
+   {
+      return MultiplyUtil.getParallelPool();
+   }
+
+   /**
+    * Sets how large a multiplication needs to be before it is split across the pool. Splitting smaller numbers costs
+    * more in coordinating the threads than it saves. The default is 4096.
+    *
+    * @param elementCount the number of int elements that the smaller number (or each piece) must have
+    * @throws IllegalArgumentException if elementCount is less than 1
+    * @see #setParallelPool(ForkJoinPool)
+    */
+   public static void setParallelThreshold(final int elementCount)
+   {
+      MultiplyUtil.setParallelThreshold(elementCount);
+   }
+
+   /**
+    * @return the number of elements needed for a multiplication to be split across the pool
+    * @see #setParallelThreshold(int)
+    */
+   public static int getParallelThreshold()
+   {
+      return MultiplyUtil.getParallelThreshold();
    }
 
    /**
@@ -160,9 +386,9 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
          littleEndianBytes[bigEndianBytes.length - 1 - endianIndex] = bigEndianBytes[endianIndex];
       }
 
-      final MutableInfiniteInteger result = MutableInfiniteInteger.valueOf(0);
-      DequeNode<Integer> magnitudeTail = result.magnitudeHead;
+      final int[] resultMagnitude = new int[(littleEndianBytes.length + 3) / 4];
       int byteIndex = 0;
+      int resultIndex = 0;
       while (byteIndex < littleEndianBytes.length)
       {
          final byte firstByte = (byteIndex >= littleEndianBytes.length) ? 0 : littleEndianBytes[byteIndex];
@@ -173,16 +399,11 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
          ++byteIndex;
          final byte fourthByte = (byteIndex >= littleEndianBytes.length) ? 0 : littleEndianBytes[byteIndex];
          ++byteIndex;
-         final int integerValue = BitWiseUtil.bigEndianBytesToInteger(new byte[]{fourthByte, thirdByte, secondByte, firstByte});
-         magnitudeTail = DequeNode.Factory.createNodeAfter(magnitudeTail, integerValue);
+         resultMagnitude[resultIndex] = BitWiseUtil.bigEndianBytesToInteger(new byte[]{fourthByte, thirdByte, secondByte, firstByte});
+         ++resultIndex;
       }
-      //the first node created was a leading 0 placeholder so remove it
-      result.magnitudeHead = result.magnitudeHead.getNext();
-      result.magnitudeHead.getPrev().remove();
-      if (magnitudeTail.getData() == 0) magnitudeTail.remove();  //BigInteger sometimes returns a leading 0. Remove it.
-
-      result.isNegative = willBeNegative;
-      return result;
+      //BigInteger sometimes returns a leading 0. The constructor removes it.
+      return new MutableInfiniteInteger(willBeNegative, resultMagnitude, resultMagnitude.length);
    }
 
    /**
@@ -283,21 +504,29 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    }
 
    /**
-    * This should in theory be faster than parseStringSlow since it uses bit shifting.
+    * This is faster than parseStringSlow since each digit is a fixed number of bits which are written directly
+    * into the magnitude.
     */
    private static MutableInfiniteInteger parseStringPowerOf2(final String originalString, final String workingString, final int radix)
    {
-      MutableInfiniteInteger result = new MutableInfiniteInteger(0);
       final int shiftSize = Integer.numberOfTrailingZeros(radix);  //lg(radix) only because radix is power of 2
+      final long bitCount = (long) workingString.length() * shiftSize;
+      final int[] magnitude = new int[MutableInfiniteInteger.checkMagnitudeLength((bitCount + 31) / 32)];
+      //the last digit is the least significant
+      long bitIndex = bitCount;
       for (int i = 0; i < workingString.length(); i++)
       {
          final int digitValue = RadixUtil.getDigitValue(workingString.charAt(i), radix);
          if (-1 == digitValue) throw NumberFormatException.forInputRadix(originalString, radix);
-         //leading 0s will do nothing
-         result = result.multiplyByPowerOf2(shiftSize);  //first pass is no-op
-         result = result.add(digitValue);
+         bitIndex -= shiftSize;
+         final int elementIndex = (int) (bitIndex / 32);
+         final int bitShift = (int) (bitIndex % 32);
+         magnitude[elementIndex] |= digitValue << bitShift;
+         //the digit might be split across 2 elements
+         if (bitShift + shiftSize > 32) magnitude[elementIndex + 1] |= digitValue >>> (32 - bitShift);
       }
-      return result;
+      //the constructor removes the leading 0s
+      return new MutableInfiniteInteger(false, magnitude, magnitude.length);
    }
 
    private static MutableInfiniteInteger parseStringSlow(final String originalString, final String workingString, final int radix)
@@ -378,24 +607,22 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    public static MutableInfiniteInteger littleEndian(final Iterator<Long> valueIterator, final boolean isNegative)
    {
       if (!valueIterator.hasNext()) return new MutableInfiniteInteger(0);
-      final MutableInfiniteInteger result = MutableInfiniteInteger.valueOf(valueIterator.next());
-      result.isNegative = isNegative;
-      DequeNode<Integer> cursor = result.magnitudeHead;
-      if (cursor.getNext() == null) cursor = DequeNode.Factory.createNodeAfter(cursor, 0);
+      int[] resultMagnitude = new int[8];
+      int resultLength = 0;
       while (valueIterator.hasNext())
       {
-         long value = valueIterator.next();
-         cursor = DequeNode.Factory.createNodeAfter(cursor, (int) value);
-         value >>>= 32;
-         cursor = DequeNode.Factory.createNodeAfter(cursor, (int) value);
-      }
-      while (cursor.getData().intValue() == 0)  //cursor is always at the last node. so remove leading 0s
-      {
-         cursor = cursor.getPrev();
-         if (cursor == null) return new MutableInfiniteInteger(0);  //if the last and only node was 0
-         cursor.getNext().remove();
+         final long value = valueIterator.next();
+         if (resultLength + 2L > resultMagnitude.length)
+         {
+            final int checkedCapacity = MutableInfiniteInteger.checkMagnitudeLength(resultLength + 2L);
+            resultMagnitude = Arrays.copyOf(resultMagnitude, MutableInfiniteInteger.grownCapacity(resultMagnitude.length, checkedCapacity));
+         }
+         resultMagnitude[resultLength] = (int) value;
+         resultMagnitude[resultLength + 1] = (int) (value >>> 32);
+         resultLength += 2;
       }
-      return result;
+      //the constructor removes leading 0s (and negative 0)
+      return new MutableInfiniteInteger(isNegative, resultMagnitude, resultLength);
    }
 
    /**
@@ -449,16 +676,19 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
       if (!nodeCount.isFinite()) return MutableInfiniteInteger.NaN;
       if (is(nodeCount, LESS_THAN, MutableInfiniteInteger.valueOf(1))) return MutableInfiniteInteger.NaN;
 
-      MutableInfiniteInteger remainingNodes = nodeCount.copy();
-      MutableInfiniteInteger result = new MutableInfiniteInteger(0);
-      while (!remainingNodes.equalValue(0))
+      //fail fast instead of running out of memory
+      if (is(nodeCount, GREATER_THAN, MutableInfiniteInteger.valueOf(MutableInfiniteInteger.maxMagnitudeLength)))
+         throw new WillNotFitException("A random number of " + nodeCount + " elements is more than the max of "
+                                       + MutableInfiniteInteger.maxMagnitudeLength + ".");
+      final int[] magnitude = new int[nodeCount.intValue()];
+      //the first random element is the most significant
+      for (int i = magnitude.length - 1; i >= 0; --i)
       {
          //next int covers all possible unsigned 2^32
-         result.magnitudeHead.setData(random.nextInt());
-         result = result.multiplyByPowerOf2(32);
-         remainingNodes = remainingNodes.subtract(1);
+         magnitude[i] = random.nextInt();
       }
-      result = result.divideByPowerOf2DropRemainder(32);  //remove trailing 0 node
+      //the constructor removes the leading 0s
+      final MutableInfiniteInteger result = new MutableInfiniteInteger(false, magnitude, magnitude.length);
       if (!result.equalValue(0)) result.isNegative = random.nextBoolean();  //don't allow negative 0
       return result;
    }
@@ -611,8 +841,7 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    public int intValue()
    {
       if (!this.isFinite()) throw new ArithmeticException(this + " can't be even partially represented as an int.");
-      final int intValue =
-         magnitudeHead.getData().intValue() & Integer.MAX_VALUE;  //drop the sign bit (can't use Math.abs because the nodes are unsigned)
+      final int intValue = limb(0) & Integer.MAX_VALUE;  //drop the sign bit (can't use Math.abs because the elements are unsigned)
       if (isNegative) return -intValue;
       return intValue;
    }
@@ -631,12 +860,12 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    {
       if (!this.isFinite()) throw new ArithmeticException(this + " can't be even partially represented as a long.");
 
-      long longValue = Integer.toUnsignedLong(magnitudeHead.getData().intValue());
-      if (magnitudeHead.getNext() != null)
+      long longValue = Integer.toUnsignedLong(limb(0));
+      if (limbCount() > 1)
       {
-         longValue += (Integer.toUnsignedLong(magnitudeHead.getNext().getData().intValue()) << 32);
+         longValue += (Integer.toUnsignedLong(limb(1)) << 32);
       }
-      longValue &= Long.MAX_VALUE;  //drop the sign bit (can't use Math.abs because the nodes are unsigned)
+      longValue &= Long.MAX_VALUE;  //drop the sign bit (can't use Math.abs because the elements are unsigned)
       if (isNegative) return -longValue;
       return longValue;
    }
@@ -653,12 +882,11 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    public long longValueExact()
    {
       if (!this.isFinite()) throw new ArithmeticException(this + " can't be represented as a long.");
-      if (magnitudeHead.getNext() != null && magnitudeHead.getNext().getNext() != null)
-         throw new ArithmeticException(this + " is too large to be represented as a long.");
-      //if there are too many nodes then the number is too large
-      if (magnitudeHead.getNext() != null && (magnitudeHead.getNext().getData().intValue() & Long.MIN_VALUE) != 0)
+      //if there are too many elements then the number is too large
+      if (limbCount() > 2) throw new ArithmeticException(this + " is too large to be represented as a long.");
+      //the most significant bit must be clear since it will be dropped to make the number signed
+      if (limbCount() == 2 && limb(1) < 0)
          throw new ArithmeticException(this + " is too large to be represented as a signed long.");
-      //the & Min part checks that the most significant bit must be clear since it will be dropped to make the number signed
       return longValue();
    }
 
@@ -688,14 +916,12 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
 
       try
       {
-         DequeNode<Integer> cursor = this.magnitudeHead;
-         BigInteger result = BigInteger.valueOf(Integer.toUnsignedLong(cursor.getData().intValue()));
-         cursor = cursor.getNext();
-         while (cursor != null)
+         //start with the most significant element since each shift moves the previous elements up
+         BigInteger result = BigInteger.valueOf(Integer.toUnsignedLong(limb(limbCount() - 1)));
+         for (long i = limbCount() - 2; i >= 0; --i)
          {
-            result = result.shiftLeft(32);  //TODO: unsure of math since I am unsigned
-            result = result.add(BigInteger.valueOf(Integer.toUnsignedLong(cursor.getData().intValue())));
-            cursor = cursor.getNext();
+            result = result.shiftLeft(32);
+            result = result.add(BigInteger.valueOf(Integer.toUnsignedLong(limb(i))));
          }
          if (this.isNegative) return result.negate();
          return result;
@@ -805,29 +1031,70 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    }
 
    /**
-    * This method returns a read only list iterator of unknown size that iterates over the data of each of the nodes
-    * of this InfiniteInteger. Each node is unsigned and they are in little endian order.
-    * Calling nextIndex or previousIndex will return -1 and calling add, set, or remove will throw.
-    * Note that there might be more than Long.Max elements (or even max BigInteger!).
+    * This method returns a read only list iterator that iterates over each of the elements
+    * of this InfiniteInteger. Each element is unsigned and they are in little endian order.
+    * Calling add, set, or remove will throw.
     *
     * @throws UnsupportedOperationException if this is ±∞ or NaN
     * @see #magnitudeStream()
     * @see ReadOnlyListIterator
-    * @see DequeNodeIterator.IndexAgnosticValueIterator
     */
    @Override
    public ReadOnlyListIterator<Integer> magnitudeIterator()
    {
       if (!this.isFinite()) throw new UnsupportedOperationException(this + " does not have nodes.");
-      return new ReadOnlyListIterator<>(new DequeNodeIterator.IndexAgnosticValueIterator<>(magnitudeHead));
+      final MutableInfiniteInteger iterated = this.onHeap();
+      final int[] iteratedMagnitude = iterated.magnitude;
+      final int iteratedLength = iterated.magnitudeLength;
+      return new ReadOnlyListIterator<>(new ListIterator<Integer>()
+      {
+         private int nextIndex = 0;
+
+         @Override
+         public boolean hasNext(){return nextIndex < iteratedLength;}
+
+         @Override
+         public boolean hasPrevious(){return nextIndex > 0;}
+
+         @Override
+         public Integer next()
+         {
+            if (!hasNext()) throw new NoSuchElementException();
+            final int element = iteratedMagnitude[nextIndex];
+            ++nextIndex;
+            return element;
+         }
+
+         @Override
+         public Integer previous()
+         {
+            if (!hasPrevious()) throw new NoSuchElementException();
+            --nextIndex;
+            return iteratedMagnitude[nextIndex];
+         }
+
+         @Override
+         public int nextIndex(){return nextIndex;}
+
+         @Override
+         public int previousIndex(){return nextIndex - 1;}
+
+         //will be replaced by ReadOnlyListIterator to throw:
+         @Override
+         public void remove(){}
+
+         @Override
+         public void set(final Integer e){}
+
+         @Override
+         public void add(final Integer e){}
+      });
    }
 
    /**
-    * This method returns a stream for the data of each of the nodes of this InfiniteInteger.
-    * Each node is unsigned and they are in little endian order.
-    * Note that there might be more than Long.Max elements (or even max BigInteger!).
-    * This method represents that there can be any number of elements better than magnitudeIterator.
-    * Streams are also naturally read only with unknown size.
+    * This method returns a stream for each of the elements of this InfiniteInteger.
+    * Each element is unsigned and they are in little endian order.
+    * Streams are naturally read only.
     *
     * @throws UnsupportedOperationException if this is ±∞ or NaN
     * @see #magnitudeIterator()
@@ -835,214 +1102,650 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    @Override
    public Stream<Integer> magnitudeStream()
    {
-      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(magnitudeIterator(), Spliterator.ORDERED | Spliterator.IMMUTABLE),
-         false);
+      if (!this.isFinite()) throw new UnsupportedOperationException(this + " does not have nodes.");
+      final MutableInfiniteInteger streamed = this.onHeap();
+      return Arrays.stream(streamed.magnitude, 0, streamed.magnitudeLength).boxed();
    }
 
    /**
-    * Helper method to get the last (most significant) node of this InfiniteInteger.
+    * Makes sure that the magnitude array can hold at least minCapacity elements. The used elements are preserved
+    * but any spare elements may contain garbage.
     *
-    * @throws NullPointerException if magnitudeHead is null
+    * @param minCapacity is a long so that callers can add lengths without overflowing
+    * @throws WillNotFitException if minCapacity is more than the max array size
     */
-   private DequeNode<Integer> getMagnitudeTail()
+   private void ensureCapacity(final long minCapacity)
    {
-      //TODO: make a variable for magnitudeTail?
-      DequeNode<Integer> tail = magnitudeHead;
-      while (tail.getNext() != null){tail = tail.getNext();}
-      return tail;
+      if (magnitude.length < minCapacity)
+      {
+         final int checkedCapacity = MutableInfiniteInteger.checkMagnitudeLength(minCapacity);
+         magnitude = Arrays.copyOf(magnitude, MutableInfiniteInteger.grownCapacity(magnitude.length, checkedCapacity));
+      }
    }
 
    /**
-    * Entire code: <blockquote>{@code return this.add(MutableInfiniteInteger.valueOf(value));}</blockquote>
-    *
-    * @see #add(MutableInfiniteInteger)
-    * @see #valueOf(BigInteger)
+    * @return a capacity which is at least minCapacity but will usually be 1.5 times the current capacity so that
+    * repeatedly growing by a little bit doesn't copy the array every time.
     */
-   @Override
-   public MutableInfiniteInteger add(final long value){return this.add(MutableInfiniteInteger.valueOf(value));}
+   private static int grownCapacity(final int currentCapacity, final int minCapacity)
+   {
+      final long grown = currentCapacity + (currentCapacity >> 1);
+      return (int) Math.max(minCapacity, Math.min(grown, MutableInfiniteInteger.maxMagnitudeLength));
+   }
 
    /**
-    * Entire code: <blockquote>{@code return this.add(MutableInfiniteInteger.valueOf(value));}</blockquote>
-    *
-    * @see #add(MutableInfiniteInteger)
-    * @see #valueOf(BigInteger)
+    * @param length the desired number of elements
+    * @return length as an int
+    * @throws WillNotFitException if length is more than the max array size
     */
-   @Override
-   public MutableInfiniteInteger add(final BigInteger value){return this.add(MutableInfiniteInteger.valueOf(value));}
+   private static int checkMagnitudeLength(final long length)
+   {
+      if (length > MutableInfiniteInteger.maxMagnitudeLength)
+      {
+         //this isn't included in the message because toString would be too slow for such a large number
+         throw new WillNotFitException("The result would need " + length + " elements but the max is "
+                                       + MutableInfiniteInteger.maxMagnitudeLength + ".");
+      }
+      return (int) length;
+   }
 
    /**
-    * Returns an InfiniteInteger whose value is {@code (this + value)}.
-    *
-    * @param value the operand to be added to this InfiniteInteger.
-    * @return the result including ±∞ and NaN
-    * @see #add(long)
+    * @return the max number of elements that a number can have. This is more than an array can hold when mapped
+    * storage is used
+    * @see #setMappedStorageDirectory(Path)
     */
-   @Override
-   public MutableInfiniteInteger add(final MutableInfiniteInteger value)
+   private static long maxLength()
    {
-      if (this.isNaN() || value.isNaN()) return MutableInfiniteInteger.NaN;
-      if (value.equalValue(0)) return this;
-      if (this.equalValue(0)) return set(value.copy());
-
-      //delegations based on the sign of each
-      if (!isNegative && value.isNegative) return this.subtract(value.copy().abs());
-      if (isNegative && !value.isNegative) return set(value.copy().subtract(this.abs()));
+      if (MutableInfiniteInteger.mappedStorageDirectory == null) return MutableInfiniteInteger.maxMagnitudeLength;
+      return MutableInfiniteInteger.MAX_MAPPED_LENGTH;
+   }
 
-      if (!this.isFinite()) return this;
-      if (!value.isFinite()) return value;
+   /**
+    * Same as checkMagnitudeLength but for numbers in storage.
+    *
+    * @param length the desired number of elements
+    * @return length
+    * @throws WillNotFitException if length is more than maxLength()
+    */
+   private static long checkStorageLength(final long length)
+   {
+      if (length > MutableInfiniteInteger.maxLength())
+      {
+         throw new WillNotFitException("The result would need " + length + " elements but the max is "
+                                       + MutableInfiniteInteger.maxLength() + ".");
+      }
+      return length;
+   }
 
-      //the rest is for if both positive or both negative
-      MutableInfiniteInteger.addAbove(this.magnitudeHead, value);
-      //isNegative is already correct for positive or negative
-      return this;
+   /**
+    * @return true if a number with length elements must be in storage because it won't fit in an array
+    */
+   private static boolean needsStorage(final long length)
+   {
+      return length > MutableInfiniteInteger.maxMagnitudeLength && MutableInfiniteInteger.mappedStorageDirectory != null;
    }
 
    /**
-    * Used internally by the add and multiply methods. This method adds value to the starting node
-    * and carries upward. It does not affect any nodes before the starting node. The starting node
-    * (and above) will be mutated. This method assumes both numbers are positive (or both negative).
-    *
-    * @param startingNode can't be null
-    * @param value        can't be null or a constant
+    * Lowers magnitudeLength so that there are no leading 0s (but will leave a single 0 element if this is 0).
+    * Also clears isNegative if this is 0.
     */
-   private static void addAbove(final DequeNode<Integer> startingNode, final MutableInfiniteInteger value)
+   private void removeLeadingZeros()
    {
-      long sum = 0;
-      DequeNode<Integer> resultCursor = startingNode;
-      final ListIterator<Integer> valueMagIterator = value.magnitudeIterator();
-      int lowSum, highSum;
-      while (valueMagIterator.hasNext() || sum != 0)
-      {
-         //turns out (true for signed and unsigned) max long > max int * max int. (2^64-1) > ((2^32-1)*(2^32-1))
-         lowSum = (int) sum;
-         highSum = (int) (sum >>> 32);
-         sum = Integer.toUnsignedLong(resultCursor.getData().intValue());
-         if (valueMagIterator.hasNext()) sum += Integer.toUnsignedLong(valueMagIterator.next().intValue());
-         sum += Integer.toUnsignedLong(lowSum);
-
-         resultCursor.setData((int) sum);
-         sum >>>= 32;
-         sum += Integer.toUnsignedLong(highSum);
+      if (storage != null)
+      {
+         while (storageLength > 1 && storage.get(storageLength - 1) == 0){--storageLength;}
+         if (storageLength == 1 && storage.get(0) == 0) isNegative = false;
+         return;
+      }
+      while (magnitudeLength > 1 && magnitude[magnitudeLength - 1] == 0){--magnitudeLength;}
+      if (magnitudeLength == 1 && magnitude[0] == 0) isNegative = false;
+   }
+
+   /**
+    * @return the number of elements in use whether they are in magnitude or storage. This must be finite
+    */
+   private long limbCount(){return (storage == null) ? magnitudeLength : storageLength;}
+
+   /**
+    * @return true if the elements are in storage (off of the heap). This isn't public since it's an implementation
+    * detail for tests
+    */
+   boolean isOffHeap(){return storage != null;}
+
+   /**
+    * @return the element at index whether it is in magnitude or storage. This must be finite
+    */
+   private int limb(final long index){return (storage == null) ? magnitude[(int) index] : storage.get(index);}
 
-         if (resultCursor.getNext() == null) resultCursor = DequeNode.Factory.createNodeAfter(resultCursor, 0);
-         else resultCursor = resultCursor.getNext();
+   /**
+    * Copies count elements of this starting at index into destination (at destinationIndex) whether they are in
+    * magnitude or storage. Elements at or above limbCount() are copied as 0. This must be finite
+    */
+   private void readLimbs(final long index, final int[] destination, final int destinationIndex, final int count)
+   {
+      final int availableCount = (int) Math.max(0, Math.min(count, limbCount() - index));
+      if (availableCount > 0)
+      {
+         if (storage == null) System.arraycopy(magnitude, (int) index, destination, destinationIndex, availableCount);
+         else storage.get(index, destination, destinationIndex, availableCount);
       }
-      //go to the end (which won't always happen)
-      while (resultCursor.getNext() != null){resultCursor = resultCursor.getNext();}
-      if (resultCursor.getData().intValue() == 0) resultCursor.remove();  //remove the last node since it is a leading 0
-      //isNegative is already correct for positive or negative
+      Arrays.fill(destination, destinationIndex + availableCount, destinationIndex + count, 0);
    }
 
    /**
-    * Entire code: <blockquote>{@code return this.subtract(MutableInfiniteInteger.valueOf(value));}</blockquote>
-    *
-    * @see #subtract(MutableInfiniteInteger)
-    * @see #valueOf(BigInteger)
+    * @param capacity the number of elements to start with
+    * @return new (empty) off heap storage
     */
-   @Override
-   public MutableInfiniteInteger subtract(final long value){return this.subtract(MutableInfiniteInteger.valueOf(value));}
+   private static LimbStorage newStorage(final long capacity)
+   {
+      final Path directory = MutableInfiniteInteger.mappedStorageDirectory;
+      if (directory != null) return LimbStorage.mapped(directory, capacity, MutableInfiniteInteger.storageSegmentLength);
+      return LimbStorage.direct(capacity, MutableInfiniteInteger.storageSegmentLength);
+   }
 
    /**
-    * Entire code: <blockquote>{@code return this.subtract(MutableInfiniteInteger.valueOf(value));}</blockquote>
+    * Moves the elements of this finite number from magnitude into a new LimbStorage.
     *
-    * @see #subtract(MutableInfiniteInteger)
-    * @see #valueOf(BigInteger)
+    * @param minCapacity the storage will have room for at least this many elements
     */
-   @Override
-   public MutableInfiniteInteger subtract(final BigInteger value){return this.subtract(MutableInfiniteInteger.valueOf(value));}
+   private void moveToStorage(final long minCapacity)
+   {
+      final LimbStorage newStorage = MutableInfiniteInteger.newStorage(Math.max(minCapacity, magnitudeLength));
+      newStorage.put(0, magnitude, 0, magnitudeLength);
+      storage = newStorage;
+      storageLength = magnitudeLength;
+      magnitude = null;
+      magnitudeLength = 0;
+   }
 
    /**
-    * Returns an InfiniteInteger whose value is {@code (this - value)}.
-    * Note ∞ - ∞ results in NaN.
+    * Moves the elements of this back into magnitude and frees the storage. Does nothing if this isn't in storage.
     *
-    * @param value the operand to be subtracted from this InfiniteInteger.
-    * @return the result including ±∞ and NaN
-    * @see #subtract(long)
+    * @throws WillNotFitException if this has more elements than an array can hold
     */
-   @Override
-   public MutableInfiniteInteger subtract(final MutableInfiniteInteger value)
+   private void moveToHeap()
    {
-      if (this.isNaN() || value.isNaN()) return MutableInfiniteInteger.NaN;
-      if (value.equalValue(0)) return this;
-      if (this.equalValue(0)) return set(value.copy().negate());
-
-      //delegations based on the sign of each
-      if (!this.isNegative && value.isNegative) return this.add(value.copy().abs());
-      if (this.isNegative && !value.isNegative) return set(this.abs().add(value).negate());
-      if (this.isNegative && value.isNegative) return set(value.copy().abs().subtract(this.abs()));
-
-      //the rest is for if both positive
-      if (this.equals(MutableInfiniteInteger.POSITIVE_INFINITY) && value.equals(MutableInfiniteInteger.POSITIVE_INFINITY))
-         return MutableInfiniteInteger.NaN;
-      if (this.isInfinite()) return this;
-      if (value.isInfinite()) return value.negate();
-      if (this.equals(value)) return set(new MutableInfiniteInteger(0));
-      if (is(this, LESS_THAN, value)) return set(value.copy().subtract(this).negate());
+      if (storage == null) return;
+      final int length = MutableInfiniteInteger.checkMagnitudeLength(storageLength);
+      final int[] newMagnitude = new int[length];
+      storage.get(0, newMagnitude, 0, length);
+      releaseStorage();
+      magnitude = newMagnitude;
+      magnitudeLength = length;
+   }
 
-      //this is greater than value
-      long difference = 0;
-      DequeNode<Integer> thisCursor = this.magnitudeHead;
-      final ListIterator<Integer> valueMagIterator = value.magnitudeIterator();
-      int lowValue, highValue;
-      byte borrowCount;
-      while (valueMagIterator.hasNext() || difference != 0)
-      {
-         lowValue = (int) difference;
-         highValue = (int) (difference >>> 32);
-         difference = Integer.toUnsignedLong(thisCursor.getData().intValue());
-         if (valueMagIterator.hasNext()) difference -= Integer.toUnsignedLong(valueMagIterator.next().intValue());
-         difference -= Integer.toUnsignedLong(lowValue);
-         //difference == Long.min won't cause a bug due to how borrow is programmed
-         borrowCount = 0;
-         while (difference < 0)  //can happen 0-2 times
-         {
-            borrowCount++;
-            difference += Integer.toUnsignedLong((int) BitWiseUtil.HIGH_64) + 1;  //add max unsigned int +1
-            //this makes difference borrow
-            //the +1 is here for the same reason that when borrowing in base 10 you add 10 instead of 9
-         }
+   /**
+    * Frees the storage. The caller must then give this a magnitude.
+    */
+   private void releaseStorage()
+   {
+      storage.close();
+      storage = null;
+      storageLength = 0;
+   }
 
-         thisCursor.setData((int) difference);
-         //assert((difference >>> 32) == 0);  //due to the borrowing above
+   /**
+    * Used by operations that need an array but must not change where this is kept (such as when this is a parameter).
+    *
+    * @return this if it isn't in storage otherwise a copy that is on the heap
+    * @throws WillNotFitException if this has more elements than an array can hold
+    */
+   private MutableInfiniteInteger onHeap()
+   {
+      if (storage == null) return this;
+      final int length = MutableInfiniteInteger.checkMagnitudeLength(storageLength);
+      final int[] copiedMagnitude = new int[length];
+      storage.get(0, copiedMagnitude, 0, length);
+      return new MutableInfiniteInteger(isNegative, copiedMagnitude, length);
+   }
 
-         difference = Integer.toUnsignedLong(highValue) + borrowCount;  //borrow subtracts more
+   /**
+    * @return the same as copy except that the result is always on the heap
+    */
+   private MutableInfiniteInteger heapCopy()
+   {
+      if (storage == null) return this.copy();
+      return this.onHeap();
+   }
 
-         if (thisCursor.getNext() != null) thisCursor = thisCursor.getNext();
-         //if thisCursor is at the end then the loop is done because this > value
-      }
-      //go to the end (which won't always happen)
-      while (thisCursor.getNext() != null){thisCursor = thisCursor.getNext();}
-      //There can be any number of leading 0s. Remove them all.
-      while (thisCursor.getData().intValue() == 0)
+   /**
+    * Used at the end of public methods that mutate this. Moves this off of the heap if it has at least
+    * offHeapThreshold elements or back onto the heap if it has fewer.
+    *
+    * @return this
+    * @see #setOffHeapThreshold(long)
+    */
+   private MutableInfiniteInteger applyOffHeapThreshold()
+   {
+      if (storage != null)
       {
-         thisCursor = thisCursor.getPrev();
-         thisCursor.getNext().remove();
+         //a number that won't fit in an array stays in storage
+         if (storageLength < MutableInfiniteInteger.offHeapThreshold && storageLength <= MutableInfiniteInteger.maxMagnitudeLength)
+            this.moveToHeap();
       }
-
+      else if (magnitude != null && magnitudeLength >= MutableInfiniteInteger.offHeapThreshold)
+         this.moveToStorage(magnitudeLength);
       return this;
    }
 
    /**
-    * Entire code: <blockquote>{@code return this.multiply(MutableInfiniteInteger.valueOf(value));}</blockquote>
+    * Returns an InfiniteInteger whose value is {@code (this + value)}.
+    * If this InfiniteInteger fits into a long and the sum doesn't overflow then the math is done with primitives
+    * otherwise this delegates to {@link #add(MutableInfiniteInteger)}.
     *
-    * @see #multiply(MutableInfiniteInteger)
-    * @see #valueOf(long)
+    * @param value the operand to be added to this InfiniteInteger.
+    * @return the result including ±∞ and NaN
+    * @see #add(MutableInfiniteInteger)
     */
    @Override
-   public MutableInfiniteInteger multiply(final long value){return this.multiply(MutableInfiniteInteger.valueOf(value));}
+   public MutableInfiniteInteger add(final long value)
+   {
+      if (this.fitsInLong())
+      {
+         final long thisValue = this.exactLongValue();
+         final long sum = thisValue + value;
+         //same overflow check as Math.addExact: overflow if both have a different sign than the result
+         if (((thisValue ^ sum) & (value ^ sum)) >= 0) return this.setLongValue(sum);
+      }
+      return this.add(MutableInfiniteInteger.valueOf(value));
+   }
 
    /**
-    * Entire code: <blockquote>{@code return this.multiply(InfiniteInteger.valueOf(value));}</blockquote>
+    * Entire code: <blockquote>{@code return this.add(MutableInfiniteInteger.valueOf(value));}</blockquote>
     *
-    * @see #multiply(MutableInfiniteInteger)
+    * @see #add(MutableInfiniteInteger)
     * @see #valueOf(BigInteger)
     */
    @Override
-   public MutableInfiniteInteger multiply(final BigInteger value){return this.multiply(MutableInfiniteInteger.valueOf(value));}
+   public MutableInfiniteInteger add(final BigInteger value){return this.add(MutableInfiniteInteger.valueOf(value));}
+
+   /**
+    * Returns an InfiniteInteger whose value is {@code (this + value)}.
+    *
+    * @param value the operand to be added to this InfiniteInteger.
+    * @return the result including ±∞ and NaN
+    * @see #add(long)
+    */
+   @Override
+   public MutableInfiniteInteger add(final MutableInfiniteInteger value)
+   {
+      if (this.isNaN() || value.isNaN()) return MutableInfiniteInteger.NaN;
+      if (value.equalValue(0)) return this;
+      if (this.equalValue(0)) return set(value);
+
+      if (!this.isFinite() || !value.isFinite())
+      {
+         //∞ + -∞ is NaN otherwise the infinite one wins
+         if (this.isInfinite() && value.isInfinite() && this.isNegative != value.isNegative)
+            return MutableInfiniteInteger.NaN;
+         if (this.isInfinite()) return this;
+         return value;
+      }
+
+      this.addSigned(value, value.isNegative);
+      return this.applyOffHeapThreshold();
+   }
+
+   /**
+    * Used internally by the add and subtract methods to add a finite number to this finite number in place.
+    * The magnitudes are compared at most once and nothing is allocated unless this needs to grow.
+    * value is allowed to be this.
+    *
+    * @param value           the magnitude to add (the sign of value is ignored)
+    * @param valueIsNegative the sign to use for value. Subtraction passes the opposite of value's sign
+    */
+   private void addSigned(final MutableInfiniteInteger value, final boolean valueIsNegative)
+   {
+      if (this.storage != null || value.storage != null
+          || MutableInfiniteInteger.needsStorage(Math.max(this.magnitudeLength, value.magnitudeLength) + 1L))
+      {
+         this.addSignedInStorage(value, valueIsNegative);
+         return;
+      }
+      if (this.isNegative == valueIsNegative)
+      {
+         //isNegative is already correct for positive or negative
+         this.addAbove(0, value.magnitude, value.magnitudeLength);
+         return;
+      }
+
+      //the signs are different so the smaller magnitude is subtracted from the larger
+      //and the result has the sign of the larger
+      final int magnitudeComparison = this.compareMagnitude(value);
+      if (magnitudeComparison == THIS_EQUAL) this.setLongValue(0);
+      else if (magnitudeComparison == THIS_GREATER) this.subtractBelow(value.magnitude, value.magnitudeLength);
+      else
+      {
+         this.subtractFromAbove(value.magnitude, value.magnitudeLength);
+         this.isNegative = valueIsNegative;
+      }
+   }
+
+   /**
+    * Used internally by the add and multiply methods. This method adds value to the starting element
+    * and carries upward. It does not affect any elements before the starting element. The starting element
+    * (and above) will be mutated. This method ignores the sign of both numbers (as if both are positive).
+    * valueMagnitude is allowed to be this.magnitude as long as the starting index is 0.
+    *
+    * @param startingIndex  the index of this.magnitude that the least significant element of value is added to.
+    *                       This can be greater than magnitudeLength
+    * @param valueMagnitude the elements to add
+    * @param valueLength    the number of elements of valueMagnitude that are used
+    */
+   private void addAbove(final int startingIndex, final int[] valueMagnitude, final int valueLength)
+   {
+      final int maxLength = MutableInfiniteInteger.checkMagnitudeLength(Math.max(magnitudeLength, (long) startingIndex + valueLength) + 1);
+      ensureCapacity(maxLength);
+      //fill the gap (and the room for the final carry) since the elements beyond the length aren't maintained
+      Arrays.fill(magnitude, magnitudeLength, maxLength, 0);
+
+      //turns out (true for signed and unsigned) max long > max int + max int + 1. so sum can't overflow
+      long sum = 0;
+      int resultIndex = startingIndex;
+      for (int valueIndex = 0; valueIndex < valueLength; ++valueIndex, ++resultIndex)
+      {
+         sum += Integer.toUnsignedLong(magnitude[resultIndex]) + Integer.toUnsignedLong(valueMagnitude[valueIndex]);
+         magnitude[resultIndex] = (int) sum;
+         sum >>>= 32;
+      }
+      while (sum != 0)
+      {
+         sum += Integer.toUnsignedLong(magnitude[resultIndex]);
+         magnitude[resultIndex] = (int) sum;
+         sum >>>= 32;
+         ++resultIndex;
+      }
+      magnitudeLength = maxLength;
+      //the last element might be a leading 0
+      removeLeadingZeros();
+   }
+
+   /**
+    * Returns an InfiniteInteger whose value is {@code (this - value)}.
+    * If this InfiniteInteger fits into a long and the difference doesn't overflow then the math is done with primitives
+    * otherwise this delegates to {@link #subtract(MutableInfiniteInteger)}.
+    *
+    * @param value the operand to be subtracted from this InfiniteInteger.
+    * @return the result including ±∞ and NaN
+    * @see #subtract(MutableInfiniteInteger)
+    */
+   @Override
+   public MutableInfiniteInteger subtract(final long value)
+   {
+      if (this.fitsInLong())
+      {
+         final long thisValue = this.exactLongValue();
+         final long difference = thisValue - value;
+         //same overflow check as Math.subtractExact: overflow if the signs were different and the result's sign isn't this's
+         if (((thisValue ^ value) & (thisValue ^ difference)) >= 0) return this.setLongValue(difference);
+      }
+      return this.subtract(MutableInfiniteInteger.valueOf(value));
+   }
+
+   /**
+    * Entire code: <blockquote>{@code return this.subtract(MutableInfiniteInteger.valueOf(value));}</blockquote>
+    *
+    * @see #subtract(MutableInfiniteInteger)
+    * @see #valueOf(BigInteger)
+    */
+   @Override
+   public MutableInfiniteInteger subtract(final BigInteger value){return this.subtract(MutableInfiniteInteger.valueOf(value));}
+
+   /**
+    * Returns an InfiniteInteger whose value is {@code (this - value)}.
+    * Note ∞ - ∞ results in NaN.
+    *
+    * @param value the operand to be subtracted from this InfiniteInteger.
+    * @return the result including ±∞ and NaN
+    * @see #subtract(long)
+    */
+   @Override
+   public MutableInfiniteInteger subtract(final MutableInfiniteInteger value)
+   {
+      if (this.isNaN() || value.isNaN()) return MutableInfiniteInteger.NaN;
+      if (value.equalValue(0)) return this;
+      if (this.equalValue(0)) return set(value).negate();
+
+      if (!this.isFinite() || !value.isFinite())
+      {
+         //∞ - ∞ is NaN otherwise the infinite one wins
+         if (this.isInfinite() && value.isInfinite() && this.isNegative == value.isNegative)
+            return MutableInfiniteInteger.NaN;
+         if (this.isInfinite()) return this;
+         return value.negate();
+      }
+
+      //subtracting is the same as adding the value with the opposite sign
+      this.addSigned(value, !value.isNegative);
+      return this.applyOffHeapThreshold();
+   }
+
+   /**
+    * Used internally by the subtract methods. This method subtracts value from this and borrows upward.
+    * This method ignores the sign of both numbers (as if both are positive) and requires that this is
+    * greater than or equal to value.
+    *
+    * @param valueMagnitude the elements to subtract
+    * @param valueLength    the number of elements of valueMagnitude that are used
+    */
+   private void subtractBelow(final int[] valueMagnitude, final int valueLength)
+   {
+      //difference is between -(2^32) and 2^32 so it can't overflow.
+      //shifting (signed) leaves either 0 or -1 which is the borrow
+      long difference = 0;
+      int thisIndex = 0;
+      for (; thisIndex < valueLength; ++thisIndex)
+      {
+         difference += Integer.toUnsignedLong(magnitude[thisIndex]) - Integer.toUnsignedLong(valueMagnitude[thisIndex]);
+         magnitude[thisIndex] = (int) difference;
+         difference >>= 32;
+      }
+      //if this index is at the end then the loop is done because this >= value
+      for (; difference != 0 && thisIndex < magnitudeLength; ++thisIndex)
+      {
+         difference += Integer.toUnsignedLong(magnitude[thisIndex]);
+         magnitude[thisIndex] = (int) difference;
+         difference >>= 32;
+      }
+      //There can be any number of leading 0s. Remove them all.
+      removeLeadingZeros();
+   }
+
+   /**
+    * Used internally by the subtract methods. This method sets the magnitude of this to (value - this) and borrows
+    * upward. This method ignores the sign of both numbers (as if both are positive) and requires that value is
+    * greater than or equal to this. The sign of this is not changed.
+    *
+    * @param valueMagnitude the elements to subtract this from
+    * @param valueLength    the number of elements of valueMagnitude that are used
+    */
+   private void subtractFromAbove(final int[] valueMagnitude, final int valueLength)
+   {
+      ensureCapacity(valueLength);
+      //same borrow logic as subtractBelow
+      long difference = 0;
+      int thisIndex = 0;
+      for (; thisIndex < magnitudeLength; ++thisIndex)
+      {
+         difference += Integer.toUnsignedLong(valueMagnitude[thisIndex]) - Integer.toUnsignedLong(magnitude[thisIndex]);
+         magnitude[thisIndex] = (int) difference;
+         difference >>= 32;
+      }
+      //the rest of value is copied down (after any borrow) since this has no more elements
+      for (; thisIndex < valueLength; ++thisIndex)
+      {
+         difference += Integer.toUnsignedLong(valueMagnitude[thisIndex]);
+         magnitude[thisIndex] = (int) difference;
+         difference >>= 32;
+      }
+      magnitudeLength = valueLength;
+      //There can be any number of leading 0s. Remove them all.
+      removeLeadingZeros();
+   }
+
+   /**
+    * Same as addSigned for when this or value is in storage. This is moved into storage (if it isn't already) then
+    * like the array version each element is read and written once (a block at a time). value is allowed to be this.
+    */
+   private void addSignedInStorage(final MutableInfiniteInteger value, final boolean valueIsNegative)
+   {
+      if (this.storage == null) this.moveToStorage(Math.max(this.magnitudeLength, value.limbCount()) + 1);
+      if (this.isNegative == valueIsNegative)
+      {
+         this.addToStorage(value);
+         return;
+      }
+
+      final int magnitudeComparison = this.compareMagnitude(value);
+      if (magnitudeComparison == THIS_EQUAL) this.setLongValue(0);
+      else if (magnitudeComparison == THIS_GREATER) this.subtractBelowInStorage(value);
+      else
+      {
+         this.subtractFromAboveInStorage(value);
+         this.isNegative = valueIsNegative;
+      }
+   }
+
+   /**
+    * Same as addAbove (starting at 0) for when this is in storage. Ignores the sign of both numbers.
+    */
+   private void addToStorage(final MutableInfiniteInteger value)
+   {
+      final long valueLength = value.limbCount();
+      final long maxLength = MutableInfiniteInteger.checkStorageLength(Math.max(storageLength, valueLength) + 1);
+      storage.ensureCapacity(maxLength);
+      storage.fill(storageLength, maxLength, 0);
+
+      final int[] thisBlock = new int[(int) Math.min(maxLength, MutableInfiniteInteger.STORAGE_BLOCK_LENGTH)];
+      final int[] valueBlock = new int[thisBlock.length];
+      long sum = 0;
+      //after value's elements only the carry needs to be added
+      for (long index = 0; index < maxLength && (index < valueLength || sum != 0); index += thisBlock.length)
+      {
+         final int count = (int) Math.min(thisBlock.length, maxLength - index);
+         this.readLimbs(index, thisBlock, 0, count);
+         value.readLimbs(index, valueBlock, 0, count);
+         for (int i = 0; i < count; ++i)
+         {
+            sum += Integer.toUnsignedLong(thisBlock[i]) + Integer.toUnsignedLong(valueBlock[i]);
+            thisBlock[i] = (int) sum;
+            sum >>>= 32;
+         }
+         storage.put(index, thisBlock, 0, count);
+      }
+      storageLength = maxLength;
+      removeLeadingZeros();
+   }
+
+   /**
+    * Same as subtractBelow for when this is in storage. Requires that this is greater than or equal to value
+    * (ignoring sign).
+    */
+   private void subtractBelowInStorage(final MutableInfiniteInteger value)
+   {
+      final long valueLength = value.limbCount();
+      final int[] thisBlock = new int[(int) Math.min(storageLength, MutableInfiniteInteger.STORAGE_BLOCK_LENGTH)];
+      final int[] valueBlock = new int[thisBlock.length];
+      long difference = 0;
+      //after value's elements only the borrow needs to be subtracted
+      for (long index = 0; index < storageLength && (index < valueLength || difference != 0); index += thisBlock.length)
+      {
+         final int count = (int) Math.min(thisBlock.length, storageLength - index);
+         this.readLimbs(index, thisBlock, 0, count);
+         value.readLimbs(index, valueBlock, 0, count);
+         for (int i = 0; i < count; ++i)
+         {
+            difference += Integer.toUnsignedLong(thisBlock[i]) - Integer.toUnsignedLong(valueBlock[i]);
+            thisBlock[i] = (int) difference;
+            difference >>= 32;
+         }
+         storage.put(index, thisBlock, 0, count);
+      }
+      removeLeadingZeros();
+   }
+
+   /**
+    * Same as subtractFromAbove for when this is in storage. Sets the magnitude of this to (value - this) and requires
+    * that value is greater than or equal to this (ignoring sign). The sign of this is not changed.
+    */
+   private void subtractFromAboveInStorage(final MutableInfiniteInteger value)
+   {
+      final long valueLength = value.limbCount();
+      storage.ensureCapacity(valueLength);
+      final int[] thisBlock = new int[(int) Math.min(valueLength, MutableInfiniteInteger.STORAGE_BLOCK_LENGTH)];
+      final int[] valueBlock = new int[thisBlock.length];
+      long difference = 0;
+      for (long index = 0; index < valueLength; index += thisBlock.length)
+      {
+         final int count = (int) Math.min(thisBlock.length, valueLength - index);
+         //the elements of this past storageLength are read as 0
+         this.readLimbs(index, thisBlock, 0, count);
+         value.readLimbs(index, valueBlock, 0, count);
+         for (int i = 0; i < count; ++i)
+         {
+            difference += Integer.toUnsignedLong(valueBlock[i]) - Integer.toUnsignedLong(thisBlock[i]);
+            thisBlock[i] = (int) difference;
+            difference >>= 32;
+         }
+         storage.put(index, thisBlock, 0, count);
+      }
+      storageLength = valueLength;
+      removeLeadingZeros();
+   }
+
+   /**
+    * Returns an InfiniteInteger whose value is {@code (this * value)}.
+    * If this InfiniteInteger fits into a long and the product doesn't overflow then the math is done with primitives.
+    * Otherwise finite numbers are multiplied in place by the single word (1 pass that only allocates if the array
+    * needs to grow). Only ±∞, NaN and 0 delegate to {@link #multiply(MutableInfiniteInteger)}.
+    *
+    * @param value the operand to be multiplied to this InfiniteInteger.
+    * @return the result including ±∞ and NaN
+    * @see #multiply(MutableInfiniteInteger)
+    */
+   @Override
+   public MutableInfiniteInteger multiply(final long value)
+   {
+      if (this.fitsInLong())
+      {
+         final long thisValue = this.exactLongValue();
+         final long lowProduct = thisValue * value;
+         //the product fits if the high 64 bits are only the sign extension of the low 64 bits
+         if (Math.multiplyHigh(thisValue, value) == (lowProduct >> 63)) return this.setLongValue(lowProduct);
+      }
+      if (!this.isFinite() || value == 0) return this.multiply(MutableInfiniteInteger.valueOf(value));
+
+      this.moveToHeap();
+      //grow first (like the general multiply's check) so that this isn't left half mutated if it won't fit
+      ensureCapacity((long) magnitudeLength + 2);
+      //-Long.MIN_VALUE is still Long.MIN_VALUE which is correct when treated as unsigned
+      final long carry = MultiplyUtil.multiplyInPlace(magnitude, magnitudeLength, Math.abs(value));
+      isNegative = (isNegative != (value < 0));  //!= acts as xor
+      //this and value aren't 0 so the carry has no leading 0 elements above the product
+      if (carry != 0)
+      {
+         final int carryLength = ((carry >>> 32) == 0) ? 1 : 2;
+         magnitude[magnitudeLength] = (int) carry;
+         if (carryLength == 2) magnitude[magnitudeLength + 1] = (int) (carry >>> 32);
+         magnitudeLength += carryLength;
+      }
+      return this.applyOffHeapThreshold();
+   }
+
+   /**
+    * Entire code: <blockquote>{@code return this.multiply(InfiniteInteger.valueOf(value));}</blockquote>
+    *
+    * @see #multiply(MutableInfiniteInteger)
+    * @see #valueOf(BigInteger)
+    */
+   @Override
+   public MutableInfiniteInteger multiply(final BigInteger value){return this.multiply(MutableInfiniteInteger.valueOf(value));}
 
    /**
     * Returns an InfiniteInteger whose value is {@code (this * value)}.
     * Note ±∞ * 0 results in NaN.
+    * Very large products are split into tasks that run in a ForkJoinPool, see
+    * {@link #setParallelPool(ForkJoinPool)} and {@link #setParallelThreshold(int)}.
     *
     * @param value the operand to be multiplied to this InfiniteInteger.
     * @return the result including ±∞ and NaN
@@ -1066,85 +1769,175 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
       if (value.isInfinite() && this.signum() == -1) return value.negate();
 
       if (value.equalValue(1)) return this;
-      if (this.equalValue(1)) return set(value.copy());
+      if (this.equalValue(1)) return set(value);
       if (this.equalValue(0) || value.equalValue(0)) return set(new MutableInfiniteInteger(0));
       if (value.equalValue(-1)) return this.negate();
-      if (this.equalValue(-1)) return set(value.copy().negate());
+      if (this.equalValue(-1)) return set(value).negate();
 
       final boolean resultIsNegative = (isNegative != value.isNegative);  //!= acts as xor
-      MutableInfiniteInteger valueRemaining = value.copy();  //.abs() is not needed since the nodes are unsigned
-      final MutableInfiniteInteger result = new MutableInfiniteInteger(0);
-      DequeNode<Integer> resultCursor = result.magnitudeHead;
+      //the kernels need arrays
+      final MutableInfiniteInteger heapValue = value.onHeap();
+      this.moveToHeap();
+      //.abs() is not needed since the elements are unsigned
+      MutableInfiniteInteger.checkMagnitudeLength((long) this.magnitudeLength + heapValue.magnitudeLength);
+      final int[] product = MultiplyUtil.multiply(this.magnitude, this.magnitudeLength,
+         heapValue.magnitude, heapValue.magnitudeLength);
+      this.magnitude = product;
+      this.magnitudeLength = product.length;
+      this.isNegative = resultIsNegative;
+      removeLeadingZeros();
+      return this.applyOffHeapThreshold();
+   }
 
-      while (!valueRemaining.equalValue(0))
-      {
-         MutableInfiniteInteger.addAbove(resultCursor, this.internalMultiply(valueRemaining.magnitudeHead.getData().intValue()));
-         valueRemaining = valueRemaining.divideByPowerOf2DropRemainder(32);
-         if (resultCursor.getNext() == null) resultCursor = DequeNode.Factory.createNodeAfter(resultCursor, 0);
-         else resultCursor = resultCursor.getNext();
-      }
-      result.isNegative = resultIsNegative;
-      resultCursor = result.getMagnitudeTail();
-      while (resultCursor.getData().intValue() == 0)  //remove leading 0s
+   /**
+    * Returns an InfiniteInteger whose value is {@code (this * this)}. This is faster than
+    * {@code this.multiply(this.copy())} since the square of a number needs about half as many partial products.
+    * Note that ±∞ squared is +∞.
+    *
+    * @return the result including +∞ and NaN
+    * @see #multiply(MutableInfiniteInteger)
+    */
+   @Override
+   public MutableInfiniteInteger square()
+   {
+      if (this.isNaN()) return MutableInfiniteInteger.NaN;
+      if (this.isInfinite()) return MutableInfiniteInteger.POSITIVE_INFINITY;
+      if (this.fitsInLong())
       {
-         resultCursor = resultCursor.getPrev();  //prev is never null because the result is not 0
-         resultCursor.getNext().remove();
+         final long thisValue = this.exactLongValue();
+         //if this fits in an int then the square is at most 2^62
+         if (thisValue == (int) thisValue) return this.setLongValue(thisValue * thisValue);
       }
-      //TODO: make it suck less by mutating as it goes. also use shifting for speed
-      //then re-test divide speed
 
-      return set(result);
+      this.moveToHeap();
+      MutableInfiniteInteger.checkMagnitudeLength(2L * this.magnitudeLength);
+      final int[] product = MultiplyUtil.square(this.magnitude, this.magnitudeLength);
+      this.magnitude = product;
+      this.magnitudeLength = product.length;
+      this.isNegative = false;
+      removeLeadingZeros();
+      return this.applyOffHeapThreshold();
    }
 
    /**
-    * Used internally by the multiply methods. This method multiplies this InfiniteInteger by value.
-    * This method does not mutate (the returned value will be a copy) and should be removed in the future.
-    * This InfiniteInteger can't be a constant or 0.
+    * Returns an InfiniteInteger whose value is {@code (this + left * right)}. Unlike
+    * {@code this.add(left.copy().multiply(right))} the partial products are accumulated into this
+    * so that there is no temporary product to allocate and then add. Neither parameter is mutated.
     *
-    * @param value must be positive or 0
-    * @return the result
+    * @return the result including ±∞ and NaN
+    * @see #addProduct(MutableInfiniteInteger, MutableInfiniteInteger)
     */
-   private MutableInfiniteInteger internalMultiply(final int value)
+   public MutableInfiniteInteger addProduct(final MutableInfiniteInteger left, final long right)
    {
-      if (value == 0) return new MutableInfiniteInteger(0);  //this has already been compared to the singletons
-      final MutableInfiniteInteger result = this.copy().abs();
-      DequeNode<Integer> resultCursor = result.magnitudeHead;
-      long product;
-      int carry = 0;
-      boolean isHuge;
-      while (resultCursor != null)
-      {
-         //max unsigned int * max unsigned int < max unsigned long but will end up being negative which makes adding carry impossible
-         product = Integer.toUnsignedLong(resultCursor.getData().intValue());
-         product *= Integer.toUnsignedLong(value);
-         isHuge = (product < 0);
-         product &= Long.MAX_VALUE;  //TODO: is Long.min possible?
-         product += Integer.toUnsignedLong(carry);
-         if (isHuge) product |= Long.MIN_VALUE;
+      if (!this.isFinite() || !left.isFinite()) return this.add(left.copy().multiply(right));
+      if (right == 0 || left.equalValue(0)) return this;
+
+      //Math.abs(Long.MIN_VALUE) is still Long.MIN_VALUE which is correct when treated as unsigned
+      final long absRight = Math.abs(right);
+      final int[] rightMagnitude = {(int) absRight, (int) (absRight >>> 32)};
+      final MutableInfiniteInteger heapLeft = left.onHeap();
+      this.accumulateProduct(heapLeft.magnitude, heapLeft.magnitudeLength, rightMagnitude,
+         (rightMagnitude[1] == 0) ? 1 : 2, left.isNegative != (right < 0));
+      return this.applyOffHeapThreshold();
+   }
 
-         resultCursor.setData((int) product);
-         product >>>= 32;
-         carry = (int) product;
+   /**
+    * Returns an InfiniteInteger whose value is {@code (this + left * right)}. Unlike
+    * {@code this.add(left.copy().multiply(right))} the partial products are accumulated into this
+    * so that there is no temporary product to allocate and then add (for numbers too large to use schoolbook
+    * multiplication there is still a temporary product). Neither parameter is mutated.
+    *
+    * @return the result including ±∞ and NaN
+    * @see #subtractProduct(MutableInfiniteInteger, MutableInfiniteInteger)
+    */
+   public MutableInfiniteInteger addProduct(final MutableInfiniteInteger left, final MutableInfiniteInteger right)
+   {
+      if (!this.isFinite() || !left.isFinite() || !right.isFinite()) return this.add(left.copy().multiply(right));
+      if (left.equalValue(0) || right.equalValue(0)) return this;
 
-         resultCursor = resultCursor.getNext();
+      final MutableInfiniteInteger heapLeft = left.onHeap(), heapRight = right.onHeap();
+      this.accumulateProduct(heapLeft.magnitude, heapLeft.magnitudeLength, heapRight.magnitude,
+         heapRight.magnitudeLength, left.isNegative != right.isNegative);
+      return this.applyOffHeapThreshold();
+   }
+
+   /**
+    * Returns an InfiniteInteger whose value is {@code (this - left * right)}. Unlike
+    * {@code this.subtract(left.copy().multiply(right))} the partial products are subtracted from this directly.
+    * Neither parameter is mutated.
+    *
+    * @return the result including ±∞ and NaN
+    * @see #addProduct(MutableInfiniteInteger, MutableInfiniteInteger)
+    */
+   public MutableInfiniteInteger subtractProduct(final MutableInfiniteInteger left, final MutableInfiniteInteger right)
+   {
+      if (!this.isFinite() || !left.isFinite() || !right.isFinite()) return this.subtract(left.copy().multiply(right));
+      if (left.equalValue(0) || right.equalValue(0)) return this;
+
+      //subtracting the product is the same as adding the product with the opposite sign
+      final MutableInfiniteInteger heapLeft = left.onHeap(), heapRight = right.onHeap();
+      this.accumulateProduct(heapLeft.magnitude, heapLeft.magnitudeLength, heapRight.magnitude,
+         heapRight.magnitudeLength, left.isNegative == right.isNegative);
+      return this.applyOffHeapThreshold();
+   }
+
+   /**
+    * Used internally by the addProduct and subtractProduct methods. Adds the product of the magnitudes (with the
+    * given sign) to this finite number.
+    *
+    * @param productIsNegative the sign that the product should be treated as having
+    */
+   private void accumulateProduct(final int[] leftMagnitude, final int leftLength, final int[] rightMagnitude,
+                                  final int rightLength, final boolean productIsNegative)
+   {
+      final long productLength = (long) leftLength + rightLength;
+      //the kernels can't read and write the same array (or write to storage)
+      if (!MultiplyUtil.usesIntElements(leftLength, rightLength) || leftMagnitude == magnitude || rightMagnitude == magnitude
+          || storage != null)
+      {
+         MutableInfiniteInteger.checkMagnitudeLength(productLength);
+         final int[] product = MultiplyUtil.multiply(leftMagnitude, leftLength, rightMagnitude, rightLength);
+         this.addSigned(new MutableInfiniteInteger(false, product, product.length), productIsNegative);
+         return;
       }
-      resultCursor = result.getMagnitudeTail();
-      if (carry != 0) DequeNode.Factory.createNodeAfter(resultCursor, carry);
-      else if (resultCursor.getData().intValue() == 0) resultCursor.remove();  //remove leading 0
-      return result;
+
+      //0 has no sign so take the product's which means adding the magnitudes
+      if (this.equalValue(0)) isNegative = productIsNegative;
+      //room for the larger of the two plus a carry
+      final int length = MutableInfiniteInteger.checkMagnitudeLength(Math.max(magnitudeLength, productLength) + 1);
+      ensureCapacity(length);
+      //the kernels need the elements beyond the length to be 0
+      Arrays.fill(magnitude, magnitudeLength, length, 0);
+      magnitudeLength = length;
+
+      if (isNegative == productIsNegative)
+         MultiplyUtil.addProduct(magnitude, leftMagnitude, leftLength, rightMagnitude, rightLength);
+      else if (MultiplyUtil.subtractProduct(magnitude, length, leftMagnitude, leftLength, rightMagnitude, rightLength))
+         isNegative = productIsNegative;  //the product was larger
+      removeLeadingZeros();
    }
 
    /**
-    * This method delegates because the formula used is exactly the same.
-    * Entire code: <blockquote>{@code return this.multiplyByPowerOf2(InfiniteInteger.valueOf(exponent));}</blockquote>
+    * Same as {@link #multiplyByPowerOf2(MutableInfiniteInteger)}. The whole elements are moved with a single copy then
+    * the remaining bits are shifted in 1 pass.
     *
     * @see #multiplyByPowerOf2(MutableInfiniteInteger)
-    * @see #valueOf(long)
     */
    @Override
    public MutableInfiniteInteger multiplyByPowerOf2(final long exponent)
    {
-      return this.multiplyByPowerOf2(MutableInfiniteInteger.valueOf(exponent));
+      if (this.equalValue(0) || exponent == 0 || !this.isFinite()) return this;
+      //Long.MIN_VALUE can't be negated
+      if (exponent == Long.MIN_VALUE) return this.divideByPowerOf2DropRemainder(MutableInfiniteInteger.valueOf(exponent).abs());
+      if (exponent < 0) return this.divideByPowerOf2DropRemainder(-exponent);
+      //fail fast instead of shifting for a long time and then running out of memory
+      if (exponent > 32L * MutableInfiniteInteger.maxLength())
+         throw new WillNotFitException("Shifting by " + exponent + " bits would need more than "
+                                       + MutableInfiniteInteger.maxLength() + " elements.");
+
+      this.shiftMagnitudeLeftBits(exponent);
+      //no need to check leading 0s since it couldn't have gained any
+      return this.applyOffHeapThreshold();
    }
 
    /**
@@ -1174,6 +1967,7 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
     *
     * @param exponent is also the shift distance in bits
     * @return the result including ±∞ and NaN
+    * @throws WillNotFitException if the result would be too large to store
     * @see #divideByPowerOf2DropRemainder(MutableInfiniteInteger)
     */
    @Override
@@ -1181,41 +1975,210 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    {
       if (this.equalValue(0) || exponent.equalValue(0) || !this.isFinite()) return this;
       if (exponent.isNegative) return this.divideByPowerOf2DropRemainder(exponent.copy().abs());
+      //fail fast instead of shifting for a long time and then running out of memory
+      if (is(exponent, GREATER_THAN, MutableInfiniteInteger.valueOf(32L * MutableInfiniteInteger.maxLength())))
+         throw new WillNotFitException("Shifting by " + exponent + " bits would need more than "
+                                       + MutableInfiniteInteger.maxLength() + " elements.");
+
+      //the exponent fits in a long because of the check above
+      return this.multiplyByPowerOf2(exponent.longValue());
+   }
 
-      MutableInfiniteInteger shiftDistanceRemaining = exponent.copy();
-      while (isComparisonResult(shiftDistanceRemaining.compareTo(32), GREATER_THAN_OR_EQUAL_TO))
+   /**
+    * Used internally to move the magnitude toward the most significant end.
+    * The result is the same as multiplying by 2<sup>(32 * elementShift + bitShift)</sup>.
+    *
+    * @param elementShift the number of whole elements to move up
+    * @param bitShift     must be 0 to 31 inclusive
+    */
+   private void shiftMagnitudeLeft(final int elementShift, final int bitShift)
+   {
+      final int oldLength = magnitudeLength;
+      final boolean carry = MutableInfiniteInteger.shiftCarries(magnitude[oldLength - 1], bitShift);
+      final int newLength = MutableInfiniteInteger.checkMagnitudeLength((long) oldLength + elementShift + (carry ? 1 : 0));
+      ensureCapacity(newLength);
+      if (bitShift == 0) System.arraycopy(magnitude, 0, magnitude, elementShift, oldLength);
+      else
       {
-         this.magnitudeHead = DequeNode.Factory.createNodeBefore(0, this.magnitudeHead);
-         shiftDistanceRemaining = shiftDistanceRemaining.subtract(32);
+         //go from most significant to least so that nothing is overwritten before it's read
+         if (carry) magnitude[oldLength + elementShift] = magnitude[oldLength - 1] >>> (32 - bitShift);
+         for (int i = oldLength - 1; i > 0; --i)
+         {
+            magnitude[i + elementShift] = (magnitude[i] << bitShift) | (magnitude[i - 1] >>> (32 - bitShift));
+         }
+         magnitude[elementShift] = magnitude[0] << bitShift;
       }
+      Arrays.fill(magnitude, 0, elementShift, 0);
+      magnitudeLength = newLength;
+      removeLeadingZeros();
+   }
+
+   /**
+    * @param topLimb  the most significant element
+    * @param bitShift must be 0 to 31 inclusive
+    * @return true if shifting topLimb left by bitShift bits moves any 1 bits into a new element
+    */
+   private static boolean shiftCarries(final int topLimb, final int bitShift)
+   {
+      return bitShift != 0 && Integer.numberOfLeadingZeros(topLimb) < bitShift;
+   }
 
-      final int smallShiftDistance = shiftDistanceRemaining.intValue();
-      if (smallShiftDistance != 0)
+   /**
+    * Used internally to move the magnitude toward the least significant end. Any bits that fall off are lost.
+    * The result is the same as dividing by 2<sup>(32 * elementShift + bitShift)</sup> and dropping the remainder
+    * (ignoring sign).
+    *
+    * @param elementShift the number of whole elements to move down
+    * @param bitShift     must be 0 to 31 inclusive
+    */
+   private void shiftMagnitudeRight(final int elementShift, final int bitShift)
+   {
+      if (elementShift >= magnitudeLength)
       {
-         DequeNode<Integer> thisCursor = this.getMagnitudeTail();
-         int overflow;
+         magnitude[0] = 0;
+         magnitudeLength = 1;
+         removeLeadingZeros();
+         return;
+      }
+      final int newLength = magnitudeLength - elementShift;
+      if (bitShift == 0) System.arraycopy(magnitude, elementShift, magnitude, 0, newLength);
+      else
+      {
+         //go from least significant to most so that nothing is overwritten before it's read
+         for (int i = 0; i < newLength - 1; ++i)
+         {
+            magnitude[i] = (magnitude[i + elementShift] >>> bitShift) | (magnitude[i + elementShift + 1] << (32 - bitShift));
+         }
+         magnitude[newLength - 1] = magnitude[magnitudeLength - 1] >>> bitShift;
+      }
+      magnitudeLength = newLength;
+      removeLeadingZeros();
+   }
 
-         while (thisCursor != null)
+   /**
+    * Same as shiftMagnitudeLeft for when this is in storage.
+    */
+   private void shiftStorageLeft(final long elementShift, final int bitShift)
+   {
+      final long oldLength = storageLength;
+      final boolean carry = MutableInfiniteInteger.shiftCarries(storage.get(oldLength - 1), bitShift);
+      final long newLength = oldLength + elementShift + (carry ? 1 : 0);
+      storage.ensureCapacity(newLength);
+      if (bitShift == 0) storage.copy(0, storage, elementShift, oldLength);
+      else
+      {
+         //source[i + 1] is element (low + i) and source[0] is the one below the block (or 0)
+         final int[] source = new int[(int) Math.min(oldLength + 1, MutableInfiniteInteger.STORAGE_BLOCK_LENGTH) + 1];
+         final int[] shifted = new int[source.length - 1];
+         //go from most significant to least so that nothing is overwritten before it's read.
+         //if there's a carry then element oldLength is read as 0 and becomes the bits shifted out of the top
+         long high = oldLength + (carry ? 1 : 0);
+         while (high > 0)
          {
-            overflow = BitWiseUtil.getHighestNBits(thisCursor.getData().intValue(), smallShiftDistance);
-            //overflow contains what would fall off when shifting left
-            overflow >>>= (32 - smallShiftDistance);
-            //shift overflow right so that it appears in the least significant place of the following node
-            if (overflow != 0 && thisCursor.getNext() == null) DequeNode.Factory.createNodeAfter(thisCursor, overflow);
-            else if (overflow != 0) thisCursor.getNext().setData(thisCursor.getNext().getData().intValue() | overflow);
-
-            thisCursor.setData(thisCursor.getData().intValue() << smallShiftDistance);
-            thisCursor = thisCursor.getPrev();
+            final int count = (int) Math.min(shifted.length, high);
+            final long low = high - count;
+            if (low == 0)
+            {
+               source[0] = 0;
+               this.readLimbs(0, source, 1, count);
+            }
+            else this.readLimbs(low - 1, source, 0, count + 1);
+            for (int i = 0; i < count; ++i)
+            {
+               shifted[i] = (source[i + 1] << bitShift) | (source[i] >>> (32 - bitShift));
+            }
+            storage.put(low + elementShift, shifted, 0, count);
+            high = low;
          }
       }
-      //no need to check leading 0s since it couldn't have gained any
+      storage.fill(0, elementShift, 0);
+      storageLength = newLength;
+      removeLeadingZeros();
+   }
 
-      return this;
+   /**
+    * Same as shiftMagnitudeRight for when this is in storage.
+    */
+   private void shiftStorageRight(final long elementShift, final int bitShift)
+   {
+      if (elementShift >= storageLength)
+      {
+         storage.set(0, 0);
+         storageLength = 1;
+         removeLeadingZeros();
+         return;
+      }
+      final long newLength = storageLength - elementShift;
+      if (bitShift == 0) storage.copy(elementShift, storage, 0, newLength);
+      else
+      {
+         //source[i] is element (low + elementShift + i)
+         final int[] source = new int[(int) Math.min(newLength, MutableInfiniteInteger.STORAGE_BLOCK_LENGTH) + 1];
+         final int[] shifted = new int[source.length - 1];
+         //go from least significant to most so that nothing is overwritten before it's read.
+         //the element above the most significant is read as 0
+         for (long low = 0; low < newLength; low += shifted.length)
+         {
+            final int count = (int) Math.min(shifted.length, newLength - low);
+            this.readLimbs(low + elementShift, source, 0, count + 1);
+            for (int i = 0; i < count; ++i)
+            {
+               shifted[i] = (source[i] >>> bitShift) | (source[i + 1] << (32 - bitShift));
+            }
+            storage.put(low, shifted, 0, count);
+         }
+      }
+      storageLength = newLength;
+      removeLeadingZeros();
    }
 
    /**
-    * This method delegates because the formula used is exactly the same.
-    * Entire code: <blockquote>{@code return divide(MutableInfiniteInteger.valueOf(value));}</blockquote>
+    * @return the number of 0 bits below the least significant 1 bit. This must be finite and not 0
+    */
+   private long countTrailingZeroBits()
+   {
+      int elementIndex = 0;
+      while (magnitude[elementIndex] == 0){++elementIndex;}
+      return 32L * elementIndex + Integer.numberOfTrailingZeros(magnitude[elementIndex]);
+   }
+
+   /**
+    * Same as {@link #shiftMagnitudeLeft(int, int)} but takes the distance in bits.
+    */
+   private void shiftMagnitudeLeftBits(final long bitDistance)
+   {
+      if (bitDistance == 0) return;
+      final boolean carry = MutableInfiniteInteger.shiftCarries(limb(limbCount() - 1), (int) (bitDistance % 32));
+      final long newLength = bitDistance / 32 + limbCount() + (carry ? 1 : 0);
+      if (storage == null && MutableInfiniteInteger.needsStorage(newLength)) this.moveToStorage(newLength);
+      if (storage != null)
+      {
+         MutableInfiniteInteger.checkStorageLength(newLength);
+         this.shiftStorageLeft(bitDistance / 32, (int) (bitDistance % 32));
+      }
+      else
+      {
+         MutableInfiniteInteger.checkMagnitudeLength(newLength);
+         this.shiftMagnitudeLeft((int) (bitDistance / 32), (int) (bitDistance % 32));
+      }
+   }
+
+   /**
+    * Same as {@link #shiftMagnitudeRight(int, int)} but takes the distance in bits.
+    */
+   private void shiftMagnitudeRightBits(final long bitDistance)
+   {
+      if (storage != null)
+      {
+         if (bitDistance != 0) this.shiftStorageRight(Math.min(bitDistance / 32, storageLength), (int) (bitDistance % 32));
+      }
+      else if (bitDistance / 32 >= magnitudeLength) this.shiftMagnitudeRight(magnitudeLength, 0);
+      else if (bitDistance != 0) this.shiftMagnitudeRight((int) (bitDistance / 32), (int) (bitDistance % 32));
+   }
+
+   /**
+    * Same as {@link #divide(MutableInfiniteInteger)} except that a value which fits into a single element is divided
+    * in 1 pass without creating a MutableInfiniteInteger for it.
     *
     * @see #divide(MutableInfiniteInteger)
     * @see #valueOf(long)
@@ -1223,6 +2186,8 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
    @Override
    public IntegerQuotient<MutableInfiniteInteger> divide(final long value)
    {
+      if (this.isFinite() && MutableInfiniteInteger.fitsInElement(value))
+         return this.divideByElement(value < 0, (int) Math.abs(value));
       return divide(MutableInfiniteInteger.valueOf(value));
    }
 
@@ -1256,296 +2221,301 @@ public final class MutableInfiniteInteger extends AbstractInfiniteInteger<Mutabl
          return new IntegerQuotient<>(MutableInfiniteInteger.NaN, MutableInfiniteInteger.NaN);
       if (!this.isFinite()) return new IntegerQuotient<>(this, MutableInfiniteInteger.NaN);
       if (!value.isFinite()) return new IntegerQuotient<>(new MutableInfiniteInteger(0), MutableInfiniteInteger.NaN);
+      if (value.limbCount() == 1) return this.divideByElement(value.isNegative, value.limb(0));
 
       if (value.equalValue(1)) return new IntegerQuotient<>(this.copy(), new MutableInfiniteInteger(0));
       if (value.equalValue(-1)) return new IntegerQuotient<>(this.copy().negate(), new MutableInfiniteInteger(0));
       if (this.equals(value))
          return new IntegerQuotient<>(new MutableInfiniteInteger(1), new MutableInfiniteInteger(0));
 
-      MutableInfiniteInteger thisAbs = this.copy().abs(), valueAbs = value.copy().abs();
+      //the copies are on the heap because DivideUtil needs arrays
+      MutableInfiniteInteger thisAbs = this.heapCopy().abs(), valueAbs = value.heapCopy().abs();
       //if not equal but abs is equal then answer is -1,0
       if (thisAbs.equals(valueAbs))
          return new IntegerQuotient<>(new MutableInfiniteInteger(-1), new MutableInfiniteInteger(0));
       if (is(thisAbs, LESS_THAN, valueAbs) || this.equalValue(0))
          return new IntegerQuotient<>(new MutableInfiniteInteger(0), thisAbs);
 
-      //shift them down as much as possible
-      //I can't use thisAbs.intValue because I need all 32 bits
-      MutableInfiniteInteger numberOfShifts = new MutableInfiniteInteger(0);
-      while (((int) thisAbs.longValue()) == 0 && ((int) valueAbs.longValue()) == 0)
+      final boolean resultIsNegative = (isNegative != value.isNegative);  //!= acts as xor
+      //if the division can be done by primitive then delegate (valueAbs < thisAbs so it also fits)
+      if (thisAbs.fitsInLong())
       {
-         //dropping a node is fast and greatly shrinks the numbers
-         thisAbs = thisAbs.divideByPowerOf2DropRemainder(32);
-         valueAbs = valueAbs.divideByPowerOf2DropRemainder(32);
-         //reducing doesn't affect the whole answer
-         numberOfShifts = numberOfShifts.add(32);  //but does affect the remainder so track it
+         long whole = thisAbs.exactLongValue() / valueAbs.exactLongValue();
+         final long remainder = thisAbs.exactLongValue() % valueAbs.exactLongValue();
+         if (resultIsNegative) whole *= -1;
+         return new IntegerQuotient<>(new MutableInfiniteInteger(whole), new MutableInfiniteInteger(remainder));
       }
-      final int lastShift = Math.min(Integer.numberOfTrailingZeros(((int) thisAbs.longValue())),
-         Integer.numberOfTrailingZeros(((int) valueAbs.longValue())));
-      if (lastShift != 0)
+
+      if (valueAbs.magnitudeLength >= MutableInfiniteInteger.newtonDivisionThreshold
+          && thisAbs.magnitudeLength - valueAbs.magnitudeLength
+             >= (long) MutableInfiniteInteger.NEWTON_DIVISION_MIN_BLOCKS * valueAbs.magnitudeLength)
       {
-         //passing in 0 would do nothing anyway
-         thisAbs = thisAbs.divideByPowerOf2DropRemainder(lastShift);
-         valueAbs = valueAbs.divideByPowerOf2DropRemainder(lastShift);
-         numberOfShifts = numberOfShifts.add(lastShift);
+         final IntegerQuotient<MutableInfiniteInteger> integerQuotient = newtonDivide(thisAbs, valueAbs);
+         MutableInfiniteInteger whole = integerQuotient.getWholeResult();
+         if (resultIsNegative) whole = whole.negate();
+         return new IntegerQuotient<>(whole, integerQuotient.getRemainder());
       }
+      //DivideUtil works an element at a time (and recursively for large divisors)
+      final int[] remainderMagnitude = new int[valueAbs.magnitudeLength];
+      final int[] wholeMagnitude = DivideUtil.divide(thisAbs.magnitude, thisAbs.magnitudeLength, valueAbs.magnitude,
+         valueAbs.magnitudeLength, remainderMagnitude);
+
+      //the constructor removes the leading 0s
+      return new IntegerQuotient<>(
+         new MutableInfiniteInteger(resultIsNegative, wholeMagnitude, wholeMagnitude.length),
+         new MutableInfiniteInteger(false, remainderMagnitude, remainderMagnitude.length)
+      );
+   }
 
-      final boolean resultIsNegative = (isNegative != value.isNegative);  //!= acts as xor
-      //if the remaining division can be done by primitive then delegate
-      if (thisAbs.equalValue(thisAbs.longValue()) && valueAbs.equalValue(valueAbs.longValue()))
+   /**
+    * @param divisorIsNegative the sign of the divisor
+    * @param divisor           the magnitude of the divisor which is treated as unsigned. Must not be 0
+    * @return the IntegerQuotient of {@code (this / divisor)}. This must be finite and isn't mutated
+    * @see #divide(MutableInfiniteInteger)
+    */
+   private IntegerQuotient<MutableInfiniteInteger> divideByElement(final boolean divisorIsNegative, final int divisor)
+   {
+      final MutableInfiniteInteger whole = this.heapCopy();
+      final long remainder = whole.divideMagnitudeByElement(divisor);
+      if (divisorIsNegative) whole.negate();
+      return new IntegerQuotient<>(whole, new MutableInfiniteInteger(remainder));
+   }
+
+   /**
+    * Divides the magnitude in place (high to low in a single pass) and leaves the sign alone (unless the result is 0).
+    *
+    * @param divisor treated as unsigned. Must not be 0
+    * @return the remainder (which is positive)
+    * @see DivideUtil#divideByWord(int[], int, int, int[])
+    */
+   private long divideMagnitudeByElement(final int divisor)
+   {
+      final int remainder = DivideUtil.divideByWord(magnitude, magnitudeLength, divisor, magnitude);
+      removeLeadingZeros();
+      return Integer.toUnsignedLong(remainder);
+   }
+
+   /**
+    * @param divisor treated as unsigned. Must not be 0
+    * @return the remainder of {@code (this / divisor)} (which is positive). This must be finite and isn't mutated
+    */
+   private long remainderByElement(final int divisor)
+   {
+      if (storage != null)
       {
-         long whole = thisAbs.longValue() / valueAbs.longValue();
-         final long remainder = thisAbs.longValue() % valueAbs.longValue();
-         if (resultIsNegative) whole *= -1;
-         return new IntegerQuotient<>(
-            new MutableInfiniteInteger(whole),
-            new MutableInfiniteInteger(remainder).multiplyByPowerOf2(numberOfShifts)
-         );
+         //same as DivideUtil.remainderByWord: from the most significant element
+         final long unsignedDivisor = Integer.toUnsignedLong(divisor);
+         final int[] block = new int[(int) Math.min(storageLength, MutableInfiniteInteger.STORAGE_BLOCK_LENGTH)];
+         long remainder = 0;
+         for (long high = storageLength; high > 0; high -= block.length)
+         {
+            final int count = (int) Math.min(block.length, high);
+            storage.get(high - count, block, 0, count);
+            for (int i = count - 1; i >= 0; --i)
+            {
+               remainder = Long.remainderUnsigned((remainder << 32) | Integer.toUnsignedLong(block[i]), unsignedDivisor);
+            }
+         }
+         return remainder;
       }
+      return Integer.toUnsignedLong(DivideUtil.remainderByWord(magnitude, magnitudeLength, divisor));
+   }
 
-      //doesn't work for int: https://math.stackexchange.com/questions/333204/binary-long-division-for-polynomials-in-crc-computation
-      //ditto: https://math.stackexchange.com/questions/682301/modulo-2-binary-division-xor-not-subtracting-method
-      //final IntegerQuotient<MutableInfiniteInteger> integerQuotient = divideBinarySearch(thisAbs, valueAbs);
-      //final IntegerQuotient<MutableInfiniteInteger> integerQuotient = longDivide(thisAbs, valueAbs);
-      final IntegerQuotient<MutableInfiniteInteger> integerQuotient = binaryDivide(thisAbs, valueAbs);
+   /**
+    * @param divisor must be finite and not 0
+    * @return true if this (which must be finite) is a multiple of divisor. Doesn't mutate either
+    */
+   private boolean isDivisibleBy(final MutableInfiniteInteger divisor)
+   {
+      if (divisor.limbCount() == 1) return this.remainderByElement(divisor.limb(0)) == 0;
+      return this.copy().divideReturnRemainder(divisor).equalValue(0);
+   }
 
-      MutableInfiniteInteger whole = integerQuotient.getWholeResult();
-      if (resultIsNegative) whole = whole.negate();
-      return new IntegerQuotient<>(whole, integerQuotient.getRemainder().multiplyByPowerOf2(numberOfShifts));
+   /**
+    * @return true if value is not 0 and its absolute value fits into a single (unsigned) element
+    */
+   private static boolean fitsInElement(final long value)
+   {
+      return value != 0 && value >= -0xFFFF_FFFFL && value <= 0xFFFF_FFFFL;
    }
 
-   private static IntegerQuotient<MutableInfiniteInteger> divideBinarySearch(MutableInfiniteInteger thisAbs,
-                                                                             MutableInfiniteInteger valueAbs)
+   /**
+    * Divides by multiplying by the reciprocal of valueAbs which costs a few multiplications instead of a division.
+    * The dividend is split into blocks (from the most significant) of up to valueAbs.magnitudeLength elements and the
+    * same reciprocal is used for each block like a digit of long division: each step divides
+    * {@code remainder * 2^(32 * blockLength) + block} (which is less than valueAbs * 2^(32 * blockLength)) so each
+    * quotient block fits in blockLength elements.
+    * <p>
+    * The estimate of each quotient block is off by at most a few: the reciprocal is within a few of
+    * 2^precisionBits / valueAbs and x < 2^precisionBits so using the reciprocal adds at most that much error. The
+    * dropped low bits of x are less than valueAbs / 2^32 so they add less than 1. The estimate is then corrected once
+    * using the remainder.
+    *
+    * @param thisAbs  must be positive. Not mutated
+    * @param valueAbs must be positive. Not mutated
+    */
+   private static IntegerQuotient<MutableInfiniteInteger> newtonDivide(final MutableInfiniteInteger thisAbs,
+                                                                      final MutableInfiniteInteger valueAbs)
    {
-      MutableInfiniteInteger lower = new MutableInfiniteInteger(2);  //above already covered the possible ways whole could be 0 and 1
-      MutableInfiniteInteger difference, midway, higher, whole = null;
-      higher = ComparableSugar.max(thisAbs, valueAbs);
-      higher = higher.copy().divideByPowerOf2DropRemainder(1);
+      //a short quotient only needs a short reciprocal
+      final int blockLength = Math.min(valueAbs.magnitudeLength,
+         thisAbs.magnitudeLength - valueAbs.magnitudeLength + 1);
+      final long divisorBits = valueAbs.bitLength();
+      final long precisionBits = divisorBits + 32L * blockLength;
+      final MutableInfiniteInteger reciprocal = MutableInfiniteInteger.approximateReciprocal(valueAbs, precisionBits);
+      final long droppedBits = Math.max(0, divisorBits - 33);
+
+      final int[] quotientMagnitude = new int[thisAbs.magnitudeLength];
+      MutableInfiniteInteger remainder = new MutableInfiniteInteger(0);
+      for (int blockStart = (thisAbs.magnitudeLength - 1) / blockLength * blockLength; blockStart >= 0;
+           blockStart -= blockLength)
+      {
+         final int blockEnd = Math.min(blockStart + blockLength, thisAbs.magnitudeLength);
+         //the public methods might have moved the temporary numbers off of the heap
+         remainder.moveToHeap();
+         final int[] x = new int[blockLength + remainder.magnitudeLength];
+         System.arraycopy(thisAbs.magnitude, blockStart, x, 0, blockEnd - blockStart);
+         System.arraycopy(remainder.magnitude, 0, x, blockLength, remainder.magnitudeLength);
+         remainder = new MutableInfiniteInteger(false, x, x.length);
+
+         final MutableInfiniteInteger whole = remainder.copy();
+         whole.shiftMagnitudeRightBits(droppedBits);
+         whole.multiply(reciprocal);
+         whole.shiftMagnitudeRightBits(precisionBits - droppedBits);
+         remainder.subtract(valueAbs.copy().multiply(whole));
+         MutableInfiniteInteger.correctQuotient(whole, remainder, valueAbs);
+         whole.moveToHeap();
+         System.arraycopy(whole.magnitude, 0, quotientMagnitude, blockStart, whole.magnitudeLength);
+      }
+      //the constructor removes the leading 0s
+      return new IntegerQuotient<>(new MutableInfiniteInteger(false, quotientMagnitude, quotientMagnitude.length),
+         remainder);
+   }
 
-      if (valueAbs.equalValue(1))
-         whole = thisAbs;  //this can only occur if valueAbs was shifted down to 1 and thisAbs > Long.Max
-      while (whole == null)
+   /**
+    * Adjusts an estimated quotient so that the remainder is at least 0 and less than the divisor. Instead of adding or
+    * subtracting the divisor once per unit of error the error is found with a single division of the remainder. The
+    * estimate is only off by a little so the remainder is about the size of the divisor and the division has a 1 or 2
+    * element quotient (which costs about the same as 1 subtraction).
+    *
+    * @param whole     is mutated
+    * @param remainder is mutated. It is the dividend minus whole * divisor
+    * @param divisor   must be positive. Not mutated
+    */
+   private static void correctQuotient(final MutableInfiniteInteger whole, final MutableInfiniteInteger remainder,
+                                       final MutableInfiniteInteger divisor)
+   {
+      if (remainder.signum() == -1)
       {
-         difference = higher.copy().subtract(lower);
-         //avoid cutting small numbers in half:
-         if (is(difference, LESS_THAN, MutableInfiniteInteger.valueOf(4))) break;  //jump to small loop
-         difference = difference.divideByPowerOf2DropRemainder(1);
-         midway = difference.add(lower);  //diff not copied because I no longer need it
-         final int compareResult = midway.copy().multiply(valueAbs).compareTo(thisAbs);
-         if (isComparisonResult(compareResult, EQUAL_TO)) whole = midway;
-            //if midway*valueAbs > thisAbs then midway is an upper bound
-         else if (isComparisonResult(compareResult, GREATER_THAN)) higher = midway;
-         else lower = midway;  //if less than
-      }
-      //if difference < 4 then just have lower count up (max of 4 times)
-      while (whole == null)
-      {
-         final int compareResult = lower.copy().multiply(valueAbs).compareTo(thisAbs);
-         if (isComparisonResult(compareResult, EQUAL_TO)) whole = lower;
-         else if (isComparisonResult(compareResult, GREATER_THAN)) whole = lower.subtract(1);
-         else lower = lower.add(1);
-      }
-
-      final MutableInfiniteInteger remainder = thisAbs.copy().subtract(whole.copy().multiply(valueAbs));
-
-      return new IntegerQuotient<>(whole, remainder);
-   }
-
-   /**
-    * It works but uses divideBinarySearch and seems slower than it.
-    */
-   private static IntegerQuotient<MutableInfiniteInteger> longDivide(MutableInfiniteInteger thisAbs,
-                                                                     MutableInfiniteInteger valueAbs)
-   {
-/*
-      005325101r21
-     ----------
-123 | 6(54987444)
-     -0 (0)
-   ----
-      65(4987444)
-      -0 (0)
-    ----
-      654(987444)
-     -615 (5)
-     ----
-       399(87444)
-      -369 (3)
-      ----
-        308(7444)
-       -246 (2)
-       ----
-         627(444)
-        -615 (5)
-        ----
-          124(44)
-         -123 (1)
-         ----
-            14(4)
-            -0 (0)
-          ----
-            144
-           -123 (1)
-           ----
-             21 (r)
-*/
-      final MutableInfiniteInteger whole = MutableInfiniteInteger.valueOf(0);
-      MutableInfiniteInteger carry = MutableInfiniteInteger.valueOf(0);
-      DequeNode<Integer> thisCursor = thisAbs.getMagnitudeTail();
-      do
-      {
-         //inherit the new digit from thisAbs
-         if (carry.equalValue(0)) carry = MutableInfiniteInteger.valueOf(Integer.toUnsignedLong(thisCursor.getData()));
-            //insert a new least significant node
-         else carry.magnitudeHead = DequeNode.Factory.createNodeBefore(thisCursor.getData(), carry.magnitudeHead);
-
-         if (is(carry, LESS_THAN, valueAbs))
+         //-remainder = error * divisor + errorRemainder so whole is (error + 1) too large unless errorRemainder is 0
+         final IntegerQuotient<MutableInfiniteInteger> error = remainder.copy().negate().divide(divisor);
+         whole.subtract(error.getWholeResult());
+         remainder.set(error.getRemainder());
+         if (!remainder.equalValue(0))
          {
-            whole.magnitudeHead = DequeNode.Factory.createNodeBefore(0, whole.magnitudeHead);
+            whole.subtract(1);
+            remainder.negate().add(divisor);
          }
-         else
-         {
-            final IntegerQuotient<MutableInfiniteInteger> partialQuotient = divideBinarySearch(carry, valueAbs);
-            //partialQuotient.whole is always 1 node
-            final Integer data = partialQuotient.getWholeResult().magnitudeHead.getData();
-            whole.magnitudeHead = DequeNode.Factory.createNodeBefore(data, whole.magnitudeHead);
-            carry = partialQuotient.getRemainder();
-         }
-         thisCursor = thisCursor.getPrev();
-      } while (thisCursor != null);
-
-      //TODO: remove leading 0s should be a method
-      DequeNode<Integer> wholeTail = whole.getMagnitudeTail();
-      while (wholeTail.getData().intValue() == 0 && wholeTail != whole.magnitudeHead)
-      {
-         wholeTail = wholeTail.getPrev();
-         wholeTail.getNext().remove();
-      }
-
-      return new IntegerQuotient<>(whole, carry);
-   }
-
-   /**
-    * Significantly faster than divideBinarySearch
-    */
-   private static IntegerQuotient<MutableInfiniteInteger> binaryDivide(MutableInfiniteInteger thisAbs,
-                                                                       MutableInfiniteInteger valueAbs)
-   {
-/*
-yes/no subtract: http://www.binarymath.info/binary-division.php
-
-75/13 = 5 rem 10
-1001011/1101 = 101 rem 1010
-
-     0000101
-    --------
-1101(1001011
- ?1101 no (0)
-  ?1101 no (0)
-   ?1101 no (0)
-    ?1101 no (0)
-     -1101 yes (1)
-     -----
-       10111
-      ?1101 no (0)
-       -1101 yes (1)
-       -----
-        1010
-        rem 1010
-
-1232/13 = 94 rem 10
-10011010000/1101 = 1011110 rem 1010
-
-     00001011110 rem 1010
-     -----------
-1101(10011010000
- ?1101 no (0)
-  ?1101 no (0)
-   ?1101 no (0)
-    ?1101 no (0)
-     -1101 yes (1)
-     -----
-       110010000
-      ?1101 no (0)
-       -1101 yes (1)
-       -----
-        11000000
-        -1101 yes (1)
-        -----
-         1011000
-         -1101 yes (1)
-         -----
-          100100
-          -1101 yes (1)
-          -----
-            1010
-           ?1101 no (0)
-            rem 1010
-
-10 4294967296/31 = 138547332 r 4
-0x = 100000000/1F = 8421084 r 4
-0b 100000000000000000000000000000000 / 11111 = 000001000010000100001000010000100 r 0100
-
-      000001000010000100001000010000100
-      ---------------------------------
-11111(100000000000000000000000000000000
- ?11111 no (0)
-  ?11111 no (0)
-   ?11111 no (0)
-    ?11111 no (0)
-     ?11111 no (0)
-      -11111 yes (1)
-      ------
-           1
-          ?11111 no (0)...
-
-problem is that I don't know if this will be faster than trial multiplication since it requires iteration over base 2
-rather than base int
-*/
-      DequeNode<Integer> thisCursor = thisAbs.getMagnitudeTail();
-      MutableInfiniteInteger carry = MutableInfiniteInteger.valueOf(0);
-      MutableInfiniteInteger whole = MutableInfiniteInteger.valueOf(0);
-      long extraNodeData = Integer.toUnsignedLong(thisCursor.getData());
-      int bitIndex = 32;
-      while (true)
+      }
+      else if (is(remainder, GREATER_THAN_OR_EQUAL_TO, divisor))
       {
-         if (bitIndex == 0)
-         {
-            thisCursor = thisCursor.getPrev();
-            if (thisCursor == null) break;
-            extraNodeData = Integer.toUnsignedLong(thisCursor.getData());
-            bitIndex = 32;
-         }
-         else
-         {
-            //TODO: can I refactor this to be less confusing?
-            final byte bit = (byte) ((extraNodeData >>> (bitIndex - 1)) & 1);
-            carry = carry.multiplyByPowerOf2(1);
-            carry.magnitudeHead.setData(carry.magnitudeHead.getData() | bit);
-            --bitIndex;
+         final IntegerQuotient<MutableInfiniteInteger> error = remainder.divide(divisor);
+         whole.add(error.getWholeResult());
+         remainder.set(error.getRemainder());
+      }
+   }
+
+   /**
+    * Returns an InfiniteInteger whose value is {@code (2^precisionBits / this)} with the remainder dropped (ie a
+    * fixed point reciprocal with precisionBits bits after the point). Dividing by the same number many times can
+    * instead multiply by the reciprocal then shift right by precisionBits (the quotient will be at most 1 too small).
+    * <p>
+    * Large reciprocals use Newton's method: a reciprocal with half the precision is found (recursively from the top
+    * bits of this) then 1 iteration of {@code x = x + x * (2^precisionBits - this * x) / 2^precisionBits} doubles the
+    * number of correct bits. Only the final result is corrected to be exact so each step is a few multiplications.
+    * Note that 1/0 is NaN, 1/±∞ is 0, and a negative precision is 0 (since the result would be less than 1).
+    *
+    * @param precisionBits the power of 2 to divide
+    * @return the result including NaN. The sign is the same as this
+    * @see #divide(MutableInfiniteInteger)
+    */
+   public MutableInfiniteInteger reciprocal(final long precisionBits)
+   {
+      if (this.isNaN() || this.equalValue(0)) return MutableInfiniteInteger.NaN;
+      //immutable constants can't be changed
+      if (!this.isFinite()) return new MutableInfiniteInteger(0);
+      if (precisionBits < 0) return set(new MutableInfiniteInteger(0));
+      final boolean resultIsNegative = isNegative;
+      //approximateReciprocal needs an array
+      final MutableInfiniteInteger divisor = this.onHeap().abs();
+      final MutableInfiniteInteger result = MutableInfiniteInteger.approximateReciprocal(divisor, precisionBits);
+      //the estimate is only off by a little so make it exact
+      final MutableInfiniteInteger remainder = new MutableInfiniteInteger(1);
+      remainder.shiftMagnitudeLeftBits(precisionBits);
+      remainder.subtract(divisor.copy().multiply(result));
+      MutableInfiniteInteger.correctQuotient(result, remainder, divisor);
+      //negate leaves 0 positive
+      if (resultIsNegative) result.negate();
+      return setFromTemporary(result);
+   }
 
-            whole = whole.multiplyByPowerOf2(1);
-            if (is(carry, GREATER_THAN_OR_EQUAL_TO, valueAbs))
-            {
-               whole.magnitudeHead.setData(whole.magnitudeHead.getData() | 1);
-               carry = carry.subtract(valueAbs);
-            }
-         }
+   /**
+    * @param divisor       must be positive. Not mutated
+    * @param precisionBits must be at least 0
+    * @return a new number that is floor(2^precisionBits / divisor) give or take a few. Only the final result needs to
+    * be exact so the steps of Newton's method aren't corrected
+    * @see #reciprocal(long)
+    */
+   private static MutableInfiniteInteger approximateReciprocal(final MutableInfiniteInteger divisor,
+                                                               final long precisionBits)
+   {
+      final long divisorBits = divisor.bitLength();
+      //2^precisionBits < divisor
+      if (precisionBits < divisorBits - 1) return new MutableInfiniteInteger(0);
+      final MutableInfiniteInteger powerOf2 = new MutableInfiniteInteger(1);
+      powerOf2.shiftMagnitudeLeftBits(precisionBits);
+      //the result has resultBits or (resultBits - 1) bits
+      final long resultBits = precisionBits - divisorBits + 1;
+      //bits of the divisor below the top (resultBits + 64) change the result by much less than 1
+      final long extraDivisorBits = divisorBits - resultBits - 64;
+      if (extraDivisorBits > 0)
+      {
+         final MutableInfiniteInteger divisorTop = divisor.copy();
+         divisorTop.shiftMagnitudeRightBits(extraDivisorBits);
+         return MutableInfiniteInteger.approximateReciprocal(divisorTop, precisionBits - extraDivisorBits);
       }
-
-      DequeNode<Integer> wholeTail = whole.getMagnitudeTail();
-      while (wholeTail.getData().intValue() == 0 && wholeTail != whole.magnitudeHead)
+      if (resultBits <= MutableInfiniteInteger.NEWTON_RECIPROCAL_BASE_BITS)
       {
-         wholeTail = wholeTail.getPrev();
-         wholeTail.getNext().remove();
+         final int[] remainderMagnitude = new int[divisor.magnitudeLength];
+         final int[] wholeMagnitude = DivideUtil.divide(powerOf2.magnitude, powerOf2.magnitudeLength,
+            divisor.magnitude, divisor.magnitudeLength, remainderMagnitude);
+         return new MutableInfiniteInteger(false, wholeMagnitude, wholeMagnitude.length);
       }
 
-      return new IntegerQuotient<>(whole, carry);
+      //a half precision estimate using only the top bits of the divisor (with 32 guard bits for each)
+      final long halfBits = resultBits / 2 + 32;
+      final long droppedDivisorBits = Math.max(0, divisorBits - halfBits - 32);
+      final MutableInfiniteInteger divisorTop = divisor.copy();
+      divisorTop.shiftMagnitudeRightBits(droppedDivisorBits);
+      //scaled so that x * 2^(resultBits - halfBits) is about 2^precisionBits / divisor
+      final long estimateShift = resultBits - halfBits;
+      final MutableInfiniteInteger estimate = MutableInfiniteInteger.approximateReciprocal(divisorTop,
+         precisionBits - droppedDivisorBits - estimateShift);
+      estimate.shiftMagnitudeLeftBits(estimateShift);
+
+      //Newton's method: x + x * (2^precisionBits - divisor * x) / 2^precisionBits
+      final MutableInfiniteInteger error = powerOf2.subtract(divisor.copy().multiply(estimate));
+      //x is less than 2^(precisionBits - divisorBits + 1) so the low bits of the error change the result by less than 1
+      final long droppedErrorBits = Math.max(0, divisorBits - 33);
+      error.shiftMagnitudeRightBits(droppedErrorBits);
+      final MutableInfiniteInteger correction = error.multiply(estimate);
+      correction.shiftMagnitudeRightBits(precisionBits - droppedErrorBits);
+      return estimate.add(correction);
    }
 
    /**
     * Aka divideReturnWhole.
-    * Entire code: <blockquote>{@code return set(divide(value).getWholeResult());}</blockquote>
+    * A value which fits into a single element is divided in place without allocating.
     *
     * @see #divide(MutableInfiniteInteger)
     * @see #valueOf(long)
@@ -1553,7 +2523,14 @@ rather than base int
    @Override
    public MutableInfiniteInteger divideDropRemainder(final long value)
    {
-      return set(divide(value).getWholeResult());
+      if (this.isFinite() && MutableInfiniteInteger.fitsInElement(value))
+      {
+         this.moveToHeap();
+         this.divideMagnitudeByElement((int) Math.abs(value));
+         if (value < 0) this.negate();
+         return this.applyOffHeapThreshold();
+      }
+      return setFromTemporary(divide(value).getWholeResult());
    }
 
    /**
@@ -1571,27 +2548,85 @@ rather than base int
 
    /**
     * Aka divideReturnWhole.
-    * Entire code: <blockquote>{@code return set(divide(value).getWholeResult());}</blockquote>
+    * A value which fits into a single element is divided in place without allocating.
     *
     * @see #divide(MutableInfiniteInteger)
     */
    @Override
    public MutableInfiniteInteger divideDropRemainder(final MutableInfiniteInteger value)
    {
-      return set(divide(value).getWholeResult());
+      if (value.isFinite() && value.limbCount() == 1) return this.divideDropRemainder(value.longValue());
+      return setFromTemporary(divide(value).getWholeResult());
    }
 
    /**
     * This method delegates because the formula used is exactly the same.
-    * Entire code: <blockquote>{@code return this.divideByPowerOf2DropRemainder(InfiniteInteger.valueOf(exponent));}</blockquote>
+    * Entire code: <blockquote>{@code return this.divideExact(MutableInfiniteInteger.valueOf(value));}</blockquote>
     *
-    * @see #divideByPowerOf2DropRemainder(MutableInfiniteInteger)
+    * @see #divideExact(MutableInfiniteInteger)
     * @see #valueOf(long)
     */
    @Override
+   public MutableInfiniteInteger divideExact(final long value)
+   {
+      return this.divideExact(MutableInfiniteInteger.valueOf(value));
+   }
+
+   /**
+    * Entire code: <blockquote>{@code return this.divideExact(MutableInfiniteInteger.valueOf(value));}</blockquote>
+    *
+    * @see #divideExact(MutableInfiniteInteger)
+    * @see #valueOf(BigInteger)
+    */
+   @Override
+   public MutableInfiniteInteger divideExact(final BigInteger value)
+   {
+      return this.divideExact(MutableInfiniteInteger.valueOf(value));
+   }
+
+   /**
+    * Divides when value is known to be a factor of this. This is faster than {@link #divideDropRemainder(MutableInfiniteInteger)}
+    * because the quotient is found from the least significant element without estimating (see
+    * {@link DivideUtil#divideExact(int[], int, int[], int)}). Special values are the same as divideDropRemainder.
+    *
+    * @param value the operand to divide this InfiniteInteger by.
+    * @return the result including ±∞ and NaN
+    * @throws ArithmeticException if this is finite and value isn't a factor of this
+    * @see #divide(MutableInfiniteInteger)
+    */
+   @Override
+   public MutableInfiniteInteger divideExact(final MutableInfiniteInteger value)
+   {
+      if (!this.isFinite() || !value.isFinite() || value.equalValue(0))
+         return setFromTemporary(divide(value).getWholeResult());
+      if (this.equalValue(0)) return this;
+
+      final MutableInfiniteInteger heapValue = value.onHeap();
+      this.moveToHeap();
+      final int[] wholeMagnitude = DivideUtil.divideExact(magnitude, magnitudeLength, heapValue.magnitude,
+         heapValue.magnitudeLength);
+      if (wholeMagnitude == null) throw new ArithmeticException(value + " isn't a factor of " + this);
+      //the constructor removes the leading 0s
+      return setFromTemporary(
+         new MutableInfiniteInteger(isNegative != value.isNegative, wholeMagnitude, wholeMagnitude.length));
+   }
+
+   /**
+    * Same as {@link #divideByPowerOf2DropRemainder(MutableInfiniteInteger)}. The whole elements are moved with a single
+    * copy then the remaining bits are shifted in 1 pass.
+    *
+    * @see #divideByPowerOf2DropRemainder(MutableInfiniteInteger)
+    */
+   @Override
    public MutableInfiniteInteger divideByPowerOf2DropRemainder(final long exponent)
    {
-      return divideByPowerOf2DropRemainder(MutableInfiniteInteger.valueOf(exponent));
+      if (this.equalValue(0) || exponent == 0 || !this.isFinite()) return this;
+      //Long.MIN_VALUE can't be negated
+      if (exponent == Long.MIN_VALUE) return this.multiplyByPowerOf2(MutableInfiniteInteger.valueOf(exponent).abs());
+      if (exponent < 0) return this.multiplyByPowerOf2(-exponent);
+
+      this.shiftMagnitudeRightBits(exponent);
+      return this.applyOffHeapThreshold();
    }
 
    /**
@@ -1629,50 +2664,24 @@ rather than base int
    {
       if (this.equalValue(0) || exponent.equalValue(0) || !this.isFinite()) return this;
       if (exponent.isNegative) return this.multiplyByPowerOf2(exponent.copy().abs());
+      //this can't have that many bits
+      if (!exponent.fitsInLong()) return set(new MutableInfiniteInteger(0));
 
-      MutableInfiniteInteger shiftDistanceRemaining = exponent.copy();
-      while (isComparisonResult(shiftDistanceRemaining.compareTo(32), GREATER_THAN_OR_EQUAL_TO))
-      {
-         this.magnitudeHead = this.magnitudeHead.getNext();
-         if (this.magnitudeHead == null) return set(new MutableInfiniteInteger(0));
-         this.magnitudeHead.getPrev().remove();
-         shiftDistanceRemaining = shiftDistanceRemaining.subtract(32);
-      }
-
-      final int smallShiftDistance = shiftDistanceRemaining.intValue();
-      if (smallShiftDistance != 0)
-      {
-         DequeNode<Integer> thisCursor = this.magnitudeHead;
-         int underflow;
-
-         while (thisCursor.getNext() != null)
-         {
-            thisCursor.setData(thisCursor.getData().intValue() >>> smallShiftDistance);
-            underflow = (int) BitWiseUtil.getLowestNBits(thisCursor.getNext().getData().intValue(), smallShiftDistance);
-            //underflow contains what would fall off when shifting right
-            underflow <<= (32 - smallShiftDistance);
-            //shift underflow left so that it appears in the most significant place of the previous node
-            if (underflow != 0) thisCursor.setData(thisCursor.getData().intValue() | underflow);
-            thisCursor = thisCursor.getNext();
-         }
-         //last node simply shifts
-         thisCursor.setData(thisCursor.getData().intValue() >>> smallShiftDistance);
-         if (thisCursor.getData() == 0) thisCursor.remove();
-      }
-
-      return this;
+      return this.divideByPowerOf2DropRemainder(exponent.exactLongValue());
    }
 
    /**
     * <p>Similar to {@code this % value} except the result is always positive. Aka: modulo, modulus, divideDropWhole, remainder.</p>
-    * <p>Entire code: <blockquote>{@code return set(divide(value).getRemainder());}</blockquote></p>
+    * <p>A value which fits into a single element is divided in place without allocating.</p>
     *
     * @see #divide(long)
     */
    @Override
    public MutableInfiniteInteger divideReturnRemainder(final long value)
    {
-      return set(divide(value).getRemainder());
+      if (this.isFinite() && MutableInfiniteInteger.fitsInElement(value))
+         return this.setLongValue(this.remainderByElement((int) Math.abs(value)));
+      return setFromTemporary(divide(value).getRemainder());
    }
 
    /**
@@ -1690,14 +2699,15 @@ rather than base int
 
    /**
     * <p>Similar to {@code this % value} except the result is always positive. Aka: modulo, modulus, divideDropWhole, remainder.</p>
-    * <p>Entire code: <blockquote>{@code return set(divide(value).getRemainder());}</blockquote></p>
+    * <p>A value which fits into a single element is divided in place without allocating.</p>
     *
     * @see #divide(MutableInfiniteInteger)
     */
    @Override
    public MutableInfiniteInteger divideReturnRemainder(final MutableInfiniteInteger value)
    {
-      return set(divide(value).getRemainder());
+      if (value.isFinite() && value.limbCount() == 1) return this.divideReturnRemainder(value.longValue());
+      return setFromTemporary(divide(value).getRemainder());
    }
 
    /**
@@ -1737,22 +2747,92 @@ rather than base int
    {
       final InfiniteInteger tableValue = InfiniteInteger.powerSpecialLookUp(InfiniteInteger.valueOf(this),
          InfiniteInteger.valueOf(exponent));
-      if (tableValue != null) return set(tableValue.toMutableInfiniteInteger());
+      if (tableValue != null) return setFromTemporary(tableValue.toMutableInfiniteInteger());
 
       if (exponent.isNegative)
          throw new ArithmeticException("A negative exponent would result in a non-integer answer. The exponent was: " + exponent);
-      if (this.equalValue(2)) return set(MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(exponent));
+      final boolean resultIsNegative = isNegative && !BitWiseUtil.isEven(exponent.intValue());
+      //the table covers 0 and 1 so only -1 can stay small for a huge exponent
+      if (this.equalValue(-1)) return setLongValue(resultIsNegative ? -1 : 1);
+
+      //the result has at least (bitLength - 1) * exponent bits. fail fast instead of running out of memory
+      final long maxBits = 32L * MutableInfiniteInteger.maxMagnitudeLength;
+      if (is(exponent, GREATER_THAN, MutableInfiniteInteger.valueOf(maxBits))
+          || this.bitLength() - 1 > maxBits / exponent.longValue())
+         throw new WillNotFitException(this + " to the power of " + exponent + " would need more than "
+                                       + MutableInfiniteInteger.maxMagnitudeLength + " elements.");
+      final long longExponent = exponent.longValue();
+
+      //(odd * 2^zeroBits)^exponent == odd^exponent * 2^(zeroBits * exponent) and the power of 2 is only a shift
+      final MutableInfiniteInteger oddBase = this.heapCopy().abs();
+      final long zeroBits = oddBase.countTrailingZeroBits();
+      oddBase.shiftMagnitudeRightBits(zeroBits);
+      final MutableInfiniteInteger result = oddBase.equalValue(1) ? oddBase
+         : MutableInfiniteInteger.slidingWindowPower(oddBase, longExponent);
+      result.multiplyByPowerOf2(zeroBits * longExponent);
+      if (resultIsNegative) result.negate();
+      return setFromTemporary(result);
+   }
+
+   /**
+    * Left to right exponentiation by squaring with a sliding window: the exponent's bits are read from the most
+    * significant and each run of up to windowBits bits that ends in a 1 is a single multiplication by an odd power
+    * that was found up front. Every bit is a squaring so this takes about log2(exponent) squarings plus
+    * log2(exponent) / (windowBits + 1) multiplications.
+    *
+    * @param base     must be finite and positive. It isn't mutated
+    * @param exponent must be at least 1
+    * @return a new number that is base<sup>exponent</sup>
+    */
+   private static MutableInfiniteInteger slidingWindowPower(final MutableInfiniteInteger base, final long exponent)
+   {
+      final int exponentBits = 64 - Long.numberOfLeadingZeros(exponent);
+      int windowBits = 1;
+      while (windowBits <= MutableInfiniteInteger.SLIDING_WINDOW_THRESHOLDS.length
+             && exponentBits > MutableInfiniteInteger.SLIDING_WINDOW_THRESHOLDS[windowBits - 1])
+      {
+         ++windowBits;
+      }
+
+      //oddPowers[i] is base^(2i + 1)
+      final MutableInfiniteInteger[] oddPowers = new MutableInfiniteInteger[1 << (windowBits - 1)];
+      oddPowers[0] = base;
+      if (oddPowers.length > 1)
+      {
+         final MutableInfiniteInteger baseSquared = base.copy().square();
+         for (int i = 1; i < oddPowers.length; ++i)
+         {
+            oddPowers[i] = oddPowers[i - 1].copy().multiply(baseSquared);
+         }
+      }
 
-      //TODO: study BigInt's pow and copy it
-      //but BigInt's div and gcd are too complicated
-      MutableInfiniteInteger result = this.copy();
-      MutableInfiniteInteger exponentRemaining = exponent.copy().subtract(1);  //already have the first time
-      while (!exponentRemaining.equalValue(0))
+      //the most significant bit is 1 so the first window sets the result
+      MutableInfiniteInteger result = null;
+      int bitIndex = exponentBits - 1;
+      while (bitIndex >= 0)
       {
-         result = result.multiply(this);
-         exponentRemaining = exponentRemaining.subtract(1);
+         if (((exponent >>> bitIndex) & 1) == 0)
+         {
+            result.square();
+            --bitIndex;
+         }
+         else
+         {
+            //shrink the window until it ends in a 1 so that its value is odd
+            int windowEnd = Math.max(bitIndex - windowBits + 1, 0);
+            while (((exponent >>> windowEnd) & 1) == 0){++windowEnd;}
+            final int windowLength = bitIndex - windowEnd + 1;
+            final int windowValue = (int) ((exponent >>> windowEnd) & ((1L << windowLength) - 1));
+            if (result == null) result = oddPowers[windowValue >>> 1].copy();
+            else
+            {
+               for (int i = 0; i < windowLength; ++i){result.square();}
+               result.multiply(oddPowers[windowValue >>> 1]);
+            }
+            bitIndex = windowEnd - 1;
+         }
       }
-      return set(result);
+      return result;
    }
 
    /**
@@ -1773,8 +2853,13 @@ rather than base int
     * Factorial is defined as a number multiplied by all positive integers less than it.
     * So 4! = 4*3*2*1. The special cases of 1! and 0! are 1 but factorial is not defined for
     * negative numbers. If this InfiniteInteger is negative then NaN is returned.
+    * <p>
+    * The numbers aren't multiplied one at a time. Instead the odd part is calculated with
+    * {@link FactorialUtil#oddFactorial(int)} (which only does balanced multiplications) then the factors of 2
+    * are shifted in.
     *
     * @return the result including ∞ and NaN
+    * @throws WillNotFitException if this is larger than Integer.MAX_VALUE
     * @see #power(MutableInfiniteInteger)
     */
    @Override
@@ -1784,67 +2869,283 @@ rather than base int
          return MutableInfiniteInteger.NaN;  //factorial is not defined for negative numbers
       if (this.equals(MutableInfiniteInteger.POSITIVE_INFINITY)) return this;  //-Infinity is covered above
       if (this.equalValue(0) || this.equalValue(1)) return set(MutableInfiniteInteger.valueOf(1));
+      //(2^31)! is about 2^(6.3 * 10^10) which is already close to the max size
+      if (this.limbCount() > 1 || this.limb(0) < 0)
+         throw new WillNotFitException(this + "! is too large to calculate. The max is " + Integer.MAX_VALUE + "!");
+
+      final int n = this.limb(0);
+      final int[] oddPart = FactorialUtil.oddFactorial(n);
+      final MutableInfiniteInteger result = new MutableInfiniteInteger(false, oddPart, oddPart.length);
+      //n! has n - bitCount(n) factors of 2: n/2 + n/4 + n/8...
+      result.shiftMagnitudeLeftBits(n - Integer.bitCount(n));
+      return setFromTemporary(result);
+   }
+
+   /**
+    * Returns the binomial coefficient "n choose k" which is the number of ways to pick k items out of n:
+    * n! / (k! * (n-k)!). None of the factorials are calculated: either the primes up to n are multiplied together
+    * each raised to its power in the result (see {@link FactorialUtil#binomial(int, int)}) or if k is small then
+    * n(n-1)...(n-k+1) is exactly divided by k!.
+    * For negative n the result is defined as (-1)<sup>k</sup> * C(k - n - 1, k) which matches
+    * n(n-1)...(n-k+1) / k!.
+    *
+    * @return the result which is 0 if k is negative or if n isn't negative and k is greater than n
+    * @throws ArithmeticException if n is negative and k - n - 1 is larger than Long.MAX_VALUE
+    * @throws WillNotFitException if the result is too large to be stored or if the smaller of k and (n - k) is
+    *                             larger than Integer.MAX_VALUE
+    * @see #multinomial(long...)
+    */
+   public static MutableInfiniteInteger binomial(final long n, final long k)
+   {
+      if (k < 0) return new MutableInfiniteInteger(0);
+      if (n < 0)
+      {
+         //-(n + 1) can't overflow
+         final MutableInfiniteInteger result = MutableInfiniteInteger.binomial(Math.addExact(k, -(n + 1)), k);
+         if ((k & 1) == 1) result.negate();
+         return result;
+      }
+      if (k > n) return new MutableInfiniteInteger(0);
+
+      final long smallerK = Math.min(k, n - k);
+      if (smallerK == 0) return MutableInfiniteInteger.valueOf(1);
+      if (smallerK > Integer.MAX_VALUE)
+         throw new WillNotFitException("binomial(" + n + ", " + k + ") is too large to calculate.");
+      if (n <= Integer.MAX_VALUE && smallerK >= n / MutableInfiniteInteger.BINOMIAL_PRIME_RATIO)
+      {
+         final int[] magnitude = FactorialUtil.binomial((int) n, (int) smallerK);
+         return new MutableInfiniteInteger(false, magnitude, magnitude.length);
+      }
+      //C(n, k) is at least (n/k)^k
+      MutableInfiniteInteger.checkMagnitudeLength(smallerK * (63 - Long.numberOfLeadingZeros(n / smallerK)) / 32);
+      return MutableInfiniteInteger.rangeProduct(n - smallerK + 1, n)
+                                   .divideExact(MutableInfiniteInteger.valueOf(smallerK).factorial());
+   }
+
+   /**
+    * Returns the multinomial coefficient which is the number of ways to put (sum of counts) items into groups of
+    * those sizes: (sum of counts)! / (the product of each count!). For example multinomial(k, n - k) is the same as
+    * binomial(n, k). None of the factorials are calculated. If the sum fits in an int then the primes are multiplied
+    * together (see {@link FactorialUtil#multinomial(int...)}) otherwise this is the product of a binomial for each
+    * count.
+    *
+    * @param counts not mutated
+    * @return the result which is 1 if there are no counts and 0 if any count is negative
+    * @throws ArithmeticException if the sum of counts is larger than Long.MAX_VALUE
+    * @throws WillNotFitException if the result is too large to be stored
+    * @see #binomial(long, long)
+    */
+   public static MutableInfiniteInteger multinomial(final long... counts)
+   {
+      long sum = 0;
+      for (final long count : counts)
+      {
+         if (count < 0) return new MutableInfiniteInteger(0);
+         sum = Math.addExact(sum, count);
+      }
+      if (sum <= Integer.MAX_VALUE)
+      {
+         final int[] intCounts = new int[counts.length];
+         for (int i = 0; i < counts.length; ++i)
+         {
+            intCounts[i] = (int) counts[i];
+         }
+         final int[] magnitude = FactorialUtil.multinomial(intCounts);
+         return new MutableInfiniteInteger(false, magnitude, magnitude.length);
+      }
+
+      //starting with the largest count makes each k as small as possible
+      final long[] sorted = counts.clone();
+      Arrays.sort(sorted);
+      final MutableInfiniteInteger result = MutableInfiniteInteger.valueOf(1);
+      long runningSum = sorted[sorted.length - 1];
+      for (int i = sorted.length - 2; i >= 0; --i)
+      {
+         runningSum += sorted[i];
+         result.multiply(MutableInfiniteInteger.binomial(runningSum, sorted[i]));
+      }
+      return result;
+   }
+
+   /**
+    * Returns the falling factorial n(n-1)(n-2)...(n-k+1) which is k numbers multiplied together.
+    * The numbers are multiplied with a product tree (see {@link FactorialUtil#rangeProduct(long, long)}) so that the
+    * multiplications are balanced. Note that fallingFactorial(n, n) is n!.
+    *
+    * @param n may be negative
+    * @param k the number of numbers to multiply
+    * @return the result which is 1 if k is 0 and 0 if the numbers include 0
+    * @throws ArithmeticException if k is negative (the result would be a fraction)
+    *                             or if any of the numbers don't fit in a long
+    * @throws WillNotFitException if the result is too large to be stored
+    * @see #risingFactorial(long, long)
+    */
+   public static MutableInfiniteInteger fallingFactorial(final long n, final long k)
+   {
+      if (k < 0) throw new ArithmeticException("The falling factorial is a fraction when k is negative. k=" + k);
+      if (k == 0) return MutableInfiniteInteger.valueOf(1);
+      if (n < 0)
+      {
+         //(-m)(-m-1)...(-m-k+1) = (-1)^k * m(m+1)...(m+k-1)
+         final MutableInfiniteInteger result = MutableInfiniteInteger.risingFactorial(Math.negateExact(n), k);
+         if ((k & 1) == 1) result.negate();
+         return result;
+      }
+      if (k > n) return new MutableInfiniteInteger(0);  //one of the numbers is 0
+      return MutableInfiniteInteger.rangeProduct(n - k + 1, n);
+   }
 
-      MutableInfiniteInteger result = this;
-      MutableInfiniteInteger integerCursor = this.copy().subtract(1);
-      while (!integerCursor.equalValue(1))  //don't bother multiplying by 1
+   /**
+    * Returns the rising factorial n(n+1)(n+2)...(n+k-1) which is k numbers multiplied together.
+    * The numbers are multiplied with a product tree (see {@link FactorialUtil#rangeProduct(long, long)}) so that the
+    * multiplications are balanced. Note that risingFactorial(1, n) is n!.
+    *
+    * @param n may be negative
+    * @param k the number of numbers to multiply
+    * @return the result which is 1 if k is 0 and 0 if the numbers include 0
+    * @throws ArithmeticException if k is negative (the result would be a fraction)
+    *                             or if any of the numbers don't fit in a long
+    * @throws WillNotFitException if the result is too large to be stored
+    * @see #fallingFactorial(long, long)
+    */
+   public static MutableInfiniteInteger risingFactorial(final long n, final long k)
+   {
+      if (k < 0) throw new ArithmeticException("The rising factorial is a fraction when k is negative. k=" + k);
+      if (k == 0) return MutableInfiniteInteger.valueOf(1);
+      if (n <= 0)
       {
-         result = result.multiply(integerCursor);
-         integerCursor = integerCursor.subtract(1);
+         //(-m)(-m+1)...(-m+k-1) = (-1)^k * m(m-1)...(m-k+1)
+         final MutableInfiniteInteger result = MutableInfiniteInteger.fallingFactorial(Math.negateExact(n), k);
+         if ((k & 1) == 1) result.negate();
+         return result;
       }
-      return set(result);
+      return MutableInfiniteInteger.rangeProduct(n, Math.addExact(n, k - 1));
+   }
+
+   /**
+    * Returns the primorial n# which is the product of every prime up to n. The primes are found with a sieve and
+    * multiplied with a product tree (see {@link FactorialUtil#primorial(int)}).
+    *
+    * @return the result which is 1 if n is less than 2
+    * @throws WillNotFitException if n is larger than Integer.MAX_VALUE
+    */
+   public static MutableInfiniteInteger primorial(final long n)
+   {
+      if (n > Integer.MAX_VALUE)
+         throw new WillNotFitException(n + "# is too large to calculate. The max is " + Integer.MAX_VALUE + "#");
+      if (n < 2) return MutableInfiniteInteger.valueOf(1);
+      final int[] magnitude = FactorialUtil.primorial((int) n);
+      return new MutableInfiniteInteger(false, magnitude, magnitude.length);
+   }
+
+   /**
+    * @param low  must be at least 1
+    * @param high must be at least low
+    * @return the product of every number from low to high (both inclusive)
+    * @throws WillNotFitException if the result is too large to be stored
+    */
+   private static MutableInfiniteInteger rangeProduct(final long low, final long high)
+   {
+      final long count = high - low + 1;
+      //the product is at least count! which is too large when count is 2^32
+      if (count >= 1L << 32)
+         throw new WillNotFitException("The product of " + count + " numbers would need more than "
+                                       + MutableInfiniteInteger.maxMagnitudeLength + " elements.");
+      //each number is at least 2^floor(log2(low))
+      MutableInfiniteInteger.checkMagnitudeLength(count * (63 - Long.numberOfLeadingZeros(low)) / 32);
+      final int[] magnitude = FactorialUtil.rangeProduct(low, high);
+      return new MutableInfiniteInteger(false, magnitude, magnitude.length);
    }
 
    /**
+    * After checking that primality is defined this delegates to {@code isProbablePrime(0)}.
+    * This is exact for numbers less than 2<sup>64</sup>. Larger numbers use the Baillie–PSW test which has no known
+    * counterexamples but hasn't been proven.
+    *
     * @return true if this InfiniteInteger is prime, false if it is composite
     * @throws ArithmeticException if this is neither prime nor composite
+    * @see #isProbablePrime(int)
     */
    public boolean isPrime()
    {
       if (this.isNegative || !this.isFinite())
          throw new ArithmeticException("Prime is only defined for integers > 1 and 0");
-      if (this.equalValue(0)) return false;
       if (this.equalValue(1))
          throw new ArithmeticException("1 is neither prime nor composite (primality is not defined for 1)");
-      if (this.equalValue(2)) return true;
-      if (BitWiseUtil.isEven(this.intValue())) return false;
+      return isProbablePrime(0);
+   }
 
-      final InfinitelyLinkedList<PrimeSieve> allSieves = new InfinitelyLinkedList<>();
-      MutableInfiniteInteger index = MutableInfiniteInteger.valueOf(3);
-      while (is(index, LESS_THAN_OR_EQUAL_TO, this))
-      {
-         boolean isIndexPrime = true;
-         for (final PrimeSieve currentSieve : allSieves)
-         {
-            if (is(currentSieve.currentValue, EQUAL_TO, this)) return false;
-            if (is(currentSieve.currentValue, LESS_THAN, index)) currentSieve.next();
-            else if (is(currentSieve.currentValue, EQUAL_TO, index))
-            {
-               currentSieve.next();
-               isIndexPrime = false;
-            }
-         }
-         if (isIndexPrime) allSieves.add(new PrimeSieve(index));
-         index = index.add(2);
-      }
-      return true;
+   /**
+    * Returns true if this InfiniteInteger is probably prime and false if it is certainly composite.
+    * Small factors are found by trial division. Numbers less than 2<sup>64</sup> are then tested exactly with
+    * Miller–Rabin using fixed bases. Larger numbers use the Baillie–PSW test (Miller–Rabin with base 2 and a strong
+    * Lucas test) followed by Miller–Rabin rounds with random bases. There are no known composites that pass
+    * Baillie–PSW. See {@link PrimeUtil#isProbablePrime(int[], int, int, Random)}.
+    * <p>
+    * Unlike BigInteger this always tests the number, certainty only controls the number of extra rounds.
+    *
+    * @param certainty each extra round has at most a 1/4 chance of calling a composite prime. The number of rounds is
+    *                  the same as BigInteger would use. 0 or less doesn't do any extra rounds
+    * @return false if this is less than 2, NaN or ±∞
+    * @see #isPrime()
+    */
+   public boolean isProbablePrime(final int certainty)
+   {
+      if (this.isNegative || !this.isFinite()) return false;
+      final MutableInfiniteInteger heapThis = this.onHeap();
+      return PrimeUtil.isProbablePrime(heapThis.magnitude, heapThis.magnitudeLength, certainty, ThreadLocalRandom.current());
    }
 
-   private static final class PrimeSieve
+   /**
+    * Changes this to the smallest probable prime greater than this. The candidates are sieved a window at a time by
+    * the small primes so that most composites are crossed off without being tested (see
+    * {@link PrimeUtil#nextProbablePrime(int[], int)}). Each remaining candidate gets the same test as
+    * {@link #isProbablePrime(int)} with certainty 0: it is exact below 2<sup>64</sup> and Baillie–PSW above that.
+    * <p>
+    * All negative numbers (including -∞) result in 2. +∞ and NaN are returned as is.
+    *
+    * @return the result including ∞ and NaN
+    * @see #previousProbablePrime()
+    */
+   public MutableInfiniteInteger nextProbablePrime()
    {
-      private final MutableInfiniteInteger incrementAmount;
-      private MutableInfiniteInteger currentValue;
+      if (this.isNaN() || this.equals(MutableInfiniteInteger.POSITIVE_INFINITY)) return this;
+      if (this.isNegative) return set(MutableInfiniteInteger.valueOf(2));
+      final MutableInfiniteInteger heapThis = this.onHeap();
+      final int[] prime = PrimeUtil.nextProbablePrime(heapThis.magnitude, heapThis.magnitudeLength);
+      return setFromTemporary(new MutableInfiniteInteger(false, prime, prime.length));
+   }
 
-      public PrimeSieve(final MutableInfiniteInteger incrementAmount)
-      {
-         currentValue = incrementAmount.copy();
-         this.incrementAmount = incrementAmount.copy().multiply(2);
-      }
+   /**
+    * Changes this to the largest probable prime less than this. This sieves the same way as
+    * {@link #nextProbablePrime()}. There is no prime less than 2 so if this is 2 or less then NaN is returned.
+    * +∞ and NaN are returned as is.
+    *
+    * @return the result including ∞ and NaN
+    * @see #nextProbablePrime()
+    */
+   public MutableInfiniteInteger previousProbablePrime()
+   {
+      if (this.isNaN() || this.equals(MutableInfiniteInteger.POSITIVE_INFINITY)) return this;
+      if (this.isNegative || this.compareTo(2) <= 0) return MutableInfiniteInteger.NaN;
+      final MutableInfiniteInteger heapThis = this.onHeap();
+      final int[] prime = PrimeUtil.previousProbablePrime(heapThis.magnitude, heapThis.magnitudeLength);
+      return setFromTemporary(new MutableInfiniteInteger(false, prime, prime.length));
+   }
 
-      public void next()
-      {
-         currentValue = currentValue.add(incrementAmount);
-      }
+   /**
+    * Returns a probable prime with exactly bitLength bits. A random number with that many bits is picked then the
+    * next probable prime is found (see {@link PrimeUtil#randomProbablePrime(int, Random)}). Like
+    * BigInteger.probablePrime this is certainly prime when bitLength is 64 or less.
+    *
+    * @param random the source of the starting points
+    * @return a new positive number whose most significant bit is bitLength - 1
+    * @throws IllegalArgumentException if bitLength is less than 2
+    */
+   public static MutableInfiniteInteger randomProbablePrime(final int bitLength, final Random random)
+   {
+      final int[] prime = PrimeUtil.randomProbablePrime(bitLength, random);
+      return new MutableInfiniteInteger(false, prime, prime.length);
    }
 
    /**
@@ -1963,7 +3264,7 @@ rather than base int
          biggerNumber = thisRemaining;
       }
       //if the lower is a factor of the greater
-      if (biggerNumber.copy().divideReturnRemainder(smallerNumber).equalValue(0)) return smallerNumber.copy();
+      if (biggerNumber.isDivisibleBy(smallerNumber)) return smallerNumber.copy();
 
       final MutableInfiniteInteger thisSqrt = thisRemaining.sqrtCeil(), otherSqrt = otherRemaining.sqrtCeil();
       MutableInfiniteInteger divisor = new MutableInfiniteInteger(1);
@@ -1995,8 +3296,9 @@ rather than base int
          if (is(possibleDivisor, GREATER_THAN, otherSqrt) || is(possibleDivisor, GREATER_THAN, otherRemaining)) break;
 
          //if they both can divide without remainder
-         final boolean thisDivides = thisRemaining.copy().divideReturnRemainder(possibleDivisor).equalValue(0);
-         final boolean otherDivides = otherRemaining.copy().divideReturnRemainder(possibleDivisor).equalValue(0);
+         //while possibleDivisor fits in an element this is a single pass that doesn't allocate
+         final boolean thisDivides = thisRemaining.isDivisibleBy(possibleDivisor);
+         final boolean otherDivides = otherRemaining.isDivisibleBy(possibleDivisor);
          if (thisDivides && otherDivides)
          {
             thisRemaining = thisRemaining.divideDropRemainder(possibleDivisor);
@@ -2032,7 +3334,7 @@ rather than base int
       }
 
       MutableInfiniteInteger higher = this.estimateSqrt();
-      if (higher.copy().power(2).equals(this)) return higher;  //if already the exact answer
+      if (higher.copy().square().equals(this)) return higher;  //if already the exact answer
       MutableInfiniteInteger lower = higher.copy().divideByPowerOf2DropRemainder(1);
       MutableInfiniteInteger difference, midway;
 
@@ -2043,7 +3345,7 @@ rather than base int
          if (is(difference, LESS_THAN, MutableInfiniteInteger.valueOf(4))) break;
          difference = difference.divideByPowerOf2DropRemainder(1);
          midway = difference.add(lower);  //diff not copied because I no longer need it
-         final int compareResult = midway.copy().power(2).compareTo(this);
+         final int compareResult = midway.copy().square().compareTo(this);
          if (isComparisonResult(compareResult, EQUAL_TO)) return midway;
          //if midway^2 > this then midway is an upper bound for the sqrt
          if (isComparisonResult(compareResult, GREATER_THAN)) higher = midway;
@@ -2052,7 +3354,7 @@ rather than base int
       //if difference < 4 then just have lower count up (max of 3 times)
       while (true)
       {
-         if (is(lower.copy().power(2), GREATER_THAN_OR_EQUAL_TO, this)) return lower;
+         if (is(lower.copy().square(), GREATER_THAN_OR_EQUAL_TO, this)) return lower;
          lower = lower.add(1);
       }
       //unreachable
@@ -2076,30 +3378,13 @@ rather than base int
       //cutting the number of digits in half works for any number base (except base 1) but base 2 has the closest estimation
       //worst case is off by 1 digit therefore base 2 has the smallest error (being off by *2)
       //base 1 would always return thisValue/2 which isn't a good estimation
-      MutableInfiniteInteger binaryDigits = MutableInfiniteInteger.valueOf(0);
-      DequeNode<Integer> thisCursor = this.magnitudeHead;
-      while (thisCursor.getNext() != null)
-      {
-         binaryDigits = binaryDigits.add(32);
-         thisCursor = thisCursor.getNext();
-      }
-      binaryDigits = binaryDigits.add(32);  //for the last node
-      //counting leading 0s functions as expected for unsigned numbers
-      binaryDigits = binaryDigits.subtract(Integer.numberOfLeadingZeros(thisCursor.getData().intValue()));
-      //subtract the unused bits
+      long binaryDigits = this.bitLength();
 
-      //I can use binaryDigits.intValue because I only need 31 bits (really I only need 1 bit)
-      final boolean isExact = BitWiseUtil.isOdd((binaryDigits.intValue()));
-      if (isExact) binaryDigits = binaryDigits.add(1);  //make it even by rounding up
-      binaryDigits = binaryDigits.divideByPowerOf2DropRemainder(1);
+      final boolean isExact = BitWiseUtil.isOdd(binaryDigits);
+      if (isExact) ++binaryDigits;  //make it even by rounding up
+      binaryDigits >>>= 1;
 
-      MutableInfiniteInteger estimation = MutableInfiniteInteger.valueOf(1);
-      while (isComparisonResult(binaryDigits.compareTo(32), GREATER_THAN_OR_EQUAL_TO))
-      {
-         binaryDigits = binaryDigits.subtract(32);
-         estimation = estimation.multiplyByPowerOf2(32);
-      }
-      estimation = estimation.multiplyByPowerOf2(binaryDigits);
+      MutableInfiniteInteger estimation = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(binaryDigits);
 
       if (isExact && this.isPowerOf2()) estimation = estimation.divideByPowerOf2DropRemainder(1);
       //the estimation will be the actual square root in this case
@@ -2149,6 +3434,21 @@ rather than base int
       return 1;
    }
 
+   /**
+    * Returns the number of bits in the minimal representation of the magnitude of this InfiniteInteger.
+    * Unlike BigInteger this ignores the sign (since the elements are unsigned) so -8 and 8 both return 4.
+    * 0 returns 0. This is calculated in constant time.
+    *
+    * @return the number of bits needed to store the absolute value
+    * @throws ArithmeticException if this is ±∞ or NaN
+    */
+   @Override
+   public long bitLength()
+   {
+      if (!this.isFinite()) throw new ArithmeticException(this + " doesn't have a bit length.");
+      return 32L * limbCount() - Integer.numberOfLeadingZeros(limb(limbCount() - 1));
+   }
+
    //TODO: add min/max. maybe static (InfInt, InfInt) only?
    //big int also has bitwise operations. gcd. and weird methods
 
@@ -2203,15 +3503,15 @@ rather than base int
    {
       if (!this.isFinite()) return false;
 
-      DequeNode<Integer> thisCursor;
-      for (thisCursor = this.magnitudeHead; thisCursor.getNext() != null; thisCursor = thisCursor.getNext())
+      final long length = limbCount();
+      for (long i = 0; i < length - 1; ++i)
       {
-         //all nodes that aren't the most significant must be 0
-         if (0 != thisCursor.getData().intValue()) return false;
+         //all elements that aren't the most significant must be 0
+         if (0 != limb(i)) return false;
       }
 
-      //and check the most significant node
-      return BitWiseUtil.isPowerOf2(thisCursor.getData().intValue());
+      //and check the most significant element
+      return BitWiseUtil.isPowerOf2(limb(length - 1));
    }
 
    /**
@@ -2247,14 +3547,35 @@ rather than base int
    @Override
    public boolean equalValue(final long value)
    {
-      if (!this.isFinite()) return false;
+      return this.fitsInLong() && value == this.exactLongValue();
+   }
 
-      if (magnitudeHead.getNext() != null && magnitudeHead.getNext().getNext() != null)
-         return false;  //this is larger than max unsigned long (this check does need to be made)
-      if (magnitudeHead.getNext() != null && (magnitudeHead.getNext().getData().intValue() & Long.MIN_VALUE) != 0)
-         return false;  //this is larger than max signed long
+   /**
+    * @return true if this is finite and can be represented as a signed long without losing information
+    * @see #exactLongValue()
+    */
+   private boolean fitsInLong()
+   {
+      if (!this.isFinite() || limbCount() > 2) return false;
+      //the most significant bit must be clear since it will be dropped to make the number signed
+      if (limbCount() == 1 || limb(1) >= 0) return true;
+      //except for Long.MIN_VALUE since the negative range is 1 larger
+      return (isNegative && limb(1) == Integer.MIN_VALUE && limb(0) == 0);
+   }
 
-      return (value == this.longValue());
+   /**
+    * Unlike longValueExact this doesn't check anything and includes Long.MIN_VALUE.
+    *
+    * @return the value of this as a long. Only meaningful if fitsInLong is true.
+    * @see #fitsInLong()
+    */
+   private long exactLongValue()
+   {
+      long longValue = Integer.toUnsignedLong(limb(0));
+      if (limbCount() > 1) longValue |= (Integer.toUnsignedLong(limb(1)) << 32);
+      //negating the unsigned 2^63 is Long.MIN_VALUE
+      if (isNegative) return -longValue;
+      return longValue;
    }
 
    @Override
@@ -2268,15 +3589,8 @@ rather than base int
       //these are singletons. if not the same object then it's not equal
       if (!this.isFinite() || !that.isFinite()) return false;
       if (isNegative != that.isNegative) return false;
-      DequeNode<Integer> thisCursor = this.magnitudeHead;
-      DequeNode<Integer> otherCursor = that.magnitudeHead;
-      while (thisCursor != null && otherCursor != null)
-      {
-         if (!Objects.equals(thisCursor.getData(), otherCursor.getData())) return false;
-         thisCursor = thisCursor.getNext();
-         otherCursor = otherCursor.getNext();
-      }
-      return (thisCursor == otherCursor);  //they must both be null (at end)
+      if (this.storage != null || that.storage != null) return this.compareMagnitude(that) == THIS_EQUAL;
+      return Arrays.equals(this.magnitude, 0, this.magnitudeLength, that.magnitude, 0, that.magnitudeLength);
    }
 
    /**
@@ -2310,34 +3624,36 @@ rather than base int
 
    private int compareMagnitude(final MutableInfiniteInteger other)
    {
-      //since the lengths can be any integer I first need to compare lengths
-      DequeNode<Integer> otherCursor = other.magnitudeHead;
-      DequeNode<Integer> thisCursor = this.magnitudeHead;
-      //this loop will not execute if they both have 1 node
-      //which is correct since they have equal length and are both pointing to last node
-      while (thisCursor.getNext() != null || otherCursor.getNext() != null)
+      if (this.storage != null || other.storage != null)
       {
-         if (thisCursor.getNext() != null && otherCursor.getNext() != null)
+         //same as below but a block at a time
+         final long length = this.limbCount();
+         if (length != other.limbCount()) return (length > other.limbCount()) ? THIS_GREATER : THIS_LESSER;
+         final int[] thisBlock = new int[(int) Math.min(length, MutableInfiniteInteger.STORAGE_BLOCK_LENGTH)];
+         final int[] otherBlock = new int[thisBlock.length];
+         for (long high = length; high > 0; high -= thisBlock.length)
          {
-            thisCursor = thisCursor.getNext();
-            otherCursor = otherCursor.getNext();
+            final int count = (int) Math.min(thisBlock.length, high);
+            this.readLimbs(high - count, thisBlock, 0, count);
+            other.readLimbs(high - count, otherBlock, 0, count);
+            for (int i = count - 1; i >= 0; --i)
+            {
+               if (thisBlock[i] != otherBlock[i]) return Integer.compareUnsigned(thisBlock[i], otherBlock[i]);
+            }
          }
-         else if (thisCursor.getNext() != null) return THIS_GREATER;
-         else return THIS_LESSER;
+         return THIS_EQUAL;
       }
+      //there are no leading 0s so more elements means larger
+      if (this.magnitudeLength != other.magnitudeLength)
+         return (this.magnitudeLength > other.magnitudeLength) ? THIS_GREATER : THIS_LESSER;
 
-      //they have the same number of nodes and both cursors are pointing to the most significant (last) node
-      int thisData, otherData;
-      while (thisCursor != null)
+      //they have the same number of elements so start with the most significant (last) element
+      for (int i = magnitudeLength - 1; i >= 0; --i)
       {
-         thisData = thisCursor.getData().intValue();
-         otherData = otherCursor.getData().intValue();
-         if (thisData != otherData) return Integer.compareUnsigned(thisData, otherData);
-         thisCursor = thisCursor.getPrev();
-         otherCursor = otherCursor.getPrev();
+         if (this.magnitude[i] != other.magnitude[i]) return Integer.compareUnsigned(this.magnitude[i], other.magnitude[i]);
       }
 
-      //same length and all nodes have the same data
+      //same length and all elements have the same data
       return THIS_EQUAL;
    }
 
@@ -2356,14 +3672,21 @@ rather than base int
    /**
     * Compares this InfiniteInteger with the specified other for numeric equality.
     * Even though sorting is not possible this method returns as expected.
-    * Entire code: <blockquote>{@code return this.compareTo(InfiniteInteger.valueOf(other));}</blockquote>
+    * This is the same as {@code this.compareTo(InfiniteInteger.valueOf(other))} but doesn't need to create an object.
     *
     * @param other the value to be compared to this
     * @see #compareTo(MutableInfiniteInteger)
     * @see Comparable#compareTo(Object)
     */
    @Override
-   public int compareTo(final long other){return this.compareTo(MutableInfiniteInteger.valueOf(other));}
+   public int compareTo(final long other)
+   {
+      if (this.fitsInLong()) return Long.compare(this.exactLongValue(), other);
+      if (!this.isFinite()) return this.compareTo(MutableInfiniteInteger.valueOf(other));
+      //this is finite but too large to be a long so the sign decides
+      if (isNegative) return THIS_LESSER;
+      return THIS_GREATER;
+   }
 
    /**
     * Returns the hash code for this InfiniteInteger.
@@ -2377,13 +3700,8 @@ rather than base int
    {
       if (this == MutableInfiniteInteger.NaN) return Integer.MIN_VALUE;  //so that 0 and NaN will not have a collision
       if (this.isInfinite()) return (Integer.MAX_VALUE * this.signum());  //to prevent collision with +/-1
-      DequeNode<Integer> cursor = magnitudeHead;
       int hash = Boolean.hashCode(isNegative);
-      while (cursor != null)
-      {
-         hash ^= cursor.getData().intValue();
-         cursor = cursor.getNext();
-      }
+      for (long i = 0; i < limbCount(); ++i){hash ^= limb(i);}
       return hash;
    }
 
@@ -2447,39 +3765,29 @@ rather than base int
    }
 
    /**
-    * optimized for radix powers of 2
+    * optimized for radix powers of 2: each digit is a fixed group of bits so no division is needed. A digit can be
+    * split between 2 elements when the bits per digit don't divide 32 (base 8 and 32).
     */
    private String toStringPowerOf2(final int radix)
    {
-      final List<String> stringList = new InfinitelyLinkedList<>();
-      for (DequeNode<Integer> cursor = magnitudeHead; cursor != null; cursor = cursor.getNext())
-      {
-         final long nodeValue = Integer.toUnsignedLong(cursor.getData());
-         //I could check the list size here or after loop since I used InfinitelyLinkedList
-         if (stringList.size() == Integer.MAX_VALUE)
-            throw new WillNotFitException(this + " in base " + radix + " would exceed max string length.");
-         stringList.add(Long.toUnsignedString(nodeValue, radix));
-      }
-
-      //get the length of max unsigned int in this radix to know how large each node needs to be
-      final int expectedLength = RadixUtil.toString(Integer.toUnsignedLong(-1), radix).length();
-      //base 2 is 32 chars
-      //base 4 is 16 chars
-      //base 8 is 11 chars
-      //base 16 is 8 chars
-      //base 32 is 7 chars
-      if (stringList.size() > Integer.MAX_VALUE / expectedLength)  //overflow conscious
-         // Must validate capacity before FriendlyOverflowStringBuilder
+      final int bitsPerDigit = Integer.numberOfTrailingZeros(radix);
+      final long digitCount = (this.bitLength() + bitsPerDigit - 1) / bitsPerDigit;
+      //leave room for the sign
+      if (digitCount >= Integer.MAX_VALUE)
          throw new WillNotFitException(this + " in base " + radix + " would exceed max string length.");
       final FriendlyOverflowStringBuilder stringBuilder = new FriendlyOverflowStringBuilder(this + " in base " + radix,
-         stringList.size() * expectedLength);
+         (int) digitCount + 1);
       if (isNegative) stringBuilder.append("-");
 
-      //most significant node isn't padded
-      stringBuilder.append(stringList.get(stringList.size() - 1));
-      for (int i = stringList.size() - 2; i >= 0; i--)
+      for (long digitIndex = digitCount - 1; digitIndex >= 0; --digitIndex)
       {
-         stringBuilder.append(leftPad(stringList.get(i), expectedLength));
+         final long bitIndex = digitIndex * bitsPerDigit;
+         final long elementIndex = bitIndex / 32;
+         final int bitShift = (int) (bitIndex % 32);
+         long digitBits = Integer.toUnsignedLong(limb(elementIndex)) >>> bitShift;
+         if (bitShift + bitsPerDigit > 32 && elementIndex + 1 < limbCount())
+            digitBits |= Integer.toUnsignedLong(limb(elementIndex + 1)) << (32 - bitShift);
+         stringBuilder.append(Character.forDigit((int) (digitBits & (radix - 1)), radix));
       }
 
       return stringBuilder.toString();
@@ -2497,22 +3805,31 @@ rather than base int
    {
       //this is the one place where FriendlyOverflowStringBuilder can't be used because it is used to make the error message.
       final StringBuilder stringBuilder = new StringBuilder(32);
-      MutableInfiniteInteger valueRemaining = this;
+      //divide by the largest power of radix that fits in an element so that each pass finds many digits
+      long digitsDivisor = radix;
+      int digitsPerPass = 1;
+      while (digitsDivisor * radix <= 0xFFFF_FFFFL)
+      {
+         digitsDivisor *= radix;
+         ++digitsPerPass;
+      }
+      final MutableInfiniteInteger valueRemaining = this.heapCopy().abs();
       while (!valueRemaining.equalValue(0))
       {
-         final IntegerQuotient<MutableInfiniteInteger> integerQuotient = valueRemaining.divide(radix);
-         //since radix <= 62 I know that valueRemaining%radix < 62 and thus always fits in int
-         final String nodeAsRadix = RadixUtil.toString(integerQuotient.getRemainder().intValue(), radix);
-         if (forceFit && stringBuilder.length() == 20)
+         final long digits = valueRemaining.divideMagnitudeByElement((int) digitsDivisor);
+         String digitsAsRadix = RadixUtil.toString(digits, radix);
+         //the most significant digits aren't padded
+         if (!valueRemaining.equalValue(0)) digitsAsRadix = leftPad(digitsAsRadix, digitsPerPass);
+         if (Integer.MAX_VALUE - stringBuilder.length() < digitsAsRadix.length())  //overflow conscious
+            throw new WillNotFitException(this + " in base " + radix + " would exceed max string length.");
+         //the string is built backwards then reversed at the end
+         stringBuilder.append(new StringBuilder(digitsAsRadix).reverse());
+         if (forceFit && stringBuilder.length() > 20)
          {
-            //TODO: could be made faster by making a copy of the lowest 3 nodes so that divide isn't overwhelmed
+            stringBuilder.setLength(20);
             stringBuilder.append("…");
             break;
          }
-         if (Integer.MAX_VALUE - stringBuilder.length() < nodeAsRadix.length())  //overflow conscious
-            throw new WillNotFitException(this + " in base " + radix + " would exceed max string length.");
-         stringBuilder.append(nodeAsRadix);
-         valueRemaining = integerQuotient.getWholeResult();
       }
       if (isNegative && stringBuilder.length() == Integer.MAX_VALUE)
          throw new WillNotFitException(this + " in base " + radix + " would exceed max string length.");
@@ -2533,15 +3850,16 @@ rather than base int
       else stringBuilder.append("+ ");
 
       //Since this method is used to debug this class I'll check some invariants.
-      //actually a sub-zero node exists during readFromStream (for 1 line)
-      if (magnitudeHead.getPrev() != null) throw new IllegalStateException("Bug: sub-zero nodes exist");
-      if (magnitudeHead.getNext() == null && magnitudeHead.getData() == 0 && isNegative)
+      final long capacity = (storage == null) ? magnitude.length : storage.capacity();
+      if (limbCount() < 1 || limbCount() > capacity)
+         throw new IllegalStateException("Bug: invalid magnitudeLength " + limbCount());
+      if (limbCount() == 1 && limb(0) == 0 && isNegative)
          throw new IllegalStateException("Bug: negative zero found");
-      //Don't check for leading 0s (at magnitudeTail) because they can exist temporarily during which this method may be called.
+      //Don't check for leading 0s (at the most significant end) because they can exist temporarily during which this method may be called.
 
-      for (DequeNode<Integer> cursor = magnitudeHead; cursor != null; cursor = cursor.getNext())
+      for (long i = 0; i < limbCount(); ++i)
       {
-         stringBuilder.append(Integer.toHexString(cursor.getData()).toUpperCase());
+         stringBuilder.append(Integer.toHexString(limb(i)).toUpperCase());
          stringBuilder.append(", ");  //there will be a trailing ", " but I don't care
       }
       return stringBuilder.toString();
@@ -2553,13 +3871,9 @@ rather than base int
     */
    int leadingZeroCount()
    {
-      DequeNode<Integer> magnitudeCursor = getMagnitudeTail();
       int leadingZeroCount = 0;
-      while (magnitudeCursor.getData().equals(0))
-      {
-         ++leadingZeroCount;
-         magnitudeCursor = magnitudeCursor.getPrev();
-      }
+      //the least significant element is never a leading 0 (it is the value 0)
+      for (long i = limbCount() - 1; i > 0 && limb(i) == 0; --i){++leadingZeroCount;}
       return leadingZeroCount;
    }
 
@@ -2573,19 +3887,15 @@ rather than base int
    public MutableInfiniteInteger copy()
    {
       if (!this.isFinite()) return this;
-      final MutableInfiniteInteger returnValue = new MutableInfiniteInteger(0);
-      returnValue.isNegative = this.isNegative;
-      DequeNode<Integer> returnCursor = returnValue.magnitudeHead;
-      DequeNode<Integer> thisCursor = this.magnitudeHead;
-
-      returnCursor.setData(thisCursor.getData());  //must be outside the loop since the first node already exists
-      thisCursor = thisCursor.getNext();
-      while (thisCursor != null)
+      if (this.storage != null)
       {
-         returnCursor = DequeNode.Factory.createNodeAfter(returnCursor, thisCursor.getData());
-         thisCursor = thisCursor.getNext();
+         //the copy is also off of the heap
+         final MutableInfiniteInteger result = new MutableInfiniteInteger(0);
+         result.isNegative = this.isNegative;
+         result.copyStorageOf(this);
+         return result;
       }
-      return returnValue;
+      return new MutableInfiniteInteger(this.isNegative, Arrays.copyOf(this.magnitude, this.magnitudeLength), this.magnitudeLength);
    }
 
    /**
@@ -2595,7 +3905,32 @@ rather than base int
     */
    public MutableInfiniteInteger set(final long newValue)
    {
-      return this.set(MutableInfiniteInteger.valueOf(newValue));
+      if (!this.isFinite()) return this;
+      return this.setLongValue(newValue);
+   }
+
+   /**
+    * Used internally to change the value of this finite number to a long without allocating (unless the array
+    * only has room for 1 element).
+    *
+    * @return this
+    */
+   private MutableInfiniteInteger setLongValue(final long newValue)
+   {
+      isNegative = (newValue < 0);
+      //Math.abs(Long.MIN_VALUE) is still Long.MIN_VALUE which is correct when treated as unsigned
+      final long absValue = Math.abs(newValue);
+      if (storage != null)
+      {
+         //a long is too small to be worth storing off of the heap
+         releaseStorage();
+         magnitude = new int[2];
+      }
+      ensureCapacity(2);
+      magnitude[0] = (int) absValue;
+      magnitude[1] = (int) (absValue >>> 32);
+      magnitudeLength = (magnitude[1] == 0) ? 1 : 2;
+      return this;
    }
 
    /**
@@ -2631,15 +3966,96 @@ rather than base int
    {
       if (!newValue.isFinite()) return newValue;  //immutable constants can't be changed or copied.
       if (!this.isFinite()) return this;
+      if (this == newValue) return this;
       this.isNegative = newValue.isNegative;  //is a primitive boolean so it's immutable
-      this.magnitudeHead = newValue.copy().magnitudeHead;
+      if (newValue.storage != null)
+      {
+         this.copyStorageOf(newValue);
+         return this.applyOffHeapThreshold();
+      }
+      if (this.storage != null)
+      {
+         releaseStorage();
+         this.magnitude = new int[newValue.magnitudeLength];
+      }
+      //reuse the current array when it is large enough so that repeated set calls don't create garbage
+      if (this.magnitude.length < newValue.magnitudeLength) this.magnitude = new int[newValue.magnitudeLength];
+      System.arraycopy(newValue.magnitude, 0, this.magnitude, 0, newValue.magnitudeLength);
+      this.magnitudeLength = newValue.magnitudeLength;
+      return this.applyOffHeapThreshold();
+   }
+
+   /**
+    * Replaces the elements of this with a copy of source's elements (which must be in storage). The copy is also in
+    * storage. The sign isn't changed.
+    */
+   private void copyStorageOf(final MutableInfiniteInteger source)
+   {
+      final LimbStorage newStorage = MutableInfiniteInteger.newStorage(source.storageLength);
+      source.storage.copy(0, newStorage, 0, source.storageLength);
+      if (this.storage != null) this.storage.close();
+      this.storage = newStorage;
+      this.storageLength = source.storageLength;
+      this.magnitude = null;
+      this.magnitudeLength = 0;
+   }
+
+   /**
+    * Used internally instead of set when the parameter is a temporary value that was created by the calling method.
+    * This takes the parameter's array instead of copying it therefore the parameter must not be used afterwards.
+    * In order to maintain the singleton constants mutation will not
+    * occur if this or the parameter are a singleton constant.
+    *
+    * @return the result which is itself or a defined singleton
+    */
+   private MutableInfiniteInteger setFromTemporary(final MutableInfiniteInteger temporary)
+   {
+      if (!temporary.isFinite()) return temporary;  //immutable constants can't be changed or copied.
+      if (!this.isFinite()) return this;
+      if (this == temporary) return this.applyOffHeapThreshold();
+      if (this.storage != null) releaseStorage();
+      this.isNegative = temporary.isNegative;
+      this.magnitude = temporary.magnitude;
+      this.magnitudeLength = temporary.magnitudeLength;
+      this.storage = temporary.storage;
+      this.storageLength = temporary.storageLength;
+      return this.applyOffHeapThreshold();
+   }
+
+   /**
+    * Releases any spare capacity that this MutableInfiniteInteger is holding on to.
+    * Operations that grow a number reserve extra room so that the next growth doesn't need to copy everything,
+    * this method shrinks the storage down to the current value. This is useful for huge values that will be kept around
+    * for a long time. This method doesn't change the value. Numbers that are off of the heap (see
+    * {@link #setOffHeapThreshold(long)}) are left as is.
+    *
+    * @return this or a defined singleton
+    */
+   public MutableInfiniteInteger trimToSize()
+   {
+      if (!this.isFinite() || storage != null) return this;
+      if (magnitude.length != magnitudeLength) magnitude = Arrays.copyOf(magnitude, magnitudeLength);
       return this;
    }
 
+   /**
+    * Frees the memory that holds this number and changes it to 0. A number that was moved off of the heap (see
+    * {@link #setOffHeapThreshold(long)}) has its memory freed right away instead of whenever the garbage collector gets
+    * to it (this never falls back to the garbage collector since storage can't be turned on without a way to free it). A number on the heap only drops its array. ±∞ and NaN are unchanged. Calling close again does nothing.
+    */
+   @Override
+   public void close()
+   {
+      if (!this.isFinite()) return;
+      if (storage != null) releaseStorage();
+      magnitude = new int[1];
+      magnitudeLength = 1;
+      isNegative = false;
+   }
+
    public static MutableInfiniteInteger readFromStream(final ObjectStreamReader reader)
    {
       final MutableInfiniteInteger result = new MutableInfiniteInteger(0);
-      DequeNode<Integer> resultCursor = result.magnitudeHead;
 
       switch (reader.readObject(byte.class))
       {
@@ -2655,16 +4071,20 @@ rather than base int
          //case 5: isNegative is already false
       }
 
+      int resultLength = 0;
       int followingNodeCount = Byte.toUnsignedInt(reader.readObject(byte.class));
       while (followingNodeCount != 0)
       {
-         resultCursor = DequeNode.Factory.createNodeAfter(resultCursor, reader.readObject(int.class));
-         --followingNodeCount;
-         if (followingNodeCount == 0) followingNodeCount = Byte.toUnsignedInt(reader.readObject(byte.class));
+         result.ensureCapacity((long) resultLength + followingNodeCount);
+         for (; followingNodeCount != 0; --followingNodeCount)
+         {
+            result.magnitude[resultLength] = reader.readObject(int.class);
+            ++resultLength;
+         }
+         followingNodeCount = Byte.toUnsignedInt(reader.readObject(byte.class));
       }
-      result.magnitudeHead = result.magnitudeHead.getNext();
-      result.magnitudeHead.getPrev().remove();  //remove the placeholder 0
-      return result;
+      result.magnitudeLength = resultLength;
+      return result.applyOffHeapThreshold();
    }
 
    @Override
@@ -2679,21 +4099,15 @@ rather than base int
       if (!this.isFinite()) return;  //They have no nodes so I'm done.
 
       //TODO: replace with byte and max size (Integer.MAX_VALUE - 8) int array since can write array now
-      final int[] someNodes = new int[255];
-      DequeNode<Integer> cursor = this.magnitudeHead;
-      while (cursor != null)
+      long writtenCount = 0;
+      while (writtenCount < limbCount())
       {
-         int filledCount = 0;
-         while (filledCount < 255 && cursor != null)
-         {
-            someNodes[filledCount] = cursor.getData();
-            ++filledCount;
-            cursor = cursor.getNext();
-         }
-         writer.writeObject((byte) filledCount);
-         for (int filledIndex = 0; filledIndex < filledCount; ++filledIndex)
+         final int chunkCount = (int) Math.min(255, limbCount() - writtenCount);
+         writer.writeObject((byte) chunkCount);
+         for (int chunkIndex = 0; chunkIndex < chunkCount; ++chunkIndex)
          {
-            writer.writeObject(someNodes[filledIndex]);
+            writer.writeObject(limb(writtenCount));
+            ++writtenCount;
          }
       }
       //Mark that there are no more nodes.
@@ -2702,31 +4116,31 @@ rather than base int
 
    private Object writeReplace() throws ObjectStreamException
    {
-      magnitudeHead = null;
+      magnitude = null;
       throw new NotSerializableException();
    }
 
    private Object readResolve() throws ObjectStreamException
    {
-      magnitudeHead = null;
+      magnitude = null;
       throw new NotSerializableException();
    }
 
    private void writeObject(final ObjectOutputStream out) throws IOException
    {
-      magnitudeHead = null;
+      magnitude = null;
       throw new NotSerializableException();
    }
 
    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
    {
-      magnitudeHead = null;
+      magnitude = null;
       throw new NotSerializableException();
    }
 
    private void readObjectNoData() throws ObjectStreamException
    {
-      magnitudeHead = null;
+      magnitude = null;
       throw new NotSerializableException();
    }
 }
@@ -591,8 +591,8 @@ public final class MutableInfiniteRational extends AbstractInfiniteRational<Muta
          return this;  //nothing to reduce since they aren't numbers (this prevents below from doing bad math)
       final MutableInfiniteInteger divisor = numerator.greatestCommonDivisor(denominator);
       //remainder is always 0 for these
-      numerator.divideDropRemainder(divisor);
-      denominator.divideDropRemainder(divisor);
+      numerator.divideExact(divisor);
+      denominator.divideExact(divisor);
       return this;
    }
 
@@ -699,13 +699,13 @@ public final class MutableInfiniteRational extends AbstractInfiniteRational<Muta
 
       final MutableInfiniteInteger leastCommonMultiple = this.denominator.leastCommonMultiple(value.denominator);
 
-      //There is no remainder but don't call divideDropRemainder because that mutates and this way avoids a pointless copy
+      //There is no remainder. leastCommonMultiple is copied because it is used again below
       //multiplier will always be positive because denominator is positive.
-      final MutableInfiniteInteger thisMultiplier = leastCommonMultiple.divide(this.denominator).getWholeResult();
+      final MutableInfiniteInteger thisMultiplier = leastCommonMultiple.copy().divideExact(this.denominator);
       numerator = this.numerator.multiply(thisMultiplier);
       denominator = this.denominator.multiply(thisMultiplier);
 
-      final MutableInfiniteInteger valueMultiplier = leastCommonMultiple.divide(value.denominator).getWholeResult();
+      final MutableInfiniteInteger valueMultiplier = leastCommonMultiple.divideExact(value.denominator);
       final MutableInfiniteInteger valueNewNumerator = value.numerator.copy().multiply(valueMultiplier);
 
       numerator = this.numerator.add(valueNewNumerator);
@@ -1147,11 +1147,11 @@ public final class MutableInfiniteRational extends AbstractInfiniteRational<Muta
       //at this point: they are not the same object, they have the same sign, they are not special values.
 
       final MutableInfiniteInteger leastCommonMultiple = this.denominator.leastCommonMultiple(other.denominator);
-      //There is no remainder but don't call divideDropRemainder because that mutates and this way avoids a pointless copy
+      //There is no remainder. leastCommonMultiple is copied because it is used again below
       //multiplier will always be positive because denominator is positive.
-      final MutableInfiniteInteger thisMultiplier = leastCommonMultiple.divide(this.denominator).getWholeResult();
+      final MutableInfiniteInteger thisMultiplier = leastCommonMultiple.copy().divideExact(this.denominator);
       final MutableInfiniteInteger thisNewNumerator = this.numerator.copy().multiply(thisMultiplier);
-      final MutableInfiniteInteger otherMultiplier = leastCommonMultiple.divide(other.denominator).getWholeResult();
+      final MutableInfiniteInteger otherMultiplier = leastCommonMultiple.divideExact(other.denominator);
       final MutableInfiniteInteger otherNewNumerator = other.numerator.copy().multiply(otherMultiplier);
 
       return thisNewNumerator.compareTo(otherNewNumerator);
@@ -1402,6 +1402,7 @@ public final class MutableInfiniteRational extends AbstractInfiniteRational<Muta
       for (currentDecimalPlaces = 0; currentDecimalPlaces < decimalPlaces && !workingRemainder.equalValue(0); ++currentDecimalPlaces)
       {
          workingRemainder.multiply(radix);
+         //the quotient is a single digit so this is one linear pass (multiplying by a reciprocal would cost more)
          workingQuotient = workingRemainder.divide(denominator);
          stringBuilder.append(workingQuotient.getWholeResult().toString(radix));
          workingRemainder = workingQuotient.getRemainder();
@@ -0,0 +1,23 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps each segment in native memory from {@link ByteBuffer#allocateDirect(int)}. The total is limited by
+ * -XX:MaxDirectMemorySize (which defaults to the max heap size).
+ *
+ * @see LimbStorage#direct(long, int)
+ */
+final class DirectLimbStorage extends LimbStorage
+{
+   DirectLimbStorage(final int segmentLength)
+   {
+      super(segmentLength);
+   }
+
+   @Override
+   protected ByteBuffer allocateSegment(final int byteCount)
+   {
+      return ByteBuffer.allocateDirect(byteCount);
+   }
+}
@@ -0,0 +1,466 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import java.util.Arrays;
+
+/**
+ * Division kernels for magnitudes in the format used by MutableInfiniteInteger: an int[] where each element
+ * is unsigned and the elements are in little endian order. Only the first "length" elements of each array are used.
+ * Only the arrays documented as being mutated are mutated.
+ */
+public enum DivideUtil
+{
+   ;  //no instances
+
+   private static final long LOW_MASK = 0xFFFF_FFFFL;
+
+   /**
+    * If the divisor has at least this many elements (and the dividend is at least
+    * {@link #BURNIKEL_ZIEGLER_OFFSET} elements longer) then Burnikel-Ziegler division is used instead of Knuth's
+    * algorithm D. This is the value to tune: Burnikel-Ziegler is only faster once its multiplications are large enough
+    * to use Karatsuba. It is also the size of the recursion's base case.
+    */
+   static final int BURNIKEL_ZIEGLER_THRESHOLD = 128;
+   /**
+    * See {@link #BURNIKEL_ZIEGLER_THRESHOLD}. A short quotient is cheap for algorithm D.
+    */
+   static final int BURNIKEL_ZIEGLER_OFFSET = 40;
+
+   /**
+    * Divides the magnitudes picking the algorithm based on their size:
+    * <ul>
+    * <li>a single element divisor uses {@link #divideByWord(int[], int, int, int[])}</li>
+    * <li>most use long division in base 2^32 (Knuth's algorithm D) which is O(n * m)</li>
+    * <li>large divisors use Burnikel-Ziegler recursive division which costs about 2 multiplications of the same size
+    * and uses algorithm D as a base case</li>
+    * </ul>
+    *
+    * @param divisor   must not be 0 and its most significant element (divisorLength - 1) must not be 0
+    * @param remainder is mutated to be the remainder. It must have at least divisorLength elements
+    * @return a new array of length (dividendLength - divisorLength + 1) which may have leading 0s. If the dividend is
+    * shorter than the divisor then the quotient is an array with only 0
+    */
+   public static int[] divide(final int[] dividend, final int dividendLength, final int[] divisor,
+                              final int divisorLength, final int[] remainder)
+   {
+      if (dividendLength < divisorLength)
+      {
+         System.arraycopy(dividend, 0, remainder, 0, dividendLength);
+         for (int i = dividendLength; i < divisorLength; ++i)
+         {
+            remainder[i] = 0;
+         }
+         return new int[1];
+      }
+      if (divisorLength == 1)
+      {
+         final int[] quotient = new int[dividendLength];
+         remainder[0] = DivideUtil.divideByWord(dividend, dividendLength, divisor[0], quotient);
+         return quotient;
+      }
+      if (divisorLength >= DivideUtil.BURNIKEL_ZIEGLER_THRESHOLD
+          && dividendLength - divisorLength >= DivideUtil.BURNIKEL_ZIEGLER_OFFSET)
+         return DivideUtil.divideBurnikelZiegler(dividend, dividendLength, divisor, divisorLength, remainder);
+      return DivideUtil.divideKnuth(dividend, dividendLength, divisor, divisorLength, remainder);
+   }
+
+   /**
+    * Divides when the remainder is expected to be 0 (Jebelean's exact division). The quotient is found from the least
+    * significant element: each element is the lowest remaining element times the inverse of the divisor (mod 2^32) so
+    * unlike long division there are no estimates to correct. The divisor is first shifted right until it is odd since
+    * only odd numbers have an inverse. Large quotients with large divisors use the recursive
+    * {@link #divide(int[], int, int[], int, int[])} instead since this is O(n * m).
+    *
+    * @param dividend must not be 0
+    * @param divisor  must not be 0 and its most significant element (divisorLength - 1) must not be 0
+    * @return a new array which may have leading 0s or null if the remainder isn't 0
+    */
+   public static int[] divideExact(final int[] dividend, final int dividendLength, final int[] divisor,
+                                   final int divisorLength)
+   {
+      if (dividendLength < divisorLength) return null;
+      if (divisorLength >= DivideUtil.BURNIKEL_ZIEGLER_THRESHOLD
+          && dividendLength - divisorLength >= DivideUtil.BURNIKEL_ZIEGLER_THRESHOLD)
+      {
+         final int[] remainder = new int[divisorLength];
+         final int[] quotient = DivideUtil.divide(dividend, dividendLength, divisor, divisorLength, remainder);
+         return (MultiplyUtil.significantLength(remainder, divisorLength) == 0) ? quotient : null;
+      }
+
+      //the dividend must have at least as many trailing 0 bits as the divisor
+      int zeroElements = 0;
+      while (divisor[zeroElements] == 0){++zeroElements;}
+      final int zeroBits = Integer.numberOfTrailingZeros(divisor[zeroElements]);
+      for (int i = 0; i < zeroElements; ++i)
+      {
+         if (dividend[i] != 0) return null;
+      }
+      if ((dividend[zeroElements] & ((1 << zeroBits) - 1)) != 0) return null;
+
+      final int[] oddDivisor = DivideUtil.shiftRight(divisor, zeroElements, divisorLength, zeroBits, 0);
+      final int oddDivisorLength = MultiplyUtil.significantLength(oddDivisor, oddDivisor.length);
+      //an extra element so that a quotient which is too large shows up as a non-zero remainder
+      final int[] working = DivideUtil.shiftRight(dividend, zeroElements, dividendLength, zeroBits, 1);
+      final int workingLength = MultiplyUtil.significantLength(working, working.length);
+      if (workingLength < oddDivisorLength) return null;
+
+      //Newton's method for the inverse: odd * odd == 1 (mod 8) and each step doubles the correct bits (3 to 48)
+      int inverse = oddDivisor[0];
+      for (int i = 0; i < 4; ++i){inverse *= 2 - oddDivisor[0] * inverse;}
+
+      final int[] quotient = new int[workingLength - oddDivisorLength + 1];
+      for (int i = 0; i < quotient.length; ++i)
+      {
+         //the product of the divisor and this makes working[i] become 0
+         quotient[i] = working[i] * inverse;
+         if (quotient[i] == 0) continue;
+         if (DivideUtil.multiplySubtract(working, i, oddDivisor, oddDivisorLength, Integer.toUnsignedLong(quotient[i])))
+         {
+            //borrow past the elements that were subtracted from (wraps around at the end of working)
+            int borrowIndex = i + oddDivisorLength + 1;
+            while (borrowIndex < working.length && working[borrowIndex] == 0)
+            {
+               working[borrowIndex] = -1;
+               ++borrowIndex;
+            }
+            if (borrowIndex < working.length) --working[borrowIndex];
+         }
+      }
+      //(dividend - quotient * divisor) is less than 2^(32 * working.length) in magnitude so working is all 0 only if
+      //the remainder is 0
+      return (MultiplyUtil.significantLength(working, working.length) == 0) ? quotient : null;
+   }
+
+   /**
+    * Long division in base 2^32 (Knuth's The Art of Computer Programming volume 2, 4.3.1 Algorithm D).
+    * Each quotient element is estimated from the top 2 elements of the remainder and the top element of the
+    * divisor. After normalizing (shifting so that the divisor's most significant bit is set) the estimate is at most
+    * 2 too large and checking the next element of the divisor almost always corrects it before the multiply and
+    * subtract.
+    *
+    * @see #divide(int[], int, int[], int, int[])
+    */
+   static int[] divideKnuth(final int[] dividend, final int dividendLength, final int[] divisor,
+                            final int divisorLength, final int[] remainder)
+   {
+      //normalize so that the divisor's most significant bit is set. the dividend gets an extra element for the shift
+      final int shift = Integer.numberOfLeadingZeros(divisor[divisorLength - 1]);
+      final int[] normalizedDivisor = DivideUtil.shiftLeft(divisor, divisorLength, shift, divisorLength);
+      final int[] working = DivideUtil.shiftLeft(dividend, dividendLength, shift, dividendLength + 1);
+      final long divisorHigh = Integer.toUnsignedLong(normalizedDivisor[divisorLength - 1]);
+      final long divisorNext = Integer.toUnsignedLong(normalizedDivisor[divisorLength - 2]);
+
+      final int[] quotient = new int[dividendLength - divisorLength + 1];
+      for (int j = dividendLength - divisorLength; j >= 0; --j)
+      {
+         //estimate the quotient element from the top 2 elements. the top is never more than divisorHigh
+         final long top = (Integer.toUnsignedLong(working[j + divisorLength]) << 32)
+                          | Integer.toUnsignedLong(working[j + divisorLength - 1]);
+         long estimate = Long.divideUnsigned(top, divisorHigh);
+         long estimateRemainder = top - estimate * divisorHigh;
+         //the next element of each catches nearly every estimate that is too large
+         while (estimate > LOW_MASK || Long.compareUnsigned(estimate * divisorNext,
+            (estimateRemainder << 32) | Integer.toUnsignedLong(working[j + divisorLength - 2])) > 0)
+         {
+            --estimate;
+            estimateRemainder += divisorHigh;
+            if (estimateRemainder > LOW_MASK) break;
+         }
+
+         if (DivideUtil.multiplySubtract(working, j, normalizedDivisor, divisorLength, estimate))
+         {
+            //the estimate was still 1 too large (rare) so add back one divisor
+            --estimate;
+            DivideUtil.addBack(working, j, normalizedDivisor, divisorLength);
+         }
+         quotient[j] = (int) estimate;
+      }
+
+      //the remainder is what's left of the working dividend after undoing the normalization
+      for (int i = 0; i < divisorLength; ++i)
+      {
+         remainder[i] = (shift == 0) ? working[i] : (working[i] >>> shift) | (working[i + 1] << (32 - shift));
+      }
+      return quotient;
+   }
+
+   /**
+    * Burnikel and Ziegler's "Fast Recursive Division" (1998). The dividend is split into blocks the size of the
+    * (normalized) divisor and each block is divided like a digit of schoolbook division. Dividing a 2n element number
+    * by an n element number is done recursively as 2 divisions of 3 halves by 2 halves which each need 1 division
+    * of half the size and 1 multiplication.
+    *
+    * @see #divide(int[], int, int[], int, int[])
+    */
+   static int[] divideBurnikelZiegler(final int[] dividend, final int dividendLength, final int[] divisor,
+                                      final int divisorLength, final int[] remainder)
+   {
+      final int shift = Integer.numberOfLeadingZeros(divisor[divisorLength - 1]);
+      final int[] normalizedDivisor = DivideUtil.shiftLeft(divisor, divisorLength, shift, divisorLength);
+      final int[] normalizedDividend = DivideUtil.shiftLeft(dividend, dividendLength, shift, dividendLength + 1);
+      final int blockCount = (normalizedDividend.length + divisorLength - 1) / divisorLength;
+
+      final int[] quotient = new int[blockCount * divisorLength];
+      //the remainder of each block is less than the divisor which keeps each block's quotient to 1 block
+      int[] blockRemainder = new int[0];
+      for (int block = blockCount - 1; block >= 0; --block)
+      {
+         final int[] current = DivideUtil.append(DivideUtil.slice(normalizedDividend, block * divisorLength,
+            (block + 1) * divisorLength), blockRemainder);
+         final Division division = DivideUtil.divide2By1(current, normalizedDivisor, divisorLength);
+         System.arraycopy(division.quotient, 0, quotient, block * divisorLength,
+            Math.min(divisorLength, division.quotient.length));
+         blockRemainder = division.remainder;
+      }
+
+      //undo the normalization
+      final int[] shiftedRemainder = DivideUtil.slice(blockRemainder, 0, divisorLength + 1);
+      for (int i = 0; i < divisorLength; ++i)
+      {
+         remainder[i] = (shift == 0) ? shiftedRemainder[i]
+            : (shiftedRemainder[i] >>> shift) | (shiftedRemainder[i + 1] << (32 - shift));
+      }
+      return Arrays.copyOf(quotient, dividendLength - divisorLength + 1);
+   }
+
+   /**
+    * Divides a number of up to 2n elements by an n element number where the result is known to fit in n elements.
+    *
+    * @param dividend less than divisor * 2^(32n)
+    * @param divisor  exactly n elements with the most significant bit set
+    */
+   private static Division divide2By1(final int[] dividend, final int[] divisor, final int n)
+   {
+      if (n < DivideUtil.BURNIKEL_ZIEGLER_THRESHOLD)
+      {
+         final int[] remainder = new int[n];
+         final int[] quotient = DivideUtil.divide(dividend, MultiplyUtil.significantLength(dividend, dividend.length),
+            divisor, n, remainder);
+         return new Division(quotient, remainder);
+      }
+      if (n % 2 == 1)
+      {
+         //an odd length is padded with 1 element on the bottom of both which doesn't change the quotient
+         final Division padded = DivideUtil.divide2By1(DivideUtil.append(new int[1], dividend),
+            DivideUtil.append(new int[1], divisor), n + 1);
+         return new Division(padded.quotient, DivideUtil.slice(padded.remainder, 1, padded.remainder.length));
+      }
+
+      final int half = n / 2;
+      final int[] divisorHigh = DivideUtil.slice(divisor, half, n);
+      final int[] divisorLow = DivideUtil.slice(divisor, 0, half);
+      final Division high = DivideUtil.divide3By2(DivideUtil.slice(dividend, n, 2 * n),
+         DivideUtil.slice(dividend, half, n), divisor, divisorHigh, divisorLow, half);
+      final Division low = DivideUtil.divide3By2(high.remainder, DivideUtil.slice(dividend, 0, half), divisor,
+         divisorHigh, divisorLow, half);
+      return new Division(DivideUtil.append(DivideUtil.slice(low.quotient, 0, half), high.quotient), low.remainder);
+   }
+
+   /**
+    * Divides (dividendHigh * 2^(32 * half) + dividendLow) by divisor where the quotient is known to fit in half
+    * elements. The top half of each is divided first which gives a quotient that is at most 2 too large.
+    *
+    * @param dividendHigh up to 2 * half elements
+    * @param dividendLow  up to half elements
+    * @param divisor      (divisorHigh * 2^(32 * half) + divisorLow) where divisorHigh is normalized
+    */
+   private static Division divide3By2(final int[] dividendHigh, final int[] dividendLow, final int[] divisor,
+                                      final int[] divisorHigh, final int[] divisorLow, final int half)
+   {
+      int[] quotient;
+      int[] partialRemainder;
+      if (MultiplyUtil.compare(DivideUtil.slice(dividendHigh, half, dividendHigh.length), divisorHigh) == 0)
+      {
+         //the quotient would be 2^(32 * half) which is too large so use the largest possible instead
+         quotient = new int[half];
+         Arrays.fill(quotient, -1);
+         //dividendHigh - (divisorHigh * 2^(32 * half)) + divisorHigh
+         partialRemainder = MultiplyUtil.add(DivideUtil.slice(dividendHigh, 0, half), half, divisorHigh, half);
+      }
+      else
+      {
+         final Division division = DivideUtil.divide2By1(dividendHigh, divisorHigh, half);
+         quotient = division.quotient;
+         partialRemainder = division.remainder;
+      }
+
+      final int[] withLow = DivideUtil.append(DivideUtil.slice(dividendLow, 0, half), partialRemainder);
+      final int quotientLength = MultiplyUtil.significantLength(quotient, quotient.length);
+      if (quotientLength == 0) return new Division(quotient, withLow);
+      final int[] product = MultiplyUtil.multiply(quotient, quotientLength, divisorLow,
+         MultiplyUtil.significantLength(divisorLow, half));
+      if (MultiplyUtil.compare(withLow, product) >= 0)
+         return new Division(quotient, MultiplyUtil.subtract(withLow, product));
+
+      //the quotient is too large (at most by 2) so lower it until the remainder isn't negative
+      int[] deficit = MultiplyUtil.subtract(product, withLow);
+      quotient = Arrays.copyOf(quotient, quotient.length);
+      while (true)
+      {
+         MultiplyUtil.subtractInPlace(quotient, new int[]{1}, 1);
+         if (MultiplyUtil.compare(deficit, divisor) <= 0)
+            return new Division(quotient, MultiplyUtil.subtract(divisor, deficit));
+         deficit = MultiplyUtil.subtract(deficit, divisor);
+      }
+   }
+
+   /**
+    * @return a new array with elements from (inclusive) to to (exclusive). Any indexes past the end are 0
+    */
+   private static int[] slice(final int[] elements, final int from, final int to)
+   {
+      final int[] result = new int[to - from];
+      if (from < elements.length) System.arraycopy(elements, from, result, 0, Math.min(to, elements.length) - from);
+      return result;
+   }
+
+   /**
+    * @return a new array of (high * 2^(32 * low.length) + low)
+    */
+   private static int[] append(final int[] low, final int[] high)
+   {
+      final int[] result = Arrays.copyOf(low, low.length + high.length);
+      System.arraycopy(high, 0, result, low.length, high.length);
+      return result;
+   }
+
+   /**
+    * The result of a recursive step of Burnikel-Ziegler division. Either array may have leading 0s.
+    */
+   private static final class Division
+   {
+      private final int[] quotient;
+      private final int[] remainder;
+
+      private Division(final int[] quotient, final int[] remainder)
+      {
+         this.quotient = quotient;
+         this.remainder = remainder;
+      }
+   }
+
+   /**
+    * Divides by a single unsigned word in 1 pass from the most significant element.
+    *
+    * @param quotient is mutated to be the quotient. It must have at least dividendLength elements. It can be the
+    *                 same array as dividend
+    * @param divisor  treated as unsigned. Must not be 0
+    * @return the remainder (which is unsigned)
+    */
+   public static int divideByWord(final int[] dividend, final int dividendLength, final int divisor,
+                                  final int[] quotient)
+   {
+      final long unsignedDivisor = Integer.toUnsignedLong(divisor);
+      long remainder = 0;
+      for (int i = dividendLength - 1; i >= 0; --i)
+      {
+         //remainder < divisor so this is less than 2^64 but might be more than Long.MAX_VALUE
+         final long current = (remainder << 32) | Integer.toUnsignedLong(dividend[i]);
+         final long partial = Long.divideUnsigned(current, unsignedDivisor);
+         quotient[i] = (int) partial;
+         remainder = current - partial * unsignedDivisor;
+      }
+      return (int) remainder;
+   }
+
+   /**
+    * Same as {@link #divideByWord(int[], int, int, int[])} except that only the remainder is found.
+    *
+    * @param divisor treated as unsigned. Must not be 0
+    * @return the remainder (which is unsigned)
+    */
+   public static int remainderByWord(final int[] dividend, final int dividendLength, final int divisor)
+   {
+      final long unsignedDivisor = Integer.toUnsignedLong(divisor);
+      long remainder = 0;
+      for (int i = dividendLength - 1; i >= 0; --i)
+      {
+         remainder = Long.remainderUnsigned((remainder << 32) | Integer.toUnsignedLong(dividend[i]), unsignedDivisor);
+      }
+      return (int) remainder;
+   }
+
+   /**
+    * Subtracts (multiplier * divisor) from working starting at offset.
+    *
+    * @param working    is mutated. It has divisorLength + 1 elements starting at offset
+    * @param multiplier is at most 2^32 - 1
+    * @return true if the result went negative (in which case working holds the two's complement)
+    */
+   private static boolean multiplySubtract(final int[] working, final int offset, final int[] divisor,
+                                           final int divisorLength, final long multiplier)
+   {
+      long borrow = 0;
+      for (int i = 0; i < divisorLength; ++i)
+      {
+         final long product = multiplier * Integer.toUnsignedLong(divisor[i]);
+         final long difference = Integer.toUnsignedLong(working[offset + i]) - borrow - (product & LOW_MASK);
+         working[offset + i] = (int) difference;
+         //the high half of the product plus 0, 1 or 2 borrowed from the arithmetic shift
+         borrow = (product >>> 32) - (difference >> 32);
+      }
+      final long difference = Integer.toUnsignedLong(working[offset + divisorLength]) - borrow;
+      working[offset + divisorLength] = (int) difference;
+      return difference < 0;
+   }
+
+   /**
+    * Adds divisor to working starting at offset. The carry out of the top element is dropped since it cancels the
+    * borrow from {@link #multiplySubtract(int[], int, int[], int, long)}.
+    */
+   private static void addBack(final int[] working, final int offset, final int[] divisor, final int divisorLength)
+   {
+      long carry = 0;
+      for (int i = 0; i < divisorLength; ++i)
+      {
+         carry += Integer.toUnsignedLong(working[offset + i]) + Integer.toUnsignedLong(divisor[i]);
+         working[offset + i] = (int) carry;
+         carry >>>= 32;
+      }
+      working[offset + divisorLength] += (int) carry;
+   }
+
+   /**
+    * @param from       the number of elements to drop from the bottom
+    * @param shift      less than 32
+    * @param extraSpace the number of 0 elements to add to the top of the result
+    * @return a new array of (length - from + extraSpace) with the elements from "from" shifted right
+    */
+   private static int[] shiftRight(final int[] elements, final int from, final int length, final int shift,
+                                   final int extraSpace)
+   {
+      final int[] result = new int[length - from + extraSpace];
+      if (shift == 0)
+      {
+         System.arraycopy(elements, from, result, 0, length - from);
+         return result;
+      }
+      for (int i = from; i < length - 1; ++i)
+      {
+         result[i - from] = (elements[i] >>> shift) | (elements[i + 1] << (32 - shift));
+      }
+      result[length - 1 - from] = elements[length - 1] >>> shift;
+      return result;
+   }
+
+   /**
+    * @param shift        less than 32
+    * @param resultLength either length or length + 1 (to hold the bits shifted out)
+    * @return a new array of resultLength with the elements shifted left
+    */
+   private static int[] shiftLeft(final int[] elements, final int length, final int shift, final int resultLength)
+   {
+      final int[] result = new int[resultLength];
+      if (shift == 0)
+      {
+         System.arraycopy(elements, 0, result, 0, length);
+         return result;
+      }
+      if (resultLength > length) result[length] = elements[length - 1] >>> (32 - shift);
+      for (int i = length - 1; i > 0; --i)
+      {
+         result[i] = (elements[i] << shift) | (elements[i - 1] >>> (32 - shift));
+      }
+      result[0] = elements[0] << shift;
+      return result;
+   }
+}
@@ -0,0 +1,380 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import com.github.skySpiral7.java.infinite.util.MultiplyUtil.ProductTask;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Products of many small numbers such as factorial and binomial coefficients. The magnitudes are in the format used by
+ * MutableInfiniteInteger: an int[] where each element is unsigned and the elements are in little endian order.
+ * <p>
+ * Multiplying a running total by one number at a time makes every multiplication unbalanced so it can't benefit from
+ * the faster algorithms in {@link MultiplyUtil}. Instead the numbers are multiplied as a product tree: each half of
+ * the numbers is multiplied together then the halves are multiplied, which keeps both sides about the same size.
+ * When {@link MultiplyUtil#setParallelPool(ForkJoinPool) the pool} is used, each half is calculated at the same time.
+ */
+public enum FactorialUtil
+{
+   ;  //no instances
+
+   /**
+    * Ranges of this many numbers or fewer are multiplied into the total one at a time (or 2 at a time if both fit in
+    * an unsigned int). Larger ranges are split in half.
+    */
+   static final int PRODUCT_TREE_LEAF_SIZE = 32;
+   /**
+    * The odd part of the factorial of this number or less fits in a long so it is calculated directly.
+    */
+   private static final int SMALL_FACTORIAL_LIMIT = 20;
+
+   /**
+    * Calculates the odd part of n! which is n! with every factor of 2 removed. There are exactly
+    * {@code n - Integer.bitCount(n)} factors of 2 in n! so that n! is {@code oddFactorial(n) << (n - bitCount(n))}.
+    * <p>
+    * This uses Peter Luschny's prime swing algorithm: n! = (n/2)!<sup>2</sup> * swing(n) where swing(n) is the product
+    * of the primes up to n each raised to a small power. The powers come from the digits of n in base p instead of
+    * multiplying every number up to n. The squaring and the prime products are balanced multiplications.
+    *
+    * @param n must not be negative
+    * @return a new array which may have leading 0s
+    * @throws IllegalArgumentException if n is negative
+    */
+   public static int[] oddFactorial(final int n)
+   {
+      if (n < 0) throw new IllegalArgumentException("Factorial isn't defined for negative numbers. n=" + n);
+      if (n <= FactorialUtil.SMALL_FACTORIAL_LIMIT) return FactorialUtil.smallOddFactorial(n);
+      final BitSet oddComposites = FactorialUtil.oddComposites(n);
+      //n! has about n log2(n) bits
+      return FactorialUtil.compute(n / 32, () -> FactorialUtil.oddFactorial(n, oddComposites));
+   }
+
+   /**
+    * Calculates n! / (k! * (n-k)!) without calculating any of the factorials. The power of each prime p is the
+    * number of carries when adding k and (n-k) in base p (Kummer's theorem) which is found by subtracting the powers
+    * of p in each factorial (Legendre's formula). Each prime power is at most n.
+    *
+    * @param n must not be negative
+    * @param k must be from 0 to n (inclusive)
+    * @return a new array which may have leading 0s
+    * @throws IllegalArgumentException if k is out of range
+    */
+   public static int[] binomial(final int n, final int k)
+   {
+      if (k < 0 || k > n) throw new IllegalArgumentException("k must be from 0 to n. n=" + n + ", k=" + k);
+      //C(n, k) is less than 2^n
+      return FactorialUtil.compute(n / 32, () -> FactorialUtil.primePowerProduct(n,
+         prime -> FactorialUtil.legendre(n, prime) - FactorialUtil.legendre(k, prime)
+                  - FactorialUtil.legendre(n - k, prime)));
+   }
+
+   /**
+    * Calculates (sum of counts)! / (the product of each count!) which is the number of ways to put (sum of counts)
+    * items into groups of those sizes. Like {@link #binomial(int, int)} only the primes are multiplied.
+    *
+    * @param counts each must not be negative. Not mutated
+    * @return a new array which may have leading 0s
+    * @throws IllegalArgumentException if a count is negative or if the sum is larger than Integer.MAX_VALUE
+    */
+   public static int[] multinomial(final int... counts)
+   {
+      long sum = 0;
+      for (final int count : counts)
+      {
+         if (count < 0) throw new IllegalArgumentException("The counts can't be negative. count=" + count);
+         sum += count;
+      }
+      if (sum > Integer.MAX_VALUE) throw new IllegalArgumentException("The sum of the counts is too large: " + sum);
+      final int n = (int) sum;
+      return FactorialUtil.compute(n / 32, () -> FactorialUtil.primePowerProduct(n, prime ->
+      {
+         long exponent = FactorialUtil.legendre(n, prime);
+         for (final int count : counts)
+         {
+            exponent -= FactorialUtil.legendre(count, prime);
+         }
+         return exponent;
+      }));
+   }
+
+   /**
+    * @return the product of every prime up to n as a new array which may have leading 0s. This is 1 if n is less
+    * than 2
+    */
+   public static int[] primorial(final int n)
+   {
+      //n# is about e^n which is about 2^(1.44 n)
+      return FactorialUtil.compute(n / 16, () -> FactorialUtil.primePowerProduct(n, prime -> 1));
+   }
+
+   /**
+    * Multiplies every number from low to high (both inclusive) using a product tree without creating an array of
+    * the numbers. This is used for falling and rising factorials.
+    *
+    * @param low  must be at least 1
+    * @param high if less than low then the product is 1
+    * @return a new array which may have leading 0s
+    * @throws IllegalArgumentException if low is less than 1
+    */
+   public static int[] rangeProduct(final long low, final long high)
+   {
+      if (low < 1) throw new IllegalArgumentException("low must be at least 1. low=" + low);
+      if (high < low) return new int[]{1};
+      //each number is at most 2 elements
+      return FactorialUtil.compute(FactorialUtil.toElementCount(high - low + 1),
+         () -> FactorialUtil.rangeProductTree(low, high));
+   }
+
+   /**
+    * Multiplies the numbers together using a product tree.
+    *
+    * @param factors each is treated as unsigned. Not mutated
+    * @param from    the index of the first factor (inclusive)
+    * @param to      the index after the last factor (exclusive)
+    * @return a new array which may have leading 0s. The product of no factors is 1
+    */
+   public static int[] product(final long[] factors, final int from, final int to)
+   {
+      return FactorialUtil.compute(to - from, () -> FactorialUtil.productTree(factors, from, to));
+   }
+
+   /**
+    * A sieve of Eratosthenes that only stores odd numbers.
+    *
+    * @return a BitSet where the bit at index i is set if (2 * i + 1) is composite. Index 0 (the number 1) is clear
+    * even though 1 isn't prime
+    */
+   static BitSet oddComposites(final int max)
+   {
+      final BitSet composites = new BitSet(max / 2 + 1);
+      for (long prime = 3; prime * prime <= max; prime += 2)
+      {
+         if (composites.get((int) (prime / 2))) continue;
+         //smaller multiples were already crossed off by smaller primes and even multiples aren't stored
+         for (long multiple = prime * prime; multiple <= max; multiple += 2 * prime)
+         {
+            composites.set((int) (multiple / 2));
+         }
+      }
+      return composites;
+   }
+
+   /**
+    * @param elementCount the size of the smaller number of the last multiplication
+    * @return the result of calculation which is calculated in the pool if it is large enough
+    * @see MultiplyUtil#setParallelPool(ForkJoinPool)
+    */
+   private static int[] compute(final int elementCount, final Supplier<int[]> calculation)
+   {
+      final ForkJoinPool poolToEnter = MultiplyUtil.poolToEnter(elementCount);
+      if (poolToEnter == null) return calculation.get();
+      return poolToEnter.invoke(new ProductTask(calculation));
+   }
+
+   private static int[] oddFactorial(final int n, final BitSet oddComposites)
+   {
+      if (n <= FactorialUtil.SMALL_FACTORIAL_LIMIT) return FactorialUtil.smallOddFactorial(n);
+      final ProductTask half = new ProductTask(() -> FactorialUtil.oddFactorial(n / 2, oddComposites));
+      final ProductTask swing = new ProductTask(() -> FactorialUtil.oddSwing(n, oddComposites));
+      //swing(n) is less than 2^(2n) and the half is smaller
+      MultiplyUtil.computeAll(n / 16, half, swing);
+      final int[] halfResult = half.join();
+      final int[] halfSquared = MultiplyUtil.square(halfResult, MultiplyUtil.significantLength(halfResult,
+         halfResult.length));
+      return FactorialUtil.multiply(halfSquared, swing.join());
+   }
+
+   /**
+    * @return the odd part of swing(n) = n! / ((n/2)!)<sup>2</sup>. The power of each odd prime p is the number of odd
+    * values of floor(n / p<sup>k</sup>) which means that each prime power is at most n
+    */
+   private static int[] oddSwing(final int n, final BitSet oddComposites)
+   {
+      final long[] factors = new long[FactorialUtil.maxPrimeCount(n)];
+      int factorCount = 0;
+      final int sqrt = (int) Math.sqrt(n);
+      for (int index = oddComposites.nextClearBit(1); 2L * index + 1 <= n;
+           index = oddComposites.nextClearBit(index + 1))
+      {
+         final int prime = 2 * index + 1;
+         if (prime > sqrt)
+         {
+            //p^2 > n so only floor(n / p) matters
+            if (((n / prime) & 1) == 1) factors[factorCount++] = prime;
+            continue;
+         }
+         int primePower = 1;
+         int quotient = n;
+         while ((quotient /= prime) > 0)
+         {
+            if ((quotient & 1) == 1) primePower *= prime;
+         }
+         if (primePower != 1) factors[factorCount++] = primePower;
+      }
+      return FactorialUtil.productTree(factors, 0, factorCount);
+   }
+
+   /**
+    * @param exponentOfPrime returns the power of the given prime in the result
+    * @return the product of each prime up to max raised to its power
+    */
+   private static int[] primePowerProduct(final int max, final LongUnaryOperator exponentOfPrime)
+   {
+      final FactorList factors = new FactorList(FactorialUtil.maxPrimeCount(max));
+      if (max >= 2) factors.addPower(2, exponentOfPrime.applyAsLong(2));
+      final BitSet oddComposites = FactorialUtil.oddComposites(max);
+      for (int index = oddComposites.nextClearBit(1); 2L * index + 1 <= max;
+           index = oddComposites.nextClearBit(index + 1))
+      {
+         final long prime = 2L * index + 1;
+         factors.addPower(prime, exponentOfPrime.applyAsLong(prime));
+      }
+      return FactorialUtil.productTree(factors.factors, 0, factors.count);
+   }
+
+   /**
+    * @return the power of the prime in number! (Legendre's formula): floor(number/p) + floor(number/p^2) + ...
+    */
+   private static long legendre(long number, final long prime)
+   {
+      long exponent = 0;
+      while ((number /= prime) > 0)
+      {
+         exponent += number;
+      }
+      return exponent;
+   }
+
+   /**
+    * @return an upper bound for the number of primes up to n (Rosser and Schoenfeld) which is only a few percent
+    * larger than the real count for large n
+    */
+   private static int maxPrimeCount(final int n)
+   {
+      if (n < 2) return 0;
+      return (int) (1.25506 * n / Math.log(n)) + 1;
+   }
+
+   private static int toElementCount(final long count)
+   {
+      return (int) Math.min(count, Integer.MAX_VALUE);
+   }
+
+   private static int[] smallOddFactorial(final int n)
+   {
+      long result = 1;
+      for (int i = 3; i <= n; ++i)
+      {
+         result *= i >>> Integer.numberOfTrailingZeros(i);
+      }
+      return new int[]{(int) result, (int) (result >>> 32)};
+   }
+
+   private static int[] productTree(final long[] factors, final int from, final int to)
+   {
+      final int count = to - from;
+      if (count <= FactorialUtil.PRODUCT_TREE_LEAF_SIZE)
+      {
+         //each factor is at most 2 elements. +2 elements for the carry
+         final int[] result = new int[2 * count + 2];
+         result[0] = 1;
+         int length = 1;
+         for (int i = from; i < to; ++i)
+         {
+            long multiplier = factors[i];
+            //2 unsigned ints can be multiplied without overflowing an unsigned long
+            if (i + 1 < to && ((multiplier | factors[i + 1]) >>> 32) == 0) multiplier *= factors[++i];
+            length = FactorialUtil.multiplyLeaf(result, length, multiplier);
+         }
+         return result;
+      }
+
+      final int middle = (from + to) >>> 1;
+      final ProductTask low = new ProductTask(() -> FactorialUtil.productTree(factors, from, middle));
+      final ProductTask high = new ProductTask(() -> FactorialUtil.productTree(factors, middle, to));
+      MultiplyUtil.computeAll(count, low, high);
+      return FactorialUtil.multiply(low.join(), high.join());
+   }
+
+   private static int[] rangeProductTree(final long low, final long high)
+   {
+      //high - low can't overflow since low is positive
+      final long count = high - low + 1;
+      if (count <= FactorialUtil.PRODUCT_TREE_LEAF_SIZE)
+      {
+         final int[] result = new int[2 * (int) count + 2];
+         result[0] = 1;
+         int length = 1;
+         //counting up to high would overflow if high is Long.MAX_VALUE
+         for (long i = 0; i < count; ++i)
+         {
+            long multiplier = low + i;
+            //the numbers are increasing so only the second needs to be checked
+            if (i + 1 < count && ((low + i + 1) >>> 32) == 0) multiplier *= low + (++i);
+            length = FactorialUtil.multiplyLeaf(result, length, multiplier);
+         }
+         return result;
+      }
+
+      final long middle = low + (high - low) / 2;
+      final ProductTask lowHalf = new ProductTask(() -> FactorialUtil.rangeProductTree(low, middle));
+      final ProductTask highHalf = new ProductTask(() -> FactorialUtil.rangeProductTree(middle + 1, high));
+      MultiplyUtil.computeAll(FactorialUtil.toElementCount(count), lowHalf, highHalf);
+      return FactorialUtil.multiply(lowHalf.join(), highHalf.join());
+   }
+
+   /**
+    * Multiplies the total by the multiplier in place.
+    *
+    * @param total is mutated. It must have 2 more elements than length
+    * @return the new length of total
+    */
+   private static int multiplyLeaf(final int[] total, final int length, final long multiplier)
+   {
+      final long carry = MultiplyUtil.multiplyInPlace(total, length, multiplier);
+      total[length] = (int) carry;
+      total[length + 1] = (int) (carry >>> 32);
+      return MultiplyUtil.significantLength(total, length + 2);
+   }
+
+   private static int[] multiply(final int[] left, final int[] right)
+   {
+      return MultiplyUtil.multiply(left, MultiplyUtil.significantLength(left, left.length),
+         right, MultiplyUtil.significantLength(right, right.length));
+   }
+
+   /**
+    * A growable list of factors where each prime power is split into pieces that fit into 63 bits.
+    */
+   private static final class FactorList
+   {
+      private long[] factors;
+      private int count;
+
+      private FactorList(final int initialCapacity)
+      {
+         factors = new long[Math.max(initialCapacity, 1)];
+      }
+
+      private void addPower(final long prime, long exponent)
+      {
+         //the number of times that prime can be multiplied without going over 63 bits
+         final int maxExponent = 63 / (64 - Long.numberOfLeadingZeros(prime));
+         while (exponent > 0)
+         {
+            final long piece = Math.min(exponent, maxExponent);
+            long power = prime;
+            for (int i = 1; i < piece; ++i)
+            {
+               power *= prime;
+            }
+            if (count == factors.length) factors = Arrays.copyOf(factors, 2 * count);
+            factors[count++] = power;
+            exponent -= piece;
+         }
+      }
+   }
+}
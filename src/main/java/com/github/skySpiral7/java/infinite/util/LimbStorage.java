@@ -0,0 +1,333 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Holds the elements of a number outside of the Java heap so that huge numbers don't need the garbage collector to
+ * copy or scan them. Each element is an unsigned int and they are in little endian order (the same as the int arrays
+ * used by the rest of this package). Indexes are longs.
+ * <p>
+ * The elements are split into segments of at most segmentLength elements. All segments are full except the last so
+ * growing only copies the last segment (which grows by half like an ArrayList until it is full) then new segments are
+ * added. Subclasses decide where a segment's memory comes from.
+ * <p>
+ * The memory is released by {@link #close()} rather than waiting for the garbage collector to notice that the buffers
+ * are unreachable. That needs sun.misc.Unsafe.invokeCleaner (from the jdk.unsupported module) which is the only way
+ * to free a buffer on Java 17. If it isn't available then creating a LimbStorage throws instead of silently leaving
+ * the memory to the garbage collector (see {@link #canFreeImmediately()}). Using a LimbStorage after it was closed
+ * throws (instead of reading freed memory).
+ * This class is not thread safe.
+ *
+ * @see #direct(long, int)
+ * @see #mapped(Path, long, int)
+ */
+public abstract class LimbStorage implements AutoCloseable
+{
+   /**
+    * sun.misc.Unsafe.invokeCleaner(ByteBuffer) frees a direct or mapped buffer right away. It's found by reflection
+    * so that this class can load without it. Both are null if it isn't available.
+    */
+   private static final Method INVOKE_CLEANER;
+   private static final Object UNSAFE;
+
+   static
+   {
+      Method invokeCleaner = null;
+      Object unsafe = null;
+      try
+      {
+         final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+         final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+         theUnsafe.setAccessible(true);
+         unsafe = theUnsafe.get(null);
+         invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      }
+      catch (final ReflectiveOperationException | RuntimeException ignored)
+      {
+         //not available so canFreeImmediately will be false
+         invokeCleaner = null;
+         unsafe = null;
+      }
+      INVOKE_CLEANER = invokeCleaner;
+      UNSAFE = unsafe;
+   }
+
+   /**
+    * The max number of elements that fill writes at a time.
+    */
+   private static final int FILL_BLOCK_LENGTH = 1 << 12;
+
+   private final int segmentLength;
+   private ByteBuffer[] buffers = new ByteBuffer[0];
+   private IntBuffer[] segments = new IntBuffer[0];
+   private long capacity = 0;
+   private boolean isClosed = false;
+
+   /**
+    * @param segmentLength the max number of elements in a segment. Must be a power of 2
+    */
+   protected LimbStorage(final int segmentLength)
+   {
+      if (!LimbStorage.canFreeImmediately())
+         throw new UnsupportedOperationException("LimbStorage needs sun.misc.Unsafe.invokeCleaner (module jdk.unsupported) "
+                                                 + "so that close() can free the memory");
+      if (segmentLength < 1 || !BitWiseUtil.isPowerOf2(segmentLength))
+         throw new IllegalArgumentException("segmentLength must be a positive power of 2. It was " + segmentLength);
+      this.segmentLength = segmentLength;
+   }
+
+   /**
+    * @return true if close() can free the memory right away. If false then every LimbStorage constructor throws
+    * UnsupportedOperationException
+    */
+   public static boolean canFreeImmediately(){return INVOKE_CLEANER != null;}
+
+   /**
+    * @param capacity      the number of elements to start with (which are all 0)
+    * @param segmentLength the max number of elements in a segment. Must be a power of 2
+    * @return a new storage whose memory is from {@link ByteBuffer#allocateDirect(int)}
+    */
+   public static LimbStorage direct(final long capacity, final int segmentLength)
+   {
+      final LimbStorage result = new DirectLimbStorage(segmentLength);
+      result.ensureCapacity(capacity);
+      return result;
+   }
+
+   /**
+    * @param directory     where the temp files are created
+    * @param capacity      the number of elements to start with (which are all 0)
+    * @param segmentLength the max number of elements in a segment (which is also the size of each file). Must be a
+    *                      power of 2
+    * @return a new storage whose memory is memory-mapped temp files (one for each segment)
+    * @throws java.io.UncheckedIOException if a file couldn't be created or mapped
+    */
+   public static LimbStorage mapped(final Path directory, final long capacity, final int segmentLength)
+   {
+      final LimbStorage result = new MappedLimbStorage(directory, segmentLength);
+      result.ensureCapacity(capacity);
+      return result;
+   }
+
+   /**
+    * @param byteCount the size of the segment which is at most 4 * segmentLength
+    * @return new memory for a segment with every byte 0. It doesn't need to be in native order
+    */
+   protected abstract ByteBuffer allocateSegment(int byteCount);
+
+   /**
+    * Called when the last segment (which isn't full yet) needs to be larger. By default a new segment is allocated and
+    * the elements are copied into it then the old segment is freed.
+    *
+    * @param segmentIndex the index of the segment (which is the last one)
+    * @param oldBuffer    the current memory of the segment
+    * @param byteCount    the new size of the segment which is at most 4 * segmentLength
+    * @return memory for the segment that has the bytes of oldBuffer followed by 0s. oldBuffer must have been freed
+    */
+   protected ByteBuffer growSegment(final int segmentIndex, final ByteBuffer oldBuffer, final int byteCount)
+   {
+      final ByteBuffer newBuffer = allocateSegment(byteCount);
+      newBuffer.put(0, oldBuffer, 0, oldBuffer.capacity());
+      LimbStorage.free(oldBuffer);
+      return newBuffer;
+   }
+
+   /**
+    * Called by close after every segment's memory was freed so that subclasses can release anything else they hold
+    * for the segments. Does nothing by default.
+    */
+   protected void releaseSegments(){}
+
+   /**
+    * @return the number of elements that can be used
+    */
+   public long capacity(){return capacity;}
+
+   /**
+    * Reading a single element at a time is slow for long loops. Those should use the bulk methods instead.
+    */
+   public int get(final long index)
+   {
+      return segments[segmentIndex(index)].get(offset(index));
+   }
+
+   /**
+    * Writing a single element at a time is slow for long loops. Those should use the bulk methods instead.
+    */
+   public void set(final long index, final int value)
+   {
+      segments[segmentIndex(index)].put(offset(index), value);
+   }
+
+   /**
+    * Copies length elements starting at index into destination. Like System.arraycopy each segment is copied in bulk.
+    */
+   public void get(final long index, final int[] destination, final int destinationIndex, final int length)
+   {
+      int copiedCount = 0;
+      while (copiedCount < length)
+      {
+         final long sourceIndex = index + copiedCount;
+         final int count = Math.min(length - copiedCount, segmentLength - offset(sourceIndex));
+         segments[segmentIndex(sourceIndex)].get(offset(sourceIndex), destination, destinationIndex + copiedCount, count);
+         copiedCount += count;
+      }
+   }
+
+   /**
+    * Copies length elements of source into this starting at index. Like System.arraycopy each segment is copied in
+    * bulk.
+    */
+   public void put(final long index, final int[] source, final int sourceIndex, final int length)
+   {
+      int copiedCount = 0;
+      while (copiedCount < length)
+      {
+         final long destinationIndex = index + copiedCount;
+         final int count = Math.min(length - copiedCount, segmentLength - offset(destinationIndex));
+         segments[segmentIndex(destinationIndex)].put(offset(destinationIndex), source, sourceIndex + copiedCount, count);
+         copiedCount += count;
+      }
+   }
+
+   /**
+    * Copies length elements starting at sourceIndex into destination (which can be this) starting at
+    * destinationIndex. Like System.arraycopy the ranges can overlap. The elements are moved between the buffers
+    * without copying them into an array: each piece is as long as it can be without crossing a segment of either.
+    */
+   public void copy(final long sourceIndex, final LimbStorage destination, final long destinationIndex, final long length)
+   {
+      if (destination == this && destinationIndex > sourceIndex && destinationIndex < sourceIndex + length)
+      {
+         //the destination is above and overlaps so copy from the end so that nothing is overwritten before it's read
+         long remaining = length;
+         while (remaining > 0)
+         {
+            final long sourceEnd = sourceIndex + remaining;
+            final long destinationEnd = destinationIndex + remaining;
+            //the number of elements in each segment that are before the end
+            final int count = (int) Math.min(remaining, Math.min(offset(sourceEnd - 1) + 1, offset(destinationEnd - 1) + 1));
+            segments[segmentIndex(destinationEnd - count)].put(offset(destinationEnd - count),
+               segments[segmentIndex(sourceEnd - count)], offset(sourceEnd - count), count);
+            remaining -= count;
+         }
+         return;
+      }
+      long copiedCount = 0;
+      while (copiedCount < length)
+      {
+         final long from = sourceIndex + copiedCount;
+         final long to = destinationIndex + copiedCount;
+         final int count = (int) Math.min(length - copiedCount,
+            Math.min(segmentLength - offset(from), destination.segmentLength - destination.offset(to)));
+         destination.segments[destination.segmentIndex(to)].put(destination.offset(to), segments[segmentIndex(from)],
+            offset(from), count);
+         copiedCount += count;
+      }
+   }
+
+   /**
+    * Sets every element from fromIndex (inclusive) to toIndex (exclusive).
+    */
+   public void fill(final long fromIndex, final long toIndex, final int value)
+   {
+      if (fromIndex >= toIndex) return;
+      final int[] block = new int[(int) Math.min(toIndex - fromIndex, LimbStorage.FILL_BLOCK_LENGTH)];
+      if (value != 0) Arrays.fill(block, value);
+      for (long index = fromIndex; index < toIndex; index += block.length)
+      {
+         put(index, block, 0, (int) Math.min(block.length, toIndex - index));
+      }
+   }
+
+   private int segmentIndex(final long index){return (int) (index / segmentLength);}
+
+   private int offset(final long index){return (int) (index & (segmentLength - 1));}
+
+   /**
+    * Makes sure that there is room for at least minCapacity elements. The elements are preserved and new elements
+    * are 0.
+    *
+    * @throws IllegalStateException if this was closed
+    */
+   public void ensureCapacity(final long minCapacity)
+   {
+      if (isClosed) throw new IllegalStateException("The storage was closed");
+      while (capacity < minCapacity)
+      {
+         final int lastIndex = segments.length - 1;
+         if (lastIndex >= 0 && segments[lastIndex].capacity() < segmentLength)
+         {
+            //grow the last segment by half (or what's needed) until it is full
+            final int oldLength = segments[lastIndex].capacity();
+            final long neededLength = minCapacity - (capacity - oldLength);
+            final int newLength = (int) Math.min(segmentLength, Math.max(neededLength, oldLength + (oldLength >> 1)));
+            final ByteBuffer newBuffer = growSegment(lastIndex, buffers[lastIndex], 4 * newLength)
+               .order(ByteOrder.nativeOrder());
+            buffers[lastIndex] = newBuffer;
+            segments[lastIndex] = newBuffer.asIntBuffer();
+            capacity += newLength - oldLength;
+         }
+         else
+         {
+            final int newLength = (int) Math.min(segmentLength, minCapacity - capacity);
+            final ByteBuffer newBuffer = allocateSegment(4 * newLength).order(ByteOrder.nativeOrder());
+            buffers = Arrays.copyOf(buffers, buffers.length + 1);
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            buffers[lastIndex + 1] = newBuffer;
+            segments[lastIndex + 1] = newBuffer.asIntBuffer();
+            capacity += newLength;
+         }
+      }
+   }
+
+   /**
+    * Frees the memory of every segment right away (it doesn't wait for the garbage collector). Afterwards this has no
+    * capacity and can't be used. Calling close again does nothing.
+    *
+    * @throws IllegalStateException if a buffer couldn't be freed (which would be a bug)
+    */
+   @Override
+   public void close()
+   {
+      if (isClosed) return;
+      isClosed = true;
+      final ByteBuffer[] freedBuffers = buffers;
+      //drop the references first so that nothing can read the freed memory
+      buffers = new ByteBuffer[0];
+      segments = new IntBuffer[0];
+      capacity = 0;
+      for (final ByteBuffer buffer : freedBuffers){LimbStorage.free(buffer);}
+      releaseSegments();
+   }
+
+   /**
+    * @return true if {@link #close()} was called
+    */
+   public boolean isClosed(){return isClosed;}
+
+   /**
+    * Frees a direct or mapped buffer now instead of when it is garbage collected. The buffer must not be used
+    * afterwards.
+    *
+    * @throws IllegalStateException if the buffer couldn't be freed
+    */
+   protected static void free(final ByteBuffer buffer)
+   {
+      try
+      {
+         INVOKE_CLEANER.invoke(UNSAFE, buffer);
+      }
+      catch (final ReflectiveOperationException | RuntimeException cause)
+      {
+         //only happens for buffers that are slices or duplicates
+         throw new IllegalStateException("Bug: the buffer couldn't be freed", cause);
+      }
+   }
+}
@@ -0,0 +1,120 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Keeps each segment in its own memory-mapped temp file so that the total is limited by disk space instead of RAM
+ * (the OS pages the segments in and out). Each file stays open until {@link #close()} so that growing a segment maps
+ * more of the same file (which keeps the elements where they are) instead of creating and copying into a new one.
+ * <p>
+ * The files are opened with DELETE_ON_CLOSE so close removes them (on Linux the name is removed right away and the
+ * disk space is released by close). A storage that is never closed keeps an open file and a mapping for each segment
+ * until the garbage collector gets to it so it should be closed, ideally with try-with-resources.
+ *
+ * @see LimbStorage#mapped(Path, long, int)
+ */
+final class MappedLimbStorage extends LimbStorage
+{
+   private final Path directory;
+   /**
+    * The file of each segment (in the same order as the segments).
+    */
+   private FileChannel[] channels = new FileChannel[0];
+
+   MappedLimbStorage(final Path directory, final int segmentLength)
+   {
+      super(segmentLength);
+      this.directory = directory;
+   }
+
+   /**
+    * @throws UncheckedIOException if the file couldn't be created or mapped
+    */
+   @Override
+   protected ByteBuffer allocateSegment(final int byteCount)
+   {
+      FileChannel channel = null;
+      try
+      {
+         channel = FileChannel.open(Files.createTempFile(directory, "limbs", ".tmp"), READ, WRITE, DELETE_ON_CLOSE);
+         //mapping past the end of the file grows it with 0s
+         final ByteBuffer result = channel.map(FileChannel.MapMode.READ_WRITE, 0, byteCount);
+         channels = Arrays.copyOf(channels, channels.length + 1);
+         channels[channels.length - 1] = channel;
+         return result;
+      }
+      catch (final IOException cause)
+      {
+         MappedLimbStorage.closeQuietly(channel);
+         throw new UncheckedIOException(cause);
+      }
+   }
+
+   /**
+    * Maps more of the segment's file. The elements are already in the file so nothing is copied.
+    *
+    * @throws UncheckedIOException if the file couldn't be mapped
+    */
+   @Override
+   protected ByteBuffer growSegment(final int segmentIndex, final ByteBuffer oldBuffer, final int byteCount)
+   {
+      try
+      {
+         final ByteBuffer result = channels[segmentIndex].map(FileChannel.MapMode.READ_WRITE, 0, byteCount);
+         LimbStorage.free(oldBuffer);
+         return result;
+      }
+      catch (final IOException cause)
+      {
+         throw new UncheckedIOException(cause);
+      }
+   }
+
+   /**
+    * Closes (and therefore deletes) every file.
+    *
+    * @throws UncheckedIOException if a file couldn't be closed. The others are still closed
+    */
+   @Override
+   protected void releaseSegments()
+   {
+      final FileChannel[] closedChannels = channels;
+      channels = new FileChannel[0];
+      IOException firstFailure = null;
+      for (final FileChannel channel : closedChannels)
+      {
+         try
+         {
+            channel.close();
+         }
+         catch (final IOException cause)
+         {
+            if (firstFailure == null) firstFailure = cause;
+         }
+      }
+      if (firstFailure != null) throw new UncheckedIOException(firstFailure);
+   }
+
+   private static void closeQuietly(final FileChannel channel)
+   {
+      if (channel == null) return;
+      try
+      {
+         channel.close();
+      }
+      catch (final IOException ignored)
+      {
+         //already failing
+      }
+   }
+}
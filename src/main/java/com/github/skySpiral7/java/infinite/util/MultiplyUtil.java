@@ -0,0 +1,923 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Multiplication kernels for magnitudes in the format used by MutableInfiniteInteger: an int[] where each element
+ * is unsigned and the elements are in little endian order. Only the first "length" elements of each array are used.
+ * Only the arrays documented as being mutated are mutated and the same array can be passed as both operands.
+ */
+public enum MultiplyUtil
+{
+   ;  //no instances
+
+   /**
+    * If either number has this many elements or fewer then the int elements are multiplied directly.
+    * Below this size the cost of converting to and from longs is more than what the fewer products save.
+    */
+   static final int PAIRING_THRESHOLD = 16;
+
+   /**
+    * If both numbers have at least this many elements then Karatsuba multiplication is used instead of schoolbook.
+    * This is the value to tune: lowering it uses Karatsuba for smaller numbers, raising it keeps the
+    * schoolbook kernel (which has less overhead) for longer.
+    */
+   static final int KARATSUBA_THRESHOLD = 128;
+   /**
+    * If both numbers have at least this many elements then Toom-Cook 3 way multiplication is used instead of
+    * Karatsuba. Like KARATSUBA_THRESHOLD this is the value to tune.
+    */
+   static final int TOOM_COOK_3_THRESHOLD = 768;
+   /**
+    * If both numbers have at least this many elements then a number theoretic transform is used instead of
+    * Toom-Cook (unless the product would be too large for the transform). Like KARATSUBA_THRESHOLD this is the
+    * value to tune.
+    */
+   static final int NUMBER_THEORETIC_TRANSFORM_THRESHOLD = 24576;
+
+   /**
+    * The pool that large multiplications are split across. Null means everything is done on the calling thread.
+    */
+   private static volatile ForkJoinPool parallelPool = ForkJoinPool.commonPool();
+   /**
+    * The number of elements the smaller number needs for the work to be split across the pool.
+    */
+   private static volatile int parallelThreshold = 4096;
+
+   /**
+    * Sets the pool used to split large multiplications into tasks that run at the same time. The smaller
+    * multiplications of Karatsuba and Toom-Cook are independent and so are the transforms for each prime.
+    * The parallelism level is the pool's: for example {@code new ForkJoinPool(8)} uses at most 8 threads.
+    * The default is {@link ForkJoinPool#commonPool()}.
+    *
+    * @param pool the pool to use or null to always multiply on the calling thread
+    * @see #setParallelThreshold(int)
+    */
+   public static void setParallelPool(final ForkJoinPool pool)
+   {
+      MultiplyUtil.parallelPool = pool;
+   }
+
+   /**
+    * @return the pool used for large multiplications or null if everything is done on the calling thread
+    * @see #setParallelPool(ForkJoinPool)
+    */
+   public static ForkJoinPool getParallelPool()
+   {
+      return MultiplyUtil.parallelPool;
+   }
+
+   /**
+    * Sets how large a multiplication needs to be before it is split across the pool. Splitting smaller
+    * numbers costs more in coordinating the threads than it saves. The default is 4096.
+    *
+    * @param elementCount the number of int elements that the smaller number (or each piece) must have
+    * @throws IllegalArgumentException if elementCount is less than 1
+    * @see #setParallelPool(ForkJoinPool)
+    */
+   public static void setParallelThreshold(final int elementCount)
+   {
+      if (elementCount < 1) throw new IllegalArgumentException("elementCount must be at least 1. It was " + elementCount);
+      MultiplyUtil.parallelThreshold = elementCount;
+   }
+
+   /**
+    * @return the number of elements needed for a multiplication to be split across the pool
+    * @see #setParallelThreshold(int)
+    */
+   public static int getParallelThreshold()
+   {
+      return MultiplyUtil.parallelThreshold;
+   }
+
+   /**
+    * Multiplies the magnitudes picking the algorithm based on their size:
+    * <ul>
+    * <li>small numbers use schoolbook multiplication of each int element</li>
+    * <li>mid sized numbers use schoolbook multiplication where pairs of elements are combined so that
+    * each word product is 64 bits * 64 bits which means a quarter as many products as multiplying each int</li>
+    * <li>large numbers use Karatsuba multiplication which is O(n^1.585) and uses the others as a base case</li>
+    * <li>larger numbers use Toom-Cook 3 way multiplication which is O(n^1.465) and uses the others as a base case</li>
+    * <li>huge numbers use a number theoretic transform which is O(n log n). Numbers too large for the transform use
+    * Toom-Cook until the pieces are small enough</li>
+    * </ul>
+    * If both are the same array (and length) then this delegates to {@link #square(int[], int)}.
+    * If the smaller number is at least {@link #getParallelThreshold()} elements then the calculation is moved
+    * into {@link #getParallelPool()} (unless it is null) and split into tasks.
+    *
+    * @return a new array of length (leftLength + rightLength) which may have leading 0s
+    */
+   public static int[] multiply(final int[] left, final int leftLength, final int[] right, final int rightLength)
+   {
+      if (left == right && leftLength == rightLength) return MultiplyUtil.square(left, leftLength);
+      final ForkJoinPool poolToEnter = MultiplyUtil.poolToEnter(Math.min(leftLength, rightLength));
+      if (poolToEnter == null) return MultiplyUtil.multiplyByTier(left, leftLength, right, rightLength);
+      return poolToEnter.invoke(new ProductTask(() -> MultiplyUtil.multiplyByTier(left, leftLength, right, rightLength)));
+   }
+
+   /**
+    * Picks the algorithm as described by {@link #multiply(int[], int, int[], int)}. This is called for every smaller
+    * multiplication of the algorithms so that only the first call enters the pool.
+    */
+   private static int[] multiplyByTier(final int[] left, final int leftLength, final int[] right, final int rightLength)
+   {
+      if (left == right && leftLength == rightLength) return MultiplyUtil.squareByTier(left, leftLength);
+      if (MultiplyUtil.usesIntElements(leftLength, rightLength))
+         return MultiplyUtil.multiplyIntElements(left, leftLength, right, rightLength);
+      if (leftLength < MultiplyUtil.KARATSUBA_THRESHOLD || rightLength < MultiplyUtil.KARATSUBA_THRESHOLD)
+         return MultiplyUtil.multiplySchoolbook(left, leftLength, right, rightLength);
+      if (leftLength < MultiplyUtil.TOOM_COOK_3_THRESHOLD || rightLength < MultiplyUtil.TOOM_COOK_3_THRESHOLD)
+         return MultiplyUtil.multiplyKaratsuba(left, leftLength, right, rightLength);
+      if (leftLength < MultiplyUtil.NUMBER_THEORETIC_TRANSFORM_THRESHOLD
+          || rightLength < MultiplyUtil.NUMBER_THEORETIC_TRANSFORM_THRESHOLD
+          || (long) leftLength + rightLength > NumberTheoreticTransform.MAX_PRODUCT_LENGTH)
+         return MultiplyUtil.multiplyToomCook3(left, leftLength, right, rightLength);
+      return NumberTheoreticTransform.multiply(left, leftLength, right, rightLength);
+   }
+
+   /**
+    * Squares the magnitude. The schoolbook kernels only calculate each product of 2 different elements once
+    * (then double them) so they need about half as many word products as multiply. Karatsuba and Toom-Cook
+    * share the pieces of each side so that each of their smaller multiplications is also a square. The number
+    * theoretic transform only transforms once. Large numbers use the pool the same as
+    * {@link #multiply(int[], int, int[], int)}.
+    *
+    * @return a new array of length (2 * length) which may have leading 0s
+    */
+   public static int[] square(final int[] elements, final int length)
+   {
+      final ForkJoinPool poolToEnter = MultiplyUtil.poolToEnter(length);
+      if (poolToEnter == null) return MultiplyUtil.squareByTier(elements, length);
+      return poolToEnter.invoke(new ProductTask(() -> MultiplyUtil.squareByTier(elements, length)));
+   }
+
+   /**
+    * Picks the algorithm as described by {@link #square(int[], int)}.
+    */
+   private static int[] squareByTier(final int[] elements, final int length)
+   {
+      if (length <= MultiplyUtil.PAIRING_THRESHOLD) return MultiplyUtil.squareIntElements(elements, length);
+      if (length < MultiplyUtil.KARATSUBA_THRESHOLD) return MultiplyUtil.squareSchoolbook(elements, length);
+      if (length < MultiplyUtil.TOOM_COOK_3_THRESHOLD)
+         return MultiplyUtil.multiplyKaratsuba(elements, length, elements, length);
+      if (length < MultiplyUtil.NUMBER_THEORETIC_TRANSFORM_THRESHOLD
+          || 2L * length > NumberTheoreticTransform.MAX_PRODUCT_LENGTH)
+         return MultiplyUtil.multiplyToomCook3(elements, length, elements, length);
+      return NumberTheoreticTransform.multiply(elements, length, elements, length);
+   }
+
+   /**
+    * Schoolbook squaring 32 bits at a time.
+    *
+    * @return a new array of length (2 * length) which may have leading 0s
+    */
+   static int[] squareIntElements(final int[] elements, final int length)
+   {
+      final int[] square = new int[2 * length];
+      //each product of different elements (i < j) is only calculated once
+      for (int i = 0; i < length; ++i)
+      {
+         final long element = Integer.toUnsignedLong(elements[i]);
+         if (element == 0) continue;
+         long carry = 0;
+         for (int j = i + 1; j < length; ++j)
+         {
+            carry += element * Integer.toUnsignedLong(elements[j]) + Integer.toUnsignedLong(square[i + j]);
+            square[i + j] = (int) carry;
+            carry >>>= 32;
+         }
+         //the previous row ended 1 element lower so this element hasn't been written yet
+         square[i + length] = (int) carry;
+      }
+
+      //x^2 = 2 * (the products of different elements) + (the squares of each element)
+      MultiplyUtil.shiftLeftOneInPlace(square);
+      long carry = 0;
+      for (int i = 0; i < length; ++i)
+      {
+         final long element = Integer.toUnsignedLong(elements[i]);
+         final long elementSquared = element * element;
+         carry += Integer.toUnsignedLong(square[2 * i]) + (elementSquared & 0xFFFF_FFFFL);
+         square[2 * i] = (int) carry;
+         carry >>>= 32;
+         carry += Integer.toUnsignedLong(square[2 * i + 1]) + (elementSquared >>> 32);
+         square[2 * i + 1] = (int) carry;
+         carry >>>= 32;
+      }
+      return square;
+   }
+
+   /**
+    * Schoolbook squaring using 64 bit limbs. This is the same as squareIntElements except for the size of each word.
+    *
+    * @return a new array of length (2 * length) which may have leading 0s
+    */
+   private static int[] squareSchoolbook(final int[] elements, final int length)
+   {
+      final long[] limbs = MultiplyUtil.toLongLimbs(elements, length);
+      final long[] square = new long[2 * limbs.length];
+      for (int i = 0; i < limbs.length; ++i)
+      {
+         if (limbs[i] == 0) continue;
+         square[i + limbs.length] = MultiplyUtil.addMultipleOfLimbs(limbs, i + 1, limbs[i], square, 2 * i + 1);
+      }
+
+      for (int i = square.length - 1; i > 0; --i)
+      {
+         square[i] = (square[i] << 1) | (square[i - 1] >>> 63);
+      }
+      square[0] <<= 1;
+      long carry = 0;
+      for (int i = 0; i < limbs.length; ++i)
+      {
+         final long low = limbs[i] * limbs[i];
+         final long high = MultiplyUtil.unsignedMultiplyHigh(limbs[i], limbs[i]);
+
+         final long lowSum = square[2 * i] + low;
+         long nextCarry = MultiplyUtil.carryOut(square[2 * i], low, lowSum);
+         square[2 * i] = lowSum + carry;
+         nextCarry += MultiplyUtil.carryOut(lowSum, carry, square[2 * i]);
+
+         final long highSum = square[2 * i + 1] + high;
+         carry = MultiplyUtil.carryOut(square[2 * i + 1], high, highSum);
+         square[2 * i + 1] = highSum + nextCarry;
+         carry += MultiplyUtil.carryOut(highSum, nextCarry, square[2 * i + 1]);
+      }
+      return MultiplyUtil.toIntElements(square, 2 * length);
+   }
+
+   /**
+    * Schoolbook multiplication using 64 bit limbs.
+    *
+    * @return a new array of length (leftLength + rightLength) which may have leading 0s
+    */
+   private static int[] multiplySchoolbook(final int[] left, final int leftLength, final int[] right, final int rightLength)
+   {
+      final long[] leftLimbs = MultiplyUtil.toLongLimbs(left, leftLength);
+      final long[] rightLimbs = MultiplyUtil.toLongLimbs(right, rightLength);
+      final long[] productLimbs = new long[leftLimbs.length + rightLimbs.length];
+      MultiplyUtil.multiplyLongLimbs(leftLimbs, rightLimbs, productLimbs);
+      return MultiplyUtil.toIntElements(productLimbs, leftLength + rightLength);
+   }
+
+   /**
+    * Karatsuba multiplication. Each number is split in half (x = x1 * B + x0 where B is 2^(32 * half)) so that
+    * x * y = z2 * B^2 + z1 * B + z0 where z2 = x1 * y1, z0 = x0 * y0 and z1 = (x1 + x0) * (y1 + y0) - z2 - z0.
+    * That's 3 multiplications of half the size instead of 4. Each of those calls multiply so the recursion
+    * stops once the halves are below the threshold.
+    *
+    * @return a new array of length (leftLength + rightLength) which may have leading 0s
+    */
+   private static int[] multiplyKaratsuba(final int[] left, final int leftLength, final int[] right, final int rightLength)
+   {
+      final int half = (Math.max(leftLength, rightLength) + 1) / 2;
+      //if the smaller number would have no high half then splitting doesn't save anything
+      if (leftLength <= half) return MultiplyUtil.multiplyUnbalanced(right, rightLength, left, leftLength);
+      if (rightLength <= half) return MultiplyUtil.multiplyUnbalanced(left, leftLength, right, rightLength);
+
+      //when squaring the pieces are shared so that each smaller multiplication is also a square
+      final boolean isSquaring = (left == right && leftLength == rightLength);
+      //the low halves don't need to be copied since only the first half elements are read
+      final int[] leftHigh = Arrays.copyOfRange(left, half, leftLength);
+      final int[] rightHigh = isSquaring ? leftHigh : Arrays.copyOfRange(right, half, rightLength);
+      //leading 0s are ignored so that each smaller multiplication is as small as possible
+      final int leftLowLength = MultiplyUtil.significantLength(left, half);
+      final int rightLowLength = MultiplyUtil.significantLength(right, half);
+      final int leftHighLength = MultiplyUtil.significantLength(leftHigh, leftHigh.length);
+      final int rightHighLength = MultiplyUtil.significantLength(rightHigh, rightHigh.length);
+
+      final int[] leftSum = MultiplyUtil.add(left, leftLowLength, leftHigh, leftHighLength);
+      final int[] rightSum = isSquaring ? leftSum : MultiplyUtil.add(right, rightLowLength, rightHigh, rightHighLength);
+
+      final ProductTask[] products = {
+         new ProductTask(() -> MultiplyUtil.multiplyByTier(left, leftLowLength, right, rightLowLength)),
+         new ProductTask(() -> MultiplyUtil.multiplyByTier(leftHigh, leftHighLength, rightHigh, rightHighLength)),
+         new ProductTask(() -> MultiplyUtil.multiply(leftSum, rightSum))
+      };
+      MultiplyUtil.computeAll(half, products);
+      final int[] z0 = products[0].join();
+      final int[] z2 = products[1].join();
+      final int[] z1 = products[2].join();
+      MultiplyUtil.subtractInPlace(z1, z2, MultiplyUtil.significantLength(z2, z2.length));
+      MultiplyUtil.subtractInPlace(z1, z0, MultiplyUtil.significantLength(z0, z0.length));
+
+      //z0 and z2 don't overlap since z0 has at most 2 * half elements
+      final int[] product = new int[leftLength + rightLength];
+      System.arraycopy(z0, 0, product, 0, z0.length);
+      System.arraycopy(z2, 0, product, 2 * half, z2.length);
+      MultiplyUtil.addInPlace(product, half, z1, MultiplyUtil.significantLength(z1, z1.length));
+      return product;
+   }
+
+   /**
+    * Toom-Cook 3 way multiplication. Each number is split into thirds so that it is a polynomial of degree 2
+    * (x = x2 * B^2 + x1 * B + x0 where B is 2^(32 * third)). The product is a polynomial of degree 4 which is
+    * found from its value at 5 points (0, 1, -1, 2 and ∞) so that's 5 multiplications of a third of the size
+    * instead of 9. The interpolation follows Bodrato's sequence which only needs exact division by 2 and 3.
+    * Each multiplication calls multiply so the recursion stops once the thirds are below the threshold.
+    *
+    * @return a new array of length (leftLength + rightLength) which may have leading 0s
+    */
+   private static int[] multiplyToomCook3(final int[] left, final int leftLength, final int[] right, final int rightLength)
+   {
+      final int third = (Math.max(leftLength, rightLength) + 2) / 3;
+      //if the smaller number doesn't have all 3 pieces then Karatsuba (which handles unbalanced numbers) is better
+      if (leftLength <= 2 * third || rightLength <= 2 * third)
+         return MultiplyUtil.multiplyKaratsuba(left, leftLength, right, rightLength);
+
+      //when squaring the pieces are shared so that each smaller multiplication is also a square
+      final boolean isSquaring = (left == right && leftLength == rightLength);
+      //the low thirds don't need to be copied since only the first third elements are read
+      final int[] left1 = Arrays.copyOfRange(left, third, 2 * third);
+      final int[] left2 = Arrays.copyOfRange(left, 2 * third, leftLength);
+      final int[] right1 = isSquaring ? left1 : Arrays.copyOfRange(right, third, 2 * third);
+      final int[] right2 = isSquaring ? left2 : Arrays.copyOfRange(right, 2 * third, rightLength);
+      final int left0Length = MultiplyUtil.significantLength(left, third);
+      final int right0Length = MultiplyUtil.significantLength(right, third);
+
+      //evaluate at 1 and -1 using x0 + x2 for both
+      final int[] leftEven = MultiplyUtil.add(left, left0Length, left2, left2.length);
+      final int[] rightEven = isSquaring ? leftEven : MultiplyUtil.add(right, right0Length, right2, right2.length);
+      final int[] leftAt1 = MultiplyUtil.add(leftEven, leftEven.length, left1, left1.length);
+      final int[] rightAt1 = isSquaring ? leftAt1 : MultiplyUtil.add(rightEven, rightEven.length, right1, right1.length);
+      //x(-1) can be negative so the sign is tracked separately from the magnitude
+      final boolean vMinus1IsNegative = (MultiplyUtil.compare(leftEven, left1) < 0)
+                                        != (MultiplyUtil.compare(rightEven, right1) < 0);  //!= acts as xor
+      final int[] leftAtMinus1 = MultiplyUtil.absoluteDifference(leftEven, left1);
+      final int[] rightAtMinus1 = isSquaring ? leftAtMinus1 : MultiplyUtil.absoluteDifference(rightEven, right1);
+
+      //evaluate at 2: x0 + 2 * (x1 + 2 * x2)
+      final int[] leftAt2 = MultiplyUtil.evaluateAt2(left, left0Length, left1, left2);
+      final int[] rightAt2 = isSquaring ? leftAt2 : MultiplyUtil.evaluateAt2(right, right0Length, right1, right2);
+
+      //evaluate at 0, ∞, 1, -1 and 2
+      final ProductTask[] products = {
+         new ProductTask(() -> MultiplyUtil.multiplyByTier(left, left0Length, right, right0Length)),
+         new ProductTask(() -> MultiplyUtil.multiplyByTier(left2, left2.length, right2, right2.length)),
+         new ProductTask(() -> MultiplyUtil.multiply(leftAt1, rightAt1)),
+         new ProductTask(() -> MultiplyUtil.multiply(leftAtMinus1, rightAtMinus1)),
+         new ProductTask(() -> MultiplyUtil.multiply(leftAt2, rightAt2))
+      };
+      MultiplyUtil.computeAll(third, products);
+      final int[] v0 = products[0].join();
+      final int[] vInfinity = products[1].join();
+      final int[] v1 = products[2].join();
+      final int[] vMinus1 = products[3].join();
+      final int[] v2 = products[4].join();
+
+      //interpolate. the comments show the value in terms of the product's coefficients c0 to c4
+      //t2 = (v2 - v(-1)) / 3 = c1 + c2 + 3c3 + 5c4
+      final int[] t2 = vMinus1IsNegative ? MultiplyUtil.add(v2, v2.length, vMinus1, vMinus1.length)
+         : MultiplyUtil.subtract(v2, vMinus1);
+      MultiplyUtil.exactDivideBy3InPlace(t2);
+      //tMinus1 = (v1 - v(-1)) / 2 = c1 + c3
+      final int[] tMinus1 = vMinus1IsNegative ? MultiplyUtil.add(v1, v1.length, vMinus1, vMinus1.length)
+         : MultiplyUtil.subtract(v1, vMinus1);
+      MultiplyUtil.shiftRightOneInPlace(tMinus1);
+      //t1 = v1 - v0 = c1 + c2 + c3 + c4
+      final int[] t1 = MultiplyUtil.subtract(v1, v0);
+      //t2 = (t2 - t1) / 2 = c3 + 2c4
+      MultiplyUtil.subtractInPlace(t2, t1, MultiplyUtil.significantLength(t1, t1.length));
+      MultiplyUtil.shiftRightOneInPlace(t2);
+      //t1 = t1 - tMinus1 - vInfinity = c2
+      MultiplyUtil.subtractInPlace(t1, tMinus1, MultiplyUtil.significantLength(tMinus1, tMinus1.length));
+      MultiplyUtil.subtractInPlace(t1, vInfinity, MultiplyUtil.significantLength(vInfinity, vInfinity.length));
+      //t2 = t2 - 2 * vInfinity = c3
+      MultiplyUtil.subtractInPlace(t2, vInfinity, MultiplyUtil.significantLength(vInfinity, vInfinity.length));
+      MultiplyUtil.subtractInPlace(t2, vInfinity, MultiplyUtil.significantLength(vInfinity, vInfinity.length));
+      //tMinus1 = tMinus1 - t2 = c1
+      MultiplyUtil.subtractInPlace(tMinus1, t2, MultiplyUtil.significantLength(t2, t2.length));
+
+      //v0 (c0) and vInfinity (c4) don't overlap since v0 has at most 2 * third elements
+      final int[] product = new int[leftLength + rightLength];
+      System.arraycopy(v0, 0, product, 0, v0.length);
+      System.arraycopy(vInfinity, 0, product, 4 * third, vInfinity.length);
+      MultiplyUtil.addInPlace(product, third, tMinus1, MultiplyUtil.significantLength(tMinus1, tMinus1.length));
+      MultiplyUtil.addInPlace(product, 2 * third, t1, MultiplyUtil.significantLength(t1, t1.length));
+      MultiplyUtil.addInPlace(product, 3 * third, t2, MultiplyUtil.significantLength(t2, t2.length));
+      return product;
+   }
+
+   /**
+    * @return a new array containing x0 + 2 * (x1 + 2 * x2)
+    */
+   private static int[] evaluateAt2(final int[] x0, final int x0Length, final int[] x1, final int[] x2)
+   {
+      final int[] doubledX2 = MultiplyUtil.doubled(x2);
+      final int[] inner = MultiplyUtil.doubled(MultiplyUtil.add(x1, x1.length, doubledX2, doubledX2.length));
+      return MultiplyUtil.add(x0, x0Length, inner, inner.length);
+   }
+
+   /**
+    * Multiplies the whole arrays ignoring any leading 0s.
+    *
+    * @return a new array which may have leading 0s
+    */
+   private static int[] multiply(final int[] left, final int[] right)
+   {
+      return MultiplyUtil.multiplyByTier(left, MultiplyUtil.significantLength(left, left.length),
+         right, MultiplyUtil.significantLength(right, right.length));
+   }
+
+   /**
+    * @param elementCount the size of the smaller number
+    * @return the pool to move the calculation into or null if it should stay on this thread. The calculation should
+    * stay if it is too small or if the thread is already part of the pool.
+    */
+   static ForkJoinPool poolToEnter(final int elementCount)
+   {
+      final ForkJoinPool pool = MultiplyUtil.parallelPool;
+      if (pool == null || elementCount < MultiplyUtil.parallelThreshold || ForkJoinTask.getPool() == pool) return null;
+      return pool;
+   }
+
+   /**
+    * @param elementCount the size of each piece of work
+    * @return true if work of this size should be split into tasks. Only true inside of the pool
+    * (since {@link #multiply(int[], int, int[], int)} moves large calculations into the pool). The thread that
+    * called invoke might run the task itself in which case the work isn't split.
+    */
+   static boolean isParallel(final int elementCount)
+   {
+      final ForkJoinPool pool = MultiplyUtil.parallelPool;
+      return pool != null && elementCount >= MultiplyUtil.parallelThreshold && ForkJoinTask.getPool() == pool;
+   }
+
+   /**
+    * Runs all of the tasks. They are run at the same time if they are large enough, otherwise one at a time.
+    * Either way the results are available with join.
+    *
+    * @param elementCount the size of each task
+    */
+   static void computeAll(final int elementCount, final ProductTask... tasks)
+   {
+      if (MultiplyUtil.isParallel(elementCount)) ForkJoinTask.invokeAll(tasks);
+      else
+      {
+         for (final ProductTask task : tasks)
+         {
+            task.invoke();
+         }
+      }
+   }
+
+   /**
+    * A calculation that results in an int[] so that it can be run in a ForkJoinPool.
+    */
+   static final class ProductTask extends RecursiveTask<int[]>
+   {
+      private static final long serialVersionUID = 1L;
+      private final transient Supplier<int[]> calculation;
+
+      ProductTask(final Supplier<int[]> calculation)
+      {
+         this.calculation = calculation;
+      }
+
+      @Override
+      protected int[] compute()
+      {
+         return calculation.get();
+      }
+   }
+
+   /**
+    * Used when the larger number is more than twice as long as the smaller. The larger number is cut into pieces the
+    * size of the smaller so that each piece can use the best algorithm for balanced numbers.
+    *
+    * @return a new array of length (largerLength + smallerLength) which may have leading 0s
+    */
+   private static int[] multiplyUnbalanced(final int[] larger, final int largerLength, final int[] smaller,
+                                           final int smallerLength)
+   {
+      final int[] product = new int[largerLength + smallerLength];
+      for (int offset = 0; offset < largerLength; offset += smallerLength)
+      {
+         final int pieceLength = Math.min(smallerLength, largerLength - offset);
+         //the first piece doesn't need to be copied since only the first pieceLength elements are read
+         final int[] piece = (offset == 0) ? larger : Arrays.copyOfRange(larger, offset, offset + pieceLength);
+         final int[] partialProduct = MultiplyUtil.multiplyByTier(piece, pieceLength, smaller, smallerLength);
+         MultiplyUtil.addInPlace(product, offset, partialProduct, MultiplyUtil.significantLength(partialProduct,
+            partialProduct.length));
+      }
+      return product;
+   }
+
+   /**
+    * @return true if {@link #multiply(int[], int, int[], int)} would multiply each int element for numbers of these
+    * lengths. In which case accumulating the partial products with {@link #addProduct(int[], int[], int, int[], int)}
+    * or {@link #subtractProduct(int[], int, int[], int, int[], int)} costs the same as multiply but without the product
+    * array.
+    */
+   public static boolean usesIntElements(final int leftLength, final int rightLength)
+   {
+      return (leftLength <= MultiplyUtil.PAIRING_THRESHOLD || rightLength <= MultiplyUtil.PAIRING_THRESHOLD);
+   }
+
+   /**
+    * Multiplies the elements by a single unsigned 64 bit word in 1 pass without allocating anything.
+    *
+    * @param elements   is mutated to be the low length elements of the product
+    * @param multiplier treated as unsigned
+    * @return the carry out of the last element which is the rest of the product (up to 2 more elements). It is
+    * treated as unsigned
+    */
+   public static long multiplyInPlace(final int[] elements, final int length, final long multiplier)
+   {
+      //the carry stays under 2^64 since (2^32-1) * (2^64-1) + (2^64-1) is less than 2^96
+      long carry = 0;
+      for (int i = 0; i < length; ++i)
+      {
+         final long element = Integer.toUnsignedLong(elements[i]);
+         final long productLow = element * multiplier;
+         final long sumLow = productLow + carry;
+         final long sumHigh = MultiplyUtil.unsignedMultiplyHigh(element, multiplier)
+                              + MultiplyUtil.carryOut(productLow, carry, sumLow);
+         elements[i] = (int) sumLow;
+         carry = (sumLow >>> 32) | (sumHigh << 32);
+      }
+      return carry;
+   }
+
+   /**
+    * Adds (left * right) to accumulator by adding each partial product directly into the accumulator
+    * (schoolbook 32 bits at a time). The accumulator must not be the same array as left or right.
+    *
+    * @param accumulator is mutated. It must be large enough to hold the sum (no carry is lost)
+    */
+   public static void addProduct(final int[] accumulator, final int[] left, final int leftLength, final int[] right,
+                                 final int rightLength)
+   {
+      for (int rightIndex = 0; rightIndex < rightLength; ++rightIndex)
+      {
+         final long rightElement = Integer.toUnsignedLong(right[rightIndex]);
+         if (rightElement == 0) continue;
+         //same as multiplyIntElements: max unsigned int * max unsigned int + 2 * max unsigned int == max unsigned long
+         long carry = 0;
+         int accumulatorIndex = rightIndex;
+         for (int leftIndex = 0; leftIndex < leftLength; ++leftIndex, ++accumulatorIndex)
+         {
+            carry += Integer.toUnsignedLong(left[leftIndex]) * rightElement
+                     + Integer.toUnsignedLong(accumulator[accumulatorIndex]);
+            accumulator[accumulatorIndex] = (int) carry;
+            carry >>>= 32;
+         }
+         while (carry != 0)
+         {
+            carry += Integer.toUnsignedLong(accumulator[accumulatorIndex]);
+            accumulator[accumulatorIndex] = (int) carry;
+            carry >>>= 32;
+            ++accumulatorIndex;
+         }
+      }
+   }
+
+   /**
+    * Subtracts (left * right) from accumulator by subtracting each partial product directly from the accumulator
+    * (schoolbook 32 bits at a time). The accumulator must not be the same array as left or right.
+    * If the product is larger than the accumulator then the accumulator is set to (product - accumulator) instead.
+    *
+    * @param accumulator       is mutated. All elements from its value up to accumulatorLength must be 0
+    * @param accumulatorLength the number of elements of accumulator to use which must be at least
+    *                          (leftLength + rightLength)
+    * @return true if the product was larger than the accumulator (meaning the sign of the result is flipped)
+    */
+   public static boolean subtractProduct(final int[] accumulator, final int accumulatorLength, final int[] left,
+                                         final int leftLength, final int[] right, final int rightLength)
+   {
+      long finalBorrow = 0;
+      for (int rightIndex = 0; rightIndex < rightLength; ++rightIndex)
+      {
+         final long rightElement = Integer.toUnsignedLong(right[rightIndex]);
+         if (rightElement == 0) continue;
+         //productCarry has the same range as carry in addProduct but it is only ever subtracted
+         long productCarry = 0;
+         long borrow = 0;
+         int accumulatorIndex = rightIndex;
+         for (int leftIndex = 0; leftIndex < leftLength; ++leftIndex, ++accumulatorIndex)
+         {
+            productCarry += Integer.toUnsignedLong(left[leftIndex]) * rightElement;
+            final long difference = Integer.toUnsignedLong(accumulator[accumulatorIndex])
+                                    - (productCarry & 0xFFFF_FFFFL) - borrow;
+            accumulator[accumulatorIndex] = (int) difference;
+            productCarry >>>= 32;
+            //difference is between -(2^32) and 2^32 so shifting (signed) leaves either 0 or -1
+            borrow = -(difference >> 32);
+         }
+         borrow += productCarry;
+         for (; borrow != 0 && accumulatorIndex < accumulatorLength; ++accumulatorIndex)
+         {
+            final long difference = Integer.toUnsignedLong(accumulator[accumulatorIndex]) - borrow;
+            accumulator[accumulatorIndex] = (int) difference;
+            borrow = -(difference >> 32);
+         }
+         //a borrow out of the top means the accumulator wrapped around (2^(32 * accumulatorLength)).
+         //this can only happen once since the product is less than 2^(32 * accumulatorLength)
+         finalBorrow += borrow;
+      }
+      if (finalBorrow == 0) return false;
+
+      //the accumulator holds 2^(32 * accumulatorLength) - (product - original) so the two's complement is the answer
+      long carry = 1;
+      for (int i = 0; i < accumulatorLength; ++i)
+      {
+         carry += Integer.toUnsignedLong(~accumulator[i]);
+         accumulator[i] = (int) carry;
+         carry >>>= 32;
+      }
+      return true;
+   }
+
+   /**
+    * Schoolbook multiplication 32 bits at a time. Used for small numbers where combining the elements into longs
+    * isn't worth it.
+    *
+    * @return a new array of length (leftLength + rightLength) which may have leading 0s
+    */
+   static int[] multiplyIntElements(final int[] left, final int leftLength, final int[] right, final int rightLength)
+   {
+      final int[] product = new int[leftLength + rightLength];
+      for (int rightIndex = 0; rightIndex < rightLength; ++rightIndex)
+      {
+         final long rightElement = Integer.toUnsignedLong(right[rightIndex]);
+         if (rightElement == 0) continue;
+         //max unsigned int * max unsigned int + max unsigned int + max unsigned int == max unsigned long
+         //so none of this can overflow (as long as >>> is used)
+         long carry = 0;
+         for (int leftIndex = 0; leftIndex < leftLength; ++leftIndex)
+         {
+            carry += Integer.toUnsignedLong(left[leftIndex]) * rightElement
+                     + Integer.toUnsignedLong(product[leftIndex + rightIndex]);
+            product[leftIndex + rightIndex] = (int) carry;
+            carry >>>= 32;
+         }
+         product[leftLength + rightIndex] = (int) carry;
+      }
+      return product;
+   }
+
+   /**
+    * Schoolbook multiplication of 64 bit unsigned little endian limbs.
+    *
+    * @param product must have the length (left.length + right.length) and be all 0s
+    */
+   private static void multiplyLongLimbs(final long[] left, final long[] right, final long[] product)
+   {
+      for (int rightIndex = 0; rightIndex < right.length; ++rightIndex)
+      {
+         if (right[rightIndex] == 0) continue;
+         product[left.length + rightIndex] = MultiplyUtil.addMultipleOfLimbs(left, 0, right[rightIndex], product,
+            rightIndex);
+      }
+   }
+
+   /**
+    * Adds (limbs[startIndex...] * multiplier) to product starting at productIndex.
+    *
+    * @param product is mutated except for the final carry which is returned instead
+    * @return the carry that goes into the element after the last one written
+    */
+   private static long addMultipleOfLimbs(final long[] limbs, final int startIndex, final long multiplier,
+                                          final long[] product, int productIndex)
+   {
+      long carry = 0;
+      for (int limbIndex = startIndex; limbIndex < limbs.length; ++limbIndex, ++productIndex)
+      {
+         //max unsigned long * max unsigned long + max unsigned long + max unsigned long == 2^128-1
+         //so high can't overflow from the 2 additions
+         final long limb = limbs[limbIndex];
+         final long low = limb * multiplier;
+         long high = MultiplyUtil.unsignedMultiplyHigh(limb, multiplier);
+
+         //the carries are calculated without branches since they are unpredictable
+         final long productLimb = product[productIndex];
+         final long withProduct = low + productLimb;
+         high += MultiplyUtil.carryOut(low, productLimb, withProduct);
+         final long withCarry = withProduct + carry;
+         high += MultiplyUtil.carryOut(withProduct, carry, withCarry);
+
+         product[productIndex] = withCarry;
+         carry = high;
+      }
+      return carry;
+   }
+
+   /**
+    * @return a new array of length (max(leftLength, rightLength) + 1) containing left + right
+    */
+   static int[] add(final int[] left, final int leftLength, final int[] right, final int rightLength)
+   {
+      final int[] sum = new int[Math.max(leftLength, rightLength) + 1];
+      System.arraycopy(left, 0, sum, 0, leftLength);
+      MultiplyUtil.addInPlace(sum, 0, right, rightLength);
+      return sum;
+   }
+
+   /**
+    * Adds value to target starting at the offset element of target and carries upward.
+    *
+    * @param target is mutated. It must be large enough to hold the sum (no carry is lost)
+    */
+   static void addInPlace(final int[] target, final int offset, final int[] value, final int valueLength)
+   {
+      long sum = 0;
+      int targetIndex = offset;
+      for (int valueIndex = 0; valueIndex < valueLength; ++valueIndex, ++targetIndex)
+      {
+         sum += Integer.toUnsignedLong(target[targetIndex]) + Integer.toUnsignedLong(value[valueIndex]);
+         target[targetIndex] = (int) sum;
+         sum >>>= 32;
+      }
+      for (; sum != 0; ++targetIndex)
+      {
+         sum += Integer.toUnsignedLong(target[targetIndex]);
+         target[targetIndex] = (int) sum;
+         sum >>>= 32;
+      }
+   }
+
+   /**
+    * Subtracts value from target and borrows upward.
+    *
+    * @param target is mutated. It must be greater than or equal to value
+    */
+   static void subtractInPlace(final int[] target, final int[] value, final int valueLength)
+   {
+      long difference = 0;
+      int targetIndex = 0;
+      for (; targetIndex < valueLength; ++targetIndex)
+      {
+         difference += Integer.toUnsignedLong(target[targetIndex]) - Integer.toUnsignedLong(value[targetIndex]);
+         target[targetIndex] = (int) difference;
+         difference >>= 32;
+      }
+      for (; difference != 0; ++targetIndex)
+      {
+         difference += Integer.toUnsignedLong(target[targetIndex]);
+         target[targetIndex] = (int) difference;
+         difference >>= 32;
+      }
+   }
+
+   /**
+    * @return a new array containing left - right. left must be greater than or equal to right
+    */
+   static int[] subtract(final int[] left, final int[] right)
+   {
+      final int[] difference = left.clone();
+      MultiplyUtil.subtractInPlace(difference, right, MultiplyUtil.significantLength(right, right.length));
+      return difference;
+   }
+
+   /**
+    * @return a new array containing the magnitude of (left - right)
+    */
+   private static int[] absoluteDifference(final int[] left, final int[] right)
+   {
+      if (MultiplyUtil.compare(left, right) < 0) return MultiplyUtil.subtract(right, left);
+      return MultiplyUtil.subtract(left, right);
+   }
+
+   /**
+    * @return a new array of length (elements.length + 1) containing elements * 2
+    */
+   private static int[] doubled(final int[] elements)
+   {
+      return MultiplyUtil.add(elements, elements.length, elements, elements.length);
+   }
+
+   /**
+    * Compares the whole arrays ignoring any leading 0s.
+    *
+    * @return negative, 0, or positive as left is less than, equal to, or greater than right
+    */
+   static int compare(final int[] left, final int[] right)
+   {
+      final int leftLength = MultiplyUtil.significantLength(left, left.length);
+      final int rightLength = MultiplyUtil.significantLength(right, right.length);
+      if (leftLength != rightLength) return Integer.compare(leftLength, rightLength);
+      for (int i = leftLength - 1; i >= 0; --i)
+      {
+         if (left[i] != right[i]) return Integer.compareUnsigned(left[i], right[i]);
+      }
+      return 0;
+   }
+
+   /**
+    * Divides by 3 in place using the multiplicative inverse of 3 (mod 2^32) starting from the least significant
+    * element. This is only correct if the value is a multiple of 3 but it doesn't need any division.
+    *
+    * @param elements is mutated
+    */
+   static void exactDivideBy3InPlace(final int[] elements)
+   {
+      //3 * 0xAAAAAAAB == 1 (mod 2^32)
+      final long inverseOf3 = 0xAAAA_AAABL;
+      long borrow = 0;
+      for (int i = 0; i < elements.length; ++i)
+      {
+         final long element = Integer.toUnsignedLong(elements[i]);
+         final long difference = element - borrow;
+         borrow = (borrow > element) ? 1 : 0;
+         final long quotient = (difference * inverseOf3) & 0xFFFF_FFFFL;
+         elements[i] = (int) quotient;
+         //quotient * 3 overflows 32 bits by 0, 1 or 2 which is borrowed from the next element
+         if (quotient >= 0x5555_5556L) ++borrow;
+         if (quotient >= 0xAAAA_AAABL) ++borrow;
+      }
+   }
+
+   /**
+    * Multiplies by 2 in place. The most significant bit must be 0 since it will be lost.
+    *
+    * @param elements is mutated
+    */
+   static void shiftLeftOneInPlace(final int[] elements)
+   {
+      for (int i = elements.length - 1; i > 0; --i)
+      {
+         elements[i] = (elements[i] << 1) | (elements[i - 1] >>> 31);
+      }
+      if (elements.length > 0) elements[0] <<= 1;
+   }
+
+   /**
+    * Divides by 2 in place.
+    *
+    * @param elements is mutated
+    */
+   static void shiftRightOneInPlace(final int[] elements)
+   {
+      for (int i = 0; i + 1 < elements.length; ++i)
+      {
+         elements[i] = (elements[i] >>> 1) | (elements[i + 1] << 31);
+      }
+      if (elements.length > 0) elements[elements.length - 1] >>>= 1;
+   }
+
+   /**
+    * @return the number of elements (at most length) not counting leading 0s. Can return 0
+    */
+   static int significantLength(final int[] elements, int length)
+   {
+      while (length > 0 && elements[length - 1] == 0){--length;}
+      return length;
+   }
+
+   /**
+    * @return 1 if the unsigned addition (left + right) overflowed to become sum otherwise 0
+    */
+   static long carryOut(final long left, final long right, final long sum)
+   {
+      //the carry out of the most significant bit is set if both were set or either was set and the sum's wasn't
+      return ((left & right) | ((left | right) & ~sum)) >>> 63;
+   }
+
+   /**
+    * Math.multiplyHigh treats both as signed. This uses the identity that an unsigned long is the signed value plus
+    * 2^64 if the sign bit is set to correct the result (Java 18 has this as Math.unsignedMultiplyHigh).
+    *
+    * @return the most significant 64 bits of the unsigned 128 bit product
+    */
+   public static long unsignedMultiplyHigh(final long left, final long right)
+   {
+      long result = Math.multiplyHigh(left, right);
+      result += (right & (left >> 63));
+      result += (left & (right >> 63));
+      return result;
+   }
+
+   /**
+    * @return an array of unsigned 64 bit limbs (little endian) that has the same value as the int elements
+    */
+   static long[] toLongLimbs(final int[] elements, final int length)
+   {
+      final long[] limbs = new long[(length + 1) / 2];
+      for (int i = 0; i + 1 < length; i += 2)
+      {
+         limbs[i / 2] = Integer.toUnsignedLong(elements[i]) | (((long) elements[i + 1]) << 32);
+      }
+      //odd length means the last limb only has the low half
+      if ((length & 1) == 1) limbs[length / 2] = Integer.toUnsignedLong(elements[length - 1]);
+      return limbs;
+   }
+
+   /**
+    * @param length the number of int elements desired which must be at most 2 * limbs.length
+    * @return an array of unsigned int elements (little endian) that has the same value as the 64 bit limbs
+    */
+   static int[] toIntElements(final long[] limbs, final int length)
+   {
+      final int[] elements = new int[length];
+      for (int i = 0; i < length; ++i)
+      {
+         final long limb = limbs[i / 2];
+         elements[i] = ((i & 1) == 0) ? (int) limb : (int) (limb >>> 32);
+      }
+      return elements;
+   }
+}
@@ -0,0 +1,324 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Multiplication of huge magnitudes using number theoretic transforms (an FFT where the math is done modulo a prime
+ * instead of with complex numbers so that there is no rounding error). This is used by {@link MultiplyUtil} for the
+ * largest numbers since it is O(n log n).
+ * <p>
+ * Each int element is used as a digit. The convolution is done modulo 3 different primes then the real
+ * value of each coefficient is found with the Chinese remainder theorem. The product of the primes is about 2^89
+ * which is more than the largest coefficient: (2^32-1)^2 * 2^23. The primes limit the transform length to 2^24
+ * which is why the sum of the lengths has a max of {@link #MAX_PRODUCT_LENGTH}.
+ * <p>
+ * When {@link MultiplyUtil#setParallelPool(java.util.concurrent.ForkJoinPool) the pool} is used, the convolution for
+ * each prime is done at the same time and the butterflies of each pass through the transform are split into chunks.
+ */
+enum NumberTheoreticTransform
+{
+   ;  //no instances
+
+   /**
+    * The largest (leftLength + rightLength) that can be multiplied.
+    */
+   static final int MAX_PRODUCT_LENGTH = 1 << 24;
+
+   //each prime is k * 2^m + 1 so that there are 2^m-th roots of unity
+   private static final long PRIME_1 = 2013265921L;  //15 * 2^27 + 1
+   private static final long PRIME_2 = 469762049L;  //7 * 2^26 + 1
+   private static final long PRIME_3 = 754974721L;  //45 * 2^24 + 1
+   private static final long[] PRIMES = {PRIME_1, PRIME_2, PRIME_3};
+   /**
+    * A primitive root (generator) of each prime in {@link #PRIMES}.
+    */
+   private static final long[] PRIMITIVE_ROOTS = {31, 3, 11};
+   /**
+    * The fewest butterflies given to a task when a pass through the transform is split up.
+    */
+   private static final int MIN_BUTTERFLIES_PER_TASK = 1 << 12;
+
+   //constants for the Chinese remainder theorem (Garner's algorithm)
+   private static final long PRIME_1_INVERSE_MOD_2 = modPow(PRIME_1 % PRIME_2, PRIME_2 - 2, PRIME_2);
+   private static final long PRIME_1_2 = PRIME_1 * PRIME_2;
+   private static final long PRIME_1_2_INVERSE_MOD_3 = modPow(PRIME_1_2 % PRIME_3, PRIME_3 - 2, PRIME_3);
+
+   /**
+    * @return a new array of length (leftLength + rightLength) which may have leading 0s
+    * @throws IllegalArgumentException if (leftLength + rightLength) is more than {@link #MAX_PRODUCT_LENGTH}
+    */
+   static int[] multiply(final int[] left, final int leftLength, final int[] right, final int rightLength)
+   {
+      final int productLength = leftLength + rightLength;
+      if (productLength > MAX_PRODUCT_LENGTH)
+         throw new IllegalArgumentException("Too large for the transform: " + productLength);
+      //the convolution has (productLength - 1) coefficients
+      final int transformLength = Integer.highestOneBit(Math.max(1, productLength - 2)) << 1;
+
+      final MultiplyUtil.ProductTask[] convolutions = new MultiplyUtil.ProductTask[PRIMES.length];
+      for (int primeIndex = 0; primeIndex < PRIMES.length; ++primeIndex)
+      {
+         final int finalPrimeIndex = primeIndex;
+         convolutions[primeIndex] = new MultiplyUtil.ProductTask(() -> convolve(left, leftLength, right, rightLength,
+            transformLength, finalPrimeIndex));
+      }
+      MultiplyUtil.computeAll(transformLength, convolutions);
+
+      final int[][] residues = new int[PRIMES.length][];
+      for (int primeIndex = 0; primeIndex < PRIMES.length; ++primeIndex)
+      {
+         residues[primeIndex] = convolutions[primeIndex].join();
+      }
+      return combine(residues, productLength);
+   }
+
+   /**
+    * @return the cyclic convolution of the elements modulo the prime
+    */
+   private static int[] convolve(final int[] left, final int leftLength, final int[] right, final int rightLength,
+                                 final int transformLength, final int primeIndex)
+   {
+      final Modulus modulus = new Modulus(PRIMES[primeIndex]);
+      final int[] leftTransform = modulus.reduce(left, leftLength, transformLength);
+      modulus.transform(leftTransform, PRIMITIVE_ROOTS[primeIndex], false);
+      final int[] rightTransform;
+      //squaring only needs 1 forward transform
+      if (left == right && leftLength == rightLength) rightTransform = leftTransform;
+      else
+      {
+         rightTransform = modulus.reduce(right, rightLength, transformLength);
+         modulus.transform(rightTransform, PRIMITIVE_ROOTS[primeIndex], false);
+      }
+
+      for (int i = 0; i < transformLength; ++i)
+      {
+         leftTransform[i] = modulus.montgomeryMultiply(leftTransform[i], rightTransform[i]);
+      }
+      modulus.transform(leftTransform, PRIMITIVE_ROOTS[primeIndex], true);
+
+      //the pointwise Montgomery products have an extra R^-1 and the inverse transform has an extra n
+      //so multiply by n^-1 * R^2 which (since it is also a Montgomery product) removes another R^-1
+      final long r = (1L << 32) % modulus.prime;
+      final long scale = modulus.multiply(modulus.multiply(r, r), modPow(transformLength, modulus.prime - 2,
+         modulus.prime));
+      for (int i = 0; i < transformLength; ++i)
+      {
+         leftTransform[i] = modulus.montgomeryMultiply(leftTransform[i], scale);
+      }
+      return leftTransform;
+   }
+
+   /**
+    * Uses the Chinese remainder theorem to find each coefficient then carries them into 32 bit elements.
+    */
+   private static int[] combine(final int[][] residues, final int productLength)
+   {
+      final int[] product = new int[productLength];
+      //the carry is an unsigned 128 bit number
+      long carryLow = 0;
+      long carryHigh = 0;
+      for (int i = 0; i < productLength; ++i)
+      {
+         long low = 0;
+         long high = 0;
+         //the last element only holds carry
+         if (i < productLength - 1)
+         {
+            //Garner's algorithm: coefficient = a + PRIME_1 * b + PRIME_1 * PRIME_2 * c
+            final long a = residues[0][i];
+            final long b = (residues[1][i] - a % PRIME_2 + PRIME_2) * PRIME_1_INVERSE_MOD_2 % PRIME_2;
+            final long aPlusPrime1B = a + PRIME_1 * b;
+            final long c = (residues[2][i] - aPlusPrime1B % PRIME_3 + PRIME_3) * PRIME_1_2_INVERSE_MOD_3 % PRIME_3;
+            //all positive so multiplyHigh doesn't need to be unsigned
+            low = PRIME_1_2 * c;
+            high = Math.multiplyHigh(PRIME_1_2, c);
+            final long withA = low + aPlusPrime1B;
+            high += MultiplyUtil.carryOut(low, aPlusPrime1B, withA);
+            low = withA;
+         }
+
+         final long sumLow = low + carryLow;
+         final long sumHigh = high + carryHigh + MultiplyUtil.carryOut(low, carryLow, sumLow);
+         product[i] = (int) sumLow;
+         carryLow = (sumLow >>> 32) | (sumHigh << 32);
+         carryHigh = sumHigh >>> 32;
+      }
+      return product;
+   }
+
+   /**
+    * @return (base^exponent) % prime
+    */
+   private static long modPow(long base, long exponent, final long prime)
+   {
+      long result = 1;
+      base %= prime;
+      while (exponent > 0)
+      {
+         if ((exponent & 1) == 1) result = result * base % prime;
+         base = base * base % prime;
+         exponent >>= 1;
+      }
+      return result;
+   }
+
+   /**
+    * The math for a single prime. Multiplication inside the transform uses Montgomery reduction (R = 2^32) instead
+    * of % since that is only multiplications and shifts.
+    */
+   private static final class Modulus
+   {
+      private final long prime;
+      /**
+       * -prime^-1 mod 2^32
+       */
+      private final long negativeInverse;
+
+      private Modulus(final long prime)
+      {
+         this.prime = prime;
+         //Newton's method doubles the number of correct bits each time: 1 -> 2 -> 4 -> 8 -> 16 -> 32
+         long inverse = 1;
+         for (int i = 0; i < 5; ++i)
+         {
+            inverse = inverse * (2 - prime * inverse);
+         }
+         this.negativeInverse = (-inverse) & 0xFFFF_FFFFL;
+      }
+
+      /**
+       * @return (left * right) % prime
+       */
+      private long multiply(final long left, final long right)
+      {
+         return left * right % prime;
+      }
+
+      /**
+       * @return (left * right * 2^-32) % prime
+       */
+      private int montgomeryMultiply(final long left, final long right)
+      {
+         //product < prime^2 < 2^62 and m * prime < 2^63 so the sum fits in an unsigned long
+         final long product = left * right;
+         final long m = ((product & 0xFFFF_FFFFL) * negativeInverse) & 0xFFFF_FFFFL;
+         long result = (product + m * prime) >>> 32;
+         if (result >= prime) result -= prime;
+         return (int) result;
+      }
+
+      /**
+       * @return a new array of the given length with each element reduced modulo the prime (and 0 padded)
+       */
+      private int[] reduce(final int[] elements, final int elementsLength, final int transformLength)
+      {
+         final int[] result = new int[transformLength];
+         for (int i = 0; i < elementsLength; ++i)
+         {
+            result[i] = (int) (Integer.toUnsignedLong(elements[i]) % prime);
+         }
+         return result;
+      }
+
+      /**
+       * An iterative radix 2 transform (Cooley-Tukey). The inverse doesn't divide by the length.
+       *
+       * @param values is mutated. The length must be a power of 2
+       */
+      private void transform(final int[] values, final long primitiveRoot, final boolean inverse)
+      {
+         final int length = values.length;
+         bitReverse(values);
+
+         //the twiddle factors are the powers of a length-th root of unity (in Montgomery form)
+         long root = modPow(primitiveRoot, (prime - 1) / length, prime);
+         if (inverse) root = modPow(root, prime - 2, prime);
+         final int[] twiddles = new int[Math.max(1, length / 2)];
+         long power = (1L << 32) % prime;
+         for (int i = 0; i < twiddles.length; ++i)
+         {
+            twiddles[i] = (int) power;
+            power = multiply(power, root);
+         }
+
+         final int butterflyCount = length / 2;
+         final boolean isParallel = MultiplyUtil.isParallel(butterflyCount);
+         for (int halfSize = 1; halfSize < length; halfSize <<= 1)
+         {
+            final int twiddleStep = length / (2 * halfSize);
+            if (isParallel) parallelButterflies(values, twiddles, halfSize, twiddleStep);
+            else butterflies(values, twiddles, halfSize, twiddleStep, 0, butterflyCount);
+         }
+      }
+
+      /**
+       * Splits the butterflies of one pass into chunks that run in the current pool. Each butterfly only touches its
+       * own 2 values so the chunks are independent.
+       */
+      private void parallelButterflies(final int[] values, final int[] twiddles, final int halfSize,
+                                       final int twiddleStep)
+      {
+         final int butterflyCount = values.length / 2;
+         final int taskCount = 4 * ForkJoinTask.getPool().getParallelism();
+         final int chunkSize = Math.max(MIN_BUTTERFLIES_PER_TASK, (butterflyCount + taskCount - 1) / taskCount);
+         final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+         for (int from = 0; from < butterflyCount; from += chunkSize)
+         {
+            final int finalFrom = from;
+            final int to = Math.min(butterflyCount, from + chunkSize);
+            tasks.add(ForkJoinTask.adapt(() -> butterflies(values, twiddles, halfSize, twiddleStep, finalFrom, to)));
+         }
+         ForkJoinTask.invokeAll(tasks);
+      }
+
+      /**
+       * Does the butterflies numbered from (inclusive) to (exclusive) of the pass where each block is 2 * halfSize.
+       * Butterfly k is the jth of its block where j = k % halfSize.
+       */
+      private void butterflies(final int[] values, final int[] twiddles, final int halfSize, final int twiddleStep,
+                               final int from, final int to)
+      {
+         for (int k = from; k < to; )
+         {
+            final int start = (k / halfSize) * 2 * halfSize;
+            final int jStart = k % halfSize;
+            final int jEnd = Math.min(halfSize, jStart + (to - k));
+            for (int j = jStart; j < jEnd; ++j)
+            {
+               final int u = values[start + j];
+               final int v = montgomeryMultiply(values[start + j + halfSize], twiddles[j * twiddleStep]);
+               //u and v are less than prime < 2^31 so the sum fits in an int as long as it is compared unsigned
+               int sum = u + v;
+               if (Integer.compareUnsigned(sum, (int) prime) >= 0) sum -= (int) prime;
+               int difference = u - v;
+               if (difference < 0) difference += (int) prime;
+               values[start + j] = sum;
+               values[start + j + halfSize] = difference;
+            }
+            k += jEnd - jStart;
+         }
+      }
+
+      private static void bitReverse(final int[] values)
+      {
+         final int length = values.length;
+         for (int i = 1, j = 0; i < length; ++i)
+         {
+            int bit = length >> 1;
+            for (; (j & bit) != 0; bit >>= 1)
+            {
+               j ^= bit;
+            }
+            j |= bit;
+            if (i < j)
+            {
+               final int temp = values[i];
+               values[i] = values[j];
+               values[j] = temp;
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,807 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Primality tests for magnitudes in the format used by MutableInfiniteInteger: an int[] where each element
+ * is unsigned and the elements are in little endian order. Only the first "length" elements of each array are used
+ * and the arrays aren't mutated.
+ * <p>
+ * Small factors are found by trial division then the Baillie–PSW test is used: a strong probable prime test to base 2
+ * (Miller–Rabin) and a strong Lucas probable prime test. There are no known composites that pass both. Numbers less
+ * than 2<sup>64</sup> use Miller–Rabin with a fixed set of bases instead which has been proven to be exact. The modular
+ * arithmetic is done in Montgomery form so that each multiplication is reduced without division.
+ */
+public enum PrimeUtil
+{
+   ;  //no instances
+
+   /**
+    * Every odd prime less than this is used for trial division.
+    */
+   static final int TRIAL_DIVISION_LIMIT = 1024;
+   /**
+    * Every odd prime less than this is used to sieve the candidates of nextProbablePrime and previousProbablePrime.
+    * Crossing off a candidate costs much less than a single test so this is larger than TRIAL_DIVISION_LIMIT (about
+    * 40% fewer candidates survive).
+    */
+   private static final int SIEVE_LIMIT = 1 << 16;
+   /**
+    * Every odd prime less than SIEVE_LIMIT in order.
+    */
+   private static final int[] SMALL_PRIMES;
+   /**
+    * The products of consecutive SMALL_PRIMES that fit in an unsigned int. A single pass over the number finds the
+    * remainder of a product which is then used to find the remainder of each prime in it.
+    */
+   private static final int[] SMALL_PRIME_PRODUCTS;
+   /**
+    * SMALL_PRIME_PRODUCTS[i] is the product of SMALL_PRIMES from PRODUCT_STARTS[i] to PRODUCT_STARTS[i + 1]
+    * (exclusive).
+    */
+   private static final int[] PRODUCT_STARTS;
+   /**
+    * The number of SMALL_PRIME_PRODUCTS (from the start) that contain the primes less than TRIAL_DIVISION_LIMIT.
+    */
+   private static final int TRIAL_DIVISION_PRODUCTS;
+   /**
+    * Miller–Rabin with each of these bases is exact for every number less than 3.18 * 10<sup>23</sup>
+    * (Sorenson and Webster) which includes every number less than 2<sup>64</sup>.
+    */
+   private static final int[] DETERMINISTIC_BASES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+   /**
+    * If a Selfridge parameter hasn't been found after this many tries then the number is checked to see if it is a
+    * perfect square (since a square doesn't have any).
+    */
+   private static final int SQUARE_CHECK_TRIES = 10;
+   /**
+    * Numbers less than this are searched one at a time instead of sieving a window since the sieving primes would
+    * cross themselves off.
+    */
+   private static final int SIEVE_MINIMUM = PrimeUtil.SIEVE_LIMIT * 2;
+
+   static
+   {
+      final BitSet oddComposites = FactorialUtil.oddComposites(PrimeUtil.SIEVE_LIMIT - 1);
+      final int[] primes = new int[PrimeUtil.SIEVE_LIMIT / 2];
+      final int[] products = new int[primes.length];
+      final int[] starts = new int[primes.length + 1];
+      int primeCount = 0;
+      int productCount = 0;
+      long product = 1;
+      int trialDivisionProducts = 0;
+      for (int odd = 3; odd < PrimeUtil.SIEVE_LIMIT; odd += 2)
+      {
+         if (oddComposites.get(odd / 2)) continue;
+         //the trial division primes end with a whole product
+         final boolean isFirstSievePrime = (odd > PrimeUtil.TRIAL_DIVISION_LIMIT && trialDivisionProducts == 0);
+         if (product * odd > 0xFFFF_FFFFL || isFirstSievePrime)
+         {
+            products[productCount] = (int) product;
+            starts[++productCount] = primeCount;
+            product = 1;
+            if (isFirstSievePrime) trialDivisionProducts = productCount;
+         }
+         product *= odd;
+         primes[primeCount++] = odd;
+      }
+      products[productCount] = (int) product;
+      starts[++productCount] = primeCount;
+
+      SMALL_PRIMES = Arrays.copyOf(primes, primeCount);
+      SMALL_PRIME_PRODUCTS = Arrays.copyOf(products, productCount);
+      PRODUCT_STARTS = Arrays.copyOf(starts, productCount + 1);
+      TRIAL_DIVISION_PRODUCTS = trialDivisionProducts;
+   }
+
+   /**
+    * Numbers less than 2<sup>64</sup> are tested exactly. Larger numbers use Baillie–PSW and then additional
+    * Miller–Rabin tests with random bases: the same number of rounds that BigInteger uses for this certainty and size.
+    *
+    * @param certainty the extra Miller–Rabin rounds are based on this: each round has at most a 1/4 chance of
+    *                  calling a composite prime. 0 or less doesn't do any extra rounds
+    * @param random    the source of the bases for the extra rounds
+    * @return true if the number is probably prime (or certainly prime if it is less than 2<sup>64</sup>) and false
+    * if it is certainly composite. 0 and 1 return false
+    */
+   public static boolean isProbablePrime(final int[] magnitude, final int length, final int certainty,
+                                         final Random random)
+   {
+      final int[] number = Arrays.copyOf(magnitude, MultiplyUtil.significantLength(magnitude, length));
+      if (number.length == 0) return false;
+      if (number.length == 1 && Integer.compareUnsigned(number[0], 2) <= 0) return number[0] == 2;
+      if ((number[0] & 1) == 0) return false;
+      final int trialDivisionResult = PrimeUtil.trialDivision(number);
+      if (trialDivisionResult != 0) return trialDivisionResult > 0;
+      return PrimeUtil.passesStrongTests(number, certainty, random);
+   }
+
+   /**
+    * Finds the smallest probable prime greater than the number. Each window of odd candidates is sieved by the
+    * primes less than 2<sup>16</sup>: the remainder of the start of the window is found once for each prime then every
+    * multiple of that prime in the window is crossed off. Only the remaining candidates are tested with
+    * Baillie–PSW (or exactly if less than 2<sup>64</sup>).
+    *
+    * @return a new array which may have leading 0s
+    */
+   public static int[] nextProbablePrime(final int[] magnitude, final int length)
+   {
+      final int[] number = Arrays.copyOf(magnitude, MultiplyUtil.significantLength(magnitude, length));
+      if (PrimeUtil.isLessThan(number, PrimeUtil.SIEVE_MINIMUM))
+      {
+         final int value = (number.length == 0) ? 0 : number[0];
+         for (int candidate = value + 1; ; ++candidate)
+         {
+            if (PrimeUtil.isProbablePrime(new int[]{candidate}, 1, 0, null)) return new int[]{candidate};
+         }
+      }
+
+      //the first odd number greater than number
+      int[] start = PrimeUtil.addSmall(number, ((number[0] & 1) == 0) ? 1 : 2);
+      while (true)
+      {
+         final int windowSize = PrimeUtil.windowSize(start);
+         final BitSet composites = PrimeUtil.sieveWindow(start, windowSize, true);
+         for (int i = composites.nextClearBit(0); i < windowSize; i = composites.nextClearBit(i + 1))
+         {
+            final int[] candidate = PrimeUtil.addSmall(start, 2L * i);
+            if (PrimeUtil.passesStrongTests(candidate, 0, null)) return candidate;
+         }
+         start = PrimeUtil.addSmall(start, 2L * windowSize);
+      }
+   }
+
+   /**
+    * Finds the largest probable prime less than the number. This sieves windows in the same way as
+    * {@link #nextProbablePrime(int[], int)}.
+    *
+    * @param magnitude must be greater than 2
+    * @return a new array which may have leading 0s
+    * @throws IllegalArgumentException if the number isn't greater than 2
+    */
+   public static int[] previousProbablePrime(final int[] magnitude, final int length)
+   {
+      final int[] number = Arrays.copyOf(magnitude, MultiplyUtil.significantLength(magnitude, length));
+      if (PrimeUtil.isLessThan(number, 3))
+         throw new IllegalArgumentException("There are no primes less than 2");
+
+      //the first odd number less than number
+      int[] start = PrimeUtil.subtractSmall(number, ((number[0] & 1) == 0) ? 1 : 2);
+      while (true)
+      {
+         final int windowSize = PrimeUtil.windowSize(start);
+         //the candidates must stay larger than the sieving primes
+         if (PrimeUtil.isLessThan(start, PrimeUtil.SIEVE_MINIMUM + 2L * windowSize))
+         {
+            for (int candidate = start[0]; ; candidate -= 2)
+            {
+               //2 is the only even prime and it is the last one
+               if (candidate < 3) return new int[]{2};
+               if (PrimeUtil.isProbablePrime(new int[]{candidate}, 1, 0, null)) return new int[]{candidate};
+            }
+         }
+         final BitSet composites = PrimeUtil.sieveWindow(start, windowSize, false);
+         for (int i = composites.nextClearBit(0); i < windowSize; i = composites.nextClearBit(i + 1))
+         {
+            final int[] candidate = PrimeUtil.subtractSmall(start, 2L * i);
+            if (PrimeUtil.passesStrongTests(candidate, 0, null)) return candidate;
+         }
+         start = PrimeUtil.subtractSmall(start, 2L * windowSize);
+      }
+   }
+
+   /**
+    * Picks a random number with exactly bitLength bits then returns the first probable prime at or after it. If that
+    * prime has too many bits then another random number is picked. Like BigInteger.probablePrime the primes aren't
+    * exactly uniform since a prime after a large gap is more likely to be picked.
+    *
+    * @return a new array which may have leading 0s
+    * @throws IllegalArgumentException if bitLength is less than 2
+    */
+   public static int[] randomProbablePrime(final int bitLength, final Random random)
+   {
+      if (bitLength < 2) throw new IllegalArgumentException("bitLength must be at least 2. bitLength=" + bitLength);
+      final int length = (bitLength + 31) / 32;
+      final int highBits = bitLength % 32;
+      while (true)
+      {
+         final int[] start = new int[length];
+         for (int i = 0; i < length; ++i)
+         {
+            start[i] = random.nextInt();
+         }
+         if (highBits != 0) start[length - 1] &= (1 << highBits) - 1;
+         start[length - 1] |= 1 << ((bitLength - 1) % 32);
+         //start is at least 2 so start - 1 can't borrow past the end
+         final int[] beforeStart = PrimeUtil.subtractSmall(start, 1);
+         final int[] prime = PrimeUtil.nextProbablePrime(beforeStart, beforeStart.length);
+         if (PrimeUtil.bitLength(prime) == bitLength) return prime;
+      }
+   }
+
+   /**
+    * @param number odd, greater than 2, not a multiple of a small prime
+    * @return the result of the tests after trial division
+    */
+   private static boolean passesStrongTests(final int[] number, final int certainty, final Random random)
+   {
+      final Montgomery montgomery = new Montgomery(number);
+      if (!montgomery.isStrongProbablePrime(new int[]{2})) return false;
+      if (number.length <= 2)
+      {
+         for (int i = 1; i < PrimeUtil.DETERMINISTIC_BASES.length; ++i)
+         {
+            if (!montgomery.isStrongProbablePrime(new int[]{PrimeUtil.DETERMINISTIC_BASES[i]})) return false;
+         }
+         return true;
+      }
+
+      final int selfridgeD = PrimeUtil.selfridgeD(number);
+      if (selfridgeD == 0 || !montgomery.isStrongLucasProbablePrime(selfridgeD)) return false;
+      final int rounds = PrimeUtil.millerRabinRounds(PrimeUtil.bitLength(number), certainty);
+      for (int i = 0; i < rounds; ++i)
+      {
+         if (!montgomery.isStrongProbablePrime(PrimeUtil.randomBase(number, random))) return false;
+      }
+      return true;
+   }
+
+   /**
+    * @return the number of random Miller–Rabin rounds which is the same as BigInteger.primeToCertainty
+    */
+   static int millerRabinRounds(final long bitLength, final int certainty)
+   {
+      if (certainty <= 0) return 0;
+      final int maxRounds = (int) ((Math.min(certainty, Integer.MAX_VALUE - 1) + 1L) / 2);
+      final int rounds;
+      if (bitLength < 100) rounds = 50;
+      else if (bitLength < 256) rounds = 27;
+      else if (bitLength < 512) rounds = 15;
+      else if (bitLength < 768) rounds = 8;
+      else if (bitLength < 1024) rounds = 4;
+      else rounds = 2;
+      return Math.min(rounds, maxRounds);
+   }
+
+   /**
+    * @param start      odd and larger than every sieving prime
+    * @param windowSize the number of odd candidates
+    * @return a BitSet where bit i is set if candidate i (start + 2i or start - 2i) has a small prime factor
+    */
+   private static BitSet sieveWindow(final int[] start, final int windowSize, final boolean isIncreasing)
+   {
+      final BitSet composites = new BitSet(windowSize);
+      for (int productIndex = 0; productIndex < PrimeUtil.SMALL_PRIME_PRODUCTS.length; ++productIndex)
+      {
+         final long productRemainder = Integer.toUnsignedLong(DivideUtil.remainderByWord(start, start.length,
+            PrimeUtil.SMALL_PRIME_PRODUCTS[productIndex]));
+         for (int i = PrimeUtil.PRODUCT_STARTS[productIndex]; i < PrimeUtil.PRODUCT_STARTS[productIndex + 1]; ++i)
+         {
+            final int prime = PrimeUtil.SMALL_PRIMES[i];
+            final long remainder = productRemainder % prime;
+            //start ± 2i is a multiple of prime when 2i = ∓remainder (mod prime). (prime + 1) / 2 is the inverse of 2
+            final long twoI = isIncreasing ? (prime - remainder) % prime : remainder;
+            for (int index = (int) (twoI * ((prime + 1) / 2) % prime); index < windowSize; index += prime)
+            {
+               composites.set(index);
+            }
+         }
+      }
+      return composites;
+   }
+
+   /**
+    * @return the number of odd candidates in each sieve window. This covers about 3 times the average gap between
+    * primes of this size
+    */
+   private static int windowSize(final int[] start)
+   {
+      return (int) Math.max(64, Math.min(PrimeUtil.bitLength(start), 1 << 20));
+   }
+
+   /**
+    * @return a new array containing number + value without leading 0s
+    */
+   private static int[] addSmall(final int[] number, final long value)
+   {
+      final int[] sum = Arrays.copyOf(number, Math.max(number.length, 2) + 1);
+      MultiplyUtil.addInPlace(sum, 0, new int[]{(int) value, (int) (value >>> 32)}, 2);
+      return Arrays.copyOf(sum, MultiplyUtil.significantLength(sum, sum.length));
+   }
+
+   /**
+    * @param number must be at least value
+    * @return a new array containing number - value without leading 0s
+    */
+   private static int[] subtractSmall(final int[] number, final long value)
+   {
+      final int[] difference = Arrays.copyOf(number, Math.max(number.length, 2));
+      MultiplyUtil.subtractInPlace(difference, new int[]{(int) value, (int) (value >>> 32)}, 2);
+      return Arrays.copyOf(difference, MultiplyUtil.significantLength(difference, difference.length));
+   }
+
+   /**
+    * @param number no leading 0s
+    * @param value  not negative
+    */
+   private static boolean isLessThan(final int[] number, final long value)
+   {
+      if (number.length > 2) return false;
+      long numberValue = 0;
+      for (int i = number.length - 1; i >= 0; --i)
+      {
+         numberValue = (numberValue << 32) | Integer.toUnsignedLong(number[i]);
+      }
+      //a 2 element number with the sign bit set is larger than any long
+      return numberValue >= 0 && numberValue < value;
+   }
+
+   /**
+    * @param number odd and greater than 2
+    * @return -1 if number has a prime factor less than TRIAL_DIVISION_LIMIT (other than itself), 1 if number is
+    * prime because it is too small to have a larger factor or 0 if unknown
+    */
+   private static int trialDivision(final int[] number)
+   {
+      for (int productIndex = 0; productIndex < PrimeUtil.TRIAL_DIVISION_PRODUCTS; ++productIndex)
+      {
+         final long remainder = Integer.toUnsignedLong(DivideUtil.remainderByWord(number, number.length,
+            PrimeUtil.SMALL_PRIME_PRODUCTS[productIndex]));
+         for (int i = PrimeUtil.PRODUCT_STARTS[productIndex]; i < PrimeUtil.PRODUCT_STARTS[productIndex + 1]; ++i)
+         {
+            final int prime = PrimeUtil.SMALL_PRIMES[i];
+            if (remainder % prime == 0) return (number.length == 1 && number[0] == prime) ? 1 : -1;
+         }
+      }
+      //any composite would need a factor less than its square root
+      final long limit = PrimeUtil.TRIAL_DIVISION_LIMIT;
+      if (number.length == 1 && Integer.toUnsignedLong(number[0]) < limit * limit) return 1;
+      return 0;
+   }
+
+   /**
+    * Selfridge's method A: the first D in 5, -7, 9, -11, 13... where the Jacobi symbol (D/number) is -1.
+    *
+    * @param number odd, not a multiple of a small prime and larger than 2<sup>64</sup>
+    * @return D or 0 if number is composite (because it shares a factor with D or is a perfect square)
+    */
+   static int selfridgeD(final int[] number)
+   {
+      int d = 5;
+      for (int tries = 1; ; ++tries)
+      {
+         final int jacobi = PrimeUtil.jacobi(d, number);
+         if (jacobi == -1) return d;
+         //|D| is less than number so they share a factor
+         if (jacobi == 0) return 0;
+         if (tries == PrimeUtil.SQUARE_CHECK_TRIES && PrimeUtil.isPerfectSquare(number)) return 0;
+         d = (d > 0) ? -(d + 2) : -d + 2;
+      }
+   }
+
+   /**
+    * @param d      odd
+    * @param number odd
+    * @return the Jacobi symbol (d/number)
+    */
+   static int jacobi(final int d, final int[] number)
+   {
+      int result = 1;
+      //(-1/n) is -1 if n = 3 (mod 4)
+      if (d < 0 && (number[0] & 3) == 3) result = -result;
+      final int absoluteD = Math.abs(d);
+      //quadratic reciprocity: (a/n) = (n/a) unless both are 3 (mod 4)
+      if ((absoluteD & 3) == 3 && (number[0] & 3) == 3) result = -result;
+      final int remainder = DivideUtil.remainderByWord(number, number.length, absoluteD);
+      return result * PrimeUtil.jacobi(remainder, absoluteD);
+   }
+
+   /**
+    * @param odd must be odd and positive
+    * @return the Jacobi symbol (value/odd)
+    */
+   static int jacobi(int value, int odd)
+   {
+      int result = 1;
+      value %= odd;
+      while (value != 0)
+      {
+         while ((value & 1) == 0)
+         {
+            value >>= 1;
+            //(2/n) is -1 if n = 3 or 5 (mod 8)
+            if ((odd & 7) == 3 || (odd & 7) == 5) result = -result;
+         }
+         final int swap = value;
+         value = odd;
+         odd = swap;
+         if ((value & 3) == 3 && (odd & 3) == 3) result = -result;
+         value %= odd;
+      }
+      return (odd == 1) ? result : 0;
+   }
+
+   /**
+    * This is slow but is only used when a Selfridge parameter wasn't found quickly which almost never happens
+    * unless the number is a square.
+    */
+   private static boolean isPerfectSquare(final int[] number)
+   {
+      //start with a power of 2 that is at least the square root. Newton's method then decreases to the floor
+      final long rootBit = (PrimeUtil.bitLength(number) + 1) / 2;
+      int[] root = new int[(int) (rootBit / 32) + 1];
+      root[(int) (rootBit / 32)] = 1 << (rootBit % 32);
+      while (true)
+      {
+         final int rootLength = MultiplyUtil.significantLength(root, root.length);
+         final int[] quotient = DivideUtil.divide(number, number.length, root, rootLength, new int[rootLength]);
+         final int[] next = MultiplyUtil.add(root, rootLength, quotient, quotient.length);
+         MultiplyUtil.shiftRightOneInPlace(next);
+         if (MultiplyUtil.compare(next, root) >= 0) break;
+         root = next;
+      }
+      return MultiplyUtil.compare(MultiplyUtil.square(root, MultiplyUtil.significantLength(root, root.length)),
+         number) == 0;
+   }
+
+   /**
+    * @return a random number from 2 to number - 2 (both inclusive)
+    */
+   private static int[] randomBase(final int[] number, final Random random)
+   {
+      final int highBits = (int) (PrimeUtil.bitLength(number) % 32);
+      final int[] numberMinus2 = number.clone();
+      //number is odd and larger than 2 so there is no borrow
+      numberMinus2[0] -= 2;
+      while (true)
+      {
+         final int[] base = new int[number.length];
+         for (int i = 0; i < base.length; ++i)
+         {
+            base[i] = random.nextInt();
+         }
+         if (highBits != 0) base[base.length - 1] &= (1 << highBits) - 1;
+         final boolean isAtLeast2 = (MultiplyUtil.significantLength(base, base.length) > 1
+                                     || Integer.compareUnsigned(base[0], 2) >= 0);
+         if (isAtLeast2 && MultiplyUtil.compare(base, numberMinus2) <= 0) return base;
+      }
+   }
+
+   /**
+    * @param number must not be 0
+    */
+   private static long bitLength(final int[] number)
+   {
+      final int length = MultiplyUtil.significantLength(number, number.length);
+      return 32L * length - Integer.numberOfLeadingZeros(number[length - 1]);
+   }
+
+   /**
+    * Arithmetic modulo an odd number where each value x is stored as (x * R) mod modulus with R = 2<sup>32 *
+    * length</sup>. In this form the product of 2 values can be reduced by adding a multiple of the modulus that makes
+    * the low elements 0 then shifting them away (Montgomery reduction) instead of dividing.
+    * Every value is an array of exactly length elements that is less than the modulus.
+    * This isn't thread safe since it reuses an array for the products.
+    */
+   static final class Montgomery
+   {
+      private final int[] modulus;
+      private final int length;
+      /**
+       * -1 / modulus (mod 2<sup>32</sup>)
+       */
+      private final int negativeInverse;
+      /**
+       * R<sup>2</sup> mod modulus: the Montgomery product of this and x is x in Montgomery form.
+       */
+      private final int[] rSquared;
+      /**
+       * 1 in Montgomery form (R mod modulus).
+       */
+      private final int[] one;
+      private final int[] product;
+
+      /**
+       * @param modulus odd with no leading 0s. Not mutated
+       */
+      Montgomery(final int[] modulus)
+      {
+         this.modulus = modulus.clone();
+         length = modulus.length;
+         product = new int[length + 2];
+         //Newton's method for the inverse: odd * odd == 1 (mod 8) and each step doubles the correct bits (3 to 48)
+         int inverse = modulus[0];
+         for (int i = 0; i < 4; ++i){inverse *= 2 - modulus[0] * inverse;}
+         negativeInverse = -inverse;
+
+         final int[] rSquaredDividend = new int[2 * length + 1];
+         rSquaredDividend[2 * length] = 1;
+         rSquared = new int[length];
+         DivideUtil.divide(rSquaredDividend, rSquaredDividend.length, this.modulus, length, rSquared);
+         final int[] normalOne = new int[length];
+         normalOne[0] = 1;
+         one = toMontgomery(normalOne);
+      }
+
+      /**
+       * @param value less than the modulus. Not mutated
+       * @return a new array containing value in Montgomery form
+       */
+      int[] toMontgomery(final int[] value)
+      {
+         final int[] result = new int[length];
+         multiply(Arrays.copyOf(value, length), rSquared, result);
+         return result;
+      }
+
+      /**
+       * Montgomery multiplication (coarsely integrated operand scanning): each element of right is multiplied in
+       * then the lowest element is reduced away. The total stays less than 2 * modulus.
+       *
+       * @param result can be the same array as left or right
+       */
+      void multiply(final int[] left, final int[] right, final int[] result)
+      {
+         Arrays.fill(product, 0);
+         for (int i = 0; i < length; ++i)
+         {
+            final long rightElement = Integer.toUnsignedLong(right[i]);
+            //max unsigned int + max unsigned int * max unsigned int + max unsigned int == max unsigned long
+            long carry = 0;
+            for (int j = 0; j < length; ++j)
+            {
+               final long sum = Integer.toUnsignedLong(product[j]) + Integer.toUnsignedLong(left[j]) * rightElement
+                                + carry;
+               product[j] = (int) sum;
+               carry = sum >>> 32;
+            }
+            long sum = Integer.toUnsignedLong(product[length]) + carry;
+            product[length] = (int) sum;
+            product[length + 1] = (int) (sum >>> 32);
+
+            //adding factor * modulus makes the lowest element 0 so that it can be shifted away
+            final long factor = Integer.toUnsignedLong(product[0] * negativeInverse);
+            carry = (Integer.toUnsignedLong(product[0]) + Integer.toUnsignedLong(modulus[0]) * factor) >>> 32;
+            for (int j = 1; j < length; ++j)
+            {
+               sum = Integer.toUnsignedLong(product[j]) + Integer.toUnsignedLong(modulus[j]) * factor + carry;
+               product[j - 1] = (int) sum;
+               carry = sum >>> 32;
+            }
+            sum = Integer.toUnsignedLong(product[length]) + carry;
+            product[length - 1] = (int) sum;
+            product[length] = product[length + 1] + (int) (sum >>> 32);
+            product[length + 1] = 0;
+         }
+         if (product[length] != 0 || MultiplyUtil.compare(product, modulus) >= 0)
+            MultiplyUtil.subtractInPlace(product, modulus, length);
+         System.arraycopy(product, 0, result, 0, length);
+      }
+
+      /**
+       * Multiplies by doubling and adding which is much cheaper than a Montgomery product for a small factor.
+       *
+       * @param result can be the same array as value
+       */
+      void multiplySmall(final int[] value, final int factor, final int[] result)
+      {
+         final int[] doubling = value.clone();
+         final int[] total = new int[length];
+         for (int remaining = Math.abs(factor); remaining != 0; remaining >>>= 1)
+         {
+            if ((remaining & 1) == 1) add(total, doubling, total);
+            add(doubling, doubling, doubling);
+         }
+         if (factor < 0) subtract(new int[length], total, total);
+         System.arraycopy(total, 0, result, 0, length);
+      }
+
+      /**
+       * @param result can be the same array as left or right
+       */
+      void add(final int[] left, final int[] right, final int[] result)
+      {
+         long sum = 0;
+         for (int i = 0; i < length; ++i)
+         {
+            sum += Integer.toUnsignedLong(left[i]) + Integer.toUnsignedLong(right[i]);
+            result[i] = (int) sum;
+            sum >>>= 32;
+         }
+         //a carry out means that the sum is larger than the modulus
+         if (sum != 0 || MultiplyUtil.compare(result, modulus) >= 0) subtractModulus(result);
+      }
+
+      /**
+       * @param result can be the same array as left or right
+       */
+      void subtract(final int[] left, final int[] right, final int[] result)
+      {
+         long difference = 0;
+         for (int i = 0; i < length; ++i)
+         {
+            difference += Integer.toUnsignedLong(left[i]) - Integer.toUnsignedLong(right[i]);
+            result[i] = (int) difference;
+            difference >>= 32;
+         }
+         if (difference != 0)
+         {
+            //the borrow is undone by the carry out of adding the modulus
+            long sum = 0;
+            for (int i = 0; i < length; ++i)
+            {
+               sum += Integer.toUnsignedLong(result[i]) + Integer.toUnsignedLong(modulus[i]);
+               result[i] = (int) sum;
+               sum >>>= 32;
+            }
+         }
+      }
+
+      /**
+       * Divides by 2 (mod modulus) which is the same in Montgomery form.
+       *
+       * @param value is mutated
+       */
+      void halve(final int[] value)
+      {
+         long carry = 0;
+         //an odd value plus the odd modulus is even
+         if ((value[0] & 1) == 1)
+         {
+            for (int i = 0; i < length; ++i)
+            {
+               carry += Integer.toUnsignedLong(value[i]) + Integer.toUnsignedLong(modulus[i]);
+               value[i] = (int) carry;
+               carry >>>= 32;
+            }
+         }
+         MultiplyUtil.shiftRightOneInPlace(value);
+         if (carry != 0) value[length - 1] |= Integer.MIN_VALUE;
+      }
+
+      /**
+       * @return true if the modulus is a strong probable prime to the base: with modulus - 1 = d * 2<sup>s</sup>
+       * either base<sup>d</sup> is 1 or base<sup>d * 2<sup>r</sup></sup> is -1 for some r less than s
+       */
+      boolean isStrongProbablePrime(final int[] base)
+      {
+         final int[] modulusMinus1 = modulus.clone();
+         //the modulus is odd so there is no borrow
+         --modulusMinus1[0];
+         final long twos = PrimeUtil.countTrailingZeros(modulusMinus1);
+         final boolean baseIsTwo = (base.length == 1 && base[0] == 2);
+         final int[] power = power(toMontgomery(base), baseIsTwo, modulusMinus1, twos);
+
+         final int[] minusOne = new int[length];
+         subtract(minusOne, one, minusOne);
+         if (Arrays.equals(power, one) || Arrays.equals(power, minusOne)) return true;
+         for (long r = 1; r < twos; ++r)
+         {
+            multiply(power, power, power);
+            if (Arrays.equals(power, minusOne)) return true;
+            //1 without -1 before it means that a square root of 1 was found that isn't ±1
+            if (Arrays.equals(power, one)) return false;
+         }
+         return false;
+      }
+
+      /**
+       * The strong Lucas test with P = 1 and Q = (1 - D) / 4. With modulus + 1 = d * 2<sup>s</sup> the modulus is a
+       * strong Lucas probable prime if U<sub>d</sub> is 0 or V<sub>d * 2<sup>r</sup></sub> is 0 for some r less
+       * than s. The sequences are found by doubling: U<sub>2k</sub> = U<sub>k</sub>V<sub>k</sub> and
+       * V<sub>2k</sub> = V<sub>k</sub><sup>2</sup> - 2Q<sup>k</sup>.
+       *
+       * @param d Selfridge's D where the Jacobi symbol (D/modulus) is -1
+       */
+      boolean isStrongLucasProbablePrime(final int d)
+      {
+         final int[] modulusPlus1 = Arrays.copyOf(modulus, length + 1);
+         MultiplyUtil.addInPlace(modulusPlus1, 0, new int[]{1}, 1);
+         final long twos = PrimeUtil.countTrailingZeros(modulusPlus1);
+         final int q = (1 - d) / 4;
+
+         //k = 1: U = 1, V = P = 1 and Q^k = Q
+         final int[] u = one.clone();
+         final int[] v = one.clone();
+         final int[] qPower = toMontgomery(q);
+         final int[] temp = new int[length];
+         for (long bit = PrimeUtil.bitLength(modulusPlus1) - 2; bit >= twos; --bit)
+         {
+            //double k
+            multiply(u, v, u);
+            multiply(v, v, v);
+            subtract(v, qPower, v);
+            subtract(v, qPower, v);
+            multiply(qPower, qPower, qPower);
+            if (PrimeUtil.testBit(modulusPlus1, bit))
+            {
+               //add 1 to k: U = (P * U + V) / 2 and V = (D * U + P * V) / 2
+               multiplySmall(u, d, temp);
+               add(u, v, u);
+               halve(u);
+               add(temp, v, v);
+               halve(v);
+               multiplySmall(qPower, q, qPower);
+            }
+         }
+
+         if (PrimeUtil.isZero(u) || PrimeUtil.isZero(v)) return true;
+         for (long r = 1; r < twos; ++r)
+         {
+            multiply(v, v, v);
+            subtract(v, qPower, v);
+            subtract(v, qPower, v);
+            if (PrimeUtil.isZero(v)) return true;
+            multiply(qPower, qPower, qPower);
+         }
+         return false;
+      }
+
+      /**
+       * @param base     in Montgomery form
+       * @param lowestBit the bits of exponent below this are ignored
+       * @return a new array containing base<sup>exponent >> lowestBit</sup> in Montgomery form
+       */
+      private int[] power(final int[] base, final boolean baseIsTwo, final int[] exponent, final long lowestBit)
+      {
+         final int[] result = one.clone();
+         for (long bit = PrimeUtil.bitLength(exponent) - 1; bit >= lowestBit; --bit)
+         {
+            multiply(result, result, result);
+            if (PrimeUtil.testBit(exponent, bit))
+            {
+               //doubling is much cheaper than a Montgomery product
+               if (baseIsTwo) add(result, result, result);
+               else multiply(result, base, result);
+            }
+         }
+         return result;
+      }
+
+      /**
+       * @return a small value in Montgomery form
+       */
+      private int[] toMontgomery(final int smallValue)
+      {
+         final int[] normal = new int[length];
+         normal[0] = Math.abs(smallValue);
+         final int[] result = toMontgomery(normal);
+         if (smallValue < 0) subtract(new int[length], result, result);
+         return result;
+      }
+
+      private void subtractModulus(final int[] value)
+      {
+         long difference = 0;
+         for (int i = 0; i < length; ++i)
+         {
+            difference += Integer.toUnsignedLong(value[i]) - Integer.toUnsignedLong(modulus[i]);
+            value[i] = (int) difference;
+            difference >>= 32;
+         }
+      }
+   }
+
+   private static long countTrailingZeros(final int[] number)
+   {
+      int index = 0;
+      while (number[index] == 0){++index;}
+      return 32L * index + Integer.numberOfTrailingZeros(number[index]);
+   }
+
+   private static boolean testBit(final int[] number, final long bit)
+   {
+      return ((number[(int) (bit / 32)] >>> (bit % 32)) & 1) == 1;
+   }
+
+   private static boolean isZero(final int[] number)
+   {
+      for (final int element : number)
+      {
+         if (element != 0) return false;
+      }
+      return true;
+   }
+}
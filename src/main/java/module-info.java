@@ -3,6 +3,9 @@ module com.github.skySpiral7.java.infinite {
    //From Java: FileIoUtil, ComparableSugar, DequeNode, Copyable, ListIndexOutOfBoundsException, LinkedList
    //and unused: NumberFormatException, NumericOverflowException
    requires com.github.skySpiral7.java.staticSerialization;  //com.github.SkySpiral7:Java.StaticSerialization
+   //LimbStorage frees direct and mapped buffers with sun.misc.Unsafe.invokeCleaner (Java 17 has no supported way).
+   //Without it storage can't be turned on (it throws instead of waiting for the garbage collector)
+   requires jdk.unsupported;
 
    exports com.github.skySpiral7.java.infinite.dataStructures;
    exports com.github.skySpiral7.java.infinite.exceptions;
@@ -0,0 +1,30 @@
+package com.github.skySpiral7.java.infinite.numbers;
+
+import org.junit.After;
+import org.junit.Before;
+
+/**
+ * Runs every test of MutableInfiniteInteger_UT with every number that is mutated moved off of the heap and tiny
+ * segments so that the storage code is used everywhere (including crossing segments).
+ */
+public class MutableInfiniteIntegerOffHeap_UT extends MutableInfiniteInteger_UT
+{
+   private long originalThreshold;
+   private int originalSegmentLength;
+
+   @Before
+   public void setUp()
+   {
+      originalThreshold = MutableInfiniteInteger.getOffHeapThreshold();
+      originalSegmentLength = MutableInfiniteInteger.storageSegmentLength;
+      MutableInfiniteInteger.setOffHeapThreshold(1);
+      MutableInfiniteInteger.storageSegmentLength = 4;
+   }
+
+   @After
+   public void tearDown()
+   {
+      MutableInfiniteInteger.setOffHeapThreshold(originalThreshold);
+      MutableInfiniteInteger.storageSegmentLength = originalSegmentLength;
+   }
+}
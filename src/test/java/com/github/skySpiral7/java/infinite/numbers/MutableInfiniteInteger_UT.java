@@ -15,12 +15,16 @@ import org.junit.Test;
 
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -41,7 +45,7 @@ import static org.junit.Assert.fail;
  * Methods that simply delegate do not need a test.
  * Additionally the following do not need a test:
  * the other versions of littleEndian and bigEndian, magnitude Iterator and Stream,
- * getMagnitudeTail, selfPower, factorial, abs, negate, signum, isNaN, isInfinite, isFinite, signalNaN,
+ * selfPower, abs, negate, signum, isNaN, isInfinite, isFinite, signalNaN,
  * the other versions of equalValue, hashCode, copy, toFile (but toString should be tested when finished),
  * calculateMaxBigInteger (too slow), calculateGoogolplex (lol slow and nothing to test)
  */
@@ -307,6 +311,19 @@ public class MutableInfiniteInteger_UT
       assertThat(actual, is(equalTo(testObject)));
    }
 
+   /**
+    * Test for {@link MutableInfiniteInteger#parseString(String, int)}
+    */
+   @Test
+   public void parseString_returns_givenDigitsThatSpanElements()
+   {
+      //3 and 5 bits per digit don't line up with the elements
+      final String octal = "7123456701234567012345670123";
+      assertThat(MutableInfiniteInteger.parseString(octal, 8).bigIntegerValueExact(), is(new BigInteger(octal, 8)));
+      final String base32 = "-v0123456789abcdefghijklmnopqrstuv";
+      assertThat(MutableInfiniteInteger.parseString(base32, 32).bigIntegerValueExact(), is(new BigInteger(base32, 32)));
+   }
+
    /**
     * Test for {@link MutableInfiniteInteger#parseString(String, int)}
     */
@@ -580,6 +597,24 @@ public class MutableInfiniteInteger_UT
       //0x7fffffffffffffff + 0x7fffffffffffffff + 0x2 = 0x8000000000000000 + 0x8000000000000000
    }
 
+   @Test
+   public void add_returns_givenLongThatOverflows()
+   {
+      testObject = MutableInfiniteInteger.valueOf(Long.MAX_VALUE).add(1);
+      assertEqualNodes(testObject, 1, 0, Integer.MIN_VALUE);
+      testObject = MutableInfiniteInteger.valueOf(Long.MIN_VALUE).add(-1);
+      assertEqualNodes(testObject, -1, 1, Integer.MIN_VALUE);
+      testObject = MutableInfiniteInteger.valueOf(Long.MIN_VALUE).add(1);
+      assertEqualNodes(testObject, -1, -1, Integer.MAX_VALUE);
+   }
+
+   @Test
+   public void add_returns_givenItself()
+   {
+      testObject = MutableInfiniteInteger.valueOf(-1).multiplyByPowerOf2(31).subtract(1);
+      assertEqualNodes(testObject.add(testObject), -1, 2, 1);
+   }
+
    @Test
    public void add_returnsNan_whenNan()
    {
@@ -724,6 +759,34 @@ public class MutableInfiniteInteger_UT
       assertEqualNodes(testObject, 1, -1, -1);
    }
 
+   @Test
+   public void subtract_returnsZero_givenItself()
+   {
+      testObject = MutableInfiniteInteger.valueOf(Long.MIN_VALUE).multiply(3);
+      assertThat(testObject.subtract(testObject), is(MutableInfiniteInteger.valueOf(0)));
+   }
+
+   @Test
+   public void subtract_returns_whenValueHasLargerMagnitudeAndMoreElements()
+   {
+      //-2^32 - (2^64 + 1) == -(2^64 + 2^32 + 1)
+      testObject = MutableInfiniteInteger.valueOf(-4_294_967_296L);
+      final MutableInfiniteInteger value = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(64).add(1);
+      assertEqualNodes(testObject.subtract(value), -1, 1, 1, 1);
+      //the parameter is not mutated
+      assertEqualNodes(value, 1, 1, 0, 1);
+   }
+
+   @Test
+   public void add_returns_whenMixedSignsAndValueHasLargerMagnitude()
+   {
+      //2^64 - 1 + -(2^64 + 2^32) == -(2^32 + 1)
+      testObject = MutableInfiniteInteger.valueOf(Long.MAX_VALUE).add(Long.MAX_VALUE).add(1);
+      final MutableInfiniteInteger value = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(64).add(4_294_967_296L).negate();
+      assertEqualNodes(testObject.add(value), -1, 1, 1);
+      assertEqualNodes(value, -1, 0, 1, 1);
+   }
+
    /**
     * Previous bug.
     */
@@ -746,6 +809,33 @@ public class MutableInfiniteInteger_UT
    /**
     * Test for {@link MutableInfiniteInteger#multiply(MutableInfiniteInteger)}
     */
+   @Test
+   public void multiply_returns_givenLongThatOverflows()
+   {
+      testObject = MutableInfiniteInteger.valueOf(Long.MIN_VALUE).multiply(-1);
+      assertEqualNodes(testObject, 1, 0, Integer.MIN_VALUE);
+      testObject = MutableInfiniteInteger.valueOf(1L << 32).multiply(1L << 32);
+      assertEqualNodes(testObject, 1, 0, 0, 1);
+   }
+
+   /**
+    * Test for {@link MutableInfiniteInteger#multiply(long)} when this doesn't fit in a long
+    */
+   @Test
+   public void multiply_returns_givenLongWhenMultiNode()
+   {
+      //(2^64 - 1) * -2^63 == -(2^127 - 2^63) which has a carry of 2 elements
+      testObject = MutableInfiniteInteger.littleEndian(new long[]{-1L}, false).multiply(Long.MIN_VALUE);
+      assertEqualNodes(testObject, -1, 0, Integer.MIN_VALUE, -1, Integer.MAX_VALUE);
+
+      //no carry
+      testObject = MutableInfiniteInteger.littleEndian(new long[]{0, 1}, true).multiply(-3);
+      assertEqualNodes(testObject, 1, 0, 0, 3);
+
+      assertEqualNodes(MutableInfiniteInteger.littleEndian(new long[]{0, 1}, false).multiply(0), 1, 0);
+      assertThat(MutableInfiniteInteger.POSITIVE_INFINITY.multiply(-2), is(MutableInfiniteInteger.NEGATIVE_INFINITY));
+   }
+
    @Test
    public void multiply_returnsPositive_givenBothFinitePositive()
    {
@@ -917,6 +1007,89 @@ public class MutableInfiniteInteger_UT
       assertThat(testObject, is(MutableInfiniteInteger.valueOf(0)));
    }
 
+   @Test
+   public void square_returns()
+   {
+      assertThat(MutableInfiniteInteger.valueOf(-5).square(), is(MutableInfiniteInteger.valueOf(25)));
+      assertThat(MutableInfiniteInteger.valueOf(Integer.MIN_VALUE).square(), is(MutableInfiniteInteger.valueOf(1L << 62)));
+      //too large for the long fast path
+      testObject = MutableInfiniteInteger.valueOf(-4_294_967_296L).square();
+      assertEqualNodes(testObject, 1, 0, 0, 1);
+      testObject = MutableInfiniteInteger.valueOf(Long.MIN_VALUE).square();
+      assertThat(testObject, is(MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(126)));
+   }
+
+   @Test
+   public void square_returnsSpecialValues()
+   {
+      assertThat(MutableInfiniteInteger.NaN.square(), is(MutableInfiniteInteger.NaN));
+      assertThat(MutableInfiniteInteger.POSITIVE_INFINITY.square(), is(MutableInfiniteInteger.POSITIVE_INFINITY));
+      assertThat(MutableInfiniteInteger.NEGATIVE_INFINITY.square(), is(MutableInfiniteInteger.POSITIVE_INFINITY));
+      assertThat(MutableInfiniteInteger.valueOf(0).square(), is(MutableInfiniteInteger.valueOf(0)));
+   }
+
+   @Test
+   public void addProduct_returns()
+   {
+      final MutableInfiniteInteger left = MutableInfiniteInteger.valueOf(Long.MAX_VALUE);
+      final MutableInfiniteInteger right = MutableInfiniteInteger.valueOf(-3);
+      testObject = MutableInfiniteInteger.valueOf(10).addProduct(left, right);
+      assertThat(testObject, is(MutableInfiniteInteger.valueOf(Long.MAX_VALUE).multiply(-3).add(10)));
+      //the parameters are not mutated
+      assertThat(left, is(MutableInfiniteInteger.valueOf(Long.MAX_VALUE)));
+      assertThat(right, is(MutableInfiniteInteger.valueOf(-3)));
+
+      testObject = MutableInfiniteInteger.valueOf(0).addProduct(MutableInfiniteInteger.valueOf(-4), MutableInfiniteInteger.valueOf(5));
+      assertThat(testObject, is(MutableInfiniteInteger.valueOf(-20)));
+      testObject = MutableInfiniteInteger.valueOf(20).addProduct(MutableInfiniteInteger.valueOf(-4), MutableInfiniteInteger.valueOf(5));
+      assertThat(testObject, is(MutableInfiniteInteger.valueOf(0)));
+      assertThat(testObject.signum(), is((byte) 0));
+   }
+
+   @Test
+   public void addProduct_returns_givenItself()
+   {
+      testObject = MutableInfiniteInteger.valueOf(-7);
+      assertThat(testObject.addProduct(testObject, testObject), is(MutableInfiniteInteger.valueOf(42)));
+   }
+
+   @Test
+   public void addProduct_returns_givenLong()
+   {
+      testObject = MutableInfiniteInteger.valueOf(1).addProduct(MutableInfiniteInteger.valueOf(2), Long.MIN_VALUE);
+      assertThat(testObject, is(MutableInfiniteInteger.valueOf(Long.MIN_VALUE).multiply(2).add(1)));
+      testObject = MutableInfiniteInteger.valueOf(5).addProduct(MutableInfiniteInteger.valueOf(2), 0);
+      assertThat(testObject, is(MutableInfiniteInteger.valueOf(5)));
+   }
+
+   @Test
+   public void addProduct_returnsSpecialValues()
+   {
+      testObject = MutableInfiniteInteger.valueOf(5).addProduct(MutableInfiniteInteger.POSITIVE_INFINITY, MutableInfiniteInteger.valueOf(-2));
+      assertThat(testObject, is(MutableInfiniteInteger.NEGATIVE_INFINITY));
+      testObject = MutableInfiniteInteger.valueOf(5).addProduct(MutableInfiniteInteger.POSITIVE_INFINITY, 0);
+      assertThat(testObject, is(MutableInfiniteInteger.NaN));
+      testObject = MutableInfiniteInteger.POSITIVE_INFINITY.addProduct(MutableInfiniteInteger.NEGATIVE_INFINITY, MutableInfiniteInteger.valueOf(1));
+      assertThat(testObject, is(MutableInfiniteInteger.NaN));
+   }
+
+   @Test
+   public void subtractProduct_returns()
+   {
+      //2^64 - (2^32 * 2^32) == 0 with borrows across every element
+      testObject = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(64);
+      final MutableInfiniteInteger twoTo32 = MutableInfiniteInteger.valueOf(4_294_967_296L);
+      assertThat(testObject.subtractProduct(twoTo32, twoTo32), is(MutableInfiniteInteger.valueOf(0)));
+
+      //the product is larger so the sign flips
+      testObject = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(64);
+      testObject.subtractProduct(twoTo32.copy().add(1), twoTo32);
+      assertEqualNodes(testObject, -1, 0, 1);
+
+      testObject = MutableInfiniteInteger.valueOf(-10).subtractProduct(MutableInfiniteInteger.valueOf(-3), MutableInfiniteInteger.valueOf(4));
+      assertThat(testObject, is(MutableInfiniteInteger.valueOf(2)));
+   }
+
    @Test
    public void multiplyByPowerOf2()
    {
@@ -933,6 +1106,73 @@ public class MutableInfiniteInteger_UT
       assertEqualNodes(MutableInfiniteInteger.valueOf(Long.MAX_VALUE).multiplyByPowerOf2(34), 1, 0, -4, -1, 1);
    }
 
+   @Test
+   public void multiplyByPowerOf2_throws_whenTooLargeToStore()
+   {
+      testObject = MutableInfiniteInteger.valueOf(1);
+      try
+      {
+         testObject.multiplyByPowerOf2(MutableInfiniteInteger.valueOf(Long.MAX_VALUE));
+         fail("Should've thrown");
+      }
+      catch (final WillNotFitException actual)
+      {
+         assertEquals("Shifting by 9223372036854775807 bits would need more than 2147483639 elements.", actual.getMessage());
+      }
+      assertEqualNodes(testObject, 1, 1);
+   }
+
+   @Test
+   public void multiplyByPowerOf2_returns_whenResultFitsExactly()
+   {
+      final int originalMax = MutableInfiniteInteger.maxMagnitudeLength;
+      try
+      {
+         MutableInfiniteInteger.maxMagnitudeLength = 4;
+         //the top bit lands in the last element without a carry element
+         assertEqualNodes(MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(32 * 3 + 31), 1, 0, 0, 0, Integer.MIN_VALUE);
+         assertEqualNodes(MutableInfiniteInteger.valueOf(-1).multiplyByPowerOf2(32 * 3), -1, 0, 0, 0, 1);
+         //the bit shift carries into the last element
+         assertEqualNodes(MutableInfiniteInteger.valueOf(3).multiplyByPowerOf2(32 * 2 + 31), 1, 0, 0, Integer.MIN_VALUE, 1);
+         try
+         {
+            MutableInfiniteInteger.valueOf(3).multiplyByPowerOf2(32 * 3 + 31);
+            fail("Should've thrown");
+         }
+         catch (final WillNotFitException actual)
+         {
+            assertEquals("The result would need 5 elements but the max is 4.", actual.getMessage());
+         }
+      }
+      finally
+      {
+         MutableInfiniteInteger.maxMagnitudeLength = originalMax;
+      }
+   }
+
+   @Test
+   public void multiplyByPowerOf2_returns_givenLargeExponent()
+   {
+      //2^24 bits is 2^19 whole elements which are moved all at once
+      final MutableInfiniteInteger exponent = MutableInfiniteInteger.valueOf((1L << 24) + 5);
+      testObject = MutableInfiniteInteger.valueOf(-3).multiplyByPowerOf2(exponent);
+      assertThat(testObject.bitLength(), is((1L << 24) + 7));
+      assertEqualNodes(testObject.divideByPowerOf2DropRemainder(exponent), -1, 3);
+      //negative exponents go the other way
+      assertEqualNodes(MutableInfiniteInteger.valueOf(12).multiplyByPowerOf2(-2), 1, 3);
+      assertEqualNodes(MutableInfiniteInteger.valueOf(12).divideByPowerOf2DropRemainder(-2), 1, 48);
+   }
+
+   @Test
+   public void divideByPowerOf2DropRemainder_returnsZero_givenHugeExponent()
+   {
+      testObject = MutableInfiniteInteger.valueOf(-5);
+      assertEqualNodes(testObject.divideByPowerOf2DropRemainder(MutableInfiniteInteger.valueOf(Long.MAX_VALUE).add(1)),
+         1, 0);
+      assertEqualNodes(MutableInfiniteInteger.valueOf(-5).multiplyByPowerOf2(Long.MIN_VALUE), 1, 0);
+      assertEqualNodes(MutableInfiniteInteger.valueOf(5).divideByPowerOf2DropRemainder(Long.MAX_VALUE), 1, 0);
+   }
+
    @Test
    public void divide()
    {
@@ -989,6 +1229,153 @@ public class MutableInfiniteInteger_UT
       assertDivision(testObject.divide(10), 1, new int[]{0x9999_99A8, 0x1999_9999}, new int[]{6});
    }
 
+   @Test
+   public void divide_matchesBigInteger_givenSingleElement()
+   {
+      final BigInteger dividend = BigInteger.valueOf(3).pow(100).add(BigInteger.valueOf(17));
+      final long[] divisors = {7, -7, 0xFFFF_FFFFL, -0xFFFF_FFFFL, 1L << 31};
+      for (final long divisor : divisors)
+      {
+         for (final BigInteger signedDividend : new BigInteger[]{dividend, dividend.negate()})
+         {
+            final IntegerQuotient<MutableInfiniteInteger> actual = MutableInfiniteInteger.valueOf(signedDividend)
+               .divide(divisor);
+            final BigInteger[] expected = signedDividend.divideAndRemainder(BigInteger.valueOf(divisor));
+            final String message = signedDividend + " / " + divisor;
+            assertThat(message, actual.getWholeResult().bigIntegerValueExact(), is(expected[0]));
+            //the remainder is always positive
+            assertThat(message, actual.getRemainder().bigIntegerValueExact(), is(expected[1].abs()));
+         }
+      }
+   }
+
+   @Test
+   public void divide_matchesBigInteger_whenNewton()
+   {
+      final int originalThreshold = MutableInfiniteInteger.newtonDivisionThreshold;
+      try
+      {
+         MutableInfiniteInteger.newtonDivisionThreshold = 2;
+         final Random random = new Random(19);
+         //{dividend elements, divisor elements}: blocks that are shorter than the divisor, a partial top block, and a
+         //divisor large enough that the reciprocal uses Newton's method
+         final int[][] lengths = {{12, 2}, {50, 7}, {301, 60}, {3100, 600}};
+         for (final int[] lengthPair : lengths)
+         {
+            final BigInteger divisor = new BigInteger(32 * lengthPair[1], random).setBit(32 * lengthPair[1] - 1);
+            final BigInteger quotient = new BigInteger(32 * (lengthPair[0] - lengthPair[1]), random);
+            //an exact multiple, a remainder of divisor - 1, and a random dividend
+            final BigInteger[] dividends = {quotient.multiply(divisor),
+               quotient.multiply(divisor).subtract(BigInteger.ONE),
+               new BigInteger(32 * lengthPair[0], random).setBit(32 * lengthPair[0] - 1)};
+            for (final BigInteger dividend : dividends)
+            {
+               final IntegerQuotient<MutableInfiniteInteger> actual = MutableInfiniteInteger.valueOf(dividend.negate())
+                  .divide(MutableInfiniteInteger.valueOf(divisor));
+               final BigInteger[] expected = dividend.divideAndRemainder(divisor);
+               final String message = lengthPair[0] + " / " + lengthPair[1];
+               assertThat(message, actual.getWholeResult().bigIntegerValueExact(), is(expected[0].negate()));
+               assertThat(message, actual.getRemainder().bigIntegerValueExact(), is(expected[1]));
+            }
+         }
+      }
+      finally
+      {
+         MutableInfiniteInteger.newtonDivisionThreshold = originalThreshold;
+      }
+   }
+
+   @Test
+   public void divideDropRemainder_mutates_givenSingleElement()
+   {
+      //2^64 + 5
+      testObject = MutableInfiniteInteger.valueOf(Long.MAX_VALUE).add(Long.MAX_VALUE).add(7);
+      final MutableInfiniteInteger result = testObject.divideDropRemainder(-3);
+      assertSame(testObject, result);
+      //(2^64 + 5) / 3 == 6148914691236517207
+      assertEqualNodes(result, -1, 0x55555557, 0x55555555);
+      //0 isn't negative
+      assertEqualNodes(MutableInfiniteInteger.valueOf(-2).divideDropRemainder(MutableInfiniteInteger.valueOf(5)), 1, 0);
+   }
+
+   @Test
+   public void divideReturnRemainder_mutates_givenSingleElement()
+   {
+      //2^64 + 5
+      testObject = MutableInfiniteInteger.valueOf(Long.MAX_VALUE).add(Long.MAX_VALUE).add(7);
+      final MutableInfiniteInteger result = testObject.divideReturnRemainder(MutableInfiniteInteger.valueOf(-3));
+      assertSame(testObject, result);
+      assertEqualNodes(result, 1, 0);
+      testObject = MutableInfiniteInteger.valueOf(Long.MIN_VALUE).subtract(10);
+      //2^32 % (2^32 - 1) == 1 so (2^63 + 10) % (2^32 - 1) == 2^31 + 10
+      assertEqualNodes(testObject.divideReturnRemainder(0xFFFF_FFFFL), 1, 0x8000_000A);
+   }
+
+   @Test
+   public void divideExact()
+   {
+      final BigInteger factor = BigInteger.valueOf(3).pow(90);
+      final BigInteger product = factor.multiply(BigInteger.valueOf(-10).pow(30));
+      testObject = MutableInfiniteInteger.valueOf(product);
+      final MutableInfiniteInteger result = testObject.divideExact(MutableInfiniteInteger.valueOf(factor.negate()));
+      assertSame(testObject, result);
+      assertThat(result.bigIntegerValueExact(), is(BigInteger.TEN.pow(30).negate()));
+
+      assertEqualNodes(MutableInfiniteInteger.valueOf(0).divideExact(7), 1, 0);
+      assertEqualNodes(MutableInfiniteInteger.valueOf(-56).divideExact(7), -1, 8);
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.valueOf(5).divideExact(0));
+      assertSame(MutableInfiniteInteger.POSITIVE_INFINITY, MutableInfiniteInteger.POSITIVE_INFINITY.divideExact(5));
+   }
+
+   @Test
+   public void divideExact_throws_whenNotAFactor()
+   {
+      testObject = MutableInfiniteInteger.valueOf(BigInteger.valueOf(3).pow(90).add(BigInteger.ONE));
+      try
+      {
+         testObject.divideExact(3);
+         fail("Didn't throw");
+      }
+      catch (final ArithmeticException actual)
+      {
+         assertThat(actual.getMessage(), is("3 isn't a factor of " + testObject));
+      }
+   }
+
+   @Test
+   public void reciprocal_returns()
+   {
+      //2^10 / 3 == 341 r 1
+      assertEqualNodes(MutableInfiniteInteger.valueOf(3).reciprocal(10), 1, 341);
+      assertEqualNodes(MutableInfiniteInteger.valueOf(-3).reciprocal(10), -1, 341);
+      //2^64 / (2^32 + 1) == 2^32 - 1 r 1
+      assertEqualNodes(MutableInfiniteInteger.valueOf((1L << 32) + 1).reciprocal(64), 1, -1);
+      //2^210 / (2^200 + 1) == 1023 r 2^200 - 1023 but only the top of the divisor is used (which is 2^200) so the
+      //estimate is 1024 and the remainder is negative until corrected
+      final MutableInfiniteInteger divisor = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(200).add(1);
+      assertEqualNodes(divisor.reciprocal(210), 1, 1023);
+      //less than 1
+      assertEqualNodes(MutableInfiniteInteger.valueOf(-5).reciprocal(2), 1, 0);
+      assertEqualNodes(MutableInfiniteInteger.valueOf(5).reciprocal(-1), 1, 0);
+   }
+
+   @Test
+   public void reciprocal_returnsSpecialValues()
+   {
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.valueOf(0).reciprocal(5));
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.NaN.reciprocal(5));
+      assertEqualNodes(MutableInfiniteInteger.POSITIVE_INFINITY.reciprocal(5), 1, 0);
+   }
+
+   @Test
+   public void reciprocal_whenNewton()
+   {
+      //enough precision that Newton's method is used
+      final BigInteger divisor = BigInteger.valueOf(7).pow(400).add(BigInteger.valueOf(12345));
+      final BigInteger expected = BigInteger.ONE.shiftLeft(40_000).divide(divisor);
+      assertEquals(expected, MutableInfiniteInteger.valueOf(divisor).reciprocal(40_000).bigIntegerValueExact());
+   }
+
    @Test
    @Ignore
    public void speedTest()
@@ -1034,6 +1421,174 @@ public class MutableInfiniteInteger_UT
       assertEqualNodes(MutableInfiniteInteger.valueOf(Long.MIN_VALUE).power(3), -1, 0, 0, 0, 0, 0, 0x2000_0000);
    }
 
+   @Test
+   public void power_matchesBigInteger()
+   {
+      //an exponent long enough to use a window larger than 1 bit and a base with trailing 0s
+      final BigInteger base = BigInteger.valueOf(-12345).shiftLeft(40);
+      assertThat(MutableInfiniteInteger.valueOf(base).power(1001).bigIntegerValueExact(), is(base.pow(1001)));
+      assertThat(MutableInfiniteInteger.valueOf(10).power(100).bigIntegerValueExact(), is(BigInteger.TEN.pow(100)));
+   }
+
+   @Test
+   public void power_returnsOne_givenNegativeOneAndHugeExponent()
+   {
+      final MutableInfiniteInteger hugeExponent = MutableInfiniteInteger.valueOf(Long.MAX_VALUE).multiply(10);
+      assertEqualNodes(MutableInfiniteInteger.valueOf(-1).power(hugeExponent), 1, 1);
+      assertEqualNodes(MutableInfiniteInteger.valueOf(-1).power(hugeExponent.add(1)), -1, 1);
+   }
+
+   @Test
+   public void power_throws_whenTooLargeToStore()
+   {
+      testObject = MutableInfiniteInteger.valueOf(3);
+      try
+      {
+         testObject.power(Long.MAX_VALUE);
+         fail("Should've thrown");
+      }
+      catch (final WillNotFitException actual)
+      {
+         assertEquals("3 to the power of 9223372036854775807 would need more than 2147483639 elements.",
+            actual.getMessage());
+      }
+      assertEqualNodes(testObject, 1, 3);
+   }
+
+   @Test
+   public void factorial_matchesBigInteger()
+   {
+      BigInteger expected = BigInteger.ONE;
+      for (int n = 1; n <= 2000; ++n)
+      {
+         expected = expected.multiply(BigInteger.valueOf(n));
+         //both sides of the long limit for the odd part and a product tree
+         if (n <= 25 || n == 2000)
+            assertThat("n=" + n, MutableInfiniteInteger.valueOf(n).factorial().bigIntegerValueExact(), is(expected));
+      }
+      assertEqualNodes(MutableInfiniteInteger.valueOf(0).factorial(), 1, 1);
+   }
+
+   @Test
+   public void factorial_returnsSpecialValues()
+   {
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.valueOf(-3).factorial());
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.NEGATIVE_INFINITY.factorial());
+      assertSame(MutableInfiniteInteger.POSITIVE_INFINITY, MutableInfiniteInteger.POSITIVE_INFINITY.factorial());
+   }
+
+   @Test
+   public void factorial_throws_whenTooLarge()
+   {
+      testObject = MutableInfiniteInteger.valueOf(1L << 31);
+      try
+      {
+         testObject.factorial();
+         fail("Should've thrown");
+      }
+      catch (final WillNotFitException actual)
+      {
+         assertEquals("2147483648! is too large to calculate. The max is 2147483647!", actual.getMessage());
+      }
+   }
+
+   @Test
+   public void binomial_matchesBigInteger()
+   {
+      //the prime powers, n(n-1)...(n-k+1) / k! and k larger than n - k
+      assertThat(MutableInfiniteInteger.binomial(2000, 700).bigIntegerValueExact(), is(binomial(2000, 700)));
+      assertThat(MutableInfiniteInteger.binomial(100000, 5).bigIntegerValueExact(), is(binomial(100000, 5)));
+      assertThat(MutableInfiniteInteger.binomial(50, 48).bigIntegerValueExact(), is(binomial(50, 2)));
+      //n is larger than an int
+      assertThat(MutableInfiniteInteger.binomial(Long.MAX_VALUE, 2).bigIntegerValueExact(),
+         is(binomial(Long.MAX_VALUE, 2)));
+   }
+
+   @Test
+   public void binomial_returns_givenEdgeCases()
+   {
+      assertEqualNodes(MutableInfiniteInteger.binomial(5, -1), 1, 0);
+      assertEqualNodes(MutableInfiniteInteger.binomial(5, 6), 1, 0);
+      assertEqualNodes(MutableInfiniteInteger.binomial(5, 0), 1, 1);
+      assertEqualNodes(MutableInfiniteInteger.binomial(0, 0), 1, 1);
+      //C(-5, 3) = (-5)(-6)(-7) / 3! = -35
+      assertEqualNodes(MutableInfiniteInteger.binomial(-5, 3), -1, 35);
+      assertEqualNodes(MutableInfiniteInteger.binomial(-5, 2), 1, 15);
+   }
+
+   @Test
+   public void multinomial_matchesBigInteger()
+   {
+      final BigInteger expected = factorial(60).divide(factorial(10).multiply(factorial(20)).multiply(factorial(30)));
+      assertThat(MutableInfiniteInteger.multinomial(10, 20, 30).bigIntegerValueExact(), is(expected));
+      //the sum is larger than an int: C(2^40 + 3, 3) * C(2^40 + 5, 2)
+      final long large = 1L << 40;
+      final BigInteger expectedLarge = binomial(large + 3, 3).multiply(binomial(large + 5, 2));
+      assertThat(MutableInfiniteInteger.multinomial(3, large, 2).bigIntegerValueExact(), is(expectedLarge));
+      assertEqualNodes(MutableInfiniteInteger.multinomial(), 1, 1);
+      assertEqualNodes(MutableInfiniteInteger.multinomial(3, -1), 1, 0);
+   }
+
+   @Test
+   public void fallingFactorial()
+   {
+      //7*6*5
+      assertEqualNodes(MutableInfiniteInteger.fallingFactorial(7, 3), 1, 210);
+      assertEqualNodes(MutableInfiniteInteger.fallingFactorial(7, 0), 1, 1);
+      assertEqualNodes(MutableInfiniteInteger.fallingFactorial(2, 3), 1, 0);
+      //(-2)(-3)(-4)
+      assertEqualNodes(MutableInfiniteInteger.fallingFactorial(-2, 3), -1, 24);
+      assertThat(MutableInfiniteInteger.fallingFactorial(1000, 1000).bigIntegerValueExact(), is(factorial(1000)));
+      try
+      {
+         MutableInfiniteInteger.fallingFactorial(7, -1);
+         fail("Should've thrown");
+      }
+      catch (final ArithmeticException actual)
+      {
+         assertEquals("The falling factorial is a fraction when k is negative. k=-1", actual.getMessage());
+      }
+   }
+
+   @Test
+   public void risingFactorial()
+   {
+      //5*6*7
+      assertEqualNodes(MutableInfiniteInteger.risingFactorial(5, 3), 1, 210);
+      //(-2)(-1)(0)
+      assertEqualNodes(MutableInfiniteInteger.risingFactorial(-2, 3), 1, 0);
+      //(-4)(-3)(-2)
+      assertEqualNodes(MutableInfiniteInteger.risingFactorial(-4, 3), -1, 24);
+      assertThat(MutableInfiniteInteger.risingFactorial(1, 1000).bigIntegerValueExact(), is(factorial(1000)));
+      try
+      {
+         MutableInfiniteInteger.risingFactorial(Long.MAX_VALUE, 2);
+         fail("Should've thrown");
+      }
+      catch (final ArithmeticException actual)
+      {
+         assertEquals("long overflow", actual.getMessage());
+      }
+   }
+
+   @Test
+   public void primorial()
+   {
+      //2*3*5*7*11*13
+      assertEqualNodes(MutableInfiniteInteger.primorial(16), 1, 30030);
+      assertEqualNodes(MutableInfiniteInteger.primorial(1), 1, 1);
+      assertEqualNodes(MutableInfiniteInteger.primorial(-4), 1, 1);
+      try
+      {
+         MutableInfiniteInteger.primorial(1L << 31);
+         fail("Should've thrown");
+      }
+      catch (final WillNotFitException actual)
+      {
+         assertEquals("2147483648# is too large to calculate. The max is 2147483647#", actual.getMessage());
+      }
+   }
+
    @Test
    public void selfPower()
    {
@@ -1073,8 +1628,70 @@ public class MutableInfiniteInteger_UT
          if (primeList.contains(testNumber)) assertTrue(testNumber.toString(), testNumber.isPrime());
          else assertFalse(testNumber.toString(), testNumber.isPrime());
       }
-      //composite 10,005 takes a little too long: 10.6s
+      assertFalse(MutableInfiniteInteger.valueOf(10_005).isPrime());
       assertFalse(MutableInfiniteInteger.valueOf(Long.MAX_VALUE).add(1).isPrime());
+      //2^31 - 1 is a Mersenne prime
+      assertTrue(MutableInfiniteInteger.valueOf(Integer.MAX_VALUE).isPrime());
+      //2^32 + 1 == 641 * 6700417
+      assertFalse(MutableInfiniteInteger.valueOf((1L << 32) + 1).isPrime());
+      //the Mersenne prime 2^607 - 1
+      assertTrue(MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(607).subtract(1).isPrime());
+   }
+
+   @Test
+   public void isProbablePrime()
+   {
+      final MutableInfiniteInteger mersennePrime = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(521)
+                                                                         .subtract(1);
+      assertTrue(mersennePrime.isProbablePrime(100));
+      assertFalse(mersennePrime.copy().add(2).isProbablePrime(100));
+      assertFalse(MutableInfiniteInteger.valueOf(-7).isProbablePrime(100));
+      assertFalse(MutableInfiniteInteger.valueOf(1).isProbablePrime(100));
+      assertFalse(MutableInfiniteInteger.NaN.isProbablePrime(100));
+      assertFalse(MutableInfiniteInteger.POSITIVE_INFINITY.isProbablePrime(100));
+   }
+
+   @Test
+   public void nextProbablePrime()
+   {
+      final MutableInfiniteInteger mersennePrime = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(127)
+                                                                         .subtract(1);
+      final BigInteger expected = BigInteger.ONE.shiftLeft(127).nextProbablePrime();
+      final MutableInfiniteInteger testObject = mersennePrime.copy().subtract(20);
+      assertSame(testObject, testObject.nextProbablePrime());
+      assertEquals(mersennePrime, testObject);
+      assertEquals(MutableInfiniteInteger.valueOf(expected), testObject.nextProbablePrime());
+      assertEquals(MutableInfiniteInteger.valueOf(2), MutableInfiniteInteger.valueOf(-7).nextProbablePrime());
+      assertEquals(MutableInfiniteInteger.valueOf(2), MutableInfiniteInteger.valueOf(0).nextProbablePrime());
+      assertEquals(MutableInfiniteInteger.valueOf(3), MutableInfiniteInteger.valueOf(2).nextProbablePrime());
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.NaN.nextProbablePrime());
+      assertSame(MutableInfiniteInteger.POSITIVE_INFINITY, MutableInfiniteInteger.POSITIVE_INFINITY.nextProbablePrime());
+   }
+
+   @Test
+   public void previousProbablePrime()
+   {
+      final MutableInfiniteInteger mersennePrime = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(127)
+                                                                         .subtract(1);
+      final MutableInfiniteInteger testObject = mersennePrime.copy().add(16);
+      assertSame(testObject, testObject.previousProbablePrime());
+      assertEquals(mersennePrime, testObject);
+      assertEquals(MutableInfiniteInteger.valueOf(2), MutableInfiniteInteger.valueOf(3).previousProbablePrime());
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.valueOf(2).previousProbablePrime());
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.valueOf(-7).previousProbablePrime());
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.NaN.previousProbablePrime());
+      assertSame(MutableInfiniteInteger.POSITIVE_INFINITY,
+         MutableInfiniteInteger.POSITIVE_INFINITY.previousProbablePrime());
+   }
+
+   @Test
+   public void randomProbablePrime()
+   {
+      final MutableInfiniteInteger actual = MutableInfiniteInteger.randomProbablePrime(200, new Random(18));
+      final MutableInfiniteInteger minimum = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(199);
+      assertThat(actual, greaterThan(minimum));
+      assertThat(actual, lessThan(minimum.copy().multiplyByPowerOf2(1)));
+      assertTrue(actual.isProbablePrime(100));
    }
 
    @Test
@@ -1245,6 +1862,26 @@ public class MutableInfiniteInteger_UT
       assertThat(MutableInfiniteInteger.valueOf(-5).signum(), is((byte) -1));
    }
 
+   @Test
+   public void bitLength()
+   {
+      assertThat(MutableInfiniteInteger.valueOf(0).bitLength(), is(0L));
+      assertThat(MutableInfiniteInteger.valueOf(1).bitLength(), is(1L));
+      assertThat(MutableInfiniteInteger.valueOf(-8).bitLength(), is(4L));
+      assertThat(MutableInfiniteInteger.valueOf(Long.MIN_VALUE).bitLength(), is(64L));
+      assertThat(MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(100).bitLength(), is(101L));
+      assertThat(MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(100).subtract(1).bitLength(), is(100L));
+      try
+      {
+         MutableInfiniteInteger.NaN.bitLength();
+         fail("Should've thrown");
+      }
+      catch (final ArithmeticException actual)
+      {
+         assertEquals("NaN doesn't have a bit length.", actual.getMessage());
+      }
+   }
+
    @Test
    public void isPowerOf2()
    {
@@ -1371,6 +2008,17 @@ public class MutableInfiniteInteger_UT
       assertThat(multiNode, is(lessThan(greaterMultiNode)));
    }
 
+   @Test
+   public void compareTo_compares_givenLong() throws Exception
+   {
+      assertThat(MutableInfiniteInteger.valueOf(Long.MIN_VALUE).compareTo(Long.MIN_VALUE), is(0));
+      assertThat(MutableInfiniteInteger.valueOf(Long.MIN_VALUE).subtract(1).compareTo(Long.MIN_VALUE), is(-1));
+      assertThat(MutableInfiniteInteger.valueOf(Long.MAX_VALUE).add(1).compareTo(Long.MAX_VALUE), is(1));
+      assertThat(MutableInfiniteInteger.valueOf(-5).compareTo(3), is(-1));
+      assertThat(MutableInfiniteInteger.POSITIVE_INFINITY.compareTo(Long.MAX_VALUE), is(1));
+      assertThat(MutableInfiniteInteger.NEGATIVE_INFINITY.compareTo(Long.MIN_VALUE), is(-1));
+   }
+
    @Test
    public void compareTo_comparesNodesAsUnsigned() throws Exception
    {
@@ -1417,6 +2065,40 @@ public class MutableInfiniteInteger_UT
       assertEquals("18446744073709551766", testObject.toString(10));
    }
 
+   /**
+    * Test for {@link MutableInfiniteInteger#toString(int)}
+    */
+   @Test
+   public void toString_returnsValue_whenManyDigitsPerElement() throws Exception
+   {
+      //the middle digits are all 0 so they must be padded
+      final BigInteger value = BigInteger.TEN.pow(45).add(BigInteger.valueOf(5));
+      testObject = MutableInfiniteInteger.valueOf(value);
+      assertEquals(value.toString(), testObject.toString(10));
+      assertEquals(value.toString(7), testObject.toString(7));
+      assertEquals(value.negate().toString(36), testObject.negate().toString(36));
+   }
+
+   /**
+    * Test for {@link MutableInfiniteInteger#toString(int)}
+    */
+   @Test
+   public void toString_returnsValue_givenRadixPowerOf2() throws Exception
+   {
+      //base 8 and 32 digits cross element boundaries
+      final BigInteger value = new BigInteger("123456789012345678901234567890");
+      testObject = MutableInfiniteInteger.valueOf(value);
+      final int[] radixes = {2, 4, 8, 16, 32};
+      for (final int radix : radixes)
+      {
+         assertEquals(value.toString(radix), testObject.toString(radix));
+         assertEquals(value.negate().toString(radix), testObject.copy().negate().toString(radix));
+      }
+      final BigInteger max = BigInteger.ONE.shiftLeft(96).subtract(BigInteger.ONE);
+      assertEquals(max.toString(8), MutableInfiniteInteger.valueOf(max).toString(8));
+      assertEquals(max.toString(32), MutableInfiniteInteger.valueOf(max).toString(32));
+   }
+
    /**
     * Test for {@link MutableInfiniteInteger#toString(int)}
     */
@@ -1589,6 +2271,16 @@ public class MutableInfiniteInteger_UT
       assertThat(actual, is(not(sameInstance(testObject))));
    }
 
+   @Test
+   public void copy_doesNotShareMagnitude() throws Exception
+   {
+      testObject = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(32);
+      final MutableInfiniteInteger actual = testObject.copy();
+      actual.add(1);
+      assertEqualNodes(testObject, 1, 0, 1);
+      assertEqualNodes(actual, 1, 1, 1);
+   }
+
    @Test
    public void copy_returnsSameInstance_whenSpecialValue() throws Exception
    {
@@ -1605,6 +2297,314 @@ public class MutableInfiniteInteger_UT
       assertThat(actual, is(sameInstance(testObject)));
    }
 
+   @Test
+   public void set_doesNotShareMagnitude() throws Exception
+   {
+      testObject = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(64);
+      final MutableInfiniteInteger other = MutableInfiniteInteger.valueOf(5);
+      testObject.set(other);
+      other.add(1);
+      assertEqualNodes(testObject, 1, 5);
+      assertEqualNodes(other, 1, 6);
+   }
+
+   @Test
+   public void trimToSize_doesNotChangeValue() throws Exception
+   {
+      testObject = MutableInfiniteInteger.valueOf(-1).multiplyByPowerOf2(100).divideByPowerOf2DropRemainder(90);
+      assertSame(testObject, testObject.trimToSize());
+      assertEqualNodes(testObject, -1, 1024);
+      assertSame(MutableInfiniteInteger.NaN, MutableInfiniteInteger.NaN.trimToSize());
+   }
+
+   @Test
+   public void multiply_matchesBigInteger_givenParallelPool()
+   {
+      final ForkJoinPool originalPool = MutableInfiniteInteger.getParallelPool();
+      final int originalThreshold = MutableInfiniteInteger.getParallelThreshold();
+      final ForkJoinPool pool = new ForkJoinPool(2);
+      try
+      {
+         MutableInfiniteInteger.setParallelPool(pool);
+         MutableInfiniteInteger.setParallelThreshold(1);
+         assertSame(pool, MutableInfiniteInteger.getParallelPool());
+         assertThat(MutableInfiniteInteger.getParallelThreshold(), is(1));
+         final Random random = new Random(11);
+         final BigInteger left = new BigInteger(32 * 1000, random);
+         final BigInteger right = new BigInteger(32 * 900, random);
+         assertThat(MutableInfiniteInteger.valueOf(left).multiply(MutableInfiniteInteger.valueOf(right))
+            .bigIntegerValueExact(), is(left.multiply(right)));
+
+         //null means sequential
+         MutableInfiniteInteger.setParallelPool(null);
+         assertThat(MutableInfiniteInteger.valueOf(left).square().bigIntegerValueExact(), is(left.pow(2)));
+      }
+      finally
+      {
+         MutableInfiniteInteger.setParallelPool(originalPool);
+         MutableInfiniteInteger.setParallelThreshold(originalThreshold);
+         pool.shutdown();
+      }
+   }
+
+   @Test
+   public void setParallelThreshold_throws_givenLessThan1()
+   {
+      try
+      {
+         MutableInfiniteInteger.setParallelThreshold(0);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertThat(actual.getMessage(), is("elementCount must be at least 1. It was 0"));
+      }
+   }
+
+   @Test
+   public void setOffHeapThreshold_throws_givenLessThan1()
+   {
+      try
+      {
+         MutableInfiniteInteger.setOffHeapThreshold(0);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertThat(actual.getMessage(), is("elementCount must be at least 1. It was 0"));
+      }
+   }
+
+   @Test
+   public void offHeapThreshold_movesOffAndBackOnHeap()
+   {
+      final long originalThreshold = MutableInfiniteInteger.getOffHeapThreshold();
+      final int originalSegmentLength = MutableInfiniteInteger.storageSegmentLength;
+      try
+      {
+         MutableInfiniteInteger.setOffHeapThreshold(4);
+         MutableInfiniteInteger.storageSegmentLength = 2;
+         //new numbers start on the heap
+         testObject = MutableInfiniteInteger.valueOf(-1).multiplyByPowerOf2(64);
+         assertFalse(testObject.isOffHeap());
+
+         //-2^96 - 1: 4 elements which is over the threshold
+         testObject.multiplyByPowerOf2(32).subtract(1);
+         assertTrue(testObject.isOffHeap());
+         assertEqualNodes(testObject, -1, 1, 0, 0, 1);
+         final BigInteger expected = BigInteger.ONE.shiftLeft(96).add(BigInteger.ONE).negate();
+         assertThat(testObject.bigIntegerValueExact(), is(expected));
+         //a copy of a number off of the heap is also off of the heap
+         final MutableInfiniteInteger copy = testObject.copy();
+         assertTrue(copy.isOffHeap());
+         assertEquals(testObject, copy);
+         assertThat(copy.add(testObject).bigIntegerValueExact(), is(expected.shiftLeft(1)));
+         assertThat(testObject.compareTo(copy), is(greaterThan(0)));
+
+         //back to 2 elements
+         testObject.divideByPowerOf2DropRemainder(40);
+         assertFalse(testObject.isOffHeap());
+         assertEqualNodes(testObject, -1, 0, 0x100_0000);
+      }
+      finally
+      {
+         MutableInfiniteInteger.setOffHeapThreshold(originalThreshold);
+         MutableInfiniteInteger.storageSegmentLength = originalSegmentLength;
+      }
+   }
+
+   @Test
+   public void mappedStorage_allowsMoreElementsThanAnArray() throws Exception
+   {
+      final int originalMax = MutableInfiniteInteger.maxMagnitudeLength;
+      final long originalThreshold = MutableInfiniteInteger.getOffHeapThreshold();
+      final int originalSegmentLength = MutableInfiniteInteger.storageSegmentLength;
+      final Path directory = Files.createTempDirectory("mapped");
+      try
+      {
+         //pretend that arrays can only hold 8 elements
+         MutableInfiniteInteger.maxMagnitudeLength = 8;
+         //so that only the numbers that are too large for an array are moved
+         MutableInfiniteInteger.setOffHeapThreshold(Long.MAX_VALUE);
+         MutableInfiniteInteger.storageSegmentLength = 4;
+         try
+         {
+            MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(32 * 10);
+            fail("Didn't throw");
+         }
+         catch (final WillNotFitException actual)
+         {
+            assertThat(actual.getMessage(), is("Shifting by 320 bits would need more than 8 elements."));
+         }
+
+         MutableInfiniteInteger.setMappedStorageDirectory(directory);
+         assertSame(directory, MutableInfiniteInteger.getMappedStorageDirectory());
+         //2^320 - 1 is 10 elements
+         testObject = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(32 * 10).subtract(1);
+         assertTrue(testObject.isOffHeap());
+         assertEqualNodes(testObject, 1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1);
+         //a heap number that grows too large is also moved
+         final MutableInfiniteInteger sum = MutableInfiniteInteger.valueOf(-1).multiplyByPowerOf2(32 * 7).subtract(1)
+            .subtract(testObject);
+         assertEqualNodes(sum, -1, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 1);
+         assertThat(sum.compareTo(testObject), is(lessThan(0)));
+         assertThat(testObject.compareTo(testObject.copy().add(1)), is(lessThan(0)));
+         //operations that need an array can't be used
+         try
+         {
+            testObject.copy().multiply(3);
+            fail("Didn't throw");
+         }
+         catch (final WillNotFitException actual)
+         {
+            assertThat(actual.getMessage(), is("The result would need 10 elements but the max is 8."));
+         }
+
+         //small enough for the heap again
+         testObject.divideByPowerOf2DropRemainder(32 * 8 + 4);
+         assertFalse(testObject.isOffHeap());
+         assertEqualNodes(testObject, 1, -1, 0x0FFF_FFFF);
+         sum.close();
+      }
+      finally
+      {
+         MutableInfiniteInteger.maxMagnitudeLength = originalMax;
+         MutableInfiniteInteger.setOffHeapThreshold(originalThreshold);
+         MutableInfiniteInteger.storageSegmentLength = originalSegmentLength;
+         MutableInfiniteInteger.setMappedStorageDirectory(null);
+         //the files are deleted as soon as they are mapped
+         Files.delete(directory);
+      }
+   }
+
+   @Test
+   public void mappedStorage_matchesBigInteger_pastArrayLimit() throws Exception
+   {
+      final int originalMax = MutableInfiniteInteger.maxMagnitudeLength;
+      final long originalThreshold = MutableInfiniteInteger.getOffHeapThreshold();
+      final int originalSegmentLength = MutableInfiniteInteger.storageSegmentLength;
+      final Path directory = Files.createTempDirectory("mapped");
+      try
+      {
+         //pretend that arrays can only hold 64 elements. every number below is past that and spans several segments
+         MutableInfiniteInteger.maxMagnitudeLength = 64;
+         MutableInfiniteInteger.setOffHeapThreshold(Long.MAX_VALUE);
+         MutableInfiniteInteger.storageSegmentLength = 16;
+         MutableInfiniteInteger.setMappedStorageDirectory(directory);
+         final Random random = new Random(29);
+         final BigInteger left = new BigInteger(32 * 150, random).setBit(32 * 150 - 1);
+         final BigInteger right = new BigInteger(32 * 100, random).setBit(32 * 100 - 1);
+         try (final MutableInfiniteInteger leftMapped = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(32 * 150 - 1)
+            .add(MutableInfiniteInteger.valueOf(left.clearBit(32 * 150 - 1)));
+              final MutableInfiniteInteger rightMapped = MutableInfiniteInteger.valueOf(1).multiplyByPowerOf2(32 * 100 - 1)
+                 .add(MutableInfiniteInteger.valueOf(right.clearBit(32 * 100 - 1))))
+         {
+            assertTrue(leftMapped.isOffHeap());
+            assertTrue(rightMapped.isOffHeap());
+            assertThat(leftMapped.bigIntegerValueExact(), is(left));
+            assertThat(rightMapped.bigIntegerValueExact(), is(right));
+
+            try (final MutableInfiniteInteger result = leftMapped.copy())
+            {
+               assertThat(result.add(rightMapped).bigIntegerValueExact(), is(left.add(right)));
+               assertThat(result.subtract(rightMapped).subtract(rightMapped).bigIntegerValueExact(),
+                  is(left.subtract(right)));
+               assertThat(result.set(rightMapped).subtract(leftMapped).bigIntegerValueExact(), is(right.subtract(left)));
+               //shift by whole elements and by bits, across segments both ways
+               assertThat(result.set(leftMapped).multiplyByPowerOf2(32 * 20 + 13).bigIntegerValueExact(),
+                  is(left.shiftLeft(32 * 20 + 13)));
+               assertThat(result.divideByPowerOf2DropRemainder(32 * 37 + 29).bigIntegerValueExact(),
+                  is(left.shiftLeft(32 * 20 + 13).shiftRight(32 * 37 + 29)));
+               assertThat(result.set(leftMapped).multiplyByPowerOf2(32 * 17).bigIntegerValueExact(),
+                  is(left.shiftLeft(32 * 17)));
+               assertThat(result.divideByPowerOf2DropRemainder(32 * 17).bigIntegerValueExact(), is(left));
+
+               assertEquals(leftMapped, result);
+               assertThat(leftMapped.compareTo(rightMapped), is(greaterThan(0)));
+               assertThat(rightMapped.negate().compareTo(leftMapped), is(lessThan(0)));
+               rightMapped.negate();
+               //differ only in the least significant element
+               assertThat(leftMapped.compareTo(result.add(1)), is(lessThan(0)));
+               assertThat(leftMapped.compareTo(result.subtract(2)), is(greaterThan(0)));
+            }
+         }
+      }
+      finally
+      {
+         MutableInfiniteInteger.maxMagnitudeLength = originalMax;
+         MutableInfiniteInteger.setOffHeapThreshold(originalThreshold);
+         MutableInfiniteInteger.storageSegmentLength = originalSegmentLength;
+         MutableInfiniteInteger.setMappedStorageDirectory(null);
+         //close deleted every file
+         Files.delete(directory);
+      }
+   }
+
+   @Test
+   public void offHeap_matchesBigInteger_givenManyBlocks()
+   {
+      final long originalThreshold = MutableInfiniteInteger.getOffHeapThreshold();
+      final int originalSegmentLength = MutableInfiniteInteger.storageSegmentLength;
+      try
+      {
+         MutableInfiniteInteger.setOffHeapThreshold(1000);
+         MutableInfiniteInteger.storageSegmentLength = 1024;
+         final Random random = new Random(23);
+         //more than 1 block of the storage kernels
+         final BigInteger left = new BigInteger(32 * 9000, random).setBit(32 * 9000 - 1);
+         final BigInteger right = new BigInteger(32 * 5000, random);
+         final MutableInfiniteInteger leftOffHeap = MutableInfiniteInteger.valueOf(left).add(1).subtract(1);
+         final MutableInfiniteInteger rightOffHeap = MutableInfiniteInteger.valueOf(right).add(1).subtract(1);
+         assertTrue(leftOffHeap.isOffHeap());
+         assertTrue(rightOffHeap.isOffHeap());
+
+         assertThat(leftOffHeap.copy().add(rightOffHeap).bigIntegerValueExact(), is(left.add(right)));
+         assertThat(leftOffHeap.copy().subtract(rightOffHeap).bigIntegerValueExact(), is(left.subtract(right)));
+         assertThat(rightOffHeap.copy().subtract(leftOffHeap).bigIntegerValueExact(), is(right.subtract(left)));
+         assertThat(leftOffHeap.copy().multiplyByPowerOf2(32 * 1000 + 7).bigIntegerValueExact(),
+            is(left.shiftLeft(32 * 1000 + 7)));
+         assertThat(leftOffHeap.copy().multiplyByPowerOf2(32 * 3).bigIntegerValueExact(), is(left.shiftLeft(32 * 3)));
+         assertThat(leftOffHeap.copy().divideByPowerOf2DropRemainder(32 * 1000 + 7).bigIntegerValueExact(),
+            is(left.shiftRight(32 * 1000 + 7)));
+         assertThat(leftOffHeap.copy().divideByPowerOf2DropRemainder(32 * 5).bigIntegerValueExact(),
+            is(left.shiftRight(32 * 5)));
+         assertThat(leftOffHeap.compareTo(leftOffHeap.copy().add(1)), is(lessThan(0)));
+         assertThat(leftOffHeap.compareTo(leftOffHeap.copy().subtract(1)), is(greaterThan(0)));
+         assertThat(leftOffHeap.copy().divideReturnRemainder(7).bigIntegerValueExact(), is(left.mod(BigInteger.valueOf(7))));
+         leftOffHeap.close();
+         rightOffHeap.close();
+      }
+      finally
+      {
+         MutableInfiniteInteger.setOffHeapThreshold(originalThreshold);
+         MutableInfiniteInteger.storageSegmentLength = originalSegmentLength;
+      }
+   }
+
+   @Test
+   public void close_setsTo0()
+   {
+      final long originalThreshold = MutableInfiniteInteger.getOffHeapThreshold();
+      try
+      {
+         MutableInfiniteInteger.setOffHeapThreshold(2);
+         testObject = MutableInfiniteInteger.valueOf(-1).multiplyByPowerOf2(64);
+         assertTrue(testObject.isOffHeap());
+         testObject.close();
+         assertFalse(testObject.isOffHeap());
+         assertEqualNodes(testObject, 1, 0);
+         //can be closed again and still used
+         testObject.close();
+         assertEqualNodes(testObject.add(5), 1, 5);
+      }
+      finally
+      {
+         MutableInfiniteInteger.setOffHeapThreshold(originalThreshold);
+      }
+      MutableInfiniteInteger.POSITIVE_INFINITY.close();
+      assertSame(MutableInfiniteInteger.POSITIVE_INFINITY, MutableInfiniteInteger.POSITIVE_INFINITY.add(1));
+   }
+
    @Test
    public void staticSerializableIt_finite()
    {
@@ -1726,4 +2726,23 @@ public class MutableInfiniteInteger_UT
       return stringBuilder.toString();
    }
 
+   private static BigInteger factorial(final int n)
+   {
+      BigInteger result = BigInteger.ONE;
+      for (int i = 2; i <= n; ++i)
+      {
+         result = result.multiply(BigInteger.valueOf(i));
+      }
+      return result;
+   }
+
+   private static BigInteger binomial(final long n, final int k)
+   {
+      BigInteger numerator = BigInteger.ONE;
+      for (int i = 0; i < k; ++i)
+      {
+         numerator = numerator.multiply(BigInteger.valueOf(n - i));
+      }
+      return numerator.divide(factorial(k));
+   }
 }
@@ -2873,6 +2873,35 @@ public class MutableInfiniteRational_UT
       assertThat(testObject.toDecimalString(2, 7), is("0.50"));
    }
 
+   /**
+    * Test for {@link MutableInfiniteRational#toDecimalString(int, int)}
+    */
+   @Test
+   public void toDecimalString_usesRadix_givenRadixPowerOf2()
+   {
+      //a digit in base 8 or 32 doesn't line up with the elements
+      assertThat(MutableInfiniteRational.valueOf(1, 2).toDecimalString(30, 8), is("0.400000000000000000000000000000"));
+      assertThat(MutableInfiniteRational.valueOf(1, 7).toDecimalString(30, 8), is("0.111111111111111111111111111111"));
+      assertThat(MutableInfiniteRational.valueOf(1, 3).toDecimalString(30, 32), is("0.alalalalalalalalalalalalalalal"));
+      assertThat(MutableInfiniteRational.valueOf(1, 7).toDecimalString(30, 32), is("0.4i94i94i94i94i94i94i94i94i94i9"));
+      assertThat(MutableInfiniteRational.valueOf(22, 7).toDecimalString(30, 32),
+         is("3.4i94i94i94i94i94i94i94i94i94i9"));
+   }
+
+   /**
+    * Test for {@link MutableInfiniteRational#toDecimalString(int, int)}
+    */
+   @Test
+   public void toDecimalString_padsWith0_givenManyDecimalPlaces()
+   {
+      //the remainder becomes 0 after the first digit so the rest are padded instead of divided
+      final String actual = MutableInfiniteRational.valueOf(1, 2).toDecimalString(2_000_000, 10);
+      assertThat(actual.length(), is(2_000_002));
+      assertThat(actual.substring(0, 4), is("0.50"));
+      assertThat(actual.lastIndexOf('5'), is(2));
+      assertThat(actual.charAt(actual.length() - 1), is('0'));
+   }
+
    /**
     * Happy path for {@link MutableInfiniteRational#toDecimalStringExact()}
     */
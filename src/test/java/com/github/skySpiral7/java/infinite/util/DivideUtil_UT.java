@@ -0,0 +1,178 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class DivideUtil_UT
+{
+   @Test
+   public void divide_matchesBigInteger() throws Exception
+   {
+      final Random random = new Random(8);
+      //a single word divisor, equal lengths, a dividend shorter than the divisor and longer numbers
+      final int[][] lengths = {{5, 1}, {3, 3}, {2, 4}, {40, 7}, {100, 99}, {300, 150}};
+      for (final int[] lengthPair : lengths)
+      {
+         final int[] dividend = randomElements(random, lengthPair[0]);
+         final int[] divisor = randomElements(random, lengthPair[1]);
+         assertDivides(dividend, divisor);
+      }
+   }
+
+   @Test
+   public void divide_whenEstimateNeedsAddBack() throws Exception
+   {
+      //the estimate passes the 2 element check but is still 1 too large
+      assertDivides(new int[]{Integer.MAX_VALUE, 0, Integer.MAX_VALUE, -1}, new int[]{-2, Integer.MAX_VALUE, 3});
+      assertDivides(new int[]{-1, -2, 0, 1}, new int[]{-1, Integer.MAX_VALUE, Integer.MIN_VALUE});
+   }
+
+   @Test
+   public void divide_whenDivisorIsNormalized() throws Exception
+   {
+      //the divisor's most significant bit is already set so nothing is shifted
+      assertDivides(new int[]{-1, -1, -1, -1}, new int[]{5, Integer.MIN_VALUE});
+      assertDivides(new int[]{0, 0, 0, 0, 1}, new int[]{-1, -1});
+   }
+
+   @Test
+   public void divide_matchesBigInteger_whenBurnikelZiegler() throws Exception
+   {
+      final Random random = new Random(9);
+      //the threshold exactly, an odd divisor (which is padded), recursing more than once and many blocks
+      final int[][] lengths = {{300, 128}, {700, 257}, {1200, 600}, {3000, 200}};
+      for (final int[] lengthPair : lengths)
+      {
+         final int[] dividend = randomElements(random, lengthPair[0]);
+         final int[] divisor = randomElements(random, lengthPair[1]);
+         assertDivides(dividend, divisor);
+      }
+   }
+
+   @Test
+   public void divide_whenBurnikelZieglerQuotientIsMax() throws Exception
+   {
+      //(divisor * 2^(32 * 200) - 1) / divisor: the top half of each step equals the top half of the divisor
+      final int[] divisor = randomElements(new Random(10), 200);
+      divisor[199] |= Integer.MIN_VALUE;
+      final BigInteger dividend = toBigInteger(divisor).shiftLeft(32 * 200).subtract(BigInteger.ONE);
+      assertDivides(toElements(dividend, 400), divisor);
+   }
+
+   @Test
+   public void divideExact_matchesBigInteger() throws Exception
+   {
+      final Random random = new Random(11);
+      //a single element divisor, trailing 0 elements and bits, a single element quotient and recursive division
+      final int[][] lengths = {{3, 1}, {20, 7}, {10, 9}, {60, 30}, {300, 150}};
+      for (final int[] lengthPair : lengths)
+      {
+         final BigInteger quotient = toBigInteger(randomElements(random, lengthPair[0] - lengthPair[1]));
+         BigInteger divisor = toBigInteger(randomElements(random, lengthPair[1]));
+         //clear the low 40 bits so that the divisor ends with a 0 element and 8 more 0 bits
+         if (lengthPair[1] > 1) divisor = divisor.shiftRight(40).shiftLeft(40);
+         final BigInteger dividend = quotient.multiply(divisor);
+         final int[] dividendElements = toElements(dividend, significantLength(dividend));
+         final int[] divisorElements = toElements(divisor, significantLength(divisor));
+         final int[] actual = DivideUtil.divideExact(dividendElements, dividendElements.length, divisorElements,
+            divisorElements.length);
+         assertThat(toBigInteger(actual), is(quotient));
+      }
+   }
+
+   @Test
+   public void divideExact_returnsNull_whenRemainderIsNot0() throws Exception
+   {
+      final int[] divisor = randomElements(new Random(12), 5);
+      divisor[0] |= 1;
+      final BigInteger product = toBigInteger(divisor).multiply(BigInteger.valueOf(1L << 40));
+      //the low elements of the quotient look fine but the high elements don't match
+      final BigInteger highMismatch = product.add(BigInteger.ONE.shiftLeft(32 * 6));
+      //the divisor has a trailing 0 bit that the dividend doesn't
+      final BigInteger lowMismatch = product.shiftLeft(1).add(toBigInteger(divisor));
+      final int[] evenDivisor = toElements(toBigInteger(divisor).shiftLeft(1), 6);
+      //smaller than the divisor
+      final int[] small = {7};
+
+      final int[] highElements = toElements(highMismatch, significantLength(highMismatch));
+      assertThat(DivideUtil.divideExact(highElements, highElements.length, divisor, divisor.length) == null, is(true));
+      final int[] lowElements = toElements(lowMismatch, significantLength(lowMismatch));
+      assertThat(DivideUtil.divideExact(lowElements, lowElements.length, evenDivisor, evenDivisor.length) == null,
+         is(true));
+      assertThat(DivideUtil.divideExact(small, 1, divisor, divisor.length) == null, is(true));
+   }
+
+   @Test
+   public void divideByWord() throws Exception
+   {
+      final int[] dividend = {0, 0, 7};
+      final int[] quotient = new int[3];
+      //(7 * 2^64) / (2^32 - 1) has a quotient larger than Long.MAX_VALUE at each step
+      final int remainder = DivideUtil.divideByWord(dividend, 3, -1, quotient);
+      final BigInteger[] expected = toBigInteger(dividend).divideAndRemainder(BigInteger.valueOf(0xFFFF_FFFFL));
+      assertThat(toBigInteger(quotient), is(expected[0]));
+      assertThat(Integer.toUnsignedLong(remainder), is(expected[1].longValue()));
+   }
+
+   @Test
+   public void remainderByWord() throws Exception
+   {
+      final int[] dividend = {5, -1, 7, 0};
+      final BigInteger divisor = BigInteger.valueOf(0xFFFF_FFF0L);
+      final int remainder = DivideUtil.remainderByWord(dividend, 3, divisor.intValue());
+      assertThat(Integer.toUnsignedLong(remainder), is(toBigInteger(dividend).mod(divisor).longValue()));
+   }
+
+   private static void assertDivides(final int[] dividend, final int[] divisor)
+   {
+      final int[] remainder = new int[divisor.length];
+      final int[] quotient = DivideUtil.divide(dividend, dividend.length, divisor, divisor.length, remainder);
+      final BigInteger[] expected = toBigInteger(dividend).divideAndRemainder(toBigInteger(divisor));
+      final String message = dividend.length + " / " + divisor.length;
+      assertThat(message, toBigInteger(quotient), is(expected[0]));
+      assertThat(message, toBigInteger(remainder), is(expected[1]));
+   }
+
+   private static int[] randomElements(final Random random, final int length)
+   {
+      final int[] result = new int[length];
+      for (int i = 0; i < length; ++i)
+      {
+         result[i] = random.nextInt();
+      }
+      //the most significant element can't be 0
+      if (result[length - 1] == 0) result[length - 1] = 1;
+      return result;
+   }
+
+   private static int[] toElements(BigInteger value, final int length)
+   {
+      final int[] result = new int[length];
+      for (int i = 0; i < length; ++i)
+      {
+         result[i] = value.intValue();
+         value = value.shiftRight(32);
+      }
+      return result;
+   }
+
+   private static int significantLength(final BigInteger value)
+   {
+      return (value.bitLength() + 31) / 32;
+   }
+
+   private static BigInteger toBigInteger(final int[] elements)
+   {
+      BigInteger result = BigInteger.ZERO;
+      for (int i = elements.length - 1; i >= 0; --i)
+      {
+         result = result.shiftLeft(32).or(BigInteger.valueOf(Integer.toUnsignedLong(elements[i])));
+      }
+      return result;
+   }
+}
@@ -0,0 +1,195 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+
+public class FactorialUtil_UT
+{
+   @Test
+   public void oddFactorial_matchesBigInteger() throws Exception
+   {
+      //small enough to fit in a long, the smallest to use the swing, a prime, a power of 2 and a large product tree
+      final int[] values = {0, 1, 2, 20, 21, 97, 1024, 5000};
+      for (final int n : values)
+      {
+         assertThat("n=" + n, toBigInteger(FactorialUtil.oddFactorial(n)), is(expectedOddFactorial(n)));
+      }
+   }
+
+   @Test
+   public void oddFactorial_matchesBigInteger_whenParallel() throws Exception
+   {
+      final ForkJoinPool originalPool = MultiplyUtil.getParallelPool();
+      final int originalThreshold = MultiplyUtil.getParallelThreshold();
+      final ForkJoinPool pool = new ForkJoinPool(2);
+      try
+      {
+         MultiplyUtil.setParallelPool(pool);
+         MultiplyUtil.setParallelThreshold(1);
+         assertThat(toBigInteger(FactorialUtil.oddFactorial(3000)), is(expectedOddFactorial(3000)));
+      }
+      finally
+      {
+         MultiplyUtil.setParallelPool(originalPool);
+         MultiplyUtil.setParallelThreshold(originalThreshold);
+         pool.shutdown();
+      }
+   }
+
+   @Test
+   public void oddFactorial_throws_givenNegative() throws Exception
+   {
+      try
+      {
+         FactorialUtil.oddFactorial(-1);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertThat(actual.getMessage(), is("Factorial isn't defined for negative numbers. n=-1"));
+      }
+   }
+
+   @Test
+   public void binomial_matchesBigInteger() throws Exception
+   {
+      //k of 0, a small k, the middle and k = n
+      final int[][] values = {{10, 0}, {1000, 3}, {1000, 500}, {3001, 1500}, {77, 77}};
+      for (final int[] value : values)
+      {
+         final int n = value[0];
+         final int k = value[1];
+         final BigInteger expected = factorial(n).divide(factorial(k).multiply(factorial(n - k)));
+         assertThat("n=" + n + ", k=" + k, toBigInteger(FactorialUtil.binomial(n, k)), is(expected));
+      }
+   }
+
+   @Test
+   public void binomial_throws_givenKOutOfRange() throws Exception
+   {
+      try
+      {
+         FactorialUtil.binomial(5, 6);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertThat(actual.getMessage(), is("k must be from 0 to n. n=5, k=6"));
+      }
+   }
+
+   @Test
+   public void multinomial_matchesBigInteger() throws Exception
+   {
+      //many 1s have a high power of 2 which needs more than 1 factor
+      final int[] ones = new int[200];
+      Arrays.fill(ones, 1);
+      assertThat(toBigInteger(FactorialUtil.multinomial(ones)), is(factorial(200)));
+
+      final BigInteger denominator = factorial(100).multiply(factorial(200)).multiply(factorial(300));
+      final BigInteger expected = factorial(600).divide(denominator);
+      assertThat(toBigInteger(FactorialUtil.multinomial(100, 200, 300)), is(expected));
+      assertThat(toBigInteger(FactorialUtil.multinomial()), is(BigInteger.ONE));
+   }
+
+   @Test
+   public void multinomial_throws_givenNegative() throws Exception
+   {
+      try
+      {
+         FactorialUtil.multinomial(5, -1);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertThat(actual.getMessage(), is("The counts can't be negative. count=-1"));
+      }
+   }
+
+   @Test
+   public void primorial() throws Exception
+   {
+      BigInteger expected = BigInteger.ONE;
+      for (int i = 2; i <= 1000; ++i)
+      {
+         if (BigInteger.valueOf(i).isProbablePrime(50)) expected = expected.multiply(BigInteger.valueOf(i));
+      }
+      assertThat(toBigInteger(FactorialUtil.primorial(1000)), is(expected));
+      assertThat(toBigInteger(FactorialUtil.primorial(1)), is(BigInteger.ONE));
+      assertThat(toBigInteger(FactorialUtil.primorial(2)), is(BigInteger.valueOf(2)));
+   }
+
+   @Test
+   public void rangeProduct() throws Exception
+   {
+      //more than a leaf, numbers that can't be paired and an empty range
+      assertThat(toBigInteger(FactorialUtil.rangeProduct(1, 500)), is(factorial(500)));
+      final long low = Long.MAX_VALUE - 40;
+      BigInteger expected = BigInteger.ONE;
+      for (long i = low; i <= Long.MAX_VALUE && i >= low; ++i)
+      {
+         expected = expected.multiply(BigInteger.valueOf(i));
+      }
+      assertThat(toBigInteger(FactorialUtil.rangeProduct(low, Long.MAX_VALUE)), is(expected));
+      assertThat(toBigInteger(FactorialUtil.rangeProduct(7, 6)), is(BigInteger.ONE));
+   }
+
+   @Test
+   public void product() throws Exception
+   {
+      //unsigned factors, factors that use 1 and 2 elements, more than a leaf and an odd count
+      final long[] factors = new long[101];
+      BigInteger expected = BigInteger.ONE;
+      for (int i = 0; i < factors.length; ++i)
+      {
+         factors[i] = (i % 3 == 0) ? -1 - 7L * i : 0xFFFF_FFFFL - i;
+         expected = expected.multiply(new BigInteger(Long.toUnsignedString(factors[i])));
+      }
+      assertThat(toBigInteger(FactorialUtil.product(factors, 0, factors.length)), is(expected));
+      assertThat(toBigInteger(FactorialUtil.product(factors, 5, 5)), is(BigInteger.ONE));
+   }
+
+   @Test
+   public void oddComposites() throws Exception
+   {
+      final BitSet actual = FactorialUtil.oddComposites(50);
+      for (int odd = 3; odd <= 50; odd += 2)
+      {
+         assertThat("odd=" + odd, actual.get(odd / 2), is(!BigInteger.valueOf(odd).isProbablePrime(50)));
+      }
+   }
+
+   private static BigInteger expectedOddFactorial(final int n)
+   {
+      final BigInteger result = factorial(n);
+      return result.shiftRight(result.getLowestSetBit());
+   }
+
+   private static BigInteger factorial(final int n)
+   {
+      BigInteger result = BigInteger.ONE;
+      for (int i = 2; i <= n; ++i)
+      {
+         result = result.multiply(BigInteger.valueOf(i));
+      }
+      return result;
+   }
+
+   private static BigInteger toBigInteger(final int[] elements)
+   {
+      BigInteger result = BigInteger.ZERO;
+      for (int i = elements.length - 1; i >= 0; --i)
+      {
+         result = result.shiftLeft(32).or(BigInteger.valueOf(Integer.toUnsignedLong(elements[i])));
+      }
+      return result;
+   }
+}
@@ -0,0 +1,133 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LimbStorage_UT
+{
+   @Test
+   public void direct_throws_givenSegmentLengthNotPowerOf2()
+   {
+      try
+      {
+         LimbStorage.direct(1, 3);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertThat(actual.getMessage(), is("segmentLength must be a positive power of 2. It was 3"));
+      }
+   }
+
+   @Test
+   public void set_readsBack_acrossSegments()
+   {
+      try (final LimbStorage testObject = LimbStorage.direct(10, 4))
+      {
+         assertThat(testObject.capacity(), is(10L));
+         for (int i = 0; i < 10; ++i){testObject.set(i, -i);}
+         for (int i = 0; i < 10; ++i){assertThat(testObject.get(i), is(-i));}
+
+         final int[] copied = new int[7];
+         testObject.get(2, copied, 1, 6);
+         assertThat(copied, is(new int[]{0, -2, -3, -4, -5, -6, -7}));
+         testObject.put(3, new int[]{9, 8, 7}, 1, 2);
+         assertThat(testObject.get(3), is(8));
+         assertThat(testObject.get(4), is(7));
+      }
+   }
+
+   @Test
+   public void mapped_readsBack_acrossSegments() throws Exception
+   {
+      final Path directory = Files.createTempDirectory("mapped");
+      try (final LimbStorage testObject = LimbStorage.mapped(directory, 3, 4))
+      {
+         testObject.set(2, 7);
+         testObject.ensureCapacity(10);
+         testObject.set(9, -9);
+         assertThat(testObject.get(2), is(7));
+         assertThat(testObject.get(5), is(0));
+         assertThat(testObject.get(9), is(-9));
+      }
+      finally
+      {
+         //the files are already gone
+         Files.delete(directory);
+      }
+   }
+
+   @Test
+   public void copy_movesElements_givenOverlapAndOtherSegmentLength()
+   {
+      try (final LimbStorage testObject = LimbStorage.direct(12, 4);
+           final LimbStorage other = LimbStorage.direct(12, 8))
+      {
+         for (int i = 0; i < 10; ++i){testObject.set(i, i);}
+         //up and overlapping
+         testObject.copy(1, testObject, 3, 7);
+         final int[] actual = new int[10];
+         testObject.get(0, actual, 0, 10);
+         assertThat(actual, is(new int[]{0, 1, 2, 1, 2, 3, 4, 5, 6, 7}));
+         //down and overlapping
+         testObject.copy(3, testObject, 0, 7);
+         testObject.get(0, actual, 0, 10);
+         assertThat(actual, is(new int[]{1, 2, 3, 4, 5, 6, 7, 5, 6, 7}));
+
+         testObject.copy(2, other, 5, 7);
+         other.get(5, actual, 0, 7);
+         assertThat(actual[0], is(3));
+         assertThat(actual[6], is(6));
+         testObject.fill(1, 11, -1);
+         assertThat(testObject.get(0), is(1));
+         assertThat(testObject.get(10), is(-1));
+         assertThat(testObject.get(11), is(0));
+      }
+   }
+
+   @Test
+   public void ensureCapacity_keepsElements()
+   {
+      try (final LimbStorage testObject = LimbStorage.direct(1, 4))
+      {
+         testObject.set(0, 5);
+         //grows the partial segment then adds more
+         testObject.ensureCapacity(2);
+         testObject.set(1, 6);
+         testObject.ensureCapacity(9);
+         assertTrue(testObject.capacity() >= 9);
+         assertThat(testObject.get(0), is(5));
+         assertThat(testObject.get(1), is(6));
+         //new elements are 0
+         for (int i = 2; i < 9; ++i){assertThat(testObject.get(i), is(0));}
+      }
+   }
+
+   @Test
+   public void close_frees()
+   {
+      assertTrue(LimbStorage.canFreeImmediately());
+      final LimbStorage testObject = LimbStorage.direct(5, 4);
+      testObject.close();
+      assertTrue(testObject.isClosed());
+      assertThat(testObject.capacity(), is(0L));
+      //can be closed again
+      testObject.close();
+      try
+      {
+         testObject.ensureCapacity(1);
+         fail("Didn't throw");
+      }
+      catch (final IllegalStateException actual)
+      {
+         assertThat(actual.getMessage(), is("The storage was closed"));
+      }
+   }
+}
@@ -0,0 +1,324 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+
+public class MultiplyUtil_UT
+{
+   private static final BigInteger TWO_64 = BigInteger.ONE.shiftLeft(64);
+
+   @Test
+   public void unsignedMultiplyHigh() throws Exception
+   {
+      final long[] values = {0, 1, 2, Integer.MAX_VALUE, 0xFFFF_FFFFL, Long.MAX_VALUE, Long.MIN_VALUE, -2, -1};
+      for (final long left : values)
+      {
+         for (final long right : values)
+         {
+            final BigInteger expected = toUnsigned(left).multiply(toUnsigned(right)).shiftRight(64);
+            assertThat(left + " * " + right, MultiplyUtil.unsignedMultiplyHigh(left, right), is(expected.longValue()));
+         }
+      }
+   }
+
+   @Test
+   public void carryOut() throws Exception
+   {
+      assertThat(MultiplyUtil.carryOut(-1, 1, 0), is(1L));
+      assertThat(MultiplyUtil.carryOut(Long.MIN_VALUE, Long.MIN_VALUE, 0), is(1L));
+      assertThat(MultiplyUtil.carryOut(-1, 0, -1), is(0L));
+      assertThat(MultiplyUtil.carryOut(Long.MAX_VALUE, 1, Long.MIN_VALUE), is(0L));
+   }
+
+   @Test
+   public void toLongLimbs_toIntElements_roundTrip() throws Exception
+   {
+      final int[] elements = {1, 2, 3};
+      final long[] limbs = MultiplyUtil.toLongLimbs(elements, 3);
+      assertThat(limbs.length, is(2));
+      assertThat(limbs[0], is(0x2_0000_0001L));
+      assertThat(limbs[1], is(3L));
+      assertThat(MultiplyUtil.toIntElements(limbs, 3), is(elements));
+   }
+
+   @Test
+   public void multiply_matchesBigInteger() throws Exception
+   {
+      final Random random = new Random(1);
+      //sizes on both sides of the pairing threshold with odd and even lengths
+      final int[] lengths = {1, 2, 3, 16, 17, 18, 33, 64};
+      for (final int leftLength : lengths)
+      {
+         for (final int rightLength : lengths)
+         {
+            final int[] left = randomElements(random, leftLength);
+            final int[] right = randomElements(random, rightLength);
+            final int[] actual = MultiplyUtil.multiply(left, leftLength, right, rightLength);
+            assertThat(actual.length, is(leftLength + rightLength));
+            assertThat(leftLength + " * " + rightLength, toBigInteger(actual),
+               is(toBigInteger(left).multiply(toBigInteger(right))));
+         }
+      }
+   }
+
+   @Test
+   public void multiply_matchesBigInteger_whenKaratsuba() throws Exception
+   {
+      final Random random = new Random(3);
+      //balanced, odd, recursing more than once and unbalanced (which is cut into pieces)
+      final int[][] lengths = {{128, 128}, {129, 201}, {600, 555}, {130, 700}, {1000, 128}};
+      for (final int[] lengthPair : lengths)
+      {
+         final int[] left = randomElements(random, lengthPair[0]);
+         final int[] right = randomElements(random, lengthPair[1]);
+         final int[] actual = MultiplyUtil.multiply(left, left.length, right, right.length);
+         assertThat(actual.length, is(left.length + right.length));
+         assertThat(left.length + " * " + right.length, toBigInteger(actual),
+            is(toBigInteger(left).multiply(toBigInteger(right))));
+      }
+   }
+
+   @Test
+   public void multiply_matchesBigInteger_whenToomCook3() throws Exception
+   {
+      final Random random = new Random(4);
+      //balanced, uneven thirds and unbalanced (which goes to Karatsuba)
+      final int[][] lengths = {{768, 768}, {1000, 901}, {2400, 800}};
+      for (final int[] lengthPair : lengths)
+      {
+         final int[] left = randomElements(random, lengthPair[0]);
+         final int[] right = randomElements(random, lengthPair[1]);
+         assertThat(left.length + " * " + right.length, toBigInteger(MultiplyUtil.multiply(left, left.length, right,
+            right.length)), is(toBigInteger(left).multiply(toBigInteger(right))));
+      }
+   }
+
+   @Test
+   public void multiply_whenToomCook3EvaluatesNegative() throws Exception
+   {
+      //x1 is larger than x0 + x2 for both so that x(-1) is negative for both
+      final int[] value = new int[900];
+      Arrays.fill(value, 300, 600, -1);
+      value[899] = 1;
+      final BigInteger expected = toBigInteger(value).pow(2);
+      assertThat(toBigInteger(MultiplyUtil.multiply(value, 900, value, 900)), is(expected));
+   }
+
+   @Test
+   public void exactDivideBy3InPlace() throws Exception
+   {
+      final BigInteger dividend = BigInteger.ONE.shiftLeft(200).subtract(BigInteger.ONE);  //2^even - 1 is a multiple of 3
+      final int[] elements = toElements(dividend, 7);
+      MultiplyUtil.exactDivideBy3InPlace(elements);
+      assertThat(toBigInteger(elements), is(dividend.divide(BigInteger.valueOf(3))));
+   }
+
+   @Test
+   public void shiftRightOneInPlace() throws Exception
+   {
+      final int[] elements = {0, 1, 3};
+      MultiplyUtil.shiftRightOneInPlace(elements);
+      assertThat(elements, is(new int[]{Integer.MIN_VALUE, Integer.MIN_VALUE, 1}));
+   }
+
+   @Test
+   public void multiply_whenKaratsubaHalvesHaveZeros() throws Exception
+   {
+      //2^(32*300) - 1 and 2^(32*299) + 1: the low half of the second is mostly 0
+      final int[] left = new int[300];
+      Arrays.fill(left, -1);
+      final int[] right = new int[300];
+      right[0] = 1;
+      right[299] = 1;
+      final BigInteger expected = toBigInteger(left).multiply(toBigInteger(right));
+      assertThat(toBigInteger(MultiplyUtil.multiply(left, 300, right, 300)), is(expected));
+   }
+
+   @Test
+   public void multiply_matchesBigInteger_whenParallel() throws Exception
+   {
+      final ForkJoinPool originalPool = MultiplyUtil.getParallelPool();
+      final int originalThreshold = MultiplyUtil.getParallelThreshold();
+      final ForkJoinPool pool = new ForkJoinPool(2);
+      try
+      {
+         MultiplyUtil.setParallelPool(pool);
+         MultiplyUtil.setParallelThreshold(1);
+         final Random random = new Random(7);
+         //Karatsuba, Toom-Cook, the transform and squaring with each
+         final int[][] lengths = {{300, 300}, {900, 1000}, {30000, 30000}, {400, 0}, {1000, 0}, {30000, 0}};
+         for (final int[] lengthPair : lengths)
+         {
+            final int[] left = randomElements(random, lengthPair[0]);
+            final BigInteger leftBig = toBigInteger(left);
+            if (lengthPair[1] == 0)
+            {
+               assertThat("square " + left.length, toBigInteger(MultiplyUtil.square(left, left.length)),
+                  is(leftBig.pow(2)));
+               continue;
+            }
+            final int[] right = randomElements(random, lengthPair[1]);
+            assertThat(left.length + " * " + right.length, toBigInteger(MultiplyUtil.multiply(left, left.length,
+               right, right.length)), is(leftBig.multiply(toBigInteger(right))));
+         }
+      }
+      finally
+      {
+         MultiplyUtil.setParallelPool(originalPool);
+         MultiplyUtil.setParallelThreshold(originalThreshold);
+         pool.shutdown();
+      }
+   }
+
+   @Test
+   public void setParallelThreshold_throws_givenLessThan1() throws Exception
+   {
+      try
+      {
+         MultiplyUtil.setParallelThreshold(0);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertThat(actual.getMessage(), is("elementCount must be at least 1. It was 0"));
+      }
+   }
+
+   @Test
+   public void multiply_givenSameArray() throws Exception
+   {
+      final int[] value = randomElements(new Random(2), 21);
+      final BigInteger expected = toBigInteger(value).pow(2);
+      assertThat(toBigInteger(MultiplyUtil.multiply(value, 21, value, 21)), is(expected));
+   }
+
+   @Test
+   public void square_matchesBigInteger() throws Exception
+   {
+      final Random random = new Random(6);
+      //each kernel: int elements, 64 bit limbs, Karatsuba and Toom-Cook
+      final int[] lengths = {1, 2, 7, 16, 17, 18, 127, 128, 333, 800};
+      for (final int length : lengths)
+      {
+         final int[] value = randomElements(random, length);
+         final int[] actual = MultiplyUtil.square(value, length);
+         assertThat(actual.length, is(2 * length));
+         assertThat("length " + length, toBigInteger(actual), is(toBigInteger(value).pow(2)));
+      }
+   }
+
+   @Test
+   public void square_givenAllBitsSet() throws Exception
+   {
+      //worst case for the carries of doubling and adding the diagonal
+      for (final int length : new int[]{5, 40})
+      {
+         final int[] value = new int[length];
+         Arrays.fill(value, -1);
+         assertThat(toBigInteger(MultiplyUtil.square(value, length)), is(toBigInteger(value).pow(2)));
+      }
+   }
+
+   @Test
+   public void multiply_givenAllBitsSet() throws Exception
+   {
+      //worst case for the carries
+      final int[] value = new int[20];
+      Arrays.fill(value, -1);
+      final BigInteger expected = toBigInteger(value).pow(2);
+      assertThat(toBigInteger(MultiplyUtil.multiply(value, 20, value, 20)), is(expected));
+   }
+
+   @Test
+   public void multiply_onlyUsesLength() throws Exception
+   {
+      final int[] left = {5, 7, 9};
+      final int[] right = {3, 100};
+      assertThat(MultiplyUtil.multiply(left, 1, right, 1), is(new int[]{15, 0}));
+   }
+
+   @Test
+   public void multiplyInPlace() throws Exception
+   {
+      final int[] elements = {-1, -1, -1};
+      final long carry = MultiplyUtil.multiplyInPlace(elements, 3, -1L);
+      //(2^96 - 1) * (2^64 - 1) == 2^160 - 2^96 - 2^64 + 1
+      final BigInteger expected = BigInteger.ONE.shiftLeft(160).subtract(BigInteger.ONE.shiftLeft(96))
+         .subtract(BigInteger.ONE.shiftLeft(64)).add(BigInteger.ONE);
+      assertThat(toBigInteger(elements), is(expected.mod(BigInteger.ONE.shiftLeft(96))));
+      assertThat(toUnsigned(carry), is(expected.shiftRight(96)));
+   }
+
+   @Test
+   public void addProduct() throws Exception
+   {
+      final int[] accumulator = {-1, -1, 0, 0, 0};
+      //(2^64 - 1) + (2^32 - 1) * 2 == 2^64 + 2^33 - 3
+      MultiplyUtil.addProduct(accumulator, new int[]{-1}, 1, new int[]{2}, 1);
+      assertThat(toBigInteger(accumulator), is(BigInteger.ONE.shiftLeft(64).add(BigInteger.ONE.shiftLeft(33)).subtract(BigInteger.valueOf(3))));
+   }
+
+   @Test
+   public void subtractProduct() throws Exception
+   {
+      int[] accumulator = {10, 0, 0};
+      assertThat(MultiplyUtil.subtractProduct(accumulator, 3, new int[]{3}, 1, new int[]{2}, 1), is(false));
+      assertThat(accumulator, is(new int[]{4, 0, 0}));
+
+      //the product is larger so the result is product - accumulator
+      accumulator = new int[]{0, 1, 0};
+      assertThat(MultiplyUtil.subtractProduct(accumulator, 3, new int[]{-1}, 1, new int[]{3}, 1), is(true));
+      assertThat(toBigInteger(accumulator), is(BigInteger.valueOf(0xFFFF_FFFFL * 3 - 0x1_0000_0000L)));
+   }
+
+   private static int[] randomElements(final Random random, final int length)
+   {
+      final int[] result = new int[length];
+      for (int i = 0; i < length; ++i)
+      {
+         result[i] = random.nextInt();
+      }
+      return result;
+   }
+
+   private static BigInteger toUnsigned(final long value)
+   {
+      final BigInteger result = BigInteger.valueOf(value);
+      if (value < 0) return result.add(TWO_64);
+      return result;
+   }
+
+   private static int[] toElements(BigInteger value, final int length)
+   {
+      final int[] result = new int[length];
+      for (int i = 0; i < length; ++i)
+      {
+         result[i] = value.intValue();
+         value = value.shiftRight(32);
+      }
+      return result;
+   }
+
+   private static BigInteger toBigInteger(final int[] elements)
+   {
+      //big endian bytes since shifting for each element is too slow for the largest tests
+      final byte[] bytes = new byte[4 * elements.length];
+      for (int i = 0; i < elements.length; ++i)
+      {
+         final int byteIndex = bytes.length - 4 * (i + 1);
+         bytes[byteIndex] = (byte) (elements[i] >>> 24);
+         bytes[byteIndex + 1] = (byte) (elements[i] >>> 16);
+         bytes[byteIndex + 2] = (byte) (elements[i] >>> 8);
+         bytes[byteIndex + 3] = (byte) elements[i];
+      }
+      return new BigInteger(1, bytes);
+   }
+}
@@ -0,0 +1,76 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+
+public class NumberTheoreticTransform_UT
+{
+   @Test
+   public void multiply_matchesBigInteger() throws Exception
+   {
+      final Random random = new Random(5);
+      //includes lengths that are exactly a power of 2 and ones that need padding
+      final int[][] lengths = {{1, 1}, {1, 2}, {3, 5}, {64, 64}, {100, 1000}, {1500, 1700}};
+      for (final int[] lengthPair : lengths)
+      {
+         final int[] left = randomElements(random, lengthPair[0]);
+         final int[] right = randomElements(random, lengthPair[1]);
+         final int[] actual = NumberTheoreticTransform.multiply(left, left.length, right, right.length);
+         assertThat(actual.length, is(left.length + right.length));
+         assertThat(left.length + " * " + right.length, toBigInteger(actual),
+            is(toBigInteger(left).multiply(toBigInteger(right))));
+      }
+   }
+
+   @Test
+   public void multiply_givenAllBitsSet() throws Exception
+   {
+      //every coefficient is as large as possible for the length which is the worst case for the remainder theorem
+      final int[] value = new int[4000];
+      Arrays.fill(value, -1);
+      final BigInteger expected = toBigInteger(value).pow(2);
+      assertThat(toBigInteger(NumberTheoreticTransform.multiply(value, value.length, value, value.length)), is(expected));
+   }
+
+   @Test
+   public void multiply_throws_whenTooLarge() throws Exception
+   {
+      try
+      {
+         //the lengths are checked before the arrays are read
+         NumberTheoreticTransform.multiply(new int[0], NumberTheoreticTransform.MAX_PRODUCT_LENGTH, new int[0], 1);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertThat(actual.getMessage(), is("Too large for the transform: " + (NumberTheoreticTransform.MAX_PRODUCT_LENGTH + 1)));
+      }
+   }
+
+   private static int[] randomElements(final Random random, final int length)
+   {
+      final int[] result = new int[length];
+      for (int i = 0; i < length; ++i)
+      {
+         result[i] = random.nextInt();
+      }
+      return result;
+   }
+
+   private static BigInteger toBigInteger(final int[] elements)
+   {
+      BigInteger result = BigInteger.ZERO;
+      for (int i = elements.length - 1; i >= 0; --i)
+      {
+         result = result.shiftLeft(32).or(BigInteger.valueOf(Integer.toUnsignedLong(elements[i])));
+      }
+      return result;
+   }
+}
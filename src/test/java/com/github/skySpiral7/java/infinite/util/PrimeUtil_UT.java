@@ -0,0 +1,233 @@
+package com.github.skySpiral7.java.infinite.util;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.is;
+
+public class PrimeUtil_UT
+{
+   @Test
+   public void isProbablePrime_matchesBigInteger_givenSmall() throws Exception
+   {
+      //0, 1, 2, the trial division primes and numbers that are prime because they are less than 1024^2
+      for (int i = 0; i < 5000; ++i)
+      {
+         assertThat("i=" + i, isProbablePrime(BigInteger.valueOf(i)), is(BigInteger.valueOf(i).isProbablePrime(100)));
+      }
+   }
+
+   @Test
+   public void isProbablePrime_matchesBigInteger() throws Exception
+   {
+      final Random random = new Random(13);
+      //1 element, 2 elements (the largest that use fixed bases) and larger which use Baillie–PSW
+      final int[] bitLengths = {30, 33, 64, 65, 128, 256};
+      for (final int bitLength : bitLengths)
+      {
+         for (int i = 0; i < 80; ++i)
+         {
+            BigInteger value = new BigInteger(bitLength, random).setBit(0);
+            //plenty of primes
+            if (i % 4 == 0) value = value.nextProbablePrime();
+            assertThat(value.toString(), isProbablePrime(value), is(value.isProbablePrime(100)));
+         }
+      }
+   }
+
+   @Test
+   public void isProbablePrime_returnsFalse_givenPseudoprimes() throws Exception
+   {
+      //Carmichael numbers and strong pseudoprimes to several bases (the last passes every prime base up to 23)
+      final long[] composites = {561, 1105, 1729, 2047, 3215031751L, 2152302898747L, 3474749660383L,
+         341550071728321L, 3825123056546413051L};
+      for (final long composite : composites)
+      {
+         assertThat(Long.toString(composite), isProbablePrime(BigInteger.valueOf(composite)), is(false));
+      }
+      //the square of a Wieferich prime passes Miller–Rabin with base 2
+      assertThat(isProbablePrime(BigInteger.valueOf(1093L * 1093)), is(false));
+   }
+
+   @Test
+   public void isProbablePrime_returnsTrue_givenLargePrimes() throws Exception
+   {
+      //the Mersenne primes 2^127 - 1 and 2^521 - 1 and the largest prime less than 2^64
+      assertThat(isProbablePrime(BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE)), is(true));
+      assertThat(isProbablePrime(BigInteger.ONE.shiftLeft(521).subtract(BigInteger.ONE)), is(true));
+      assertThat(isProbablePrime(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.valueOf(59))), is(true));
+      //2^128 + 1 = 59649589127497217 * 5704689200685129054721
+      assertThat(isProbablePrime(BigInteger.ONE.shiftLeft(128).add(BigInteger.ONE)), is(false));
+   }
+
+   @Test
+   public void selfridgeD_returns0_givenSquare() throws Exception
+   {
+      //a square has no D where (D/n) is -1
+      final BigInteger prime = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+      final BigInteger square = prime.multiply(prime);
+      assertThat(PrimeUtil.selfridgeD(toElements(square)), is(0));
+      final int d = PrimeUtil.selfridgeD(toElements(prime));
+      assertThat(PrimeUtil.jacobi(d, toElements(prime)), is(-1));
+   }
+
+   @Test
+   public void jacobi_matchesEulersCriterion() throws Exception
+   {
+      //for an odd prime p: (a/p) = a^((p-1)/2) (mod p)
+      final int[] primes = {3, 5, 7, 1009, 65537};
+      for (final int prime : primes)
+      {
+         final BigInteger bigPrime = BigInteger.valueOf(prime);
+         for (int value = 0; value < 50; ++value)
+         {
+            final BigInteger euler = BigInteger.valueOf(value).modPow(bigPrime.shiftRight(1), bigPrime);
+            final int expected = euler.equals(bigPrime.subtract(BigInteger.ONE)) ? -1 : euler.intValue();
+            assertThat(value + "/" + prime, PrimeUtil.jacobi(value, prime), is(expected));
+         }
+      }
+      //(-7/15) = (-1/15)(7/15) = (-1)(-1) = 1
+      assertThat(PrimeUtil.jacobi(-7, new int[]{15}), is(1));
+      //(-7/3) = (2/3) = -1
+      assertThat(PrimeUtil.jacobi(-7, new int[]{3}), is(-1));
+   }
+
+   @Test
+   public void millerRabinRounds() throws Exception
+   {
+      assertThat(PrimeUtil.millerRabinRounds(2048, 0), is(0));
+      assertThat(PrimeUtil.millerRabinRounds(2048, 100), is(2));
+      assertThat(PrimeUtil.millerRabinRounds(80, 100), is(50));
+      assertThat(PrimeUtil.millerRabinRounds(80, 7), is(4));
+   }
+
+   @Test
+   public void nextProbablePrime_matchesBigInteger() throws Exception
+   {
+      final Random random = new Random(15);
+      //0 to 2, the linear search, the first windows that are sieved and values above 2^64
+      final long[] starts = {0, 1, 2, 89, 65_520, 65_535, 65_536, 4_294_967_290L, 4_294_967_295L};
+      for (final long start : starts)
+      {
+         assertNext(BigInteger.valueOf(start));
+      }
+      final int[] bitLengths = {20, 40, 64, 65, 100, 256, 512};
+      for (final int bitLength : bitLengths)
+      {
+         for (int i = 0; i < 20; ++i)
+         {
+            assertNext(new BigInteger(bitLength, random));
+         }
+      }
+   }
+
+   @Test
+   public void previousProbablePrime_matchesBigInteger() throws Exception
+   {
+      final Random random = new Random(16);
+      //2 and 3 are the only primes in the linear search that are next to each other
+      final long[] starts = {3, 4, 5, 89, 65_536, 65_700, 66_000, 4_294_967_296L, 4_294_967_311L};
+      for (final long start : starts)
+      {
+         assertPrevious(BigInteger.valueOf(start));
+      }
+      final int[] bitLengths = {20, 40, 64, 65, 100, 256, 512};
+      for (final int bitLength : bitLengths)
+      {
+         for (int i = 0; i < 20; ++i)
+         {
+            assertPrevious(new BigInteger(bitLength, random).setBit(bitLength - 1));
+         }
+      }
+   }
+
+   @Test
+   public void previousProbablePrime_throws_givenNoSmallerPrime() throws Exception
+   {
+      try
+      {
+         PrimeUtil.previousProbablePrime(new int[]{2}, 1);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertEquals("There are no primes less than 2", actual.getMessage());
+      }
+   }
+
+   @Test
+   public void randomProbablePrime_hasExactBitLength() throws Exception
+   {
+      final Random random = new Random(17);
+      final int[] bitLengths = {2, 3, 17, 32, 33, 64, 96, 300};
+      for (final int bitLength : bitLengths)
+      {
+         for (int i = 0; i < 5; ++i)
+         {
+            final BigInteger actual = toBigInteger(PrimeUtil.randomProbablePrime(bitLength, random));
+            assertThat(actual.bitLength(), is(bitLength));
+            assertThat(actual.isProbablePrime(50), is(true));
+         }
+      }
+      try
+      {
+         PrimeUtil.randomProbablePrime(1, random);
+         fail("Didn't throw");
+      }
+      catch (final IllegalArgumentException actual)
+      {
+         assertEquals("bitLength must be at least 2. bitLength=1", actual.getMessage());
+      }
+   }
+
+   private static void assertNext(final BigInteger start)
+   {
+      final int[] elements = toElements(start);
+      final BigInteger actual = toBigInteger(PrimeUtil.nextProbablePrime(elements, elements.length));
+      assertThat(start.toString(), actual, is(start.nextProbablePrime()));
+   }
+
+   private static void assertPrevious(final BigInteger start)
+   {
+      BigInteger expected = start.subtract(BigInteger.ONE);
+      while (!expected.isProbablePrime(50))
+      {
+         expected = expected.subtract(BigInteger.ONE);
+      }
+      final int[] elements = toElements(start);
+      final BigInteger actual = toBigInteger(PrimeUtil.previousProbablePrime(elements, elements.length));
+      assertThat(start.toString(), actual, is(expected));
+   }
+
+   private static boolean isProbablePrime(final BigInteger value)
+   {
+      final int[] elements = toElements(value);
+      return PrimeUtil.isProbablePrime(elements, elements.length, 0, new Random(14));
+   }
+
+   private static int[] toElements(BigInteger value)
+   {
+      final int[] result = new int[(value.bitLength() + 31) / 32];
+      for (int i = 0; i < result.length; ++i)
+      {
+         result[i] = value.intValue();
+         value = value.shiftRight(32);
+      }
+      return result;
+   }
+
+   private static BigInteger toBigInteger(final int[] elements)
+   {
+      BigInteger result = BigInteger.ZERO;
+      for (int i = elements.length - 1; i >= 0; --i)
+      {
+         result = result.shiftLeft(32).or(BigInteger.valueOf(Integer.toUnsignedLong(elements[i])));
+      }
+      return result;
+   }
+}